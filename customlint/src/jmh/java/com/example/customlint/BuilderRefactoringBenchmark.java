@@ -0,0 +1,95 @@
+package com.example.customlint;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Throughput of {@link BuilderRefactoring}, in files per second, over a generated tree of
+ * {@link #FILE_COUNT} model classes with one flagged constructor each.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BuilderRefactoringBenchmark {
+    private static final int FILE_COUNT = 5000;
+    private static final int PARAMETER_COUNT = 6;
+
+    @Param({"1", "4", "8"})
+    public int threads;
+
+    private File root;
+    private List<SourceEdit> edits;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        root = File.createTempFile("builder-refactoring", "");
+        if (!root.delete() || !root.mkdirs()) {
+            throw new IOException("Cannot create " + root);
+        }
+        edits = SyntheticSources.writeModelTree(root, FILE_COUNT, PARAMETER_COUNT);
+    }
+
+    /** Restores the unrefactored sources before every {@link #apply()}. */
+    @Setup(Level.Invocation)
+    public void restoreSources() throws IOException {
+        SyntheticSources.writeModelTree(root, FILE_COUNT, PARAMETER_COUNT);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        delete(root);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FILE_COUNT)
+    public BuilderRefactoring.Result apply() throws IOException {
+        return BuilderRefactoring.apply(edits, threads, null);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FILE_COUNT)
+    public BuilderRefactoring.Result dryRun() throws IOException {
+        return BuilderRefactoring.apply(edits, threads, NullWriter.INSTANCE);
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    /** Discards the diff so that only producing it is measured. */
+    private static final class NullWriter extends Writer {
+        static final NullWriter INSTANCE = new NullWriter();
+
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
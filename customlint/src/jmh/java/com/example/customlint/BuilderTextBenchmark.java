@@ -0,0 +1,46 @@
+package com.example.customlint;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Microbenchmark of builder text generation alone, comparing {@link BuilderTemplate} with the
+ * StringBuilder-chain generator it replaced. Run with the GC profiler to compare
+ * allocations per generated builder.
+ */
+@State(Scope.Benchmark)
+public class BuilderTextBenchmark {
+    private static final String OBJECT_NAME = "GeneratedObject";
+
+    @Param({"1", "5", "10", "30"})
+    public int parameterCount;
+
+    private String[] parameterNames;
+    private String[] parameterTypes;
+    private BuilderTemplate template;
+
+    @Setup
+    public void setUp() {
+        parameterNames = SyntheticSources.parameterNames(parameterCount);
+        parameterTypes = SyntheticSources.parameterTypes(parameterCount);
+        template = BuilderTemplate.forIndent(BuilderTemplate.DEFAULT_INDENT);
+
+        if (!template.render(OBJECT_NAME, parameterNames, parameterTypes)
+            .equals(LegacyBuilderText.getBuilderPatternText(OBJECT_NAME, parameterNames, parameterTypes))) {
+            throw new IllegalStateException("Template output differs from the legacy generator");
+        }
+    }
+
+    @Benchmark
+    public String template() {
+        return template.render(OBJECT_NAME, parameterNames, parameterTypes);
+    }
+
+    @Benchmark
+    public String legacy() {
+        return LegacyBuilderText.getBuilderPatternText(OBJECT_NAME, parameterNames, parameterTypes);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.customlint;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Build time of a {@link CallSiteIndex} for a generated project of {@link #FILE_COUNT} files
+ * calling {@link #CONSTRUCTOR_COUNT} constructors. With the GC profiler, the normalized
+ * allocation rate ({@code gc.alloc.rate.norm}) is the memory the index takes for one run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CallSiteIndexBenchmark {
+    private static final int FILE_COUNT = 10000;
+    private static final int CONSTRUCTOR_COUNT = 20000;
+    private static final int ARGUMENT_COUNT = 6;
+
+    @Param({"10000", "100000", "1000000"})
+    public int callSiteCount;
+
+    private File[] files;
+    private long[] constructors;
+    private String[] typeTexts;
+    private String[][] arguments;
+
+    @Setup
+    public void setUp() {
+        files = new File[FILE_COUNT];
+        for (int i = 0; i < FILE_COUNT; i++) {
+            files[i] = new File(SyntheticSources.className(i) + ".java");
+        }
+
+        constructors = new long[CONSTRUCTOR_COUNT];
+        typeTexts = new String[CONSTRUCTOR_COUNT];
+        for (int i = 0; i < CONSTRUCTOR_COUNT; i++) {
+            typeTexts[i] = "Model" + i;
+            constructors[i] = ConstructorBaseline.hash(typeTexts[i], new String[0]);
+        }
+
+        // the detector allocates the argument arrays while visiting; the index only references them
+        arguments = new String[callSiteCount][];
+        final String[] names = SyntheticSources.parameterNames(ARGUMENT_COUNT);
+        for (int i = 0; i < callSiteCount; i++) {
+            arguments[i] = names.clone();
+        }
+    }
+
+    @Benchmark
+    public CallSiteIndex build() {
+        final CallSiteIndex index = new CallSiteIndex();
+        for (int i = 0; i < callSiteCount; i++) {
+            final int constructor = (int) ((i * 2654435761L) % CONSTRUCTOR_COUNT);
+            index.add(constructors[constructor], files[i % FILE_COUNT], i, i + 40, typeTexts[constructor], arguments[i]);
+        }
+        return index;
+    }
+}
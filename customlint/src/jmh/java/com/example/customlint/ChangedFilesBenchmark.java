@@ -0,0 +1,79 @@
+package com.example.customlint;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * A pull request build of a {@link #FILE_COUNT}-file git working tree with
+ * {@link #CHANGED_FILES} edited files: the full run against {@code --changed-since}, which
+ * includes computing the diff.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ChangedFilesBenchmark {
+    private static final int FILE_COUNT = 5000;
+    private static final int CHANGED_FILES = 5;
+    private static final int PARAMETER_COUNT = 4;
+    private static final String BASE_REF = "base";
+
+    private File root;
+    private List<File> modules;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InterruptedException {
+        root = File.createTempFile("changed-files", "");
+        if (!root.delete() || !root.mkdirs()) {
+            throw new IOException("Cannot create " + root);
+        }
+        modules = SyntheticSources.writeModules(root, 1, FILE_COUNT, PARAMETER_COUNT);
+        SyntheticSources.commitAll(root);
+        SyntheticSources.git(root, "tag", BASE_REF);
+
+        final File packageDir = new File(modules.get(0), "src/main/java/" + SyntheticSources.PACKAGE_NAME.replace('.', '/'));
+        for (int i = 0; i < CHANGED_FILES; i++) {
+            // spread over the tree, one more parameter each
+            final String className = SyntheticSources.className(i * (FILE_COUNT / CHANGED_FILES));
+            SyntheticSources.write(new File(packageDir, className + ".java"),
+                                   SyntheticSources.mixedJavaFile(className, PARAMETER_COUNT + 1));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        delete(root);
+    }
+
+    @Benchmark
+    public List<LintIncident> full() throws IOException {
+        return CustomLintRunner.merge(CustomLintRunner.analyze(modules, new CustomLintRunner.Options()));
+    }
+
+    @Benchmark
+    public List<LintIncident> changedOnly() throws IOException {
+        final ChangedLines changes = ChangedLines.compute(root, BASE_REF);
+        return CustomLintRunner.merge(CustomLintRunner.analyze(modules,
+                                                               new CustomLintRunner.Options().changes(changes)));
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.customlint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Builder fix generation for a class whose overloads are all over the limit: one builder per
+ * overload, as the detector used to render, against one merged builder shared by all of them.
+ * Run with the GC profiler to compare allocations per class.
+ */
+@State(Scope.Benchmark)
+public class ClassBuilderBenchmark {
+    private static final String OBJECT_NAME = "GeneratedObject";
+    private static final int MIN_PARAMETER_COUNT = 6;
+
+    @Param({"2", "8", "32"})
+    public int overloads;
+
+    private List<ConstructorModel> models;
+    private BuilderTemplate template;
+
+    @Setup
+    public void setUp() {
+        // overload i takes the first MIN_PARAMETER_COUNT + i parameters of one pool
+        models = new ArrayList<>(overloads);
+        final String[] names = SyntheticSources.parameterNames(MIN_PARAMETER_COUNT + overloads - 1);
+        final String[] types = SyntheticSources.parameterTypes(MIN_PARAMETER_COUNT + overloads - 1);
+        for (int i = 0; i < overloads; i++) {
+            models.add(new ConstructorModel(OBJECT_NAME,
+                                            Arrays.copyOf(names, MIN_PARAMETER_COUNT + i),
+                                            Arrays.copyOf(types, MIN_PARAMETER_COUNT + i)));
+        }
+        template = BuilderTemplate.forIndent(BuilderTemplate.DEFAULT_INDENT);
+    }
+
+    @Benchmark
+    public int perOverload() {
+        int length = 0;
+        for (ConstructorModel model : models) {
+            length += template.render(model).length();
+        }
+        return length;
+    }
+
+    @Benchmark
+    public int merged() {
+        return template.render(ConstructorModel.merge(models)).length();
+    }
+}
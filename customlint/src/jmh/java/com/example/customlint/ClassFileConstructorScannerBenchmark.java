@@ -0,0 +1,100 @@
+package com.example.customlint;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * The same {@link #FILE_COUNT}-file module checked from its sources by lint and from its
+ * compiled jar by {@link ClassFileConstructorScanner} on {@link #threads} workers; lint
+ * analyzes the module on one thread either way.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ClassFileConstructorScannerBenchmark {
+    private static final int FILE_COUNT = 2000;
+    private static final int PARAMETER_COUNT = 4;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    private File root;
+    private List<File> modules;
+    private File jar;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        root = File.createTempFile("class-files", "");
+        if (!root.delete() || !root.mkdirs()) {
+            throw new IOException("Cannot create " + root);
+        }
+        modules = SyntheticSources.writeModules(root, 1, FILE_COUNT, PARAMETER_COUNT);
+
+        final File packageDir = new File(modules.get(0), "src/main/java/" + SyntheticSources.PACKAGE_NAME.replace('.', '/'));
+        final List<File> sources = new ArrayList<>(FILE_COUNT);
+        for (int i = 0; i < FILE_COUNT; i++) {
+            sources.add(new File(packageDir, SyntheticSources.className(i) + ".java"));
+        }
+        final File classes = new File(root, "classes");
+        if (!classes.mkdirs()
+            || !SyntheticSources.compile(sources, classes, new DiagnosticCollector<JavaFileObject>())) {
+            throw new IOException("Cannot compile " + packageDir);
+        }
+
+        jar = new File(root, "classes.jar");
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(jar))) {
+            final File[] classFiles = new File(classes, SyntheticSources.PACKAGE_NAME.replace('.', '/')).listFiles();
+            for (File classFile : classFiles) {
+                out.putNextEntry(new ZipEntry(SyntheticSources.PACKAGE_NAME.replace('.', '/') + "/" + classFile.getName()));
+                out.write(Files.readAllBytes(classFile.toPath()));
+                out.closeEntry();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        delete(root);
+    }
+
+    @Benchmark
+    public List<LintIncident> sources() throws IOException {
+        return CustomLintRunner.merge(CustomLintRunner.analyze(modules, new CustomLintRunner.Options()));
+    }
+
+    @Benchmark
+    public List<FastConstructorScanner.Finding> classFiles() throws IOException {
+        return new ClassFileConstructorScanner(ParameterLimits.of(ParameterLimits.DEFAULT_LIMIT), threads)
+            .scan(Collections.singletonList(jar));
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.customlint;
+
+import java.io.File;
+import java.io.IOException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Load time and lookup cost of a generated {@link #ENTRY_COUNT}-entry {@link ConstructorBaseline}.
+ */
+@State(Scope.Benchmark)
+public class ConstructorBaselineBenchmark {
+    private static final int ENTRY_COUNT = 100000;
+    private static final int LOOKUP_COUNT = 1024;
+
+    private File file;
+    private ConstructorBaseline baseline;
+    private long[] lookups;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        final ConstructorBaseline recorded = ConstructorBaseline.create();
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            recorded.add(hash(i));
+        }
+        file = File.createTempFile("constructor-baseline", ".bin");
+        recorded.write(file);
+        baseline = ConstructorBaseline.load(file);
+
+        // half known incidents, half new ones
+        lookups = new long[LOOKUP_COUNT];
+        for (int i = 0; i < LOOKUP_COUNT; i++) {
+            lookups[i] = hash(i % 2 == 0 ? i * 97 : ENTRY_COUNT + i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public ConstructorBaseline load() throws IOException {
+        return ConstructorBaseline.load(file);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUP_COUNT)
+    public int lookup() {
+        int matches = 0;
+        for (long hash : lookups) {
+            if (baseline.contains(hash)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    private static long hash(final int index) {
+        return ConstructorBaseline.hash("com.example.Generated" + index, SyntheticSources.parameterTypes(3 + index % 20));
+    }
+}
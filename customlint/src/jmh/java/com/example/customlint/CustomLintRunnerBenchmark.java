@@ -0,0 +1,68 @@
+package com.example.customlint;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * {@link CustomLintRunner} over a generated {@link #MODULE_COUNT}-module fixture, with one lint
+ * client per module or a single client analyzing all of them together.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CustomLintRunnerBenchmark {
+    private static final int MODULE_COUNT = 20;
+    private static final int FILES_PER_MODULE = 50;
+    private static final int PARAMETER_COUNT = 4;
+
+    @Param({"false", "true"})
+    public boolean together;
+
+    private File root;
+    private List<File> modules;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        root = File.createTempFile("custom-lint-runner", "");
+        if (!root.delete() || !root.mkdirs()) {
+            throw new IOException("Cannot create " + root);
+        }
+        modules = SyntheticSources.writeModules(root, MODULE_COUNT, FILES_PER_MODULE, PARAMETER_COUNT);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        delete(root);
+    }
+
+    @Benchmark
+    public List<LintIncident> run() throws IOException {
+        final CustomLintRunner.Options options = new CustomLintRunner.Options();
+        if (together) {
+            return CustomLintRunner.analyzeTogether(modules, options).incidents;
+        }
+        return CustomLintRunner.merge(CustomLintRunner.analyze(modules, options));
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.customlint;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Latency of {@link FastConstructorScanner}: {@link #scanFile()} per {@link SyntheticSources#mixedJavaFile
+ * mixed} source file once warmed up, and {@link #startup()} the first scan in a fresh JVM, class
+ * loading and limit configuration included, which is what a pre-commit hook pays on every run.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FastConstructorScannerBenchmark {
+    private static final String CLASS_NAME = "Scanned";
+
+    @Param({"4", "32"})
+    public int parameterCount;
+
+    private File file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = File.createTempFile(CLASS_NAME, ".java");
+        SyntheticSources.write(file, SyntheticSources.mixedJavaFile(CLASS_NAME, parameterCount));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public List<FastConstructorScanner.Finding> scanFile() throws IOException {
+        return new FastConstructorScanner(ParameterLimits.of(ParameterLimits.DEFAULT_LIMIT)).scan(file);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Fork(10)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    public List<FastConstructorScanner.Finding> startup() throws IOException {
+        return new FastConstructorScanner(ParameterLimits.fromEnvironment()).scan(file);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.customlint;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Time saved by {@link GeneratedSourceFilter} on a fixture where {@link #GENERATED_FILES} of
+ * every {@link #HANDWRITTEN_FILES} + {@link #GENERATED_FILES} sources are annotation
+ * processor output. Both variants hold the same classes; only with {@code annotated} do the
+ * generated ones carry {@code @Generated} and get skipped, so the difference between the two
+ * scores is the inspection and fix generation the filter saves.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GeneratedSourcesBenchmark {
+    private static final int MODULE_COUNT = 10;
+    private static final int HANDWRITTEN_FILES = 30;
+    private static final int GENERATED_FILES = 20;
+    private static final int PARAMETER_COUNT = 4;
+    private static final int GENERATED_PARAMETER_COUNT = 12;
+
+    @Param({"true", "false"})
+    public boolean annotated;
+
+    private File root;
+    private List<File> modules;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        root = File.createTempFile("generated-sources", "");
+        if (!root.delete() || !root.mkdirs()) {
+            throw new IOException("Cannot create " + root);
+        }
+        modules = SyntheticSources.writeModules(root, MODULE_COUNT, HANDWRITTEN_FILES, PARAMETER_COUNT);
+        for (File module : modules) {
+            SyntheticSources.writeGeneratedSources(module, GENERATED_FILES, GENERATED_PARAMETER_COUNT, annotated);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        delete(root);
+    }
+
+    @Benchmark
+    public List<LintIncident> run() throws IOException {
+        return CustomLintRunner.merge(CustomLintRunner.analyze(modules, new CustomLintRunner.Options()));
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.customlint;
+
+import com.android.tools.lint.detector.api.Category;
+import com.android.tools.lint.detector.api.Detector;
+import com.android.tools.lint.detector.api.Implementation;
+import com.android.tools.lint.detector.api.Issue;
+import com.android.tools.lint.detector.api.Severity;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cold start of issue registration, each measurement in a fresh JVM. {@link #registry()} lists
+ * the {@link CustomIssueRegistry} issues; {@link #issues(Issues)} registers 1 or 50 issues of the
+ * same shape, showing what every further rule adds to lint startup; {@link #detector()}
+ * initializes {@link JavaConstructorDetector}, which registering its issues used to pay up front
+ * and which now only happens when lint enables one of them.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(20)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+public class IssueRegistryBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Issues {
+        @Param({"1", "50"})
+        public int issueCount;
+    }
+
+    @Benchmark
+    public List<Issue> registry() {
+        return new CustomIssueRegistry().getIssues();
+    }
+
+    @Benchmark
+    public List<Issue> issues(final Issues state) {
+        final Implementation implementation = new Implementation(JavaConstructorDetector.class,
+                                                                 com.android.tools.lint.detector.api.Scope.JAVA_FILE_SCOPE);
+        final List<Issue> issues = new ArrayList<>(state.issueCount);
+        for (int i = 0; i < state.issueCount; i++) {
+            issues.add(Issue.create("SyntheticIssue" + i,
+                                    "Synthetic issue " + i + ".",
+                                    "Registered by the benchmark only.",
+                                    Category.CORRECTNESS,
+                                    5,
+                                    Severity.WARNING,
+                                    implementation));
+        }
+        return issues;
+    }
+
+    @Benchmark
+    public Detector detector() {
+        return new JavaConstructorDetector();
+    }
+}
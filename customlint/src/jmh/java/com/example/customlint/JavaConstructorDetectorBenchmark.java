@@ -0,0 +1,63 @@
+package com.example.customlint;
+
+import com.android.tools.lint.checks.infrastructure.TestFile;
+import com.android.tools.lint.checks.infrastructure.TestLintResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import static com.android.tools.lint.checks.infrastructure.TestFiles.java;
+import static com.android.tools.lint.checks.infrastructure.TestLintTask.lint;
+
+/**
+ * End-to-end benchmark running {@link JavaConstructorDetector} through the lint test
+ * infrastructure over a generated corpus of {@link #CLASS_COUNT} classes.
+ *
+ * <p>{@link #detector()} checks the parameter count rule alone and {@link #allRules()} every
+ * constructor rule; both share one UAST traversal and the per-class {@link ConstructorIndex},
+ * so the difference is the marginal cost of the additional rules.
+ */
+@State(Scope.Benchmark)
+public class JavaConstructorDetectorBenchmark {
+    private static final int CLASS_COUNT = 20;
+
+    @Param({"1", "10", "50"})
+    public int constructorCount;
+
+    @Param({"0", "5", "30"})
+    public int parameterCount;
+
+    private TestFile[] files;
+
+    @Setup
+    public void setUp() {
+        files = new TestFile[CLASS_COUNT];
+        for (int i = 0; i < CLASS_COUNT; i++) {
+            files[i] = java(SyntheticSources.javaClass(SyntheticSources.className(i), constructorCount, parameterCount));
+        }
+    }
+
+    @Benchmark
+    public TestLintResult detector() {
+        return lint()
+            .files(files)
+            .issues(JavaConstructorDetector.TOO_MANY_PARAMETERS_ISSUE)
+            .allowMissingSdk(true)
+            .allowCompilationErrors(true)
+            .run();
+    }
+
+    @Benchmark
+    public TestLintResult allRules() {
+        return lint()
+            .files(files)
+            .issues(JavaConstructorDetector.TOO_MANY_PARAMETERS_ISSUE,
+                    JavaConstructorDetector.BOOLEAN_PARAMETERS_ISSUE,
+                    JavaConstructorDetector.TELESCOPING_ISSUE)
+            .allowMissingSdk(true)
+            .allowCompilationErrors(true)
+            .run();
+    }
+}
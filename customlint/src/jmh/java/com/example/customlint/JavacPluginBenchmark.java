@@ -0,0 +1,87 @@
+package com.example.customlint;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * A build of a {@link #FILE_COUNT}-file module that compiles it anyway: compiling alone, with
+ * the {@link ConstructorCheckPlugin javac plugin}, and followed by a lint pass checking the
+ * same rule, which has to parse and attribute the sources a second time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JavacPluginBenchmark {
+    private static final int FILE_COUNT = 500;
+    private static final int PARAMETER_COUNT = 4;
+
+    private File root;
+    private File module;
+    private File classes;
+    private List<File> files;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        root = File.createTempFile("javac-plugin", "");
+        if (!root.delete() || !root.mkdirs()) {
+            throw new IOException("Cannot create " + root);
+        }
+        module = SyntheticSources.writeModules(root, 1, FILE_COUNT, PARAMETER_COUNT).get(0);
+        classes = new File(root, "classes");
+        if (!classes.mkdirs()) {
+            throw new IOException("Cannot create " + classes);
+        }
+
+        final File packageDir = new File(module, "src/main/java/" + SyntheticSources.PACKAGE_NAME.replace('.', '/'));
+        files = new ArrayList<>(FILE_COUNT);
+        for (int i = 0; i < FILE_COUNT; i++) {
+            files.add(new File(packageDir, SyntheticSources.className(i) + ".java"));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        delete(root);
+    }
+
+    @Benchmark
+    public boolean compile() throws Exception {
+        return ConstructorCheckPluginTest.compile(files, classes, null, new DiagnosticCollector<JavaFileObject>());
+    }
+
+    @Benchmark
+    public boolean compileWithPlugin() throws Exception {
+        return ConstructorCheckPluginTest.compile(files, classes, ConstructorCheckPlugin.NAME,
+                                                  new DiagnosticCollector<JavaFileObject>());
+    }
+
+    @Benchmark
+    public List<LintIncident> compileThenLint() throws Exception {
+        ConstructorCheckPluginTest.compile(files, classes, null, new DiagnosticCollector<JavaFileObject>());
+        return CustomLintRunner.analyze(module, new CustomLintRunner.Options()).incidents;
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,288 @@
+package com.example.customlint;
+
+/**
+ * Copy of the StringBuilder-chain builder generator that {@link BuilderTemplate} replaced,
+ * kept as the baseline for {@link BuilderTextBenchmark}.
+ */
+final class LegacyBuilderText {
+    private static final String PUBLIC = "public";
+    private static final String PRIVATE = "private";
+    private static final String STATIC = "static";
+    private static final String BUILD = "build";
+    private static final String BUILDER = "Builder";
+    private static final String NEW = "new";
+    private static final String CLASS = "class";
+    private static final String SPACE = " ";
+    private static final String LEFT_PRENTHESIS = "(";
+    private static final String RIGHT_PRENTHESIS = ")";
+    private static final String LEFT_CURLY_BRACKET = "{";
+    private static final String RIGHT_CURLY_BRACKET = "}";
+    private static final String NEW_LINE = "\n";
+    private static final String THIS = "this";
+    private static final String DOT = ".";
+    private static final String EQUALS = "=";
+    private static final String TAB = "\t";
+    private static final String SEMICOLON = ";";
+    private static final String RETURN = "return";
+
+    private LegacyBuilderText() {
+    }
+
+    static String getBuilderPatternText(final String objectName, final String[] names, final String[] types) {
+        final StringBuilder stringBuilder = new StringBuilder();
+
+        stringBuilder.append(getBuilderConstructorText(objectName, names));
+
+        stringBuilder.append(getStaticFactoryText(objectName, names, types));
+
+        return stringBuilder.toString();
+    }
+
+    private static String getStaticFactoryText(final String objectName, final String[] names, final String[] types) {
+        final StringBuilder stringBuilder = new StringBuilder();
+        //    public static class Builder {
+        //        private type fieldName;
+        //        ...
+        //
+        //        public Builder() {
+        //        }
+
+        //        public Builder fieldName(type fieldName) {
+        //            this.fieldName = fieldName;
+        //            return this;
+        //        }
+        //        ...
+
+        //        public ObjectName build() {
+        //            return new ObjectName(this);
+        //        }
+        //    }
+
+        //    public static class Builder {
+        stringBuilder.append(TAB);
+        stringBuilder.append(PUBLIC);
+        stringBuilder.append(SPACE);
+        stringBuilder.append(STATIC);
+        stringBuilder.append(SPACE);
+        stringBuilder.append(CLASS);
+        stringBuilder.append(SPACE);
+        stringBuilder.append(BUILDER);
+        stringBuilder.append(SPACE);
+        stringBuilder.append(LEFT_CURLY_BRACKET);
+        stringBuilder.append(NEW_LINE);
+
+        stringBuilder.append(getStaticFactoryFieldsText(names, types));
+
+        stringBuilder.append(getStaticFactoryBuilderText());
+
+        stringBuilder.append(getStaticFactorySettersText(names, types));
+
+        stringBuilder.append(getStaticFactoryBuildMethodText(objectName));
+
+        //    }
+        stringBuilder.append(TAB);
+        stringBuilder.append(RIGHT_CURLY_BRACKET);
+        stringBuilder.append(NEW_LINE);
+
+        return stringBuilder.toString();
+    }
+
+    private static String getStaticFactoryBuilderText() {
+        final StringBuilder stringBuilder = new StringBuilder();
+
+        //        public Builder() {
+        stringBuilder.append(TAB);
+        stringBuilder.append(TAB);
+        stringBuilder.append(PUBLIC);
+        stringBuilder.append(SPACE);
+        stringBuilder.append(BUILDER);
+        stringBuilder.append(LEFT_PRENTHESIS);
+        stringBuilder.append(RIGHT_PRENTHESIS);
+        stringBuilder.append(SPACE);
+        stringBuilder.append(LEFT_CURLY_BRACKET);
+        stringBuilder.append(NEW_LINE);
+
+        //        }
+        stringBuilder.append(TAB);
+        stringBuilder.append(TAB);
+        stringBuilder.append(RIGHT_CURLY_BRACKET);
+        stringBuilder.append(NEW_LINE);
+
+        stringBuilder.append(NEW_LINE);
+
+        return stringBuilder.toString();
+    }
+
+    private static String getStaticFactoryBuildMethodText(final String objectName) {
+        final StringBuilder stringBuilder = new StringBuilder();
+
+        //        public ObjectName build() {
+        stringBuilder.append(TAB);
+        stringBuilder.append(TAB);
+        stringBuilder.append(PUBLIC);
+        stringBuilder.append(SPACE);
+        stringBuilder.append(objectName);
+        stringBuilder.append(SPACE);
+        stringBuilder.append(BUILD);
+        stringBuilder.append(LEFT_PRENTHESIS);
+        stringBuilder.append(RIGHT_PRENTHESIS);
+        stringBuilder.append(SPACE);
+        stringBuilder.append(LEFT_CURLY_BRACKET);
+        stringBuilder.append(NEW_LINE);
+
+        //            return new ObjectName(this);
+        stringBuilder.append(TAB);
+        stringBuilder.append(TAB);
+        stringBuilder.append(TAB);
+        stringBuilder.append(RETURN);
+        stringBuilder.append(SPACE);
+        stringBuilder.append(NEW);
+        stringBuilder.append(SPACE);
+        stringBuilder.append(objectName);
+        stringBuilder.append(LEFT_PRENTHESIS);
+        stringBuilder.append(THIS);
+        stringBuilder.append(RIGHT_PRENTHESIS);
+        stringBuilder.append(SEMICOLON);
+        stringBuilder.append(NEW_LINE);
+
+        //        }
+        stringBuilder.append(TAB);
+        stringBuilder.append(TAB);
+        stringBuilder.append(RIGHT_CURLY_BRACKET);
+        stringBuilder.append(NEW_LINE);
+
+        stringBuilder.append(NEW_LINE);
+
+        return stringBuilder.toString();
+    }
+
+    private static String getStaticFactorySettersText(final String[] names, final String[] types) {
+        final StringBuilder stringBuilder = new StringBuilder();
+
+        for (int i = 0; i < names.length; i++) {
+            final String parameterName = names[i];
+            final String parameterType = types[i];
+
+            //        public Builder fieldName(type fieldName) {
+            stringBuilder.append(TAB);
+            stringBuilder.append(TAB);
+            stringBuilder.append(PUBLIC);
+            stringBuilder.append(SPACE);
+            stringBuilder.append(BUILDER);
+            stringBuilder.append(SPACE);
+            stringBuilder.append(parameterName);
+            stringBuilder.append(LEFT_PRENTHESIS);
+            stringBuilder.append(parameterType);
+            stringBuilder.append(SPACE);
+            stringBuilder.append(parameterName);
+            stringBuilder.append(RIGHT_PRENTHESIS);
+            stringBuilder.append(SPACE);
+            stringBuilder.append(LEFT_CURLY_BRACKET);
+            stringBuilder.append(NEW_LINE);
+
+            //            this.fieldName = fieldName;
+            stringBuilder.append(TAB);
+            stringBuilder.append(TAB);
+            stringBuilder.append(TAB);
+            stringBuilder.append(THIS);
+            stringBuilder.append(DOT);
+            stringBuilder.append(parameterName);
+            stringBuilder.append(SPACE);
+            stringBuilder.append(EQUALS);
+            stringBuilder.append(SPACE);
+            stringBuilder.append(parameterName);
+            stringBuilder.append(SEMICOLON);
+            stringBuilder.append(NEW_LINE);
+
+            //            return this;
+            stringBuilder.append(TAB);
+            stringBuilder.append(TAB);
+            stringBuilder.append(TAB);
+            stringBuilder.append(RETURN);
+            stringBuilder.append(SPACE);
+            stringBuilder.append(THIS);
+            stringBuilder.append(SEMICOLON);
+            stringBuilder.append(NEW_LINE);
+
+            //        }
+            stringBuilder.append(TAB);
+            stringBuilder.append(TAB);
+            stringBuilder.append(RIGHT_CURLY_BRACKET);
+            stringBuilder.append(NEW_LINE);
+            stringBuilder.append(NEW_LINE);
+        }
+
+        return stringBuilder.toString();
+    }
+
+    private static String getStaticFactoryFieldsText(final String[] names, final String[] types) {
+        final StringBuilder stringBuilder = new StringBuilder();
+
+        for (int i = 0; i < names.length; i++) {
+            final String parameterName = names[i];
+            final String parameterType = types[i];
+
+            //        private type servingSize;
+            stringBuilder.append(TAB);
+            stringBuilder.append(TAB);
+            stringBuilder.append(PRIVATE);
+            stringBuilder.append(SPACE);
+            stringBuilder.append(parameterType);
+            stringBuilder.append(SPACE);
+            stringBuilder.append(parameterName);
+            stringBuilder.append(SEMICOLON);
+            stringBuilder.append(NEW_LINE);
+        }
+        stringBuilder.append(NEW_LINE);
+
+        return stringBuilder.toString();
+    }
+
+    private static String getBuilderConstructorText(final String objectName, final String[] names) {
+
+        //    private NutritionFacts(Builder builder) {
+        //        fieldName  = builder.fieldName;
+        //        ...
+        //    }
+
+        final StringBuilder stringBuilder = new StringBuilder();
+
+        //    private ObjectName(Builder builder) {
+        stringBuilder.append(PRIVATE);
+        stringBuilder.append(SPACE);
+        stringBuilder.append(objectName);
+        stringBuilder.append(LEFT_PRENTHESIS);
+        stringBuilder.append(BUILDER);
+        stringBuilder.append(SPACE);
+        stringBuilder.append(BUILDER.toLowerCase());
+        stringBuilder.append(RIGHT_PRENTHESIS);
+        stringBuilder.append(SPACE);
+        stringBuilder.append(LEFT_CURLY_BRACKET);
+        stringBuilder.append(NEW_LINE);
+
+        for (String parameterName : names) {
+            //        this.fieldName = builder.fieldName;
+            stringBuilder.append(TAB);
+            stringBuilder.append(TAB);
+            stringBuilder.append(THIS);
+            stringBuilder.append(DOT);
+            stringBuilder.append(parameterName);
+            stringBuilder.append(SPACE);
+            stringBuilder.append(EQUALS);
+            stringBuilder.append(SPACE);
+            stringBuilder.append(BUILDER.toLowerCase());
+            stringBuilder.append(DOT);
+            stringBuilder.append(parameterName);
+            stringBuilder.append(SEMICOLON);
+            stringBuilder.append(NEW_LINE);
+        }
+
+        //    }
+        stringBuilder.append(TAB);
+        stringBuilder.append(RIGHT_CURLY_BRACKET);
+        stringBuilder.append(NEW_LINE);
+        stringBuilder.append(NEW_LINE);
+
+        return stringBuilder.toString();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.customlint;
+
+import java.io.IOException;
+import java.io.StringReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Per-class limit lookup through {@link ParameterLimits} against reading a single constant
+ * limit, as the detector did before per-package limits.
+ */
+@State(Scope.Benchmark)
+public class ParameterLimitsBenchmark {
+    private static final int CLASS_COUNT = 1024;
+
+    @Param({"10", "1000"})
+    public int ruleCount;
+
+    private int constantLimit;
+    private ParameterLimits limits;
+    private String[] qualifiedNames;
+
+    @Setup
+    public void setUp() throws IOException {
+        final StringBuilder rules = new StringBuilder();
+        for (int i = 0; i < ruleCount; i++) {
+            rules.append("com.example.feature").append(i).append(".** = ").append(3 + i % 5).append('\n');
+            rules.append("com.example.feature").append(i).append(".model.* = 10\n");
+        }
+        limits = ParameterLimits.parse(new StringReader(rules.toString()), 2);
+        constantLimit = 2;
+
+        qualifiedNames = new String[CLASS_COUNT];
+        for (int i = 0; i < CLASS_COUNT; i++) {
+            qualifiedNames[i] = "com.example.feature" + (i % (ruleCount * 2)) + ".model.internal.Class" + i;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CLASS_COUNT)
+    public int constant() {
+        int sum = 0;
+        for (int i = 0; i < CLASS_COUNT; i++) {
+            sum += constantLimit;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CLASS_COUNT)
+    public int trie() {
+        int sum = 0;
+        for (String qualifiedName : qualifiedNames) {
+            sum += limits.getLimit(qualifiedName);
+        }
+        return sum;
+    }
+}
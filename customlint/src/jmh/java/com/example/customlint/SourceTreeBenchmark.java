@@ -0,0 +1,47 @@
+package com.example.customlint;
+
+import com.android.tools.lint.checks.infrastructure.TestFile;
+import com.android.tools.lint.checks.infrastructure.TestLintResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import static com.android.tools.lint.checks.infrastructure.TestFiles.java;
+import static com.android.tools.lint.checks.infrastructure.TestLintTask.lint;
+
+/**
+ * Detector time per file over a synthetic source tree where most declarations (interfaces,
+ * enums, annotation types, anonymous classes, plain methods) cannot violate the limit. Compare
+ * results across revisions to see the effect of changes to the detector's early exits.
+ */
+@State(Scope.Benchmark)
+public class SourceTreeBenchmark {
+    private static final int FILE_COUNT = 200;
+
+    @Param({"0", "2", "8"})
+    public int parameterCount;
+
+    private TestFile[] files;
+
+    @Setup
+    public void setUp() {
+        files = new TestFile[FILE_COUNT];
+        for (int i = 0; i < FILE_COUNT; i++) {
+            files[i] = java(SyntheticSources.mixedJavaFile(SyntheticSources.className(i), parameterCount));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FILE_COUNT)
+    public TestLintResult perFile() {
+        return lint()
+            .files(files)
+            .issues(JavaConstructorDetector.TOO_MANY_PARAMETERS_ISSUE)
+            .allowMissingSdk(true)
+            .allowCompilationErrors(true)
+            .run();
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.customlint;
+
+import com.android.annotations.NonNull;
+import com.android.annotations.Nullable;
+import java.util.Locale;
+
+/**
+ * Controls when {@link JavaConstructorDetector} synthesizes the builder pattern quick fix.
+ */
+public enum BuilderFixMode {
+    /** Builder text is generated for every offending constructor before reporting. */
+    EAGER,
+
+    /**
+     * Builder text is generated only once lint has confirmed the incident will be reported,
+     * i.e. the issue is enabled and not suppressed for the constructor.
+     */
+    LAZY,
+
+    /** No fix is attached at all; meant for batch runs (CI) which never apply fixes. */
+    NONE;
+
+    /**
+     * Parses a mode name case-insensitively, falling back to {@code defaultMode} for
+     * missing or unknown values.
+     */
+    @NonNull
+    public static BuilderFixMode parse(@Nullable final String value, @NonNull final BuilderFixMode defaultMode) {
+        if (value == null) {
+            return defaultMode;
+        }
+
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.US));
+        } catch (IllegalArgumentException e) {
+            // pass: unknown mode, use default
+            return defaultMode;
+        }
+    }
+}
@@ -0,0 +1,461 @@
+package com.example.customlint;
+
+import com.android.annotations.NonNull;
+import com.android.annotations.Nullable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Applies the builder fixes of a whole lint run in one batch instead of one IDE quick fix at
+ * a time.
+ *
+ * <p>Edits are grouped by file and files are rewritten on a bounded worker pool. Each file is
+ * read once, its edits are applied in a single forward pass, and the result replaces the file
+ * atomically through a temporary sibling. A dry run writes a unified diff (no context lines,
+ * so {@code git apply --unidiff-zero} accepts it) instead of touching any file.
+ *
+ * <p>Identical edits are applied once: incidents of a class with several overloaded
+ * constructors share one builder fix. The edits of a fix, such as a constructor and the call
+ * sites it migrates, are applied together or not at all: when one of them no longer matches
+ * the file or overlaps an edit of another fix, the whole fix is skipped, in every file, so that
+ * a half-applied builder never breaks the build. Fixes sharing an edit are skipped together.
+ */
+public final class BuilderRefactoring {
+    private BuilderRefactoring() {
+    }
+
+    /**
+     * Applies {@code edits} with at most {@code threads} workers, or writes them to
+     * {@code diff} without modifying any file when a diff writer is given.
+     */
+    @NonNull
+    public static Result apply(@NonNull final List<SourceEdit> edits,
+                               final int threads,
+                               @Nullable final Writer diff) throws IOException {
+        final long start = System.nanoTime();
+
+        // Distinct edits, joined with the other edits of their fix: fixes[i] leads to the
+        // first edit of the fixes edit i belongs to
+        final Map<SourceEdit, Integer> ids = new HashMap<>(edits.size() * 2);
+        final List<SourceEdit> distinct = new ArrayList<>(edits.size());
+        final int[] fixes = new int[edits.size()];
+        final Map<Object, Integer> firstEdits = new IdentityHashMap<>();
+        final Map<String, List<Integer>> idsByPath = new TreeMap<>();
+        for (SourceEdit edit : edits) {
+            Integer id = ids.get(edit);
+            if (id == null) {
+                id = distinct.size();
+                ids.put(edit, id);
+                distinct.add(edit);
+                fixes[id] = id;
+                List<Integer> fileIds = idsByPath.get(edit.getPath());
+                if (fileIds == null) {
+                    fileIds = new ArrayList<>();
+                    idsByPath.put(edit.getPath(), fileIds);
+                }
+                fileIds.add(id);
+            }
+            if (edit.getFix() != null) {
+                final Integer first = firstEdits.get(edit.getFix());
+                if (first == null) {
+                    firstEdits.put(edit.getFix(), id);
+                } else {
+                    fixes[find(fixes, id)] = find(fixes, first);
+                }
+            }
+        }
+        if (idsByPath.isEmpty()) {
+            return new Result(0, 0, 0, 0, 0, System.nanoTime() - start);
+        }
+
+        final boolean dryRun = diff != null;
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, idsByPath.size()));
+        try {
+            final List<Future<FilePlan>> planFutures = new ArrayList<>(idsByPath.size());
+            for (final Map.Entry<String, List<Integer>> entry : idsByPath.entrySet()) {
+                planFutures.add(executor.submit(new Callable<FilePlan>() {
+                    @Override
+                    public FilePlan call() throws Exception {
+                        return FilePlan.locate(new File(entry.getKey()), entry.getValue(), distinct);
+                    }
+                }));
+            }
+            final List<FilePlan> plans = new ArrayList<>(planFutures.size());
+            for (Future<FilePlan> future : planFutures) {
+                plans.add(future.get());
+            }
+
+            // Skipping a fix can only remove overlaps, so this settles after a few passes
+            final boolean[] rejected = new boolean[distinct.size()];
+            int skippedFixes = 0;
+            boolean changed = true;
+            while (changed) {
+                changed = false;
+                for (FilePlan plan : plans) {
+                    for (int id : plan.select(fixes, rejected)) {
+                        final int fix = find(fixes, id);
+                        if (!rejected[fix]) {
+                            rejected[fix] = true;
+                            skippedFixes++;
+                            changed = true;
+                        }
+                    }
+                }
+            }
+
+            final List<Future<FileResult>> futures = new ArrayList<>(plans.size());
+            for (final FilePlan plan : plans) {
+                futures.add(executor.submit(new Callable<FileResult>() {
+                    @Override
+                    public FileResult call() throws Exception {
+                        return rewrite(plan, distinct, dryRun);
+                    }
+                }));
+            }
+
+            int changedFiles = 0;
+            int appliedEdits = 0;
+            for (Future<FileResult> future : futures) {
+                // in path order, so the diff does not depend on scheduling
+                final FileResult result = future.get();
+                if (result.applied > 0) {
+                    changedFiles++;
+                }
+                appliedEdits += result.applied;
+                if (dryRun && result.diff != null) {
+                    diff.write(result.diff);
+                }
+            }
+            if (dryRun) {
+                diff.flush();
+            }
+
+            return new Result(idsByPath.size(), changedFiles, appliedEdits, distinct.size() - appliedEdits,
+                              skippedFixes, System.nanoTime() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw new IOException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /** Representative edit of the fixes edit {@code id} belongs to, compressing the path on the way. */
+    private static int find(@NonNull final int[] fixes, final int id) {
+        int root = id;
+        while (fixes[root] != root) {
+            root = fixes[root];
+        }
+        for (int i = id; fixes[i] != root; ) {
+            final int next = fixes[i];
+            fixes[i] = root;
+            i = next;
+        }
+        return root;
+    }
+
+    @NonNull
+    private static FileResult rewrite(@NonNull final FilePlan plan,
+                                      @NonNull final List<SourceEdit> edits,
+                                      final boolean dryRun) throws IOException {
+        final int appliedCount = plan.appliedCount;
+        if (appliedCount == 0) {
+            return new FileResult(0, null);
+        }
+
+        final int[] applied = plan.applied;
+        final String content = plan.content;
+        if (dryRun) {
+            return new FileResult(appliedCount, diff(plan.file, content, edits, applied, appliedCount));
+        }
+
+        int capacity = content.length();
+        for (int i = 0; i < appliedCount; i++) {
+            capacity += edits.get(applied[i * 3 + 2]).getNewText().length() - (applied[i * 3 + 1] - applied[i * 3]);
+        }
+        final StringBuilder out = new StringBuilder(capacity);
+        int copied = 0;
+        for (int i = 0; i < appliedCount; i++) {
+            out.append(content, copied, applied[i * 3]).append(edits.get(applied[i * 3 + 2]).getNewText());
+            copied = applied[i * 3 + 1];
+        }
+        out.append(content, copied, content.length());
+        write(plan.file, out.toString());
+
+        return new FileResult(appliedCount, null);
+    }
+
+    /**
+     * Unified diff of the applied edits. Every edit is widened to whole lines; edits sharing a
+     * line end up in the same hunk.
+     */
+    @NonNull
+    private static String diff(@NonNull final File file,
+                               @NonNull final String content,
+                               @NonNull final List<SourceEdit> edits,
+                               @NonNull final int[] applied,
+                               final int appliedCount) {
+        final String path = file.getPath().replace(File.separatorChar, '/');
+        final StringBuilder diff = new StringBuilder();
+        diff.append("--- a/").append(path).append('\n');
+        diff.append("+++ b/").append(path).append('\n');
+
+        int line = 1;
+        int lineOffset = 0;
+        int lineDelta = 0;
+        int i = 0;
+        while (i < appliedCount) {
+            final int hunkStart = content.lastIndexOf('\n', applied[i * 3] - 1) + 1;
+            final StringBuilder newText = new StringBuilder();
+            newText.append(content, hunkStart, applied[i * 3]);
+            int hunkEnd;
+            while (true) {
+                newText.append(edits.get(applied[i * 3 + 2]).getNewText());
+                final int editEnd = applied[i * 3 + 1];
+                hunkEnd = endOfLine(content, editEnd);
+                i++;
+                if (i < appliedCount && applied[i * 3] < hunkEnd) {
+                    newText.append(content, editEnd, applied[i * 3]);
+                } else {
+                    newText.append(content, editEnd, hunkEnd);
+                    break;
+                }
+            }
+
+            line += count(content, lineOffset, hunkStart);
+            lineOffset = hunkStart;
+            final String oldText = content.substring(hunkStart, hunkEnd);
+            final int oldLines = countLines(oldText);
+            final int newLines = countLines(newText);
+
+            diff.append("@@ -").append(line).append(',').append(oldLines)
+                .append(" +").append(line + lineDelta).append(',').append(newLines).append(" @@\n");
+            appendLines(diff, '-', oldText);
+            appendLines(diff, '+', newText);
+            lineDelta += newLines - oldLines;
+        }
+        return diff.toString();
+    }
+
+    /** Offset just after the line break ending the line that contains {@code offset - 1}. */
+    private static int endOfLine(@NonNull final String content, final int offset) {
+        if (offset > 0 && content.charAt(offset - 1) == '\n') {
+            return offset;
+        }
+        final int lineBreak = content.indexOf('\n', offset);
+        return lineBreak < 0 ? content.length() : lineBreak + 1;
+    }
+
+    private static int count(@NonNull final CharSequence text, final int start, final int end) {
+        int lines = 0;
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) == '\n') {
+                lines++;
+            }
+        }
+        return lines;
+    }
+
+    private static int countLines(@NonNull final CharSequence text) {
+        final int lineBreaks = count(text, 0, text.length());
+        return text.length() > 0 && text.charAt(text.length() - 1) != '\n' ? lineBreaks + 1 : lineBreaks;
+    }
+
+    private static void appendLines(@NonNull final StringBuilder diff, final char prefix, @NonNull final CharSequence text) {
+        int start = 0;
+        while (start < text.length()) {
+            int end = start;
+            while (end < text.length() && text.charAt(end) != '\n') {
+                end++;
+            }
+            diff.append(prefix).append(text, start, end).append('\n');
+            if (end == text.length()) {
+                diff.append("\\ No newline at end of file\n");
+            }
+            start = end + 1;
+        }
+    }
+
+    /** Replaces {@code file} by writing a temporary sibling first, like {@link ConstructorBaseline#write(File)}. */
+    private static void write(@NonNull final File file, @NonNull final String contents) throws IOException {
+        final File temporary = new File(file.getPath() + ".tmp");
+        try (OutputStream out = new FileOutputStream(temporary)) {
+            out.write(contents.getBytes(StandardCharsets.UTF_8));
+        }
+
+        if (!temporary.renameTo(file)) {
+            if (!file.delete() || !temporary.renameTo(file)) {
+                throw new IOException("Cannot replace " + file);
+            }
+        }
+    }
+
+    /** The edits of one file, located in its content once, and the ones chosen to be applied. */
+    private static final class FilePlan {
+        final File file;
+        final String content;
+        /** Edit ids in the order of their edits. */
+        final Integer[] ids;
+        /** Offset of each edit in {@link #content}, or -1 when it no longer matches. */
+        final int[] offsets;
+        /** Length of the text each edit replaces. */
+        final int[] lengths;
+        /** Offsets of the applied edits in content: start, end (exclusive), edit id. */
+        final int[] applied;
+        int appliedCount;
+
+        private FilePlan(@NonNull final File file, @NonNull final String content, @NonNull final Integer[] ids) {
+            this.file = file;
+            this.content = content;
+            this.ids = ids;
+            this.offsets = new int[ids.length];
+            this.lengths = new int[ids.length];
+            this.applied = new int[ids.length * 3];
+        }
+
+        @NonNull
+        static FilePlan locate(@NonNull final File file,
+                               @NonNull final List<Integer> ids,
+                               @NonNull final List<SourceEdit> edits) throws IOException {
+            final String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+            final Integer[] sorted = ids.toArray(new Integer[ids.size()]);
+            Arrays.sort(sorted, new Comparator<Integer>() {
+                @Override
+                public int compare(final Integer first, final Integer second) {
+                    return edits.get(first).compareTo(edits.get(second));
+                }
+            });
+
+            final FilePlan plan = new FilePlan(file, content, sorted);
+            for (int i = 0; i < sorted.length; i++) {
+                plan.offsets[i] = edits.get(sorted[i]).locate(content);
+                plan.lengths[i] = edits.get(sorted[i]).getOldLength();
+            }
+            return plan;
+        }
+
+        /**
+         * Chooses the edits of fixes not {@code rejected} in a single forward pass; returns the
+         * ids of edits that are stale or overlap an earlier chosen edit.
+         */
+        @NonNull
+        List<Integer> select(@NonNull final int[] fixes, @NonNull final boolean[] rejected) {
+            final List<Integer> failed = new ArrayList<>();
+            appliedCount = 0;
+            int copied = 0;
+            for (int i = 0; i < ids.length; i++) {
+                final int id = ids[i];
+                if (rejected[find(fixes, id)]) {
+                    continue;
+                }
+                final int offset = offsets[i];
+                if (offset < copied) {
+                    // stale, or overlapping the previous edit
+                    failed.add(id);
+                    continue;
+                }
+
+                final int end = offset + lengths[i];
+                applied[appliedCount * 3] = offset;
+                applied[appliedCount * 3 + 1] = end;
+                applied[appliedCount * 3 + 2] = id;
+                appliedCount++;
+                copied = end;
+            }
+            return failed;
+        }
+    }
+
+    /** Outcome of rewriting one file. */
+    private static final class FileResult {
+        final int applied;
+        final String diff;
+
+        FileResult(final int applied, @Nullable final String diff) {
+            this.applied = applied;
+            this.diff = diff;
+        }
+    }
+
+    /** Counts and wall-clock time of a batch. */
+    public static final class Result {
+        private final int files;
+        private final int changedFiles;
+        private final int appliedEdits;
+        private final int skippedEdits;
+        private final int skippedFixes;
+        private final long nanos;
+
+        Result(final int files,
+               final int changedFiles,
+               final int appliedEdits,
+               final int skippedEdits,
+               final int skippedFixes,
+               final long nanos) {
+            this.files = files;
+            this.changedFiles = changedFiles;
+            this.appliedEdits = appliedEdits;
+            this.skippedEdits = skippedEdits;
+            this.skippedFixes = skippedFixes;
+            this.nanos = nanos;
+        }
+
+        /** Files with at least one edit. */
+        public int getFiles() {
+            return files;
+        }
+
+        /** Files rewritten, or that would be rewritten in a dry run. */
+        public int getChangedFiles() {
+            return changedFiles;
+        }
+
+        public int getAppliedEdits() {
+            return appliedEdits;
+        }
+
+        public int getSkippedEdits() {
+            return skippedEdits;
+        }
+
+        /** Fixes left out as a whole because one of their edits was stale or overlapped another fix. */
+        public int getSkippedFixes() {
+            return skippedFixes;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        public double getFilesPerSecond() {
+            return nanos > 0 ? files * 1e9 / nanos : 0;
+        }
+    }
+}
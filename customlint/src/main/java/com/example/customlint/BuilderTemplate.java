@@ -0,0 +1,387 @@
+package com.example.customlint;
+
+import com.android.annotations.NonNull;
+import com.android.annotations.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Precompiled template producing the builder pattern replacement text of a constructor.
+ *
+ * <p>The template sources below are compiled once per indentation into flat segment arrays;
+ * rendering then sizes a single buffer from the object name and parameter names/types and
+ * writes the whole builder in one pass.
+ */
+public final class BuilderTemplate {
+    /** Indentation used by the original generator. */
+    public static final String DEFAULT_INDENT = "\t";
+
+    // Template placeholders: one indentation unit, the constructed class name, and the
+    // name/type of the parameter currently rendered by a per-parameter section.
+    private static final String INDENT_PLACEHOLDER = "{i}";
+    private static final String OBJECT_PLACEHOLDER = "{object}";
+    private static final String NAME_PLACEHOLDER = "{name}";
+    private static final String TYPE_PLACEHOLDER = "{type}";
+
+    //    private ObjectName(Builder builder) {
+    //        this.fieldName = builder.fieldName;
+    //        ...
+    //    }
+    private static final String CONSTRUCTOR_HEAD = "private {object}(Builder builder) {\n";
+    private static final String CONSTRUCTOR_ASSIGNMENT = "{i}{i}this.{name} = builder.{name};\n";
+
+    //    public static class Builder {
+    //        private type fieldName;
+    //        ...
+    private static final String BUILDER_HEAD = ""
+        + "{i}}\n"
+        + "\n"
+        + "{i}public static class Builder {\n";
+    private static final String BUILDER_FIELD = "{i}{i}private {type} {name};\n";
+
+    //        public Builder() {
+    //        }
+    private static final String BUILDER_CONSTRUCTOR = ""
+        + "\n"
+        + "{i}{i}public Builder() {\n"
+        + "{i}{i}}\n"
+        + "\n";
+
+    //        public Builder fieldName(type fieldName) {
+    //            this.fieldName = fieldName;
+    //            return this;
+    //        }
+    private static final String BUILDER_SETTER = ""
+        + "{i}{i}public Builder {name}({type} {name}) {\n"
+        + "{i}{i}{i}this.{name} = {name};\n"
+        + "{i}{i}{i}return this;\n"
+        + "{i}{i}}\n"
+        + "\n";
+
+    //        public ObjectName build() {
+    //            return new ObjectName(this);
+    //        }
+    //    }
+    private static final String BUILDER_TAIL = ""
+        + "{i}{i}public {object} build() {\n"
+        + "{i}{i}{i}return new {object}(this);\n"
+        + "{i}{i}}\n"
+        + "\n"
+        + "{i}}\n";
+
+    //    new ObjectName.Builder().fieldName(argument)...build()
+    private static final String CALL_HEAD = "new ";
+    private static final String CALL_BUILDER = ".Builder()";
+    private static final String CALL_TAIL = ".build()";
+
+    //    this(new Builder().fieldName(argument)...)
+    private static final String DELEGATION_HEAD = "this(new Builder()";
+    private static final String DELEGATION_TAIL = ")";
+
+    private static final BuilderTemplate DEFAULT = new BuilderTemplate(DEFAULT_INDENT);
+
+    private final String indent;
+    private final Section constructorHead;
+    private final Section constructorAssignment;
+    private final Section builderHead;
+    private final Section builderField;
+    private final Section builderConstructor;
+    private final Section builderSetter;
+    private final Section builderTail;
+
+    private BuilderTemplate(@NonNull final String indent) {
+        this.indent = indent;
+        constructorHead = Section.compile(CONSTRUCTOR_HEAD, indent);
+        constructorAssignment = Section.compile(CONSTRUCTOR_ASSIGNMENT, indent);
+        builderHead = Section.compile(BUILDER_HEAD, indent);
+        builderField = Section.compile(BUILDER_FIELD, indent);
+        builderConstructor = Section.compile(BUILDER_CONSTRUCTOR, indent);
+        builderSetter = Section.compile(BUILDER_SETTER, indent);
+        builderTail = Section.compile(BUILDER_TAIL, indent);
+    }
+
+    /** Returns the template for the given indentation unit, compiling it if needed. */
+    @NonNull
+    public static BuilderTemplate forIndent(@NonNull final String indent) {
+        return DEFAULT_INDENT.equals(indent) ? DEFAULT : new BuilderTemplate(indent);
+    }
+
+    /**
+     * Parses an indentation setting: a positive number means that many spaces, anything else
+     * (including {@code null} or {@code "tab"}) keeps {@link #DEFAULT_INDENT}.
+     */
+    @NonNull
+    public static String parseIndent(@Nullable final String value) {
+        if (value != null) {
+            try {
+                final int spaces = Integer.parseInt(value.trim());
+                if (spaces > 0) {
+                    final StringBuilder stringBuilder = new StringBuilder(spaces);
+                    for (int i = 0; i < spaces; i++) {
+                        stringBuilder.append(' ');
+                    }
+                    return stringBuilder.toString();
+                }
+            } catch (NumberFormatException e) {
+                // pass: fall back to default below
+            }
+        }
+
+        return DEFAULT_INDENT;
+    }
+
+    @NonNull
+    public String getIndent() {
+        return indent;
+    }
+
+    /** Renders the builder for {@code constructor}; see {@link #render(String, String[], String[])}. */
+    @NonNull
+    public String render(@NonNull final ConstructorModel constructor) {
+        return render(constructor.getName(), constructor.getParameterNames(), constructor.getParameterTypes());
+    }
+
+    /**
+     * Renders the private builder constructor followed by the static {@code Builder} class.
+     *
+     * @param objectName     name of the class being constructed
+     * @param parameterNames constructor parameter names, in declaration order
+     * @param parameterTypes presentable parameter types, parallel to {@code parameterNames}
+     */
+    @NonNull
+    public String render(@NonNull final String objectName,
+                         @NonNull final String[] parameterNames,
+                         @NonNull final String[] parameterTypes) {
+        final int objectLength = objectName.length();
+
+        int capacity = constructorHead.length(objectLength, 0, 0)
+            + builderHead.length(objectLength, 0, 0)
+            + builderConstructor.length(objectLength, 0, 0)
+            + builderTail.length(objectLength, 0, 0);
+        for (int i = 0; i < parameterNames.length; i++) {
+            final int nameLength = parameterNames[i].length();
+            final int typeLength = parameterTypes[i].length();
+            capacity += constructorAssignment.length(objectLength, nameLength, typeLength)
+                + builderField.length(objectLength, nameLength, typeLength)
+                + builderSetter.length(objectLength, nameLength, typeLength);
+        }
+
+        final StringBuilder out = new StringBuilder(capacity);
+        constructorHead.write(out, objectName, null, null);
+        for (String parameterName : parameterNames) {
+            constructorAssignment.write(out, objectName, parameterName, null);
+        }
+        builderHead.write(out, objectName, null, null);
+        for (int i = 0; i < parameterNames.length; i++) {
+            builderField.write(out, objectName, parameterNames[i], parameterTypes[i]);
+        }
+        builderConstructor.write(out, objectName, null, null);
+        for (int i = 0; i < parameterNames.length; i++) {
+            builderSetter.write(out, objectName, parameterNames[i], parameterTypes[i]);
+        }
+        builderTail.write(out, objectName, null, null);
+
+        return out.toString();
+    }
+
+    /**
+     * Renders the builder call replacing {@code new Type(arguments)} at a call site, e.g.
+     * {@code new Type.Builder().a(x).b(y).build()}.
+     *
+     * @param typeText       the constructed type as written at the call site
+     * @param parameterNames constructor parameter names, in declaration order
+     * @param arguments      argument expressions as written, parallel to {@code parameterNames}
+     */
+    @NonNull
+    public static String renderCall(@NonNull final String typeText,
+                                    @NonNull final String[] parameterNames,
+                                    @NonNull final String[] arguments) {
+        int capacity = CALL_HEAD.length() + typeText.length() + CALL_BUILDER.length() + CALL_TAIL.length();
+        for (int i = 0; i < parameterNames.length; i++) {
+            capacity += parameterNames[i].length() + arguments[i].length() + 3;
+        }
+
+        final StringBuilder out = new StringBuilder(capacity);
+        out.append(CALL_HEAD).append(typeText).append(CALL_BUILDER);
+        for (int i = 0; i < parameterNames.length; i++) {
+            out.append('.').append(parameterNames[i]).append('(').append(arguments[i]).append(')');
+        }
+        out.append(CALL_TAIL);
+        return out.toString();
+    }
+
+    /**
+     * Renders the delegation replacing {@code this(arguments)} in another constructor of the same
+     * class, e.g. {@code this(new Builder().a(x).b(y))}; the private builder constructor is
+     * reachable from there.
+     *
+     * @param parameterNames constructor parameter names, in declaration order
+     * @param arguments      argument expressions as written, parallel to {@code parameterNames}
+     */
+    @NonNull
+    public static String renderDelegation(@NonNull final String[] parameterNames,
+                                          @NonNull final String[] arguments) {
+        int capacity = DELEGATION_HEAD.length() + DELEGATION_TAIL.length();
+        for (int i = 0; i < parameterNames.length; i++) {
+            capacity += parameterNames[i].length() + arguments[i].length() + 3;
+        }
+
+        final StringBuilder out = new StringBuilder(capacity);
+        out.append(DELEGATION_HEAD);
+        for (int i = 0; i < parameterNames.length; i++) {
+            out.append('.').append(parameterNames[i]).append('(').append(arguments[i]).append(')');
+        }
+        out.append(DELEGATION_TAIL);
+        return out.toString();
+    }
+
+    /**
+     * Renders the Kotlin call replacing {@code Type(arguments)} at a call site with named
+     * arguments, e.g. {@code Type(a = x, b = y)}; Kotlin constructors need no builder for that.
+     *
+     * @param typeText       the constructed type as written at the call site
+     * @param parameterNames constructor parameter names, in declaration order
+     * @param arguments      argument expressions as written, parallel to {@code parameterNames}
+     */
+    @NonNull
+    public static String renderNamedCall(@NonNull final String typeText,
+                                         @NonNull final String[] parameterNames,
+                                         @NonNull final String[] arguments) {
+        int capacity = typeText.length() + 2;
+        for (int i = 0; i < parameterNames.length; i++) {
+            capacity += parameterNames[i].length() + arguments[i].length() + 5;
+        }
+
+        final StringBuilder out = new StringBuilder(capacity);
+        out.append(typeText).append('(');
+        for (int i = 0; i < parameterNames.length; i++) {
+            if (i > 0) {
+                out.append(", ");
+            }
+            out.append(parameterNames[i]).append(" = ").append(arguments[i]);
+        }
+        out.append(')');
+        return out.toString();
+    }
+
+    /** A template source compiled into literal runs interleaved with placeholder slots. */
+    private static final class Section {
+        private static final int LITERAL = 0;
+        private static final int OBJECT = 1;
+        private static final int NAME = 2;
+        private static final int TYPE = 3;
+
+        private final int[] kinds;
+        private final String[] literals;
+        private final int literalLength;
+        private final int objectSlots;
+        private final int nameSlots;
+        private final int typeSlots;
+
+        private Section(final int[] kinds, final String[] literals) {
+            this.kinds = kinds;
+            this.literals = literals;
+
+            int literalLength = 0;
+            int objectSlots = 0;
+            int nameSlots = 0;
+            int typeSlots = 0;
+            for (int i = 0; i < kinds.length; i++) {
+                switch (kinds[i]) {
+                    case OBJECT:
+                        objectSlots++;
+                        break;
+                    case NAME:
+                        nameSlots++;
+                        break;
+                    case TYPE:
+                        typeSlots++;
+                        break;
+                    default:
+                        literalLength += literals[i].length();
+                        break;
+                }
+            }
+            this.literalLength = literalLength;
+            this.objectSlots = objectSlots;
+            this.nameSlots = nameSlots;
+            this.typeSlots = typeSlots;
+        }
+
+        static Section compile(@NonNull final String source, @NonNull final String indent) {
+            final List<Integer> kinds = new ArrayList<>();
+            final List<String> literals = new ArrayList<>();
+            final StringBuilder literal = new StringBuilder();
+
+            int index = 0;
+            while (index < source.length()) {
+                final int slot;
+                final int length;
+                if (source.startsWith(INDENT_PLACEHOLDER, index)) {
+                    // indentation is fixed per template, so fold it into the literal run
+                    literal.append(indent);
+                    index += INDENT_PLACEHOLDER.length();
+                    continue;
+                } else if (source.startsWith(OBJECT_PLACEHOLDER, index)) {
+                    slot = OBJECT;
+                    length = OBJECT_PLACEHOLDER.length();
+                } else if (source.startsWith(NAME_PLACEHOLDER, index)) {
+                    slot = NAME;
+                    length = NAME_PLACEHOLDER.length();
+                } else if (source.startsWith(TYPE_PLACEHOLDER, index)) {
+                    slot = TYPE;
+                    length = TYPE_PLACEHOLDER.length();
+                } else {
+                    literal.append(source.charAt(index));
+                    index++;
+                    continue;
+                }
+
+                if (literal.length() > 0) {
+                    kinds.add(LITERAL);
+                    literals.add(literal.toString());
+                    literal.setLength(0);
+                }
+                kinds.add(slot);
+                literals.add(null);
+                index += length;
+            }
+            if (literal.length() > 0) {
+                kinds.add(LITERAL);
+                literals.add(literal.toString());
+            }
+
+            final int[] kindArray = new int[kinds.size()];
+            for (int i = 0; i < kindArray.length; i++) {
+                kindArray[i] = kinds.get(i);
+            }
+            return new Section(kindArray, literals.toArray(new String[literals.size()]));
+        }
+
+        int length(final int objectLength, final int nameLength, final int typeLength) {
+            return literalLength + objectSlots * objectLength + nameSlots * nameLength + typeSlots * typeLength;
+        }
+
+        void write(@NonNull final StringBuilder out,
+                   @NonNull final String objectName,
+                   @Nullable final String name,
+                   @Nullable final String type) {
+            for (int i = 0; i < kinds.length; i++) {
+                switch (kinds[i]) {
+                    case OBJECT:
+                        out.append(objectName);
+                        break;
+                    case NAME:
+                        out.append(name);
+                        break;
+                    case TYPE:
+                        out.append(type);
+                        break;
+                    default:
+                        out.append(literals[i]);
+                        break;
+                }
+            }
+        }
+    }
+}
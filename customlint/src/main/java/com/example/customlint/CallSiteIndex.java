@@ -0,0 +1,143 @@
+package com.example.customlint;
+
+import com.android.annotations.NonNull;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reverse index from constructor to the {@code new} expressions and {@code this(...)} or
+ * {@code super(...)} delegations calling it, filled once per lint run from the call expressions
+ * the detector visits, so migrating the call sites of a constructor never searches the project.
+ *
+ * <p>Constructors are keyed by their {@link ConstructorBaseline#hash(com.intellij.psi.PsiClass,
+ * com.intellij.psi.PsiMethod) signature hash}. Call sites live in parallel arrays and are
+ * chained per constructor through {@code next} indices, so an entry costs a few ints plus its
+ * argument texts; files are stored once in a table.
+ *
+ * <p>The index is thread-safe, so handlers of files analyzed in parallel can share it.
+ */
+public final class CallSiteIndex {
+    /** Returned by {@link #first(long)} and {@link #next(int)} at the end of a chain. */
+    public static final int NONE = -1;
+
+    /** {@link #getTypeText(int) Type text} of a {@code this(...)} call from another constructor. */
+    public static final String THIS_DELEGATION = "this";
+    /** {@link #getTypeText(int) Type text} of a {@code super(...)} call from a subclass constructor. */
+    public static final String SUPER_DELEGATION = "super";
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final Map<Long, Integer> heads = new HashMap<>();
+    private final Map<File, Integer> fileIds = new HashMap<>();
+    private final List<File> files = new ArrayList<>();
+
+    private int[] next = new int[INITIAL_CAPACITY];
+    private int[] fileIndices = new int[INITIAL_CAPACITY];
+    private int[] startOffsets = new int[INITIAL_CAPACITY];
+    private int[] endOffsets = new int[INITIAL_CAPACITY];
+    private String[] typeTexts = new String[INITIAL_CAPACITY];
+    private String[][] arguments = new String[INITIAL_CAPACITY][];
+    private int size;
+
+    /**
+     * Adds a call of {@code constructor} spanning {@code [startOffset, endOffset)} of
+     * {@code file}.
+     *
+     * @param typeText  the constructed type as written at the call site, or
+     *                  {@link #THIS_DELEGATION}/{@link #SUPER_DELEGATION} for a delegation
+     * @param arguments the argument expressions as written, in parameter order
+     */
+    public synchronized void add(final long constructor,
+                    @NonNull final File file,
+                    final int startOffset,
+                    final int endOffset,
+                    @NonNull final String typeText,
+                    @NonNull final String[] arguments) {
+        if (size == next.length) {
+            grow();
+        }
+
+        Integer fileId = fileIds.get(file);
+        if (fileId == null) {
+            fileId = files.size();
+            fileIds.put(file, fileId);
+            files.add(file);
+        }
+
+        final Integer head = heads.put(constructor, size);
+        next[size] = head != null ? head : NONE;
+        fileIndices[size] = fileId;
+        startOffsets[size] = startOffset;
+        endOffsets[size] = endOffset;
+        typeTexts[size] = typeText;
+        this.arguments[size] = arguments;
+        size++;
+    }
+
+    /** The most recently added call site of {@code constructor}, or {@link #NONE}. */
+    public synchronized int first(final long constructor) {
+        final Integer head = heads.get(constructor);
+        return head != null ? head : NONE;
+    }
+
+    /** The call site of the same constructor added before {@code callSite}, or {@link #NONE}. */
+    public synchronized int next(final int callSite) {
+        return next[callSite];
+    }
+
+    @NonNull
+    public synchronized File getFile(final int callSite) {
+        return files.get(fileIndices[callSite]);
+    }
+
+    public synchronized int getStartOffset(final int callSite) {
+        return startOffsets[callSite];
+    }
+
+    public synchronized int getEndOffset(final int callSite) {
+        return endOffsets[callSite];
+    }
+
+    @NonNull
+    public synchronized String getTypeText(final int callSite) {
+        return typeTexts[callSite];
+    }
+
+    @NonNull
+    public synchronized String[] getArguments(final int callSite) {
+        return arguments[callSite];
+    }
+
+    /** Number of call sites. */
+    public synchronized int size() {
+        return size;
+    }
+
+    /** Number of distinct constructors with call sites. */
+    public synchronized int getConstructorCount() {
+        return heads.size();
+    }
+
+    public synchronized void clear() {
+        heads.clear();
+        fileIds.clear();
+        files.clear();
+        Arrays.fill(typeTexts, 0, size, null);
+        Arrays.fill(arguments, 0, size, null);
+        size = 0;
+    }
+
+    private void grow() {
+        final int capacity = next.length * 2;
+        next = Arrays.copyOf(next, capacity);
+        fileIndices = Arrays.copyOf(fileIndices, capacity);
+        startOffsets = Arrays.copyOf(startOffsets, capacity);
+        endOffsets = Arrays.copyOf(endOffsets, capacity);
+        typeTexts = Arrays.copyOf(typeTexts, capacity);
+        arguments = Arrays.copyOf(arguments, capacity);
+    }
+}
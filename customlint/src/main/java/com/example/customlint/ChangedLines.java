@@ -0,0 +1,276 @@
+package com.example.customlint;
+
+import com.android.annotations.NonNull;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Lines of a local git working tree that changed since a base ref, for analyzing only what a
+ * pull request touches. Computed without any network access from
+ *
+ * <pre>
+ * git diff --unified=0 $(git merge-base &lt;base&gt; HEAD)
+ * </pre>
+ *
+ * so committed and uncommitted changes of the branch count, and changes on the base branch
+ * since the branch point do not. Untracked files are not part of the diff.
+ *
+ * <p>Files are keyed by canonical path; the changed lines of a file are kept as sorted,
+ * disjoint {@code [first, last]} pairs of 1-based line numbers in one {@code int[]}. A hunk
+ * that only deletes lines marks the line following the deletion, and deleted files are left
+ * out.
+ */
+public final class ChangedLines {
+    private static final String FILE_HEADER_PREFIX = "diff ";
+    private static final String NEW_FILE_PREFIX = "+++ ";
+    private static final String NEW_FILE_PATH_PREFIX = "b/";
+    private static final String HUNK_PREFIX = "@@ ";
+
+    private final Map<String, int[]> ranges;
+
+    private ChangedLines(@NonNull final Map<String, int[]> ranges) {
+        this.ranges = ranges;
+    }
+
+    /**
+     * Runs git in {@code directory}, any directory of the working tree, and collects the lines
+     * changed since the merge base of {@code baseRef} and {@code HEAD}.
+     *
+     * @throws IOException when git cannot be run, the directory is not in a working tree or the
+     *                     ref is unknown
+     */
+    @NonNull
+    public static ChangedLines compute(@NonNull final File directory, @NonNull final String baseRef) throws IOException {
+        final File root = new File(git(directory, "rev-parse", "--show-toplevel").trim());
+        final String mergeBase = git(directory, "merge-base", baseRef, "HEAD").trim();
+        final String diff = git(root,
+                                "-c", "core.quotePath=false",
+                                "diff", "--no-color", "--no-ext-diff", "--unified=0", "-M", mergeBase, "--");
+        return parse(root, new StringReader(diff));
+    }
+
+    /**
+     * Like {@link #compute(File, String)} for several directories, which may belong to different
+     * working trees; each working tree is diffed once.
+     *
+     * @throws IOException when git fails for any of them
+     */
+    @NonNull
+    public static ChangedLines compute(@NonNull final List<File> directories, @NonNull final String baseRef) throws IOException {
+        final Map<String, int[]> ranges = new HashMap<>();
+        final Set<String> roots = new HashSet<>();
+        for (File directory : directories) {
+            final File absolute = directory.getAbsoluteFile();
+            final String root = git(absolute, "rev-parse", "--show-toplevel").trim();
+            if (roots.add(root)) {
+                // paths are canonical, so the files of different working trees never collide
+                ranges.putAll(compute(absolute, baseRef).ranges);
+            }
+        }
+        return new ChangedLines(ranges);
+    }
+
+    /** Parses a {@code --unified=0} diff whose paths are relative to {@code root}. */
+    @NonNull
+    static ChangedLines parse(@NonNull final File root, @NonNull final Reader diff) throws IOException {
+        final Map<String, int[]> ranges = new HashMap<>();
+        final BufferedReader reader = new BufferedReader(diff);
+        boolean header = false;
+        String path = null;
+        int[] fileRanges = null;
+        int count = 0;
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            if (line.startsWith(FILE_HEADER_PREFIX)) {
+                if (path != null) {
+                    ranges.put(path, Arrays.copyOf(fileRanges, count));
+                }
+                header = true;
+                path = null;
+            } else if (header) {
+                // added lines can start with "+++ " too, so only the header names the file
+                if (line.startsWith(NEW_FILE_PREFIX)) {
+                    final String name = unquote(line.substring(NEW_FILE_PREFIX.length()));
+                    path = name.startsWith(NEW_FILE_PATH_PREFIX)
+                        ? canonicalPath(new File(root, name.substring(NEW_FILE_PATH_PREFIX.length())))
+                        : null;
+                    fileRanges = new int[8];
+                    count = 0;
+                    header = false;
+                }
+            } else if (path != null && line.startsWith(HUNK_PREFIX)) {
+                final int plus = line.indexOf(" +", HUNK_PREFIX.length() - 1);
+                final int end = plus < 0 ? -1 : line.indexOf(' ', plus + 2);
+                if (end < 0) {
+                    continue;
+                }
+                final String range = line.substring(plus + 2, end);
+                final int comma = range.indexOf(',');
+                final int first;
+                final int length;
+                try {
+                    first = Integer.parseInt(comma < 0 ? range : range.substring(0, comma));
+                    length = comma < 0 ? 1 : Integer.parseInt(range.substring(comma + 1));
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                if (count + 2 > fileRanges.length) {
+                    fileRanges = Arrays.copyOf(fileRanges, fileRanges.length * 2);
+                }
+                // a pure deletion names the line before it; mark the line that follows
+                fileRanges[count++] = length > 0 ? first : first + 1;
+                fileRanges[count++] = length > 0 ? first + length - 1 : first + 1;
+            }
+        }
+        if (path != null) {
+            ranges.put(path, Arrays.copyOf(fileRanges, count));
+        }
+        // hunks of a unified diff come in line order and never overlap
+        return new ChangedLines(ranges);
+    }
+
+    /** Whether {@code file} has changed lines; renaming a file alone does not change it. */
+    public boolean contains(@NonNull final File file) {
+        return ranges.containsKey(canonicalPath(file));
+    }
+
+    /** Whether any of the 1-based lines {@code first} to {@code last} of {@code file} changed. */
+    public boolean intersects(@NonNull final File file, final int first, final int last) {
+        final int[] fileRanges = ranges.get(canonicalPath(file));
+        if (fileRanges == null) {
+            return false;
+        }
+
+        // first range ending at or after first
+        int low = 0;
+        int high = fileRanges.length / 2;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (fileRanges[middle * 2 + 1] < first) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low < fileRanges.length / 2 && fileRanges[low * 2] <= last;
+    }
+
+    /** The changed files, sorted. */
+    @NonNull
+    public List<File> getFiles() {
+        final List<String> paths = new ArrayList<>(ranges.keySet());
+        Collections.sort(paths);
+        final List<File> files = new ArrayList<>(paths.size());
+        for (String path : paths) {
+            files.add(new File(path));
+        }
+        return files;
+    }
+
+    @NonNull
+    private static String canonicalPath(@NonNull final File file) {
+        try {
+            return file.getCanonicalPath();
+        } catch (IOException e) {
+            return file.getAbsolutePath();
+        }
+    }
+
+    /** Removes the C-style quoting git applies to unusual path names. */
+    @NonNull
+    static String unquote(@NonNull final String name) {
+        if (name.length() < 2 || name.charAt(0) != '"' || name.charAt(name.length() - 1) != '"') {
+            return name;
+        }
+
+        final StringBuilder unquoted = new StringBuilder(name.length());
+        for (int i = 1; i < name.length() - 1; i++) {
+            char c = name.charAt(i);
+            if (c == '\\' && i + 1 < name.length() - 1) {
+                c = name.charAt(++i);
+                if (c == 't') {
+                    c = '\t';
+                } else if (c == 'n') {
+                    c = '\n';
+                }
+            }
+            unquoted.append(c);
+        }
+        return unquoted.toString();
+    }
+
+    /**
+     * Runs git and returns its standard output; fails with its standard error. Standard error is
+     * drained on its own thread, so git never blocks on a full pipe while standard output is read.
+     */
+    @NonNull
+    private static String git(@NonNull final File directory, @NonNull final String... arguments) throws IOException {
+        final List<String> command = new ArrayList<>(arguments.length + 1);
+        command.add("git");
+        command.addAll(Arrays.asList(arguments));
+        final Process process = new ProcessBuilder(command).directory(directory).start();
+        process.getOutputStream().close();
+
+        final FutureTask<String> error = new FutureTask<>(new Callable<String>() {
+            @Override
+            public String call() throws IOException {
+                return read(process.getErrorStream());
+            }
+        });
+        final Thread errorReader = new Thread(error, "git-stderr");
+        errorReader.setDaemon(true);
+        errorReader.start();
+
+        try {
+            final String output = read(process.getInputStream());
+            if (process.waitFor() != 0) {
+                throw new IOException("git " + getSubcommand(arguments) + " failed: " + error.get().trim());
+            }
+            return output;
+        } catch (InterruptedException e) {
+            process.destroy();
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("git " + getSubcommand(arguments) + " failed", e.getCause());
+        }
+    }
+
+    /** The git command among {@code arguments}, after the {@code -c name=value} options. */
+    @NonNull
+    static String getSubcommand(@NonNull final String... arguments) {
+        int i = 0;
+        while (i < arguments.length && arguments[i].startsWith("-")) {
+            i += "-c".equals(arguments[i]) || "-C".equals(arguments[i]) ? 2 : 1;
+        }
+        return i < arguments.length ? arguments[i] : String.join(" ", arguments);
+    }
+
+    @NonNull
+    private static String read(@NonNull final InputStream stream) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[8192];
+        try (InputStream in = stream) {
+            for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+                out.write(buffer, 0, read);
+            }
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,685 @@
+package com.example.customlint;
+
+import com.android.annotations.NonNull;
+import com.android.annotations.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+/**
+ * Class file variant of the {@link JavaConstructorDetector} parameter count rule for prebuilt
+ * libraries, whose sources lint never sees:
+ *
+ * <pre>
+ * java -cp CustomLint.jar:asm.jar com.example.customlint.ClassFileConstructorScanner [-Werror] [--threads N] path...
+ * </pre>
+ *
+ * Paths are class files, jars, AARs (their {@code classes.jar} and {@code libs/*.jar}) or
+ * directories searched for them. ASM reads the {@code <init>} methods of every class, the
+ * entries of a jar in batches spread over a pool of worker threads, and a constructor is
+ * reported in lint's text format when it declares more parameters than
+ * {@link ParameterLimits#fromEnvironment() the configured limit}.
+ *
+ * <p>Descriptors also carry parameters the source does not declare. They are left out of the
+ * count: from the {@code MethodParameters} attribute when the classes were compiled with
+ * {@code -parameters}, else the outer instance of inner and local classes, the variables local
+ * classes capture and the name and ordinal of enum constants. Synthetic constructors, such as
+ * javac's access constructors and Kotlin's default argument constructors, and anonymous
+ * classes are skipped.
+ *
+ * <p>{@code @SuppressLint} with the issue id or {@code "all"} on the constructor or an
+ * enclosing class suppresses it; {@code @SuppressWarnings} does not survive compilation. The
+ * reported line is the first line of the constructor's code, left out without line numbers.
+ */
+public final class ClassFileConstructorScanner {
+    // compile-time constants, so reading them does not load the lint issue metadata
+    static final String ISSUE_ID = ConstructorIssues.TOO_MANY_PARAMETERS_ISSUE_ID;
+
+    private static final String WERROR_OPTION = "-Werror";
+    private static final String THREADS_OPTION = "--threads";
+    private static final String HELP_OPTION = "--help";
+    private static final String CLASS_EXTENSION = ".class";
+    private static final String JAR_EXTENSION = ".jar";
+    private static final String AAR_EXTENSION = ".aar";
+    private static final String AAR_CLASSES = "classes.jar";
+    private static final String AAR_LIBS = "libs/";
+    private static final String META_INF = "META-INF/";
+    private static final String ENTRY_SEPARATOR = "!/";
+    private static final String CONSTRUCTOR_NAME = "<init>";
+    private static final String OUTER_INSTANCE_PREFIX = "this$";
+    private static final String CAPTURED_VARIABLE_PREFIX = "val$";
+    private static final String SUPPRESS_LINT_SUFFIX = "/SuppressLint;";
+    private static final String SUPPRESS_ALL = "all";
+    private static final String SEVERITY_WARNING = "Warning";
+    private static final String SEVERITY_ERROR = "Error";
+
+    /** Jar entries read by one task; small enough to balance, large enough to amortize. */
+    private static final int BATCH_SIZE = 256;
+
+    private static final int EXIT_SUCCESS = 0;
+    private static final int EXIT_ERRORS = 1;
+    private static final int EXIT_USAGE = 2;
+    private static final int EXIT_UNREADABLE = 3;
+
+    private final ParameterLimits limits;
+    private final int threads;
+    private final LongAdder classes = new LongAdder();
+    private final LongAdder unreadableClasses = new LongAdder();
+    private final AtomicReference<String> firstUnreadableClass = new AtomicReference<>();
+
+    /** Scanner reading class files on at most {@code threads} workers. */
+    public ClassFileConstructorScanner(@NonNull final ParameterLimits limits, final int threads) {
+        this.limits = limits;
+        this.threads = threads;
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /** Runs the command line; returns the process exit code. */
+    static int run(@NonNull final String[] args, @NonNull final PrintStream out, @NonNull final PrintStream err) {
+        boolean warningsAsErrors = false;
+        int threads = Runtime.getRuntime().availableProcessors();
+        final List<File> files = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            final String arg = args[i];
+            if (HELP_OPTION.equals(arg)) {
+                printUsage(out);
+                return EXIT_SUCCESS;
+            } else if (WERROR_OPTION.equals(arg)) {
+                warningsAsErrors = true;
+            } else if (THREADS_OPTION.equals(arg) && i + 1 < args.length) {
+                try {
+                    threads = Integer.parseInt(args[++i]);
+                } catch (NumberFormatException e) {
+                    threads = 0;
+                }
+                if (threads <= 0) {
+                    err.println("Invalid " + THREADS_OPTION + " value: " + args[i]);
+                    return EXIT_USAGE;
+                }
+            } else if (arg.startsWith("-")) {
+                err.println("Unknown option: " + arg);
+                printUsage(err);
+                return EXIT_USAGE;
+            } else {
+                collectInputs(new File(arg), files);
+            }
+        }
+
+        if (files.isEmpty()) {
+            printUsage(err);
+            return EXIT_USAGE;
+        }
+        Collections.sort(files);
+
+        final long start = System.nanoTime();
+        final ClassFileConstructorScanner scanner = new ClassFileConstructorScanner(ParameterLimits.fromEnvironment(), threads);
+        final List<FastConstructorScanner.Finding> findings;
+        try {
+            findings = scanner.scan(files);
+        } catch (IOException e) {
+            err.println("Scan failed: " + e.getMessage());
+            return EXIT_ERRORS;
+        }
+        final PrintWriter writer = new PrintWriter(out);
+        final String severity = warningsAsErrors ? SEVERITY_ERROR : SEVERITY_WARNING;
+        for (FastConstructorScanner.Finding finding : findings) {
+            writer.println(finding.format(severity));
+        }
+        writer.println(warningsAsErrors
+                           ? findings.size() + " errors, 0 warnings"
+                           : "0 errors, " + findings.size() + " warnings");
+        writer.flush();
+
+        err.println(String.format(Locale.US, "%1$d classes (%2$d unreadable) on %3$d threads in %4$.1f ms",
+                                  scanner.getClasses(), scanner.getUnreadableClasses(), threads,
+                                  (System.nanoTime() - start) / 1e6));
+        if (warningsAsErrors && !findings.isEmpty()) {
+            return EXIT_ERRORS;
+        }
+        if (scanner.getUnreadableClasses() > 0) {
+            // their constructors went unchecked, so the scan must not pass as clean
+            err.println("Warning: " + scanner.getUnreadableClasses() + " classes could not be read and were not checked, e.g. "
+                        + scanner.getFirstUnreadableClass());
+            return EXIT_UNREADABLE;
+        }
+        return EXIT_SUCCESS;
+    }
+
+    /**
+     * Scans class files, jars and AARs; findings are sorted by path and line. Classes nested
+     * in a class of another file or jar are checked as if their outer class were unknown.
+     */
+    @NonNull
+    public List<FastConstructorScanner.Finding> scan(@NonNull final List<File> files) throws IOException {
+        final List<ZipFile> zips = new ArrayList<>();
+        final List<File> temporaryFiles = new ArrayList<>();
+        final List<Callable<List<ClassInfo>>> tasks = new ArrayList<>();
+        try {
+            for (File file : files) {
+                final String name = file.getName();
+                if (name.endsWith(AAR_EXTENSION)) {
+                    addAarTasks(file, zips, temporaryFiles, tasks);
+                } else if (name.endsWith(JAR_EXTENSION)) {
+                    final ZipFile zip = new ZipFile(file);
+                    zips.add(zip);
+                    addJarTasks(zip, file.getPath(), tasks);
+                } else {
+                    addClassFileTask(file, tasks);
+                }
+            }
+            return resolve(execute(tasks));
+        } finally {
+            for (ZipFile zip : zips) {
+                zip.close();
+            }
+            for (File file : temporaryFiles) {
+                file.delete();
+            }
+        }
+    }
+
+    /** Class files read so far. */
+    public long getClasses() {
+        return classes.sum();
+    }
+
+    /** Class files ASM could not read so far, such as ones of newer class file versions. */
+    public long getUnreadableClasses() {
+        return unreadableClasses.sum();
+    }
+
+    /** Path of the first class file ASM could not read, or {@code null} when it read all of them. */
+    @Nullable
+    public String getFirstUnreadableClass() {
+        return firstUnreadableClass.get();
+    }
+
+    private void addAarTasks(@NonNull final File aar,
+                             @NonNull final List<ZipFile> zips,
+                             @NonNull final List<File> temporaryFiles,
+                             @NonNull final List<Callable<List<ClassInfo>>> tasks) throws IOException {
+        // nested jars are not randomly accessible; copy them out so their entries can be read in parallel
+        try (ZipFile zip = new ZipFile(aar)) {
+            final Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                final ZipEntry entry = entries.nextElement();
+                final String name = entry.getName();
+                if (!name.equals(AAR_CLASSES) && !(name.startsWith(AAR_LIBS) && name.endsWith(JAR_EXTENSION))) {
+                    continue;
+                }
+                final File jar = File.createTempFile("aar", JAR_EXTENSION);
+                temporaryFiles.add(jar);
+                try (InputStream in = zip.getInputStream(entry)) {
+                    Files.copy(in, jar.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+                final ZipFile jarZip = new ZipFile(jar);
+                zips.add(jarZip);
+                addJarTasks(jarZip, aar.getPath() + ENTRY_SEPARATOR + name, tasks);
+            }
+        }
+    }
+
+    private void addJarTasks(@NonNull final ZipFile jar,
+                             @NonNull final String jarPath,
+                             @NonNull final List<Callable<List<ClassInfo>>> tasks) {
+        final List<ZipEntry> classEntries = new ArrayList<>();
+        final Enumeration<? extends ZipEntry> entries = jar.entries();
+        while (entries.hasMoreElements()) {
+            final ZipEntry entry = entries.nextElement();
+            // META-INF holds module-info and the per-release copies of multi-release jars
+            if (!entry.isDirectory() && entry.getName().endsWith(CLASS_EXTENSION) && !entry.getName().startsWith(META_INF)) {
+                classEntries.add(entry);
+            }
+        }
+
+        for (int from = 0; from < classEntries.size(); from += BATCH_SIZE) {
+            final List<ZipEntry> batch = classEntries.subList(from, Math.min(from + BATCH_SIZE, classEntries.size()));
+            tasks.add(new Callable<List<ClassInfo>>() {
+                @Override
+                public List<ClassInfo> call() throws IOException {
+                    final List<ClassInfo> infos = new ArrayList<>(batch.size());
+                    for (ZipEntry entry : batch) {
+                        try (InputStream in = jar.getInputStream(entry)) {
+                            final ClassInfo info = read(jarPath, jarPath + ENTRY_SEPARATOR + entry.getName(), readFully(in));
+                            if (info != null) {
+                                infos.add(info);
+                            }
+                        }
+                    }
+                    return infos;
+                }
+            });
+        }
+    }
+
+    private void addClassFileTask(@NonNull final File file, @NonNull final List<Callable<List<ClassInfo>>> tasks) {
+        tasks.add(new Callable<List<ClassInfo>>() {
+            @Override
+            public List<ClassInfo> call() throws IOException {
+                // loose class files resolve their outer classes among those of the same directory
+                final ClassInfo info = read(file.getAbsoluteFile().getParent(), file.getPath(), Files.readAllBytes(file.toPath()));
+                return info != null ? Collections.singletonList(info) : Collections.<ClassInfo>emptyList();
+            }
+        });
+    }
+
+    @NonNull
+    private List<ClassInfo> execute(@NonNull final List<Callable<List<ClassInfo>>> tasks) throws IOException {
+        if (tasks.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, tasks.size()));
+        try {
+            final List<Future<List<ClassInfo>>> futures = new ArrayList<>(tasks.size());
+            for (Callable<List<ClassInfo>> task : tasks) {
+                futures.add(executor.submit(task));
+            }
+
+            final List<ClassInfo> infos = new ArrayList<>();
+            for (Future<List<ClassInfo>> future : futures) {
+                infos.addAll(future.get());
+            }
+            return infos;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /** Reads the constructors of one class file; {@code null} when ASM cannot read it. */
+    @Nullable
+    private ClassInfo read(@NonNull final String container, @NonNull final String path, @NonNull final byte[] classFile) {
+        classes.increment();
+        try {
+            final ClassCollector collector = new ClassCollector(container, path);
+            new ClassReader(classFile).accept(collector, ClassReader.SKIP_FRAMES);
+            return collector.info;
+        } catch (RuntimeException e) {
+            // ASM rejects class file versions newer than it knows and malformed files
+            unreadableClasses.increment();
+            firstUnreadableClass.compareAndSet(null, path);
+            return null;
+        }
+    }
+
+    /** Applies limits and suppressions once the enclosing classes of every class are known. */
+    @NonNull
+    private List<FastConstructorScanner.Finding> resolve(@NonNull final List<ClassInfo> infos) {
+        final Map<String, ClassInfo> byName = new HashMap<>(infos.size() * 2);
+        for (ClassInfo info : infos) {
+            byName.put(info.container + ENTRY_SEPARATOR + info.name, info);
+        }
+
+        final List<FastConstructorScanner.Finding> findings = new ArrayList<>();
+        for (ClassInfo info : infos) {
+            if (info.constructors.isEmpty() || info.kind == ClassInfo.Kind.ANONYMOUS || isSuppressed(info, byName)) {
+                continue;
+            }
+            final int limit = limits.getLimit(getQualifiedName(info, byName));
+            for (ConstructorInfo constructor : info.constructors) {
+                if (constructor.parameterCount > limit && !constructor.suppressed) {
+                    findings.add(new FastConstructorScanner.Finding(info.path, constructor.line, info.simpleName,
+                                                                    constructor.parameterCount));
+                }
+            }
+        }
+
+        Collections.sort(findings, new Comparator<FastConstructorScanner.Finding>() {
+            @Override
+            public int compare(final FastConstructorScanner.Finding first, final FastConstructorScanner.Finding second) {
+                final int byPath = first.getPath().compareTo(second.getPath());
+                return byPath != 0 ? byPath : Integer.compare(first.getLine(), second.getLine());
+            }
+        });
+        return findings;
+    }
+
+    private static boolean isSuppressed(@NonNull final ClassInfo info, @NonNull final Map<String, ClassInfo> byName) {
+        for (ClassInfo current = info; current != null; current = getEnclosingClass(current, byName)) {
+            if (current.suppressed) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Qualified name like PSI's: {@code null} for local classes and classes nested in them. */
+    @Nullable
+    private static String getQualifiedName(@NonNull final ClassInfo info, @NonNull final Map<String, ClassInfo> byName) {
+        switch (info.kind) {
+            case TOP_LEVEL:
+                return info.name.replace('/', '.');
+            case MEMBER:
+                final ClassInfo outer = getEnclosingClass(info, byName);
+                if (outer == null) {
+                    return info.name.replace('/', '.').replace('$', '.');
+                }
+                final String outerName = getQualifiedName(outer, byName);
+                return outerName != null ? outerName + "." + info.simpleName : null;
+            default:
+                return null;
+        }
+    }
+
+    @Nullable
+    private static ClassInfo getEnclosingClass(@NonNull final ClassInfo info, @NonNull final Map<String, ClassInfo> byName) {
+        return info.enclosingName != null ? byName.get(info.container + ENTRY_SEPARATOR + info.enclosingName) : null;
+    }
+
+    @NonNull
+    private static byte[] readFully(@NonNull final InputStream in) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+        final byte[] buffer = new byte[8192];
+        for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private static void collectInputs(@NonNull final File file, @NonNull final List<File> files) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                collectInputs(child, files);
+            }
+        } else if (file.isFile()) {
+            final String name = file.getName();
+            if (name.endsWith(CLASS_EXTENSION) || name.endsWith(JAR_EXTENSION) || name.endsWith(AAR_EXTENSION)) {
+                files.add(file);
+            }
+        }
+    }
+
+    private static void printUsage(@NonNull final PrintStream stream) {
+        stream.println("Usage: ClassFileConstructorScanner [" + WERROR_OPTION + "] [" + THREADS_OPTION + " N] path...");
+        stream.println("  " + WERROR_OPTION + "      report constructors as errors and exit with 1 if there are any");
+        stream.println("  " + THREADS_OPTION + " N  number of worker threads (default: available processors)");
+    }
+
+    /** Whether {@code @SuppressLint} values name the issue; reads single values and arrays. */
+    private static final class SuppressLintVisitor extends AnnotationVisitor {
+        boolean suppressed;
+
+        SuppressLintVisitor() {
+            super(Opcodes.ASM9);
+        }
+
+        @Override
+        public void visit(final String name, final Object value) {
+            if (ISSUE_ID.equals(value) || SUPPRESS_ALL.equals(value)) {
+                suppressed = true;
+            }
+        }
+
+        @Override
+        public AnnotationVisitor visitArray(final String name) {
+            return this;
+        }
+    }
+
+    /** The parts of a class file the rule needs. */
+    private static final class ClassInfo {
+        enum Kind {
+            TOP_LEVEL,
+            MEMBER,
+            LOCAL,
+            ANONYMOUS
+        }
+
+        /** Jar, AAR jar or directory the class was read from; enclosing classes are looked up there. */
+        final String container;
+        final String path;
+        final String name;
+        final List<ConstructorInfo> constructors = new ArrayList<>();
+        Kind kind = Kind.TOP_LEVEL;
+        String simpleName;
+        /** Internal name of the outer class of a member class or the enclosing class of a local one. */
+        String enclosingName;
+        boolean suppressed;
+
+        ClassInfo(@NonNull final String container, @NonNull final String path, @NonNull final String name) {
+            this.container = container;
+            this.path = path;
+            this.name = name;
+            this.simpleName = name.substring(name.lastIndexOf('/') + 1);
+        }
+    }
+
+    private static final class ConstructorInfo {
+        final int parameterCount;
+        final int line;
+        final boolean suppressed;
+
+        ConstructorInfo(final int parameterCount, final int line, final boolean suppressed) {
+            this.parameterCount = parameterCount;
+            this.line = line;
+            this.suppressed = suppressed;
+        }
+    }
+
+    /** Collects a {@link ClassInfo}; descriptors are counted once the whole class is seen. */
+    private static final class ClassCollector extends ClassVisitor {
+        private final String container;
+        private final String path;
+        private final List<ConstructorCollector> constructors = new ArrayList<>();
+        private ClassInfo info;
+        private int access;
+        private int innerAccess;
+        private boolean outerInstanceField;
+        private int capturedVariables;
+        private SuppressLintVisitor suppressLint;
+
+        ClassCollector(@NonNull final String container, @NonNull final String path) {
+            super(Opcodes.ASM9);
+            this.container = container;
+            this.path = path;
+        }
+
+        @Override
+        public void visit(final int version,
+                          final int access,
+                          final String name,
+                          final String signature,
+                          final String superName,
+                          final String[] interfaces) {
+            this.access = access;
+            // interfaces and annotation types have no constructors to check
+            info = (access & Opcodes.ACC_INTERFACE) == 0 ? new ClassInfo(container, path, name) : null;
+        }
+
+        @Override
+        public void visitOuterClass(final String owner, final String name, final String descriptor) {
+            if (info != null) {
+                info.enclosingName = owner;
+            }
+        }
+
+        @Override
+        public void visitInnerClass(final String name, final String outerName, final String innerName, final int access) {
+            if (info == null || !name.equals(info.name)) {
+                return;
+            }
+            innerAccess = access;
+            if (outerName != null) {
+                info.kind = ClassInfo.Kind.MEMBER;
+                info.enclosingName = outerName;
+                info.simpleName = innerName;
+            } else if (innerName != null) {
+                info.kind = ClassInfo.Kind.LOCAL;
+                info.simpleName = innerName;
+            } else {
+                info.kind = ClassInfo.Kind.ANONYMOUS;
+            }
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotation(final String descriptor, final boolean visible) {
+            if (info == null || !descriptor.endsWith(SUPPRESS_LINT_SUFFIX)) {
+                return null;
+            }
+            suppressLint = new SuppressLintVisitor();
+            return suppressLint;
+        }
+
+        @Override
+        public FieldVisitor visitField(final int access,
+                                       final String name,
+                                       final String descriptor,
+                                       final String signature,
+                                       final Object value) {
+            if ((access & Opcodes.ACC_SYNTHETIC) != 0) {
+                if (name.startsWith(OUTER_INSTANCE_PREFIX)) {
+                    outerInstanceField = true;
+                } else if (name.startsWith(CAPTURED_VARIABLE_PREFIX)) {
+                    capturedVariables++;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public MethodVisitor visitMethod(final int access,
+                                         final String name,
+                                         final String descriptor,
+                                         final String signature,
+                                         final String[] exceptions) {
+            if (info == null || !CONSTRUCTOR_NAME.equals(name)
+                || (access & (Opcodes.ACC_SYNTHETIC | Opcodes.ACC_BRIDGE)) != 0) {
+                return null;
+            }
+            final ConstructorCollector constructor = new ConstructorCollector(descriptor);
+            constructors.add(constructor);
+            return constructor;
+        }
+
+        @Override
+        public void visitEnd() {
+            if (info == null) {
+                return;
+            }
+            info.suppressed = suppressLint != null && suppressLint.suppressed;
+            for (ConstructorCollector constructor : constructors) {
+                info.constructors.add(new ConstructorInfo(getParameterCount(constructor),
+                                                          constructor.line,
+                                                          constructor.suppressLint != null && constructor.suppressLint.suppressed));
+            }
+        }
+
+        /** Parameters the source declares, leaving out the ones javac adds. */
+        private int getParameterCount(@NonNull final ConstructorCollector constructor) {
+            final Type[] arguments = Type.getArgumentTypes(constructor.descriptor);
+            if (constructor.parameterAccess != null && constructor.parameterAccess.size() == arguments.length) {
+                int declared = 0;
+                for (int parameterAccess : constructor.parameterAccess) {
+                    if ((parameterAccess & (Opcodes.ACC_SYNTHETIC | Opcodes.ACC_MANDATED)) == 0) {
+                        declared++;
+                    }
+                }
+                return declared;
+            }
+
+            int leading = 0;
+            int trailing = 0;
+            if ((access & Opcodes.ACC_ENUM) != 0) {
+                // name and ordinal of the constant
+                if (arguments.length >= 2 && isType(arguments[0], "java/lang/String") && arguments[1] == Type.INT_TYPE) {
+                    leading = 2;
+                }
+            } else if (info.kind == ClassInfo.Kind.MEMBER) {
+                if ((innerAccess & Opcodes.ACC_STATIC) == 0 && arguments.length > 0 && isType(arguments[0], info.enclosingName)) {
+                    leading = 1;
+                }
+            } else if (info.kind == ClassInfo.Kind.LOCAL) {
+                // javac passes the outer instance first and captured variables last
+                if (outerInstanceField && arguments.length > 0 && isType(arguments[0], info.enclosingName)) {
+                    leading = 1;
+                }
+                trailing = capturedVariables;
+            }
+            return Math.max(0, arguments.length - leading - trailing);
+        }
+
+        private static boolean isType(@NonNull final Type type, @Nullable final String internalName) {
+            return type.getSort() == Type.OBJECT && type.getInternalName().equals(internalName);
+        }
+    }
+
+    private static final class ConstructorCollector extends MethodVisitor {
+        final String descriptor;
+        /** Access flags from the {@code MethodParameters} attribute; {@code null} without it. */
+        List<Integer> parameterAccess;
+        SuppressLintVisitor suppressLint;
+        int line;
+
+        ConstructorCollector(@NonNull final String descriptor) {
+            super(Opcodes.ASM9);
+            this.descriptor = descriptor;
+        }
+
+        @Override
+        public void visitParameter(final String name, final int access) {
+            if (parameterAccess == null) {
+                parameterAccess = new ArrayList<>();
+            }
+            parameterAccess.add(access);
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotation(final String descriptor, final boolean visible) {
+            if (!descriptor.endsWith(SUPPRESS_LINT_SUFFIX)) {
+                return null;
+            }
+            suppressLint = new SuppressLintVisitor();
+            return suppressLint;
+        }
+
+        @Override
+        public void visitLineNumber(final int line, final Label start) {
+            if (this.line == 0) {
+                this.line = line;
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.customlint;
+
+import com.android.annotations.NonNull;
+import com.android.annotations.Nullable;
+import com.android.tools.lint.LintCliClient;
+import com.android.tools.lint.LintCliFlags;
+import com.android.tools.lint.detector.api.Context;
+import com.android.tools.lint.detector.api.Issue;
+import com.android.tools.lint.detector.api.LintFix;
+import com.android.tools.lint.detector.api.Location;
+import com.android.tools.lint.detector.api.Position;
+import com.android.tools.lint.detector.api.Severity;
+import com.android.tools.lint.detector.api.TextFormat;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lint client used by {@link CustomLintRunner}: collects reported incidents instead of
+ * handing them to lint's reporters, or streams them to a shared {@link IncidentWriter} when
+ * one is given. Each instance analyzes a single module on a single thread.
+ *
+ * <p>When asked to, the client also keeps the {@link SourceEdit}s of the reported fixes for
+ * {@link BuilderRefactoring}. Given {@link ChangedLines}, it drops the incidents whose range
+ * does not touch a changed line.
+ */
+class CollectingLintClient extends LintCliClient {
+    static final String CLIENT_NAME = "customlint";
+
+    private final List<LintIncident> incidents = new ArrayList<>();
+    private final List<SourceEdit> edits = new ArrayList<>();
+    private final IncidentWriter writer;
+    private final boolean collectEdits;
+    private final ChangedLines changes;
+    private ConstructorBaseline baseline;
+    private boolean recordingBaseline;
+    private int errorCount;
+
+    /**
+     * @param writer       shared writer receiving the incidents as they are reported, or
+     *                     {@code null} to collect them in {@link #getIncidents()}
+     * @param collectEdits whether to keep the fixes in {@link #getEdits()}
+     */
+    CollectingLintClient(@NonNull final LintCliFlags flags,
+                         @Nullable final IncidentWriter writer,
+                         final boolean collectEdits) {
+        this(flags, writer, collectEdits, null);
+    }
+
+    /**
+     * Like {@link #CollectingLintClient(LintCliFlags, IncidentWriter, boolean)}, keeping only
+     * the incidents on {@code changes} when given.
+     */
+    CollectingLintClient(@NonNull final LintCliFlags flags,
+                         @Nullable final IncidentWriter writer,
+                         final boolean collectEdits,
+                         @Nullable final ChangedLines changes) {
+        super(flags, CLIENT_NAME);
+        this.writer = writer;
+        this.collectEdits = collectEdits;
+        this.changes = changes;
+    }
+
+    @Override
+    public void report(@NonNull Context context,
+                       @NonNull Issue issue,
+                       @NonNull Severity severity,
+                       @NonNull Location location,
+                       @NonNull String message,
+                       @NonNull TextFormat format,
+                       @Nullable LintFix fix) {
+        if (changes != null && !isChanged(location)) {
+            return;
+        }
+
+        final String fixText = getFixText(fix);
+        if (severity.isError()) {
+            errorCount++;
+        }
+        if (collectEdits) {
+            SourceEdit.collect(location, fix, edits);
+        }
+
+        final LintIncident incident =
+            LintIncident.create(issue, severity, location, format.convertTo(message, TextFormat.TEXT), fixText);
+        if (writer == null) {
+            incidents.add(incident);
+            return;
+        }
+
+        synchronized (writer) {
+            try {
+                writer.write(incident);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /** Whether the lines of {@code location} touch {@link #changes}; incidents without a range are kept. */
+    private boolean isChanged(@NonNull final Location location) {
+        final Position start = location.getStart();
+        if (start == null || start.getLine() < 0) {
+            return true;
+        }
+        final Position end = location.getEnd() != null ? location.getEnd() : start;
+        return changes.intersects(location.getFile(), start.getLine() + 1, Math.max(start.getLine(), end.getLine()) + 1);
+    }
+
+    /** Replacement text of the fix, or of its first part when call sites are migrated as well. */
+    @Nullable
+    private static String getFixText(@Nullable final LintFix fix) {
+        if (fix instanceof LintFix.LintFixGroup) {
+            final List<LintFix> parts = ((LintFix.LintFixGroup) fix).fixes;
+            return parts.isEmpty() ? null : getFixText(parts.get(0));
+        }
+        return fix instanceof LintFix.ReplaceString ? ((LintFix.ReplaceString) fix).replacement : null;
+    }
+
+    /** Collected incidents; empty when they are streamed to a writer. */
+    @NonNull
+    List<LintIncident> getIncidents() {
+        return incidents;
+    }
+
+    /** Edits of the reported fixes; empty unless edits are collected. */
+    @NonNull
+    List<SourceEdit> getEdits() {
+        return edits;
+    }
+
+    /**
+     * Hands the detector a baseline shared by all clients of a {@link CustomLintRunner} run
+     * instead of the one it would load or record itself; {@code recording} when the run records
+     * its incidents into it. Called before {@link #run}.
+     */
+    void setBaseline(@Nullable final ConstructorBaseline baseline, final boolean recording) {
+        this.baseline = baseline;
+        this.recordingBaseline = recording;
+    }
+
+    /** The shared baseline, or {@code null} when the detector handles its own. */
+    @Nullable
+    ConstructorBaseline getBaseline() {
+        return baseline;
+    }
+
+    boolean isRecordingBaseline() {
+        return recordingBaseline;
+    }
+
+    /** Whether the fixes are kept for {@link BuilderRefactoring}, which then needs their call sites migrated. */
+    boolean isCollectingEdits() {
+        return collectEdits;
+    }
+
+    /** Number of reported incidents with an error severity, streamed or not. */
+    int getErrorCount() {
+        return errorCount;
+    }
+}
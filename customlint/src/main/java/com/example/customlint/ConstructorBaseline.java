@@ -0,0 +1,205 @@
+package com.example.customlint;
+
+import com.android.annotations.NonNull;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiMethod;
+import com.intellij.psi.PsiParameter;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Baseline of known {@code TooManyParametersConstructor} incidents, so only new ones fail the
+ * build. Each incident is stored as a 64-bit hash of the class's qualified name and the
+ * canonical text of the constructor's parameter types, which stays stable when code moves
+ * around or is reformatted.
+ *
+ * <p>The file is a small header followed by the sorted hashes; it is memory-mapped on load
+ * and copied into a primitive {@link LongHashSet}, so lookups are O(1) and a baseline with
+ * 100k entries loads in milliseconds. It is replaced through a temporary sibling, so readers
+ * never see a partly written file.
+ */
+public final class ConstructorBaseline {
+    private static final int MAGIC = 0x4c434231; // "LCB1"
+    /** Version 1 hashed the parameter types as written. */
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 12;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /** Serializes the writes of the lint runs of this process, which may share one file. */
+    private static final Object WRITE_LOCK = new Object();
+
+    private final LongHashSet hashes;
+
+    private ConstructorBaseline(@NonNull final LongHashSet hashes) {
+        this.hashes = hashes;
+    }
+
+    /** An empty baseline, e.g. to record the incidents of a first run. */
+    @NonNull
+    public static ConstructorBaseline create() {
+        return new ConstructorBaseline(new LongHashSet(1024));
+    }
+
+    @NonNull
+    public static ConstructorBaseline load(@NonNull final File file) throws IOException {
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+             FileChannel channel = randomAccessFile.getChannel()) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+                throw new IOException("Not a constructor baseline: " + file);
+            }
+            if (buffer.getInt() != VERSION) {
+                throw new IOException("Outdated constructor baseline, delete it to record a new one: " + file);
+            }
+
+            final int count = buffer.getInt();
+            if (count < 0 || buffer.remaining() < (long) count * Long.BYTES) {
+                throw new IOException("Truncated constructor baseline: " + file);
+            }
+
+            final LongBuffer values = buffer.asLongBuffer();
+            final LongHashSet hashes = new LongHashSet(count);
+            for (int i = 0; i < count; i++) {
+                hashes.add(values.get(i));
+            }
+            return new ConstructorBaseline(hashes);
+        }
+    }
+
+    /**
+     * Hash identifying a constructor: class qualified name plus the canonical text of its
+     * parameter types, so {@code Map<K,V>} and {@code Map<K, V>} are the same constructor.
+     */
+    public static long hash(@NonNull final PsiClass containingClass, @NonNull final PsiMethod constructor) {
+        final String className = containingClass.getQualifiedName() != null
+            ? containingClass.getQualifiedName()
+            : constructor.getName();
+
+        final PsiParameter[] parameters = constructor.getParameterList().getParameters();
+        final String[] parameterTypes = new String[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            parameterTypes[i] = stripWhitespace(parameters[i].getType().getCanonicalText());
+        }
+        return hash(className, parameterTypes);
+    }
+
+    /** Unresolved types keep their text as written; without blanks it does not depend on formatting either. */
+    @NonNull
+    static String stripWhitespace(@NonNull final String typeText) {
+        int i = 0;
+        while (i < typeText.length() && !Character.isWhitespace(typeText.charAt(i))) {
+            i++;
+        }
+        if (i == typeText.length()) {
+            return typeText;
+        }
+
+        final StringBuilder stripped = new StringBuilder(typeText.length());
+        stripped.append(typeText, 0, i);
+        for (; i < typeText.length(); i++) {
+            final char c = typeText.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                stripped.append(c);
+            }
+        }
+        return stripped.toString();
+    }
+
+    /** Hash of a constructor of {@code className} with the given parameter types. */
+    public static long hash(@NonNull final String className, @NonNull final String[] parameterTypes) {
+        long hash = hash(FNV_OFFSET_BASIS, className);
+        for (String parameterType : parameterTypes) {
+            hash = hash(hash, parameterType);
+        }
+        return hash;
+    }
+
+    /**
+     * Continues a 64-bit FNV-1a hash over {@code part} and a separator, so that
+     * {@code ("ab", "c")} and {@code ("a", "bc")} hash differently.
+     */
+    private static long hash(long hash, @NonNull final String part) {
+        for (int i = 0; i < part.length(); i++) {
+            hash ^= part.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        hash ^= 0xffff;
+        hash *= FNV_PRIME;
+        return hash;
+    }
+
+    public synchronized boolean contains(final long hash) {
+        return hashes.contains(hash);
+    }
+
+    public synchronized void add(final long hash) {
+        hashes.add(hash);
+    }
+
+    public synchronized int size() {
+        return hashes.size();
+    }
+
+    /**
+     * Writes the hashes of this baseline and those already in {@code file}, so lint runs of one
+     * process recording into the same file add to it rather than replace each other's incidents.
+     */
+    public void writeMerged(@NonNull final File file) throws IOException {
+        synchronized (WRITE_LOCK) {
+            if (file.isFile()) {
+                final ConstructorBaseline written = load(file);
+                synchronized (this) {
+                    for (long hash : written.hashes.toArray()) {
+                        hashes.add(hash);
+                    }
+                }
+            }
+            write(file);
+        }
+    }
+
+    public void write(@NonNull final File file) throws IOException {
+        synchronized (WRITE_LOCK) {
+            writeFile(file);
+        }
+    }
+
+    private synchronized void writeFile(@NonNull final File file) throws IOException {
+        final long[] values = hashes.toArray();
+        Arrays.sort(values);
+
+        final ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + values.length * Long.BYTES);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(values.length);
+        buffer.asLongBuffer().put(values);
+        buffer.rewind();
+
+        final File directory = file.getAbsoluteFile().getParentFile();
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create baseline directory " + directory);
+        }
+        final File temporary = new File(file.getPath() + ".tmp");
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(temporary, "rw");
+             FileChannel channel = randomAccessFile.getChannel()) {
+            channel.truncate(0);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+
+        if (!temporary.renameTo(file)) {
+            if (!file.delete() || !temporary.renameTo(file)) {
+                throw new IOException("Cannot replace baseline file " + file);
+            }
+        }
+    }
+}
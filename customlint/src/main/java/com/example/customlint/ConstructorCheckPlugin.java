@@ -0,0 +1,236 @@
+package com.example.customlint;
+
+import com.android.annotations.NonNull;
+import com.android.annotations.Nullable;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.util.JavacTask;
+import com.sun.source.util.Plugin;
+import com.sun.source.util.SourcePositions;
+import com.sun.source.util.TaskEvent;
+import com.sun.source.util.TaskListener;
+import com.sun.source.util.TreePath;
+import com.sun.source.util.TreePathScanner;
+import com.sun.source.util.Trees;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Name;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+
+/**
+ * javac plugin applying the {@link JavaConstructorDetector} parameter count rule while the
+ * code compiles, so builds that compile anyway need no lint pass for it:
+ *
+ * <pre>
+ * javac -processorpath CustomLint.jar -Xplugin:ConstructorCheck ...
+ * javac -processorpath CustomLint.jar '-Xplugin:ConstructorCheck -Werror' ...
+ * </pre>
+ *
+ * After javac attributes a top-level class, every constructor declared in it, its nested and
+ * its local classes is checked against {@link ParameterLimits#fromEnvironment() the configured
+ * limit} and reported as a compiler warning (an error with {@code -Werror}) carrying lint's
+ * message and issue id. Only lint-independent classes of the jar are loaded.
+ *
+ * <p>Like lint, {@code @SuppressLint} and {@code @SuppressWarnings} with the issue id or
+ * {@code "all"} on the constructor or any enclosing declaration suppress it, and files skipped
+ * by the detector's {@link GeneratedSourceFilter#fromEnvironment() generated source filter} are
+ * skipped here too. The warning points at the constructor's first annotation or modifier, where
+ * lint reports a constructor with a doc comment on the comment. Baselines and
+ * {@code //noinspection} comments are not applied.
+ */
+public final class ConstructorCheckPlugin implements Plugin {
+    /** Name selecting the plugin in {@code -Xplugin:}. */
+    public static final String NAME = "ConstructorCheck";
+
+    // compile-time constants, so reading them does not load the lint issue metadata
+    static final String ISSUE_ID = ConstructorIssues.TOO_MANY_PARAMETERS_ISSUE_ID;
+    static final String MESSAGE = ConstructorIssues.TOO_MANY_PARAMETERS_ISSUE_DESCRIPTION;
+
+    private static final String WERROR_OPTION = "-Werror";
+    private static final String SUPPRESS_ALL = "all";
+    private static final String SUPPRESS_VALUE = "value";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void init(final JavacTask task, final String... args) {
+        boolean warningsAsErrors = false;
+        for (String arg : args) {
+            if (WERROR_OPTION.equals(arg)) {
+                warningsAsErrors = true;
+            } else {
+                throw new IllegalArgumentException("Unknown " + NAME + " option: " + arg);
+            }
+        }
+        task.addTaskListener(new Checker(Trees.instance(task),
+                                         ParameterLimits.fromEnvironment(),
+                                         GeneratedSourceFilter.fromEnvironment(),
+                                         warningsAsErrors ? Diagnostic.Kind.ERROR : Diagnostic.Kind.WARNING));
+    }
+
+    /** Checks each class once javac has attributed it, before it is lowered. */
+    private static final class Checker implements TaskListener {
+        private final Trees trees;
+        private final ParameterLimits limits;
+        private final GeneratedSourceFilter filter;
+        private final Diagnostic.Kind kind;
+        /** Whether a compilation unit is skipped; one unit can hold several top-level classes. */
+        private final Map<CompilationUnitTree, Boolean> skippedUnits = new IdentityHashMap<>();
+
+        Checker(@NonNull final Trees trees,
+                @NonNull final ParameterLimits limits,
+                @NonNull final GeneratedSourceFilter filter,
+                @NonNull final Diagnostic.Kind kind) {
+            this.trees = trees;
+            this.limits = limits;
+            this.filter = filter;
+            this.kind = kind;
+        }
+
+        @Override
+        public void started(final TaskEvent event) {
+        }
+
+        @Override
+        public void finished(final TaskEvent event) {
+            if (event.getKind() != TaskEvent.Kind.ANALYZE || event.getTypeElement() == null) {
+                return;
+            }
+            final CompilationUnitTree unit = event.getCompilationUnit();
+            if (isSkipped(unit)) {
+                return;
+            }
+            final TreePath path = trees.getPath(event.getTypeElement());
+            if (path != null) {
+                new ConstructorScanner(unit).scan(path, null);
+            }
+        }
+
+        private boolean isSkipped(@NonNull final CompilationUnitTree unit) {
+            Boolean skipped = skippedUnits.get(unit);
+            if (skipped == null) {
+                final URI uri = unit.getSourceFile().toUri();
+                final File file = "file".equals(uri.getScheme()) ? new File(uri) : new File(unit.getSourceFile().getName());
+                CharSequence contents;
+                try {
+                    contents = unit.getSourceFile().getCharContent(true);
+                } catch (IOException e) {
+                    contents = null;
+                }
+                final long size = file.isFile() ? file.length() : contents != null ? contents.length() : 0;
+                skipped = filter.skip(file, size, contents) != null;
+                skippedUnits.put(unit, skipped);
+            }
+            return skipped;
+        }
+
+        private final class ConstructorScanner extends TreePathScanner<Void, Void> {
+            private final CompilationUnitTree unit;
+            private final SourcePositions positions;
+
+            ConstructorScanner(@NonNull final CompilationUnitTree unit) {
+                this.unit = unit;
+                this.positions = trees.getSourcePositions();
+            }
+
+            @Override
+            public Void visitMethod(final MethodTree method, final Void unused) {
+                final Element element = trees.getElement(getCurrentPath());
+                if (element != null && element.getKind() == ElementKind.CONSTRUCTOR) {
+                    check(method, (TypeElement) element.getEnclosingElement());
+                }
+                return super.visitMethod(method, unused);
+            }
+
+            private void check(@NonNull final MethodTree constructor, @NonNull final TypeElement containingClass) {
+                // anonymous classes cannot declare constructors; javac adds one forwarding
+                // the arguments of the super constructor call
+                if (containingClass.getNestingKind() == NestingKind.ANONYMOUS) {
+                    return;
+                }
+                if (constructor.getParameters().size() <= limits.getLimit(getQualifiedName(containingClass))) {
+                    return;
+                }
+                if (isSuppressed(getCurrentPath())) {
+                    return;
+                }
+
+                final Tree modifiers = constructor.getModifiers();
+                final boolean hasModifiers = positions.getStartPosition(unit, modifiers) != Diagnostic.NOPOS;
+                trees.printMessage(kind, MESSAGE + " [" + ISSUE_ID + "]", hasModifiers ? modifiers : constructor, unit);
+            }
+        }
+
+        /** Qualified name like PSI's: {@code null} for local classes and classes nested in them. */
+        @Nullable
+        private static String getQualifiedName(@NonNull final TypeElement type) {
+            for (Element enclosing = type; enclosing instanceof TypeElement; enclosing = enclosing.getEnclosingElement()) {
+                final NestingKind nestingKind = ((TypeElement) enclosing).getNestingKind();
+                if (nestingKind == NestingKind.LOCAL || nestingKind == NestingKind.ANONYMOUS) {
+                    return null;
+                }
+            }
+            return type.getQualifiedName().toString();
+        }
+
+        /** Whether a declaration on {@code path}, from the constructor outwards, suppresses the issue. */
+        private boolean isSuppressed(@NonNull final TreePath path) {
+            for (TreePath current = path; current != null; current = current.getParentPath()) {
+                final Tree.Kind treeKind = current.getLeaf().getKind();
+                if (treeKind != Tree.Kind.METHOD && treeKind != Tree.Kind.VARIABLE && !(current.getLeaf() instanceof ClassTree)) {
+                    continue;
+                }
+                final Element element = trees.getElement(current);
+                if (element != null && isSuppressed(element)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean isSuppressed(@NonNull final Element element) {
+            for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+                final Name name = annotation.getAnnotationType().asElement().getSimpleName();
+                if (!name.contentEquals("SuppressLint") && !name.contentEquals("SuppressWarnings")) {
+                    continue;
+                }
+                for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                    : annotation.getElementValues().entrySet()) {
+                    if (entry.getKey().getSimpleName().contentEquals(SUPPRESS_VALUE) && suppresses(entry.getValue().getValue())) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /** Whether an annotation value, a string or an array of them, names the issue. */
+        private static boolean suppresses(@Nullable final Object value) {
+            if (value instanceof List) {
+                for (Object item : (List<?>) value) {
+                    if (item instanceof AnnotationValue && suppresses(((AnnotationValue) item).getValue())) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            return ISSUE_ID.equals(value) || SUPPRESS_ALL.equals(value);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.customlint;
+
+import com.android.annotations.NonNull;
+import com.android.annotations.Nullable;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiCodeBlock;
+import com.intellij.psi.PsiExpression;
+import com.intellij.psi.PsiExpressionStatement;
+import com.intellij.psi.PsiMethod;
+import com.intellij.psi.PsiMethodCallExpression;
+import com.intellij.psi.PsiParameter;
+import com.intellij.psi.PsiStatement;
+import com.intellij.psi.PsiTypeElement;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Facts about all constructors of one class, computed once and shared by every constructor
+ * rule of {@link JavaConstructorDetector}: arity, the number of boolean flags and the
+ * {@code this(...)} delegation target.
+ *
+ * <p>Flags are recognized from the types as written, so building the index resolves nothing
+ * except ambiguous {@code this(...)} calls.
+ */
+public final class ConstructorIndex {
+    /** Delegation target of a constructor that does not start with {@code this(...)}. */
+    public static final int NO_DELEGATION = -1;
+
+    /** Delegation target that arity alone cannot tell: no or several overloads take that many arguments. */
+    static final int UNRESOLVED = -2;
+
+    private static final String THIS = "this";
+
+    private final PsiMethod[] constructors;
+    private final Map<PsiMethod, Integer> positions;
+    private final int[] arities;
+    private final int[] booleanCounts;
+    private final int[] delegationTargets;
+    private int[] chainLengths;
+
+    private ConstructorIndex(@NonNull final PsiMethod[] constructors) {
+        final int count = constructors.length;
+        this.constructors = constructors;
+        this.positions = new HashMap<>(count * 2);
+        this.arities = new int[count];
+        this.booleanCounts = new int[count];
+        this.delegationTargets = new int[count];
+
+        for (int i = 0; i < count; i++) {
+            positions.put(constructors[i], i);
+            final PsiParameter[] parameters = constructors[i].getParameterList().getParameters();
+            arities[i] = parameters.length;
+            for (PsiParameter parameter : parameters) {
+                if (isBoolean(parameter)) {
+                    booleanCounts[i]++;
+                }
+            }
+        }
+
+        final boolean[] varArgs = new boolean[count];
+        final PsiMethodCallExpression[] delegations = new PsiMethodCallExpression[count];
+        final int[] argumentCounts = new int[count];
+        for (int i = 0; i < count; i++) {
+            varArgs[i] = constructors[i].isVarArgs();
+            delegations[i] = getDelegation(constructors[i]);
+            argumentCounts[i] = delegations[i] != null
+                ? delegations[i].getArgumentList().getExpressions().length
+                : NO_DELEGATION;
+        }
+
+        final int[] targets = getDelegationTargets(arities, varArgs, argumentCounts);
+        for (int i = 0; i < count; i++) {
+            if (targets[i] == UNRESOLVED) {
+                final PsiMethod resolved = delegations[i].resolveMethod();
+                targets[i] = resolved != null ? indexOf(resolved) : NO_DELEGATION;
+            }
+            delegationTargets[i] = targets[i];
+        }
+    }
+
+    @NonNull
+    public static ConstructorIndex create(@NonNull final PsiClass psiClass) {
+        return new ConstructorIndex(psiClass.getConstructors());
+    }
+
+    public int size() {
+        return constructors.length;
+    }
+
+    /** Position of {@code constructor} in the index, or -1 if it is not a constructor of the class. */
+    public int indexOf(@NonNull final PsiMethod constructor) {
+        final Integer position = positions.get(constructor);
+        return position != null ? position : -1;
+    }
+
+    @NonNull
+    public PsiMethod getConstructor(final int index) {
+        return constructors[index];
+    }
+
+    public int getArity(final int index) {
+        return arities[index];
+    }
+
+    public int getBooleanParameterCount(final int index) {
+        return booleanCounts[index];
+    }
+
+    /** Index of the constructor called through {@code this(...)}, or {@link #NO_DELEGATION}. */
+    public int getDelegationTarget(final int index) {
+        return delegationTargets[index];
+    }
+
+    /**
+     * Whether the constructor at {@code index} delegates through {@code this(...)} to an overload
+     * taking more parameters, i.e. is a step of a telescoping chain rather than its end.
+     */
+    public boolean hasTelescopingDelegation(final int index) {
+        final int target = delegationTargets[index];
+        return target != NO_DELEGATION && arities[target] > arities[index];
+    }
+
+    /**
+     * Number of constructors in the longest telescoping chain ending at the constructor at
+     * {@code index}, counting the constructor itself; 1 when no overload delegates to it.
+     */
+    public int getTelescopingChainLength(final int index) {
+        if (chainLengths == null) {
+            chainLengths = getChainLengths(arities, delegationTargets);
+        }
+        return chainLengths[index];
+    }
+
+    /**
+     * Longest chain of growing {@code this(...)} delegations ending at each constructor.
+     *
+     * <p>Delegation edges form a graph with at most one outgoing edge per constructor, and a
+     * telescoping edge always leads to a larger arity. Visiting constructors by increasing
+     * arity (a counting sort) therefore finalizes every chain length before it is propagated,
+     * so the whole class costs {@code O(constructors + max arity)} without comparing
+     * signatures pairwise.
+     */
+    @NonNull
+    static int[] getChainLengths(@NonNull final int[] arities, @NonNull final int[] delegationTargets) {
+        final int count = arities.length;
+        int maxArity = 0;
+        for (int arity : arities) {
+            maxArity = Math.max(maxArity, arity);
+        }
+
+        final int[] starts = new int[maxArity + 2];
+        for (int arity : arities) {
+            starts[arity + 1]++;
+        }
+        for (int arity = 0; arity <= maxArity; arity++) {
+            starts[arity + 1] += starts[arity];
+        }
+        final int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            order[starts[arities[i]]++] = i;
+        }
+
+        final int[] lengths = new int[count];
+        for (int i = 0; i < count; i++) {
+            lengths[i] = 1;
+        }
+        for (int constructor : order) {
+            final int target = delegationTargets[constructor];
+            if (target != NO_DELEGATION && arities[target] > arities[constructor]) {
+                lengths[target] = Math.max(lengths[target], lengths[constructor] + 1);
+            }
+        }
+        return lengths;
+    }
+
+    /**
+     * Delegation targets told apart by arity: the only non-varargs overload taking as many
+     * parameters as {@code this(...)} passes arguments, {@link #NO_DELEGATION} for constructors
+     * without one ({@code argumentCounts} holds {@link #NO_DELEGATION} there) and
+     * {@link #UNRESOLVED} when only resolution can tell.
+     *
+     * <p>Overloads usually differ in arity, so a table from arity to its single overload, built
+     * once, answers most delegations in {@code O(constructors + max arity)} without resolving.
+     */
+    @NonNull
+    static int[] getDelegationTargets(@NonNull final int[] arities,
+                                      @NonNull final boolean[] varArgs,
+                                      @NonNull final int[] argumentCounts) {
+        final int count = arities.length;
+        int maxArity = 0;
+        for (int arity : arities) {
+            maxArity = Math.max(maxArity, arity);
+        }
+
+        final int[] overloads = new int[maxArity + 1];
+        Arrays.fill(overloads, NO_DELEGATION);
+        for (int i = 0; i < count; i++) {
+            if (!varArgs[i]) {
+                overloads[arities[i]] = overloads[arities[i]] == NO_DELEGATION ? i : UNRESOLVED;
+            }
+        }
+
+        final int[] targets = new int[count];
+        for (int i = 0; i < count; i++) {
+            final int argumentCount = argumentCounts[i];
+            if (argumentCount == NO_DELEGATION) {
+                targets[i] = NO_DELEGATION;
+            } else if (argumentCount > maxArity || overloads[argumentCount] == NO_DELEGATION) {
+                targets[i] = UNRESOLVED;
+            } else {
+                targets[i] = overloads[argumentCount];
+            }
+        }
+        return targets;
+    }
+
+    /** The {@code this(...)} call starting the body of {@code constructor}, if any. */
+    @Nullable
+    private static PsiMethodCallExpression getDelegation(@NonNull final PsiMethod constructor) {
+        final PsiCodeBlock body = constructor.getBody();
+        if (body == null) {
+            return null;
+        }
+
+        final PsiStatement[] statements = body.getStatements();
+        if (statements.length == 0 || !(statements[0] instanceof PsiExpressionStatement)) {
+            return null;
+        }
+
+        final PsiExpression expression = ((PsiExpressionStatement) statements[0]).getExpression();
+        if (!(expression instanceof PsiMethodCallExpression)) {
+            return null;
+        }
+
+        final PsiMethodCallExpression call = (PsiMethodCallExpression) expression;
+        return THIS.equals(call.getMethodExpression().getReferenceName()) ? call : null;
+    }
+
+    /** Whether the parameter is a {@code boolean} or {@code Boolean} flag, judged from its type as written. */
+    private static boolean isBoolean(@NonNull final PsiParameter parameter) {
+        final PsiTypeElement typeElement = parameter.getTypeElement();
+        final String type = typeElement != null ? typeElement.getText() : parameter.getType().getCanonicalText();
+        switch (type) {
+            case "boolean":
+            case "Boolean":
+            case "java.lang.Boolean":
+                return true;
+            default:
+                return false;
+        }
+    }
+}
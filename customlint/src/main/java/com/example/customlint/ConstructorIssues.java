@@ -0,0 +1,84 @@
+package com.example.customlint;
+
+import com.android.tools.lint.detector.api.Category;
+import com.android.tools.lint.detector.api.Implementation;
+import com.android.tools.lint.detector.api.Issue;
+import com.android.tools.lint.detector.api.Scope;
+import com.android.tools.lint.detector.api.Severity;
+
+/**
+ * Metadata of the {@link JavaConstructorDetector} issues, kept out of the detector so that
+ * {@link CustomIssueRegistry} can list them without initializing it. The implementation only
+ * names the detector class; lint instantiates it, running its static configuration, when one
+ * of these issues is enabled.
+ */
+public final class ConstructorIssues {
+    static final String TOO_MANY_PARAMETERS_ISSUE_ID = "TooManyParametersConstructor";
+    static final String TOO_MANY_PARAMETERS_ISSUE_DESCRIPTION = "Constructor has too many parameters.";
+    static final String TOO_MANY_PARAMETERS_KOTLIN_MESSAGE = "Constructor has too many parameters. Call it with named arguments or give its parameters default values.";
+    private static final String TOO_MANY_PARAMETERS_ISSUE_EXPLANATION = "Switching to build pattern improves readability and scalability. In Kotlin, named arguments and default values do the same without a builder.";
+    private static final Category TOO_MANY_PARAMETERS_ISSUE_CATEGORY = Category.CORRECTNESS;
+    private static final int TOO_MANY_PARAMETERS_ISSUE_PRIORITY = 6;
+    private static final Severity TOO_MANY_PARAMETERS_ISSUE_SEVERITY = Severity.WARNING;
+    private static final String BOOLEAN_PARAMETERS_ISSUE_ID = "BooleanParametersConstructor";
+    private static final String BOOLEAN_PARAMETERS_ISSUE_DESCRIPTION = "Constructor has several boolean parameters.";
+    private static final String BOOLEAN_PARAMETERS_ISSUE_EXPLANATION = "Boolean flags are unreadable at call sites; a builder or an enum names each option.";
+    private static final Category BOOLEAN_PARAMETERS_ISSUE_CATEGORY = Category.USABILITY;
+    private static final int BOOLEAN_PARAMETERS_ISSUE_PRIORITY = 5;
+    private static final Severity BOOLEAN_PARAMETERS_ISSUE_SEVERITY = Severity.WARNING;
+    private static final String TELESCOPING_ISSUE_ID = "TelescopingConstructor";
+    private static final String TELESCOPING_ISSUE_DESCRIPTION = "Constructor ends a telescoping constructor chain.";
+    private static final String TELESCOPING_ISSUE_EXPLANATION = "Overloads delegating via `this(...)` to ever longer parameter lists are hard to read and extend; a builder replaces the whole chain.";
+    private static final Category TELESCOPING_ISSUE_CATEGORY = Category.USABILITY;
+    private static final int TELESCOPING_ISSUE_PRIORITY = 5;
+    private static final Severity TELESCOPING_ISSUE_SEVERITY = Severity.WARNING;
+    private static final Implementation IMPLEMENTATION = new Implementation(JavaConstructorDetector.class, Scope.JAVA_FILE_SCOPE);
+
+    /** Issue describing the problem and pointing to the detector implementation */
+    public static final Issue TOO_MANY_PARAMETERS_ISSUE = Issue.create(
+        // ID: used in @SuppressLint warnings etc
+        TOO_MANY_PARAMETERS_ISSUE_ID,
+
+        // Title -- shown in the IDE's preference dialog, as category headers in the
+        // Analysis results window, etc
+        TOO_MANY_PARAMETERS_ISSUE_DESCRIPTION,
+
+        // Full explanation of the issue; you can use some markdown markup such as
+        // `monospace`, *italic*, and **bold**.
+        TOO_MANY_PARAMETERS_ISSUE_EXPLANATION,
+        TOO_MANY_PARAMETERS_ISSUE_CATEGORY,
+        TOO_MANY_PARAMETERS_ISSUE_PRIORITY,
+        TOO_MANY_PARAMETERS_ISSUE_SEVERITY,
+        IMPLEMENTATION);
+
+    /**
+     * Constructors taking more than one boolean flag; evaluated from the {@link ConstructorIndex}.
+     * A style check, so off unless enabled in {@code lint.xml} or through {@code --enable}.
+     */
+    public static final Issue BOOLEAN_PARAMETERS_ISSUE = Issue.create(
+        BOOLEAN_PARAMETERS_ISSUE_ID,
+        BOOLEAN_PARAMETERS_ISSUE_DESCRIPTION,
+        BOOLEAN_PARAMETERS_ISSUE_EXPLANATION,
+        BOOLEAN_PARAMETERS_ISSUE_CATEGORY,
+        BOOLEAN_PARAMETERS_ISSUE_PRIORITY,
+        BOOLEAN_PARAMETERS_ISSUE_SEVERITY,
+        IMPLEMENTATION)
+        .setEnabledByDefault(false);
+
+    /**
+     * Telescoping chains, reported on the constructor with the longest parameter list. Off by
+     * default like {@link #BOOLEAN_PARAMETERS_ISSUE}.
+     */
+    public static final Issue TELESCOPING_ISSUE = Issue.create(
+        TELESCOPING_ISSUE_ID,
+        TELESCOPING_ISSUE_DESCRIPTION,
+        TELESCOPING_ISSUE_EXPLANATION,
+        TELESCOPING_ISSUE_CATEGORY,
+        TELESCOPING_ISSUE_PRIORITY,
+        TELESCOPING_ISSUE_SEVERITY,
+        IMPLEMENTATION)
+        .setEnabledByDefault(false);
+
+    private ConstructorIssues() {
+    }
+}
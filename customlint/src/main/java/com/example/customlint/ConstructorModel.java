@@ -0,0 +1,87 @@
+package com.example.customlint;
+
+import com.android.annotations.NonNull;
+import com.android.annotations.Nullable;
+import com.intellij.psi.PsiMethod;
+import com.intellij.psi.PsiParameter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parameter names and rendered types of a constructor, computed once and shared by every
+ * part of the builder fix generation.
+ */
+public final class ConstructorModel {
+    private final String name;
+    private final String[] parameterNames;
+    private final String[] parameterTypes;
+
+    public ConstructorModel(@NonNull final String name,
+                            @NonNull final String[] parameterNames,
+                            @NonNull final String[] parameterTypes) {
+        this.name = name;
+        this.parameterNames = parameterNames;
+        this.parameterTypes = parameterTypes;
+    }
+
+    @NonNull
+    public static ConstructorModel create(@NonNull final PsiMethod constructor, @NonNull final TypeTextCache typeTextCache) {
+        final PsiParameter[] parameters = constructor.getParameterList().getParameters();
+        final String[] parameterNames = new String[parameters.length];
+        final String[] parameterTypes = new String[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            parameterNames[i] = parameters[i].getName();
+            parameterTypes[i] = typeTextCache.getPresentableText(parameters[i]);
+        }
+        return new ConstructorModel(constructor.getName(), parameterNames, parameterTypes);
+    }
+
+    /**
+     * Combines the overloaded constructors of one class into a single model taking the union of
+     * their parameters, in order of first appearance, so that one builder serves them all.
+     * Returns {@code null} when two constructors use the same parameter name with different
+     * types, since the builder could not hold both in one field.
+     */
+    @Nullable
+    public static ConstructorModel merge(@NonNull final List<ConstructorModel> constructors) {
+        final Map<String, String> parameters = new LinkedHashMap<>();
+        for (ConstructorModel constructor : constructors) {
+            for (int i = 0; i < constructor.parameterNames.length; i++) {
+                final String type = parameters.get(constructor.parameterNames[i]);
+                if (type == null) {
+                    parameters.put(constructor.parameterNames[i], constructor.parameterTypes[i]);
+                } else if (!type.equals(constructor.parameterTypes[i])) {
+                    return null;
+                }
+            }
+        }
+
+        final List<String> names = new ArrayList<>(parameters.keySet());
+        final List<String> types = new ArrayList<>(parameters.values());
+        return new ConstructorModel(constructors.get(0).name,
+                                    names.toArray(new String[names.size()]),
+                                    types.toArray(new String[types.size()]));
+    }
+
+    /** Name of the constructor, i.e. of the class it constructs. */
+    @NonNull
+    public String getName() {
+        return name;
+    }
+
+    public int getParameterCount() {
+        return parameterNames.length;
+    }
+
+    @NonNull
+    public String[] getParameterNames() {
+        return parameterNames;
+    }
+
+    @NonNull
+    public String[] getParameterTypes() {
+        return parameterTypes;
+    }
+}
@@ -6,9 +6,14 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+/**
+ * Registers the custom issues from their metadata in {@link ConstructorIssues}. Detector classes
+ * are only named there; lint initializes and instantiates a detector once it enables one of its
+ * issues, so disabled rules cost nothing at startup.
+ */
 public class CustomIssueRegistry extends IssueRegistry {
     private static final List<Issue> lintIssues;
-    private static final int INITIAL_CAPACITY = 1;
+    private static final int INITIAL_CAPACITY = 3;
 
     public CustomIssueRegistry() {
     }
@@ -16,7 +21,9 @@ public class CustomIssueRegistry extends IssueRegistry {
     static {
         List<Issue> issues = new ArrayList<>(INITIAL_CAPACITY);
 
-        issues.add(JavaConstructorDetector.TOO_MANY_PARAMETERS_ISSUE);
+        issues.add(ConstructorIssues.TOO_MANY_PARAMETERS_ISSUE);
+        issues.add(ConstructorIssues.BOOLEAN_PARAMETERS_ISSUE);
+        issues.add(ConstructorIssues.TELESCOPING_ISSUE);
         lintIssues = Collections.unmodifiableList(issues);
     }
 
@@ -0,0 +1,508 @@
+package com.example.customlint;
+
+import com.android.annotations.NonNull;
+import com.android.annotations.Nullable;
+import com.android.tools.lint.LintCliFlags;
+import com.android.tools.lint.detector.api.Severity;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Command line entry point running only the {@link CustomIssueRegistry} issues over many
+ * modules without a Gradle/AGP configuration:
+ *
+ * <pre>
+ * java -cp CustomLint.jar:&lt;lint classpath&gt; com.example.customlint.CustomLintRunner \
+ *     [--threads N] [--output FILE] [--format text|sarif|ndjson] [--fix-text full|none|N]
+ *     [--apply-fixes | --dry-run] [--changed-since REF] module...
+ * </pre>
+ *
+ * Modules are analyzed one after the other, each by its own lint client, and their incidents
+ * are merged into one report. Lint 26 keeps one IntelliJ core environment per JVM, which its
+ * clients are not safe to share, so clients of this process never run at the same time and
+ * {@code --threads} only sets the workers rewriting files for {@code --apply-fixes} and
+ * {@code --dry-run}. The {@code sarif} and {@code ndjson} formats
+ * stream incidents as they are reported instead of holding them until the end; fix texts are
+ * written in full, left out or truncated to N characters. Wall-clock and per-module timings
+ * go to stderr.
+ *
+ * <p>{@code --apply-fixes} then rewrites every flagged constructor with its builder fix through
+ * {@link BuilderRefactoring}; {@code --dry-run} writes the rewrite as a unified diff to the
+ * output instead of the report and leaves the sources untouched. Both analyze all modules with
+ * one lint client, so the fixes migrate callers across modules.
+ *
+ * <p>{@code --changed-since REF} limits the run to the {@link ChangedLines lines changed} since
+ * the git ref {@code REF}: incidents outside the changed lines are dropped, and for a report
+ * only changed sources are handed to lint, so untouched files are never parsed. Applying or
+ * diffing the fixes still analyzes whole modules, so callers in untouched files are migrated.
+ */
+public final class CustomLintRunner {
+    private static final String THREADS_OPTION = "--threads";
+    private static final String OUTPUT_OPTION = "--output";
+    private static final String FORMAT_OPTION = "--format";
+    private static final String FIX_TEXT_OPTION = "--fix-text";
+    private static final String APPLY_FIXES_OPTION = "--apply-fixes";
+    private static final String DRY_RUN_OPTION = "--dry-run";
+    private static final String CHANGED_SINCE_OPTION = "--changed-since";
+    private static final String HELP_OPTION = "--help";
+    private static final String FORMAT_TEXT = "text";
+    private static final String FORMAT_SARIF = "sarif";
+    private static final String FORMAT_NDJSON = "ndjson";
+    private static final String FIX_TEXT_FULL = "full";
+    private static final String FIX_TEXT_NONE = "none";
+    private static final String[] SOURCE_DIRECTORIES = {"src/main/java", "src"};
+
+    /** Held while a lint client runs, since the clients of one JVM share lint's IntelliJ core environment. */
+    private static final Object LINT_LOCK = new Object();
+
+    private static final int EXIT_SUCCESS = 0;
+    private static final int EXIT_ERRORS = 1;
+    private static final int EXIT_USAGE = 2;
+
+    private CustomLintRunner() {
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /** Runs the command line; returns the process exit code. */
+    static int run(@NonNull final String[] args, @NonNull final PrintStream out, @NonNull final PrintStream err) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        File output = null;
+        String format = FORMAT_TEXT;
+        int maxFixLength = IncidentWriter.FULL_FIX_TEXT;
+        boolean applyFixes = false;
+        boolean dryRun = false;
+        String changedSince = null;
+        final List<File> modules = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            final String arg = args[i];
+            if (HELP_OPTION.equals(arg)) {
+                printUsage(out);
+                return EXIT_SUCCESS;
+            } else if (THREADS_OPTION.equals(arg) && i + 1 < args.length) {
+                try {
+                    threads = Integer.parseInt(args[++i]);
+                } catch (NumberFormatException e) {
+                    threads = 0;
+                }
+                if (threads <= 0) {
+                    err.println("Invalid " + THREADS_OPTION + " value: " + args[i]);
+                    return EXIT_USAGE;
+                }
+            } else if (OUTPUT_OPTION.equals(arg) && i + 1 < args.length) {
+                output = new File(args[++i]);
+            } else if (FORMAT_OPTION.equals(arg) && i + 1 < args.length) {
+                format = args[++i];
+                if (!FORMAT_TEXT.equals(format) && !FORMAT_SARIF.equals(format) && !FORMAT_NDJSON.equals(format)) {
+                    err.println("Invalid " + FORMAT_OPTION + " value: " + format);
+                    return EXIT_USAGE;
+                }
+            } else if (FIX_TEXT_OPTION.equals(arg) && i + 1 < args.length) {
+                maxFixLength = parseFixText(args[++i]);
+                if (maxFixLength < IncidentWriter.FULL_FIX_TEXT) {
+                    err.println("Invalid " + FIX_TEXT_OPTION + " value: " + args[i]);
+                    return EXIT_USAGE;
+                }
+            } else if (APPLY_FIXES_OPTION.equals(arg)) {
+                applyFixes = true;
+            } else if (DRY_RUN_OPTION.equals(arg)) {
+                dryRun = true;
+            } else if (CHANGED_SINCE_OPTION.equals(arg) && i + 1 < args.length) {
+                changedSince = args[++i];
+            } else if (arg.startsWith("--")) {
+                err.println("Unknown option: " + arg);
+                printUsage(err);
+                return EXIT_USAGE;
+            } else {
+                modules.add(new File(arg));
+            }
+        }
+
+        if (modules.isEmpty()) {
+            printUsage(err);
+            return EXIT_USAGE;
+        }
+
+        final long start = System.nanoTime();
+        final long[] skippedBefore = getSkippedFiles();
+        final List<ModuleResult> results;
+        BuilderRefactoring.Result refactoring = null;
+        ChangedLines changes = null;
+        // One baseline for all modules: loaded once, or recorded from all of them and written once
+        final File baselineFile = JavaConstructorDetector.settings.getBaselineFile();
+        final boolean recordBaseline = baselineFile != null && !baselineFile.isFile();
+        try {
+            final ConstructorBaseline baseline = baselineFile == null
+                ? null
+                : recordBaseline ? ConstructorBaseline.create() : ConstructorBaseline.load(baselineFile);
+            if (changedSince != null) {
+                changes = ChangedLines.compute(modules, changedSince);
+                err.println(String.format(Locale.US, "%1$d files changed since %2$s", changes.getFiles().size(), changedSince));
+            }
+            if (dryRun) {
+                results = analyzeAll(modules, new Options().collectEdits(true)
+                                                        .changes(changes)
+                                                        .baseline(baseline, recordBaseline));
+                try (Writer diff = openOutput(output, out)) {
+                    refactoring = BuilderRefactoring.apply(mergeEdits(results), threads, diff);
+                }
+            } else if (FORMAT_TEXT.equals(format)) {
+                results = analyzeAll(modules, new Options().collectEdits(applyFixes)
+                                                        .changes(changes)
+                                                        .baseline(baseline, recordBaseline));
+                final PrintWriter writer = new PrintWriter(openOutput(output, out));
+                writeReport(merge(results), writer);
+                writer.close();
+            } else {
+                final Writer writer = openOutput(output, out);
+                try (IncidentWriter incidentWriter = FORMAT_SARIF.equals(format)
+                    ? new SarifIncidentWriter(writer, new CustomIssueRegistry().getIssues(), maxFixLength)
+                    : new NdjsonIncidentWriter(writer, maxFixLength)) {
+                    results = analyzeAll(modules, new Options().writer(incidentWriter)
+                                                            .collectEdits(applyFixes)
+                                                            .changes(changes)
+                                                            .baseline(baseline, recordBaseline));
+                }
+            }
+            if (applyFixes && !dryRun) {
+                refactoring = BuilderRefactoring.apply(mergeEdits(results), threads, null);
+            }
+            if (recordBaseline && !dryRun) {
+                baseline.write(baselineFile);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            err.println("Lint failed: " + e.getMessage());
+            return EXIT_ERRORS;
+        }
+        final long wallNanos = System.nanoTime() - start;
+
+        for (ModuleResult result : results) {
+            err.println(String.format(Locale.US, "%1$8.1f ms  %2$s", result.nanos / 1e6, result.module.getPath()));
+        }
+        err.println(String.format(Locale.US, "%1$d modules in %2$.1f ms", modules.size(), wallNanos / 1e6));
+        final long[] skipped = getSkippedFiles();
+        for (int i = 0; i < skipped.length; i++) {
+            skipped[i] -= skippedBefore[i];
+        }
+        if (skipped[0] + skipped[1] + skipped[2] > 0) {
+            err.println(String.format(Locale.US, "Skipped %1$d files: %2$d generated paths, %3$d over the size limit, %4$d marked generated",
+                                      skipped[0] + skipped[1] + skipped[2], skipped[0], skipped[1], skipped[2]));
+        }
+        if (refactoring != null) {
+            err.println(String.format(Locale.US, "%1$s %2$d constructors in %3$d files (%4$d skipped) in %5$.1f ms, %6$.0f files/s",
+                                      dryRun ? "Would rewrite" : "Rewrote",
+                                      refactoring.getAppliedEdits(),
+                                      refactoring.getChangedFiles(),
+                                      refactoring.getSkippedEdits(),
+                                      refactoring.getNanos() / 1e6,
+                                      refactoring.getFilesPerSecond()));
+            if (refactoring.getSkippedFixes() > 0) {
+                err.println(String.format(Locale.US, "Skipped %1$d fixes whose edits were stale or overlapped another fix",
+                                          refactoring.getSkippedFixes()));
+            }
+        }
+
+        for (ModuleResult result : results) {
+            if (result.errorCount > 0) {
+                return EXIT_ERRORS;
+            }
+        }
+        return EXIT_SUCCESS;
+    }
+
+    /**
+     * Analyzes {@code modules} for {@link #run}. Reports come from {@link #analyze(List, Options)};
+     * edits to apply or diff come from {@link #analyzeTogether} instead, since a fix migrating the
+     * call sites of a constructor only sees the callers analyzed by the same lint client.
+     */
+    @NonNull
+    static List<ModuleResult> analyzeAll(@NonNull final List<File> modules, @NonNull final Options options) throws IOException {
+        if (options.collectEdits && modules.size() > 1) {
+            return Collections.singletonList(analyzeTogether(modules, options));
+        }
+        return analyze(modules, options);
+    }
+
+    /** Analyzes every module, one after the other; results keep the order of {@code modules}. */
+    @NonNull
+    static List<ModuleResult> analyze(@NonNull final List<File> modules, @NonNull final Options options) throws IOException {
+        final List<ModuleResult> results = new ArrayList<>(modules.size());
+        for (File module : modules) {
+            results.add(analyze(module, options));
+        }
+        return results;
+    }
+
+    /**
+     * Analyzes one module. With {@link Options#changes(ChangedLines) changes} and no edits to
+     * collect, only its changed sources are handed to lint and a module without any is not
+     * analyzed at all; fixes need the whole module, since their call site migration has to
+     * reach the callers in untouched files.
+     */
+    @NonNull
+    static ModuleResult analyze(@NonNull final File module, @NonNull final Options options) throws IOException {
+        final long start = System.nanoTime();
+
+        final File sourceDirectory = getSourceDirectory(module);
+        List<File> files = Collections.singletonList(module);
+        if (options.changes != null && !options.collectEdits) {
+            files = getChangedSources(sourceDirectory, options.changes);
+            if (files.isEmpty()) {
+                return new ModuleResult(module, Collections.<LintIncident>emptyList(), 0, System.nanoTime() - start);
+            }
+        }
+
+        return analyze(module, files, Collections.singletonList(sourceDirectory), options, start);
+    }
+
+    /**
+     * Analyzes the sources of all {@code modules} as one lint project, so that
+     * the fix of a constructor also migrates its callers in the other modules. The result is
+     * attributed to the first module.
+     */
+    @NonNull
+    static ModuleResult analyzeTogether(@NonNull final List<File> modules, @NonNull final Options options) throws IOException {
+        final long start = System.nanoTime();
+
+        final List<File> sourceDirectories = new ArrayList<>(modules.size());
+        for (File module : modules) {
+            sourceDirectories.add(getSourceDirectory(module));
+        }
+        final File module = modules.get(0);
+        return analyze(module, Collections.singletonList(module), sourceDirectories, options, start);
+    }
+
+    @NonNull
+    private static ModuleResult analyze(@NonNull final File module,
+                                        @NonNull final List<File> files,
+                                        @NonNull final List<File> sourceDirectories,
+                                        @NonNull final Options options,
+                                        final long start) throws IOException {
+        final LintCliFlags flags = new LintCliFlags();
+        flags.setQuiet(true);
+        flags.setSourcesOverride(sourceDirectories);
+
+        final CollectingLintClient client =
+            new CollectingLintClient(flags, options.writer, options.collectEdits, options.changes);
+        client.setBaseline(options.baseline, options.recordingBaseline);
+        synchronized (LINT_LOCK) {
+            client.run(new CustomIssueRegistry(), files);
+        }
+
+        return new ModuleResult(module,
+                                client.getIncidents(),
+                                client.getEdits(),
+                                client.getErrorCount(),
+                                System.nanoTime() - start);
+    }
+
+    /** Merges the module results into one list sorted by path and line. */
+    @NonNull
+    static List<LintIncident> merge(@NonNull final List<ModuleResult> results) {
+        final List<LintIncident> incidents = new ArrayList<>();
+        for (ModuleResult result : results) {
+            incidents.addAll(result.incidents);
+        }
+        Collections.sort(incidents);
+        return incidents;
+    }
+
+    /** The fix edits of all module results. */
+    @NonNull
+    static List<SourceEdit> mergeEdits(@NonNull final List<ModuleResult> results) {
+        final List<SourceEdit> edits = new ArrayList<>();
+        for (ModuleResult result : results) {
+            edits.addAll(result.edits);
+        }
+        return edits;
+    }
+
+    static void writeReport(@NonNull final List<LintIncident> incidents, @NonNull final PrintWriter writer) {
+        int errors = 0;
+        int warnings = 0;
+        for (LintIncident incident : incidents) {
+            writer.println(incident.format());
+            if (incident.getSeverity().isError()) {
+                errors++;
+            } else if (incident.getSeverity() != Severity.IGNORE) {
+                warnings++;
+            }
+        }
+        writer.println(errors + " errors, " + warnings + " warnings");
+        writer.flush();
+    }
+
+    /**
+     * Files skipped so far by the detector's {@link GeneratedSourceFilter}, indexed by reason.
+     * The filter is shared by all lint clients of the process.
+     */
+    @NonNull
+    private static long[] getSkippedFiles() {
+        final GeneratedSourceFilter.Reason[] reasons = GeneratedSourceFilter.Reason.values();
+        final long[] skipped = new long[reasons.length];
+        for (int i = 0; i < reasons.length; i++) {
+            skipped[i] = JavaConstructorDetector.SOURCE_FILTER.getSkippedFiles(reasons[i]);
+        }
+        return skipped;
+    }
+
+    /** Parses a {@code --fix-text} value; returns a value below {@link IncidentWriter#FULL_FIX_TEXT} if invalid. */
+    static int parseFixText(@NonNull final String value) {
+        if (FIX_TEXT_FULL.equals(value)) {
+            return IncidentWriter.FULL_FIX_TEXT;
+        }
+        if (FIX_TEXT_NONE.equals(value)) {
+            return IncidentWriter.NO_FIX_TEXT;
+        }
+        try {
+            final int length = Integer.parseInt(value);
+            return length >= 0 ? length : Integer.MIN_VALUE;
+        } catch (NumberFormatException e) {
+            return Integer.MIN_VALUE;
+        }
+    }
+
+    @NonNull
+    private static Writer openOutput(@Nullable final File output, @NonNull final PrintStream out) throws IOException {
+        final OutputStream stream = output != null ? new FileOutputStream(output) : new FilterOutputStream(out) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                // keep stdout open; just flush it
+                flush();
+            }
+        };
+        return new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+    }
+
+    /** Changed Java sources under {@code sourceDirectory}; lint 26.0 does not parse Kotlin ones. */
+    @NonNull
+    private static List<File> getChangedSources(@NonNull final File sourceDirectory,
+                                                @NonNull final ChangedLines changes) throws IOException {
+        final String prefix = sourceDirectory.getCanonicalPath() + File.separator;
+        final List<File> files = new ArrayList<>();
+        for (File file : changes.getFiles()) {
+            if (file.getPath().startsWith(prefix) && file.getName().endsWith(".java")) {
+                files.add(file);
+            }
+        }
+        return files;
+    }
+
+    @NonNull
+    private static File getSourceDirectory(@NonNull final File module) {
+        for (String path : SOURCE_DIRECTORIES) {
+            final File directory = new File(module, path);
+            if (directory.isDirectory()) {
+                return directory;
+            }
+        }
+        return module;
+    }
+
+    private static void printUsage(@NonNull final PrintStream stream) {
+        stream.println("Usage: CustomLintRunner [" + THREADS_OPTION + " N] [" + OUTPUT_OPTION + " FILE] ["
+                           + FORMAT_OPTION + " F] [" + FIX_TEXT_OPTION + " V] [" + APPLY_FIXES_OPTION + " | "
+                           + DRY_RUN_OPTION + "] [" + CHANGED_SINCE_OPTION + " REF] module...");
+        stream.println("  " + THREADS_OPTION + " N     threads rewriting files for the fixes (default: available processors)");
+        stream.println("  " + OUTPUT_OPTION + " FILE   write the merged report to FILE instead of stdout");
+        stream.println("  " + FORMAT_OPTION + " F      report format: text (default), sarif or ndjson");
+        stream.println("  " + FIX_TEXT_OPTION + " V    fix texts in sarif/ndjson: full (default), none or a maximum length");
+        stream.println("  " + APPLY_FIXES_OPTION + "   rewrite the flagged constructors with their builder fixes");
+        stream.println("  " + DRY_RUN_OPTION + "       write the rewrite as a unified diff instead of the report");
+        stream.println("  " + CHANGED_SINCE_OPTION + " REF only analyze the lines changed since the git ref REF");
+    }
+
+    /**
+     * How {@link #analyze(List, Options)} runs: by default collecting incidents without their
+     * edits, over every line.
+     */
+    static final class Options {
+        private IncidentWriter writer;
+        private boolean collectEdits;
+        private ChangedLines changes;
+        private ConstructorBaseline baseline;
+        private boolean recordingBaseline;
+
+        /** Shared writer receiving the incidents as they are reported instead of collecting them. */
+        @NonNull
+        Options writer(@Nullable final IncidentWriter writer) {
+            this.writer = writer;
+            return this;
+        }
+
+        /** Whether to keep the fix edits in the results. */
+        @NonNull
+        Options collectEdits(final boolean collectEdits) {
+            this.collectEdits = collectEdits;
+            return this;
+        }
+
+        /** Limits the incidents, and unless edits are collected the analyzed sources, to {@code changes}. */
+        @NonNull
+        Options changes(@Nullable final ChangedLines changes) {
+            this.changes = changes;
+            return this;
+        }
+
+        /**
+         * Baseline shared by all modules instead of one per lint client, so a recorded baseline
+         * holds the incidents of every module; {@code recording} when it is being recorded.
+         */
+        @NonNull
+        Options baseline(@Nullable final ConstructorBaseline baseline, final boolean recording) {
+            this.baseline = baseline;
+            this.recordingBaseline = recording;
+            return this;
+        }
+    }
+
+    /** Incidents, fix edits and analysis time of one module. */
+    static final class ModuleResult {
+        final File module;
+        final List<LintIncident> incidents;
+        final List<SourceEdit> edits;
+        final int errorCount;
+        final long nanos;
+
+        ModuleResult(@NonNull final File module,
+                     @NonNull final List<LintIncident> incidents,
+                     final int errorCount,
+                     final long nanos) {
+            this(module, incidents, Collections.<SourceEdit>emptyList(), errorCount, nanos);
+        }
+
+        ModuleResult(@NonNull final File module,
+                     @NonNull final List<LintIncident> incidents,
+                     @NonNull final List<SourceEdit> edits,
+                     final int errorCount,
+                     final long nanos) {
+            this.module = module;
+            this.incidents = incidents;
+            this.edits = edits;
+            this.errorCount = errorCount;
+            this.nanos = nanos;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.customlint;
+
+import com.android.annotations.NonNull;
+import com.android.annotations.Nullable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Low-overhead counters describing what {@link JavaConstructorDetector} costs inside a lint
+ * run. Counters are striped {@link LongAdder}s so concurrent analysis threads do not contend.
+ *
+ * <p>Metrics are disabled unless an output directory is configured; the detector then skips
+ * all clock and allocation reads. Each lint run counts into fresh metrics, written at its end
+ * as {@link #JSON_FILE_NAME} and, in Prometheus text format, {@link #PROMETHEUS_FILE_NAME} in a
+ * subdirectory named after the checked project, so runs over several modules in one process
+ * neither share counters nor overwrite each other's files.
+ */
+public final class DetectorMetrics {
+    public static final String JSON_FILE_NAME = "constructor-detector-metrics.json";
+    public static final String PROMETHEUS_FILE_NAME = "constructor-detector-metrics.prom";
+
+    private static final String PROMETHEUS_PREFIX = "customlint_constructor_";
+
+    /** The recorded counters. */
+    public enum Counter {
+        FILES_VISITED("files_visited_total", "Source files handed to the detector."),
+        FILES_SKIPPED("files_skipped_total", "Source files skipped as generated or oversized."),
+        METHODS_VISITED("methods_visited_total", "Methods visited by the detector."),
+        CONSTRUCTORS_INSPECTED("constructors_inspected_total", "Constructors whose parameters were inspected."),
+        INCIDENTS_REPORTED("incidents_reported_total", "Incidents reported to lint."),
+        VISIT_NANOS("visit_nanoseconds_total", "Time spent visiting methods, including fix generation."),
+        FIX_NANOS("fix_nanoseconds_total", "Time spent generating builder fixes."),
+        FIXES_BUILT("builder_fixes_built_total", "Builder fixes generated, one per incident given a fix."),
+        ALLOCATED_BYTES("allocated_bytes_total", "Bytes allocated while visiting methods, where the JVM exposes it."),
+        TYPE_TEXT_CACHE_HITS("type_text_cache_hits_total", "Parameter types answered from the type text cache."),
+        TYPE_TEXT_CACHE_MISSES("type_text_cache_misses_total", "Parameter types rendered on a type text cache miss.");
+
+        private final String metricName;
+        private final String help;
+
+        Counter(final String metricName, final String help) {
+            this.metricName = metricName;
+            this.help = help;
+        }
+    }
+
+    private final File outputDirectory;
+    private final LongAdder[] counters;
+    private final com.sun.management.ThreadMXBean allocationBean;
+
+    DetectorMetrics(@NonNull final File outputDirectory) {
+        this.outputDirectory = outputDirectory;
+        this.counters = new LongAdder[Counter.values().length];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+        this.allocationBean = getAllocationBean();
+    }
+
+    /**
+     * Returns the metrics of one run over {@code projectName}, writing to its subdirectory of
+     * {@code outputDirectory}, or {@code null} (disabled) when no directory is configured.
+     */
+    @Nullable
+    public static DetectorMetrics create(@Nullable final String outputDirectory, @NonNull final String projectName) {
+        if (outputDirectory == null || outputDirectory.trim().isEmpty()) {
+            return null;
+        }
+        final String directoryName = projectName.replaceAll("[^A-Za-z0-9._-]", "_");
+        return new DetectorMetrics(new File(new File(outputDirectory.trim()), directoryName));
+    }
+
+    public void increment(@NonNull final Counter counter) {
+        counters[counter.ordinal()].increment();
+    }
+
+    public void add(@NonNull final Counter counter, final long value) {
+        counters[counter.ordinal()].add(value);
+    }
+
+    public long get(@NonNull final Counter counter) {
+        return counters[counter.ordinal()].sum();
+    }
+
+    /** Bytes allocated so far by the current thread, or {@code -1} when the JVM cannot tell. */
+    public long currentThreadAllocatedBytes() {
+        if (allocationBean == null) {
+            return -1;
+        }
+        return allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /** Records the bytes allocated since {@code start}, as returned by {@link #currentThreadAllocatedBytes()}. */
+    public void addAllocatedSince(final long start) {
+        if (start >= 0) {
+            final long end = currentThreadAllocatedBytes();
+            if (end >= start) {
+                add(Counter.ALLOCATED_BYTES, end - start);
+            }
+        }
+    }
+
+    /** Writes the JSON and Prometheus files to the output directory. */
+    public void write() throws IOException {
+        if (!outputDirectory.isDirectory() && !outputDirectory.mkdirs()) {
+            throw new IOException("Cannot create metrics directory " + outputDirectory);
+        }
+
+        write(new File(outputDirectory, JSON_FILE_NAME), toJson());
+        write(new File(outputDirectory, PROMETHEUS_FILE_NAME), toPrometheus());
+    }
+
+    @NonNull
+    String toJson() {
+        final StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        final Counter[] values = Counter.values();
+        for (int i = 0; i < values.length; i++) {
+            json.append("  \"").append(values[i].metricName).append("\": ").append(get(values[i]));
+            json.append(i < values.length - 1 ? ",\n" : "\n");
+        }
+        json.append("}\n");
+        return json.toString();
+    }
+
+    @NonNull
+    String toPrometheus() {
+        final StringBuilder text = new StringBuilder();
+        for (Counter counter : Counter.values()) {
+            final String name = PROMETHEUS_PREFIX + counter.metricName;
+            text.append("# HELP ").append(name).append(' ').append(counter.help).append('\n');
+            text.append("# TYPE ").append(name).append(" counter\n");
+            text.append(name).append(' ').append(get(counter)).append('\n');
+        }
+        return text.toString();
+    }
+
+    private static void write(@NonNull final File file, @NonNull final String contents) throws IOException {
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            writer.write(contents);
+        }
+    }
+
+    @Nullable
+    private static com.sun.management.ThreadMXBean getAllocationBean() {
+        final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            final com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) bean;
+            if (allocationBean.isThreadAllocatedMemorySupported() && allocationBean.isThreadAllocatedMemoryEnabled()) {
+                return allocationBean;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.customlint;
+
+import com.android.annotations.NonNull;
+import com.android.annotations.Nullable;
+import java.io.File;
+
+/**
+ * Settings of a {@link JavaConstructorDetector}, read from the environment by
+ * {@link #fromEnvironment()}. Lint creates detectors itself, so tests hand theirs over through
+ * {@link JavaConstructorDetector#settings}; each detector copies them when it is created.
+ */
+final class DetectorSettings {
+    private BuilderFixMode fixMode = BuilderFixMode.LAZY;
+    private boolean migrateCallSites;
+    private String metricsDirectory;
+    private File baselineFile;
+
+    /** Settings named by the {@code ANDROID_LINT_CONSTRUCTOR_*} environment variables. */
+    @NonNull
+    static DetectorSettings fromEnvironment() {
+        return new DetectorSettings()
+            .fixMode(BuilderFixMode.parse(System.getenv("ANDROID_LINT_CONSTRUCTOR_FIX_MODE"), BuilderFixMode.LAZY))
+            .migrateCallSites("true".equalsIgnoreCase(System.getenv("ANDROID_LINT_CONSTRUCTOR_MIGRATE_CALL_SITES")))
+            .metricsDirectory(System.getenv("ANDROID_LINT_CONSTRUCTOR_METRICS_DIR"))
+            .baselineFile(getFile(System.getenv("ANDROID_LINT_CONSTRUCTOR_BASELINE")));
+    }
+
+    /** When the builder quick fix is synthesized; {@link BuilderFixMode#LAZY} by default. */
+    @NonNull
+    DetectorSettings fixMode(@NonNull final BuilderFixMode fixMode) {
+        this.fixMode = fixMode;
+        return this;
+    }
+
+    /** Whether the builder fix also migrates the call sites of a constructor; off by default. */
+    @NonNull
+    DetectorSettings migrateCallSites(final boolean migrateCallSites) {
+        this.migrateCallSites = migrateCallSites;
+        return this;
+    }
+
+    /** Directory the metrics of each run are written to, or {@code null} for no metrics. */
+    @NonNull
+    DetectorSettings metricsDirectory(@Nullable final String metricsDirectory) {
+        this.metricsDirectory = metricsDirectory;
+        return this;
+    }
+
+    /** Baseline of known incidents, recorded from the run when missing, or {@code null} for none. */
+    @NonNull
+    DetectorSettings baselineFile(@Nullable final File baselineFile) {
+        this.baselineFile = baselineFile;
+        return this;
+    }
+
+    @NonNull
+    BuilderFixMode getFixMode() {
+        return fixMode;
+    }
+
+    boolean isMigratingCallSites() {
+        return migrateCallSites;
+    }
+
+    @Nullable
+    String getMetricsDirectory() {
+        return metricsDirectory;
+    }
+
+    @Nullable
+    File getBaselineFile() {
+        return baselineFile;
+    }
+
+    @Nullable
+    private static File getFile(@Nullable final String path) {
+        return path == null || path.trim().isEmpty() ? null : new File(path.trim());
+    }
+}
@@ -0,0 +1,702 @@
+package com.example.customlint;
+
+import com.android.annotations.NonNull;
+import com.android.annotations.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * PSI-free variant of the {@link JavaConstructorDetector} parameter count rule for pre-commit
+ * hooks and editor integrations, where starting lint costs more than the check itself:
+ *
+ * <pre>
+ * java -cp CustomLint.jar com.example.customlint.FastConstructorScanner [-Werror] path...
+ * </pre>
+ *
+ * Paths are Java files or directories searched for them. Every file is memory-mapped and
+ * tokenized once by a hand-written lexer; a constructor is a member of a class or enum body
+ * named like the class, and it is reported when it takes more parameters than
+ * {@link ParameterLimits#fromEnvironment() the configured limit}, in lint's text format. Only
+ * lint-independent classes of the jar are loaded.
+ *
+ * <p>Like lint, {@code @SuppressLint} and {@code @SuppressWarnings} with the issue id or
+ * {@code "all"} on the constructor or an enclosing class suppress it, and the reported line is
+ * the one of the constructor's doc comment, else of its first annotation or modifier. Baselines
+ * and {@code //noinspection} comments are not applied. Files skipped by the detector's
+ * {@link GeneratedSourceFilter#fromEnvironment() generated source filter} are skipped here too.
+ */
+public final class FastConstructorScanner {
+    // compile-time constants, so reading them does not load the lint issue metadata
+    static final String ISSUE_ID = ConstructorIssues.TOO_MANY_PARAMETERS_ISSUE_ID;
+    static final String MESSAGE = ConstructorIssues.TOO_MANY_PARAMETERS_ISSUE_DESCRIPTION;
+
+    private static final String WERROR_OPTION = "-Werror";
+    private static final String HELP_OPTION = "--help";
+    private static final String JAVA_EXTENSION = ".java";
+    private static final String SEVERITY_WARNING = "Warning";
+    private static final String SEVERITY_ERROR = "Error";
+    private static final String SUPPRESS_ALL = "all";
+
+    private static final int EXIT_SUCCESS = 0;
+    private static final int EXIT_ERRORS = 1;
+    private static final int EXIT_USAGE = 2;
+
+    private final ParameterLimits limits;
+    private final GeneratedSourceFilter filter;
+
+    public FastConstructorScanner(@NonNull final ParameterLimits limits) {
+        this(limits, null);
+    }
+
+    /** Scanner whose {@link #scan(File)} leaves out the files {@code filter} skips. */
+    public FastConstructorScanner(@NonNull final ParameterLimits limits, @Nullable final GeneratedSourceFilter filter) {
+        this.limits = limits;
+        this.filter = filter;
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /** Runs the command line; returns the process exit code. */
+    static int run(@NonNull final String[] args, @NonNull final PrintStream out, @NonNull final PrintStream err) {
+        boolean warningsAsErrors = false;
+        final List<File> files = new ArrayList<>();
+
+        for (String arg : args) {
+            if (HELP_OPTION.equals(arg)) {
+                printUsage(out);
+                return EXIT_SUCCESS;
+            } else if (WERROR_OPTION.equals(arg)) {
+                warningsAsErrors = true;
+            } else if (arg.startsWith("-")) {
+                err.println("Unknown option: " + arg);
+                printUsage(err);
+                return EXIT_USAGE;
+            } else {
+                collectSources(new File(arg), files);
+            }
+        }
+
+        if (files.isEmpty()) {
+            printUsage(err);
+            return EXIT_USAGE;
+        }
+        Collections.sort(files);
+
+        final long start = System.nanoTime();
+        final GeneratedSourceFilter filter = GeneratedSourceFilter.fromEnvironment();
+        final FastConstructorScanner scanner = new FastConstructorScanner(ParameterLimits.fromEnvironment(), filter);
+        final PrintWriter writer = new PrintWriter(out);
+        final String severity = warningsAsErrors ? SEVERITY_ERROR : SEVERITY_WARNING;
+        int findings = 0;
+        try {
+            for (File file : files) {
+                for (Finding finding : scanner.scan(file)) {
+                    writer.println(finding.format(severity));
+                    findings++;
+                }
+            }
+        } catch (IOException e) {
+            writer.flush();
+            err.println("Scan failed: " + e.getMessage());
+            return EXIT_ERRORS;
+        }
+        writer.println(warningsAsErrors
+                           ? findings + " errors, 0 warnings"
+                           : "0 errors, " + findings + " warnings");
+        writer.flush();
+
+        err.println(String.format(Locale.US, "%1$d files (%2$d skipped as generated or oversized) in %3$.1f ms",
+                                  files.size(), filter.getSkippedFiles(), (System.nanoTime() - start) / 1e6));
+        return warningsAsErrors && findings > 0 ? EXIT_ERRORS : EXIT_SUCCESS;
+    }
+
+    /** Scans a memory-mapped Java source file. */
+    @NonNull
+    public List<Finding> scan(@NonNull final File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(file + " is too large");
+            }
+            final MappedByteBuffer source = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (filter != null && filter.skip(file, size, getHeader(source)) != null) {
+                return Collections.emptyList();
+            }
+            return scan(file.getPath(), source);
+        }
+    }
+
+    /**
+     * Scans UTF-8 Java source between the position and the limit of {@code source}; findings
+     * carry {@code path} and are in source order.
+     */
+    @NonNull
+    public List<Finding> scan(@NonNull final String path, @NonNull final ByteBuffer source) {
+        return new Scan(path, source).run();
+    }
+
+    /**
+     * The first {@link GeneratedSourceFilter#HEADER_LENGTH} bytes of {@code source} as Latin-1;
+     * the filter's markers are ASCII, so multi-byte characters cannot fake one.
+     */
+    @NonNull
+    private static CharSequence getHeader(@NonNull final ByteBuffer source) {
+        final ByteBuffer header = source.duplicate();
+        header.limit(Math.min(header.limit(), header.position() + GeneratedSourceFilter.HEADER_LENGTH));
+        return StandardCharsets.ISO_8859_1.decode(header);
+    }
+
+    private static void collectSources(@NonNull final File file, @NonNull final List<File> files) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                collectSources(child, files);
+            }
+        } else if (file.getName().endsWith(JAVA_EXTENSION) && file.isFile()) {
+            files.add(file);
+        }
+    }
+
+    private static void printUsage(@NonNull final PrintStream stream) {
+        stream.println("Usage: FastConstructorScanner [" + WERROR_OPTION + "] path...");
+        stream.println("  " + WERROR_OPTION + "   report constructors as errors and exit with 1 if there are any");
+    }
+
+    /** A constructor with too many parameters. */
+    public static final class Finding {
+        private final String path;
+        private final int line;
+        private final String className;
+        private final int parameterCount;
+
+        Finding(@NonNull final String path, final int line, @NonNull final String className, final int parameterCount) {
+            this.path = path;
+            this.line = line;
+            this.className = className;
+            this.parameterCount = parameterCount;
+        }
+
+        @NonNull
+        public String getPath() {
+            return path;
+        }
+
+        /** 1-based line of the constructor declaration; 0 when unknown. */
+        public int getLine() {
+            return line;
+        }
+
+        /** Simple name of the constructed class. */
+        @NonNull
+        public String getClassName() {
+            return className;
+        }
+
+        public int getParameterCount() {
+            return parameterCount;
+        }
+
+        /** Formats the finding like {@link LintIncident#format()} formats the lint incident. */
+        @NonNull
+        public String format() {
+            return format(SEVERITY_WARNING);
+        }
+
+        @NonNull
+        String format(@NonNull final String severity) {
+            return path + (line > 0 ? ":" + line : "") + ": " + severity + ": " + MESSAGE + " [" + ISSUE_ID + "]";
+        }
+
+        @Override
+        public String toString() {
+            return format();
+        }
+    }
+
+    /** A class body or any other brace block. */
+    private static final class Frame {
+        /** Name constructors must have; {@code null} in blocks and interface bodies. */
+        final byte[] name;
+        /** Qualified name of the class; {@code null} in blocks and local or anonymous classes. */
+        final String qualifiedName;
+        final boolean classBody;
+        final boolean suppressed;
+
+        Frame(@Nullable final byte[] name,
+              @Nullable final String qualifiedName,
+              final boolean classBody,
+              final boolean suppressed) {
+            this.name = name;
+            this.qualifiedName = qualifiedName;
+            this.classBody = classBody;
+            this.suppressed = suppressed;
+        }
+    }
+
+    /** State of scanning one file: the lexer position and the declaration being parsed. */
+    private final class Scan {
+        private static final int EOF = 0;
+        private static final int IDENTIFIER = 1;
+        private static final int PUNCTUATION = 2;
+        private static final int LITERAL = 3;
+
+        private static final int NONE = -1;
+
+        private final String path;
+        private final ByteBuffer source;
+        private final int end;
+        private final List<Finding> findings = new ArrayList<>();
+        private final List<Frame> frames = new ArrayList<>();
+
+        // lexer
+        private int position;
+        private int line = 1;
+        private int docLine = NONE;
+        private boolean pushedBack;
+        private int type;
+        private int start;
+        private int length;
+        private int tokenLine;
+        /** Line of the doc comment right before the token, or {@link #NONE}. */
+        private int tokenDocLine;
+
+        // declaration being parsed
+        private String packageName = "";
+        private byte[] className;
+        private boolean interfaceName;
+        private boolean suppressed;
+        private int memberLine = NONE;
+        private boolean nameAllowed = true;
+        private boolean nameSeen;
+        private int parens;
+
+        Scan(@NonNull final String path, @NonNull final ByteBuffer source) {
+            this.path = path;
+            this.source = source;
+            this.position = source.position();
+            this.end = source.limit();
+            if (end - position >= 3
+                && (source.get(position) & 0xff) == 0xef
+                && (source.get(position + 1) & 0xff) == 0xbb
+                && (source.get(position + 2) & 0xff) == 0xbf) {
+                // byte order mark
+                position += 3;
+            }
+        }
+
+        @NonNull
+        List<Finding> run() {
+            while (next() != EOF) {
+                final Frame frame = frames.isEmpty() ? null : frames.get(frames.size() - 1);
+                final boolean member = frame != null && frame.classBody && parens == 0;
+                if (member && memberLine == NONE && !isPunctuation(';') && !isPunctuation('}')) {
+                    memberLine = tokenDocLine != NONE ? tokenDocLine : tokenLine;
+                }
+
+                if (type == IDENTIFIER) {
+                    if (frame == null && is("package")) {
+                        packageName = readQualifiedName();
+                    } else if (is("class") || is("enum") || is("interface")) {
+                        final boolean isInterface = is("interface");
+                        if (next() == IDENTIFIER) {
+                            className = text();
+                            interfaceName = isInterface;
+                        } else {
+                            pushBack();
+                        }
+                    } else if (member) {
+                        nameSeen = nameAllowed && frame.name != null && is(frame.name);
+                        nameAllowed = is("public") || is("protected") || is("private");
+                    }
+                    continue;
+                }
+                if (type != PUNCTUATION) {
+                    nameAllowed = false;
+                    nameSeen = false;
+                    continue;
+                }
+
+                switch (source.get(start)) {
+                    case '@':
+                        readAnnotation();
+                        break;
+                    case '.':
+                        // skips member selections such as Foo.class
+                        if (next() != IDENTIFIER) {
+                            pushBack();
+                        }
+                        nameAllowed = false;
+                        nameSeen = false;
+                        break;
+                    case '<':
+                        if (member && nameAllowed) {
+                            // type parameters of a generic constructor or method
+                            skipTypeArguments();
+                        } else {
+                            nameAllowed = false;
+                            nameSeen = false;
+                        }
+                        break;
+                    case '(':
+                        if (member && nameSeen) {
+                            checkConstructor(frame);
+                        } else {
+                            parens++;
+                        }
+                        nameAllowed = false;
+                        nameSeen = false;
+                        break;
+                    case ')':
+                        parens = Math.max(0, parens - 1);
+                        nameAllowed = false;
+                        nameSeen = false;
+                        break;
+                    case '{':
+                        openFrame(frame);
+                        break;
+                    case '}':
+                        if (frame != null) {
+                            frames.remove(frames.size() - 1);
+                        }
+                        endDeclaration();
+                        break;
+                    case ';':
+                        if (parens == 0) {
+                            endDeclaration();
+                        }
+                        break;
+                    default:
+                        nameAllowed = false;
+                        nameSeen = false;
+                        break;
+                }
+            }
+            return findings;
+        }
+
+        private void openFrame(@Nullable final Frame parent) {
+            final boolean parentSuppressed = parent != null && parent.suppressed;
+            final Frame frame;
+            if (className != null) {
+                final boolean nested = parent == null || parent.classBody;
+                String qualifiedName = null;
+                if (parent == null) {
+                    qualifiedName = packageName.isEmpty() ? decode(className) : packageName + "." + decode(className);
+                } else if (nested && parent.qualifiedName != null) {
+                    qualifiedName = parent.qualifiedName + "." + decode(className);
+                }
+                frame = new Frame(interfaceName ? null : className, qualifiedName, true, parentSuppressed || suppressed);
+            } else {
+                frame = new Frame(null, null, false, parentSuppressed);
+            }
+            frames.add(frame);
+            className = null;
+            parens = 0;
+            endDeclaration();
+        }
+
+        private void endDeclaration() {
+            className = null;
+            suppressed = false;
+            memberLine = NONE;
+            nameAllowed = true;
+            nameSeen = false;
+        }
+
+        /** Counts the parameters of the constructor whose opening parenthesis was just read. */
+        private void checkConstructor(@NonNull final Frame frame) {
+            int depth = 0;
+            int count = 0;
+            boolean empty = true;
+            while (next() != EOF) {
+                if (type == PUNCTUATION) {
+                    final byte c = source.get(start);
+                    if (c == '(' || c == '<' || c == '{' || c == '[') {
+                        depth++;
+                    } else if (c == ')' || c == '>' || c == '}' || c == ']') {
+                        if (depth == 0 && c == ')') {
+                            break;
+                        }
+                        depth--;
+                    } else if (c == ',' && depth == 0) {
+                        count++;
+                    }
+                }
+                empty = false;
+            }
+            final int parameterCount = empty ? 0 : count + 1;
+
+            if (!suppressed && !frame.suppressed && parameterCount > limits.getLimit(frame.qualifiedName)) {
+                findings.add(new Finding(path, memberLine, decode(frame.name), parameterCount));
+            }
+        }
+
+        /** Reads an annotation after its {@code @}, noting whether it suppresses the issue. */
+        private void readAnnotation() {
+            if (next() != IDENTIFIER) {
+                pushBack();
+                return;
+            }
+            if (is("interface")) {
+                if (next() == IDENTIFIER) {
+                    className = text();
+                    interfaceName = true;
+                } else {
+                    pushBack();
+                }
+                return;
+            }
+
+            boolean suppressAnnotation = is("SuppressLint") || is("SuppressWarnings");
+            while (next() == PUNCTUATION && source.get(start) == '.') {
+                if (next() != IDENTIFIER) {
+                    break;
+                }
+                suppressAnnotation = is("SuppressLint") || is("SuppressWarnings");
+            }
+            if (type != PUNCTUATION || source.get(start) != '(') {
+                pushBack();
+                return;
+            }
+
+            int depth = 0;
+            while (next() != EOF) {
+                if (type == PUNCTUATION) {
+                    final byte c = source.get(start);
+                    if (c == '(') {
+                        depth++;
+                    } else if (c == ')' && depth-- == 0) {
+                        break;
+                    }
+                } else if (type == LITERAL && suppressAnnotation && (isString(ISSUE_ID) || isString(SUPPRESS_ALL))) {
+                    suppressed = true;
+                }
+            }
+        }
+
+        /** Skips balanced type arguments or parameters after their {@code <}. */
+        private void skipTypeArguments() {
+            int depth = 0;
+            while (next() != EOF) {
+                if (type == PUNCTUATION) {
+                    final byte c = source.get(start);
+                    if (c == '<') {
+                        depth++;
+                    } else if (c == '>' && depth-- == 0) {
+                        return;
+                    } else if (c == ';' || c == '{' || c == '}' || c == '(') {
+                        // not type parameters after all
+                        pushBack();
+                        return;
+                    }
+                }
+            }
+        }
+
+        @NonNull
+        private String readQualifiedName() {
+            final StringBuilder name = new StringBuilder();
+            while (next() != EOF && !isPunctuation(';')) {
+                name.append(new String(text(), StandardCharsets.UTF_8));
+            }
+            return name.toString();
+        }
+
+        // lexer
+
+        /** Reads the next token, skipping whitespace and comments; returns its type. */
+        private int next() {
+            if (pushedBack) {
+                pushedBack = false;
+                return type;
+            }
+
+            docLine = NONE;
+            while (position < end) {
+                final int c = source.get(position) & 0xff;
+                if (c == '\n') {
+                    line++;
+                    position++;
+                } else if (c == ' ' || c == '\t' || c == '\r' || c == '\f') {
+                    position++;
+                } else if (c == '/' && position + 1 < end && source.get(position + 1) == '/') {
+                    while (position < end && source.get(position) != '\n') {
+                        position++;
+                    }
+                } else if (c == '/' && position + 1 < end && source.get(position + 1) == '*') {
+                    final int commentLine = line;
+                    final boolean doc = position + 2 < end && source.get(position + 2) == '*'
+                        && !(position + 3 < end && source.get(position + 3) == '/');
+                    position += 2;
+                    while (position < end
+                        && !(source.get(position) == '*' && position + 1 < end && source.get(position + 1) == '/')) {
+                        if (source.get(position) == '\n') {
+                            line++;
+                        }
+                        position++;
+                    }
+                    position = Math.min(end, position + 2);
+                    if (doc) {
+                        docLine = commentLine;
+                    }
+                } else {
+                    break;
+                }
+            }
+
+            start = position;
+            tokenLine = line;
+            tokenDocLine = docLine;
+            if (position >= end) {
+                length = 0;
+                return type = EOF;
+            }
+
+            final int c = source.get(position) & 0xff;
+            if (isIdentifierPart(c) && !(c >= '0' && c <= '9')) {
+                while (position < end && isIdentifierPart(source.get(position) & 0xff)) {
+                    position++;
+                }
+                type = IDENTIFIER;
+            } else if (c >= '0' && c <= '9') {
+                while (position < end
+                    && (isIdentifierPart(source.get(position) & 0xff) || source.get(position) == '.')) {
+                    position++;
+                }
+                type = LITERAL;
+            } else if (c == '"' || c == '\'') {
+                skipQuoted(c);
+                type = LITERAL;
+            } else {
+                position++;
+                type = PUNCTUATION;
+            }
+            length = position - start;
+            return type;
+        }
+
+        private void skipQuoted(final int quote) {
+            if (quote == '"' && position + 2 < end && source.get(position + 1) == '"' && source.get(position + 2) == '"') {
+                // text block
+                position += 3;
+                while (position < end) {
+                    final byte c = source.get(position);
+                    if (c == '\\') {
+                        position += 2;
+                        continue;
+                    }
+                    if (c == '\n') {
+                        line++;
+                    } else if (c == '"' && position + 2 < end
+                        && source.get(position + 1) == '"' && source.get(position + 2) == '"') {
+                        position += 3;
+                        return;
+                    }
+                    position++;
+                }
+                position = end;
+                return;
+            }
+
+            position++;
+            while (position < end) {
+                final byte c = source.get(position);
+                if (c == '\\') {
+                    position += 2;
+                } else if (c == quote) {
+                    position++;
+                    return;
+                } else if (c == '\n') {
+                    // unterminated literal; resume on the next line
+                    return;
+                } else {
+                    position++;
+                }
+            }
+            position = end;
+        }
+
+        private void pushBack() {
+            pushedBack = true;
+        }
+
+        private boolean isPunctuation(final char c) {
+            return type == PUNCTUATION && source.get(start) == c;
+        }
+
+        /** Whether the current token is the ASCII keyword or name {@code text}. */
+        private boolean is(@NonNull final String text) {
+            if (length != text.length()) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (source.get(start + i) != text.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean is(@NonNull final byte[] text) {
+            if (length != text.length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (source.get(start + i) != text[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /** Whether the current token is the string literal {@code "text"}, with ASCII text. */
+        private boolean isString(@NonNull final String text) {
+            if (length != text.length() + 2 || source.get(start) != '"') {
+                return false;
+            }
+            for (int i = 0; i < text.length(); i++) {
+                if (source.get(start + 1 + i) != text.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @NonNull
+        private byte[] text() {
+            final byte[] text = new byte[length];
+            for (int i = 0; i < length; i++) {
+                text[i] = source.get(start + i);
+            }
+            return text;
+        }
+    }
+
+    private static boolean isIdentifierPart(final int c) {
+        return (c >= 'a' && c <= 'z')
+            || (c >= 'A' && c <= 'Z')
+            || (c >= '0' && c <= '9')
+            || c == '_'
+            || c == '$'
+            // any byte of a multi-byte UTF-8 sequence
+            || c >= 0x80;
+    }
+
+    @NonNull
+    private static String decode(@NonNull final byte[] name) {
+        return new String(name, StandardCharsets.UTF_8);
+    }
+}
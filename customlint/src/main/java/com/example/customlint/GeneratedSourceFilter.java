@@ -0,0 +1,294 @@
+package com.example.customlint;
+
+import com.android.annotations.NonNull;
+import com.android.annotations.Nullable;
+import java.io.File;
+import java.nio.file.FileSystems;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Pre-filter keeping machine-written and oversized sources away from the constructor rules.
+ * A file is skipped when, checked in order of cost:
+ * <ol>
+ *     <li>its absolute path matches one of the glob patterns ({@link #DEFAULT_PATH_PATTERNS}
+ *     unless configured), such as {@code **}{@code /build/generated/**};</li>
+ *     <li>it is larger than the maximum file size;</li>
+ *     <li>its first {@link #HEADER_LENGTH} characters, where generators put their header
+ *     comment and the annotations of the top-level class, contain a generator banner such as
+ *     protoc's, or a {@code @Generated} annotation outside comments and literals and before
+ *     the body of the first type.</li>
+ * </ol>
+ * Skipped files are counted per {@link Reason}; the counters are thread-safe and last for the
+ * life of the filter.
+ */
+public final class GeneratedSourceFilter {
+    /** Maximum file size used when {@code ANDROID_LINT_CONSTRUCTOR_MAX_FILE_SIZE} is unset or invalid. */
+    public static final long DEFAULT_MAX_FILE_SIZE = 1024 * 1024;
+
+    /** Build output of annotation processors, data binding and protoc, and AutoValue and Dagger classes anywhere. */
+    public static final List<String> DEFAULT_PATH_PATTERNS = Collections.unmodifiableList(Arrays.asList(
+        "**/build/generated/**",
+        "**/build/tmp/kapt3/**",
+        "**/AutoValue_*.java",
+        "**/*_Factory.java",
+        "**/*_MembersInjector.java"));
+
+    /** Characters of a file searched for {@link #ANNOTATION_MARKERS} and {@link #BANNER_MARKERS}. */
+    static final int HEADER_LENGTH = 8192;
+
+    /** Generated annotations; a marker must not be followed by an identifier character. */
+    private static final String[] ANNOTATION_MARKERS = {
+        "@Generated",
+        "@javax.annotation.Generated",
+        "@javax.annotation.processing.Generated",
+    };
+
+    /** Header comments of generators that do not annotate their output. */
+    private static final String[] BANNER_MARKERS = {
+        "Generated by the protocol buffer compiler",
+        "AUTO-GENERATED FILE",
+    };
+
+    /** Why a file was skipped. */
+    public enum Reason {
+        PATH,
+        SIZE,
+        GENERATED
+    }
+
+    private final PathMatcher[] pathMatchers;
+    private final long maxFileSize;
+    private final boolean checkHeader;
+    private final LongAdder[] skipped;
+
+    /**
+     * @param pathPatterns glob patterns of skipped paths, in {@link java.nio.file.FileSystem#getPathMatcher}
+     *                     syntax without the {@code glob:} prefix; invalid patterns are ignored
+     * @param maxFileSize  larger files are skipped; 0 for no limit
+     * @param checkHeader  whether files with a generated annotation or banner are skipped
+     */
+    public GeneratedSourceFilter(@NonNull final List<String> pathPatterns,
+                                 final long maxFileSize,
+                                 final boolean checkHeader) {
+        final List<PathMatcher> matchers = new ArrayList<>(pathPatterns.size());
+        for (String pattern : pathPatterns) {
+            try {
+                matchers.add(FileSystems.getDefault().getPathMatcher("glob:" + pattern));
+            } catch (PatternSyntaxException e) {
+                // pass: ignore the invalid pattern
+            }
+        }
+        this.pathMatchers = matchers.toArray(new PathMatcher[matchers.size()]);
+        this.maxFileSize = maxFileSize;
+        this.checkHeader = checkHeader;
+        this.skipped = new LongAdder[Reason.values().length];
+        for (int i = 0; i < skipped.length; i++) {
+            skipped[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Filter configured through the environment: comma separated glob patterns from
+     * {@code ANDROID_LINT_CONSTRUCTOR_SKIP_PATHS} (empty to skip no path), the size limit in
+     * bytes from {@code ANDROID_LINT_CONSTRUCTOR_MAX_FILE_SIZE} (0 for none), and
+     * {@code ANDROID_LINT_CONSTRUCTOR_SKIP_GENERATED} set to {@code false} to analyze annotated
+     * generated files.
+     */
+    @NonNull
+    public static GeneratedSourceFilter fromEnvironment() {
+        return new GeneratedSourceFilter(parsePatterns(System.getenv("ANDROID_LINT_CONSTRUCTOR_SKIP_PATHS")),
+                                         parseMaxFileSize(System.getenv("ANDROID_LINT_CONSTRUCTOR_MAX_FILE_SIZE")),
+                                         !"false".equalsIgnoreCase(System.getenv("ANDROID_LINT_CONSTRUCTOR_SKIP_GENERATED")));
+    }
+
+    /** Parses comma separated patterns; {@code null} yields {@link #DEFAULT_PATH_PATTERNS}. */
+    @NonNull
+    static List<String> parsePatterns(@Nullable final String value) {
+        if (value == null) {
+            return DEFAULT_PATH_PATTERNS;
+        }
+
+        final List<String> patterns = new ArrayList<>();
+        for (String pattern : value.split(",")) {
+            if (!pattern.trim().isEmpty()) {
+                patterns.add(pattern.trim());
+            }
+        }
+        return patterns;
+    }
+
+    /** Parses a size limit; {@code null}, malformed and negative values yield {@link #DEFAULT_MAX_FILE_SIZE}. */
+    static long parseMaxFileSize(@Nullable final String value) {
+        if (value != null) {
+            try {
+                final long size = Long.parseLong(value.trim());
+                if (size >= 0) {
+                    return size;
+                }
+            } catch (NumberFormatException e) {
+                // pass: fall back to default below
+            }
+        }
+        return DEFAULT_MAX_FILE_SIZE;
+    }
+
+    /**
+     * Returns why {@code file} is skipped, counting it, or {@code null} when it is analyzed.
+     *
+     * @param size     length of the file in bytes
+     * @param contents the file's text, or {@code null} when not read yet; only its header is read
+     */
+    @Nullable
+    public Reason skip(@NonNull final File file, final long size, @Nullable final CharSequence contents) {
+        final Reason reason = getReason(file, size, contents);
+        if (reason != null) {
+            skipped[reason.ordinal()].increment();
+        }
+        return reason;
+    }
+
+    @Nullable
+    private Reason getReason(@NonNull final File file, final long size, @Nullable final CharSequence contents) {
+        if (pathMatchers.length > 0) {
+            try {
+                final Path path = file.getAbsoluteFile().toPath();
+                for (PathMatcher matcher : pathMatchers) {
+                    if (matcher.matches(path)) {
+                        return Reason.PATH;
+                    }
+                }
+            } catch (InvalidPathException e) {
+                // pass: not a local file, check its contents
+            }
+        }
+        if (maxFileSize > 0 && size > maxFileSize) {
+            return Reason.SIZE;
+        }
+        if (checkHeader && contents != null && isGenerated(contents)) {
+            return Reason.GENERATED;
+        }
+        return null;
+    }
+
+    /**
+     * Whether the header of {@code contents} marks it as generated: a generator banner anywhere
+     * in it, or a generated annotation in code before the body of the first type, so that one
+     * generated member of a hand-written class does not mark the whole file.
+     */
+    static boolean isGenerated(@NonNull final CharSequence contents) {
+        final int length = Math.min(contents.length(), HEADER_LENGTH);
+        int parentheses = 0;
+        int i = 0;
+        while (i < length) {
+            final char c = contents.charAt(i);
+            final char next = i + 1 < length ? contents.charAt(i + 1) : 0;
+            if (c == '/' && next == '/') {
+                i = skipLineComment(contents, i, length);
+            } else if (c == '/' && next == '*') {
+                i = skipBlockComment(contents, i, length);
+            } else if (c == '"' || c == '\'') {
+                i = skipLiteral(contents, i, length);
+            } else if (c == '{' && parentheses == 0) {
+                // body of the first top-level type; braces of annotation arrays are in parentheses
+                break;
+            } else {
+                if (c == '(') {
+                    parentheses++;
+                } else if (c == ')' && parentheses > 0) {
+                    parentheses--;
+                } else if (c == '@' && isAnnotationMarker(contents, i, length)) {
+                    return true;
+                }
+                i++;
+            }
+        }
+
+        final String header = contents.subSequence(0, Math.min(contents.length(), HEADER_LENGTH)).toString();
+        for (String marker : BANNER_MARKERS) {
+            if (header.contains(marker)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Whether one of {@link #ANNOTATION_MARKERS}, not followed by an identifier character, starts at {@code start}. */
+    private static boolean isAnnotationMarker(@NonNull final CharSequence contents, final int start, final int length) {
+        for (String marker : ANNOTATION_MARKERS) {
+            final int end = start + marker.length();
+            if (end <= length
+                && regionMatches(contents, start, marker)
+                && (end == length || !Character.isJavaIdentifierPart(contents.charAt(end)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean regionMatches(@NonNull final CharSequence contents, final int start, @NonNull final String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (contents.charAt(start + i) != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Returns the index after the line comment starting at {@code start}. */
+    private static int skipLineComment(@NonNull final CharSequence contents, final int start, final int length) {
+        int i = start + 2;
+        while (i < length && contents.charAt(i) != '\n') {
+            i++;
+        }
+        return i;
+    }
+
+    /** Returns the index after the block comment starting at {@code start}. */
+    private static int skipBlockComment(@NonNull final CharSequence contents, final int start, final int length) {
+        for (int i = start + 2; i + 1 < length; i++) {
+            if (contents.charAt(i) == '*' && contents.charAt(i + 1) == '/') {
+                return i + 2;
+            }
+        }
+        return length;
+    }
+
+    /** Returns the index after the string or character literal starting at {@code start}. */
+    private static int skipLiteral(@NonNull final CharSequence contents, final int start, final int length) {
+        final char quote = contents.charAt(start);
+        int i = start + 1;
+        while (i < length) {
+            final char c = contents.charAt(i);
+            if (c == '\\') {
+                i += 2;
+            } else if (c == quote || c == '\n') {
+                return i + 1;
+            } else {
+                i++;
+            }
+        }
+        return length;
+    }
+
+    /** Files skipped for {@code reason} so far. */
+    public long getSkippedFiles(@NonNull final Reason reason) {
+        return skipped[reason.ordinal()].sum();
+    }
+
+    /** Files skipped so far, for any reason. */
+    public long getSkippedFiles() {
+        long total = 0;
+        for (LongAdder count : skipped) {
+            total += count.sum();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.customlint;
+
+import com.android.annotations.NonNull;
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Writes incidents as they are reported, without retaining them, so memory use does not grow
+ * with the number of incidents. Implementations are not thread-safe; callers serialize writes.
+ */
+public interface IncidentWriter extends Closeable {
+    /** Passed as the maximum fix length to write fix texts in full. */
+    int FULL_FIX_TEXT = -1;
+
+    /** Passed as the maximum fix length to leave fix texts out. */
+    int NO_FIX_TEXT = 0;
+
+    void write(@NonNull LintIncident incident) throws IOException;
+
+    /** Writes the document trailer, if any, and closes the underlying stream. */
+    @Override
+    void close() throws IOException;
+}
@@ -1,100 +1,417 @@
 package com.example.customlint;
 
 import com.android.annotations.NonNull;
+import com.android.annotations.Nullable;
 import com.android.tools.lint.client.api.UElementHandler;
-import com.android.tools.lint.detector.api.Category;
+import com.android.tools.lint.detector.api.Context;
 import com.android.tools.lint.detector.api.Detector;
-import com.android.tools.lint.detector.api.Implementation;
 import com.android.tools.lint.detector.api.Issue;
 import com.android.tools.lint.detector.api.JavaContext;
 import com.android.tools.lint.detector.api.LintFix;
-import com.android.tools.lint.detector.api.Scope;
-import com.android.tools.lint.detector.api.Severity;
+import com.android.tools.lint.detector.api.Location;
 import com.android.tools.lint.detector.api.TextFormat;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiCodeBlock;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiExpression;
+import com.intellij.psi.PsiExpressionList;
+import com.intellij.psi.PsiJavaCodeReferenceElement;
 import com.intellij.psi.PsiMethod;
+import com.intellij.psi.PsiMethodCallExpression;
+import com.intellij.psi.PsiNewExpression;
 import com.intellij.psi.PsiParameter;
-import com.intellij.psi.PsiParameterList;
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
-import org.jetbrains.uast.UClass;
-import org.jetbrains.uast.UDeclaration;
+import java.util.Map;
+import org.jetbrains.uast.UCallExpression;
 import org.jetbrains.uast.UElement;
-import org.jetbrains.uast.ULiteralExpression;
+import org.jetbrains.uast.UExpression;
+import org.jetbrains.uast.UMethod;
+import org.jetbrains.uast.util.UastExpressionUtils;
 
 public class JavaConstructorDetector extends Detector implements Detector.UastScanner {
-    private static final String TOO_MANY_PARAMETERS_ISSUE_ID = "TooManyParametersConstructor";
-    private static final String TOO_MANY_PARAMETERS_ISSUE_DESCRIPTION = "Constructor has too many parameters.";
-    private static final String TOO_MANY_PARAMETERS_ISSUE_EXPLANATION = "Switching to build pattern improves readability and scalability.";
-    private static final Category TOO_MANY_PARAMETERS_ISSUE_CATEGORY = Category.CORRECTNESS;
-    private static final int TOO_MANY_PARAMETERS_ISSUE_PRIORITY = 6;
-    private static final Severity TOO_MANY_PARAMETERS_ISSUE_SEVERITY = Severity.WARNING;
-    private static final Implementation IMPLEMENTATION = new Implementation(JavaConstructorDetector.class, Scope.JAVA_FILE_SCOPE);
-
-    /** Issue describing the problem and pointing to the detector implementation */
-    public static final Issue TOO_MANY_PARAMETERS_ISSUE = Issue.create(
-        // ID: used in @SuppressLint warnings etc
-        TOO_MANY_PARAMETERS_ISSUE_ID,
-
-        // Title -- shown in the IDE's preference dialog, as category headers in the
-        // Analysis results window, etc
-        TOO_MANY_PARAMETERS_ISSUE_DESCRIPTION,
-
-        // Full explanation of the issue; you can use some markdown markup such as
-        // `monospace`, *italic*, and **bold**.
-        TOO_MANY_PARAMETERS_ISSUE_EXPLANATION,
-        TOO_MANY_PARAMETERS_ISSUE_CATEGORY,
-        TOO_MANY_PARAMETERS_ISSUE_PRIORITY,
-        TOO_MANY_PARAMETERS_ISSUE_SEVERITY,
-        IMPLEMENTATION);
-
-    private static final int PARAMETERS_COUNT_LIMIT;
-
-    static {
-        int parametersCount = 0;
-
-        String countValue = System.getenv("ANDROID_LINT_CONSTRUCTOR_PARAMETERS_COUNT_LIMIT");
-        if (countValue != null) {
+    /** See {@link ConstructorIssues#TOO_MANY_PARAMETERS_ISSUE}. */
+    public static final Issue TOO_MANY_PARAMETERS_ISSUE = ConstructorIssues.TOO_MANY_PARAMETERS_ISSUE;
+
+    /** See {@link ConstructorIssues#BOOLEAN_PARAMETERS_ISSUE}. */
+    public static final Issue BOOLEAN_PARAMETERS_ISSUE = ConstructorIssues.BOOLEAN_PARAMETERS_ISSUE;
+
+    /** See {@link ConstructorIssues#TELESCOPING_ISSUE}. */
+    public static final Issue TELESCOPING_ISSUE = ConstructorIssues.TELESCOPING_ISSUE;
+
+    /** Boolean parameters a constructor may take before {@link #BOOLEAN_PARAMETERS_ISSUE} is reported. */
+    private static final int BOOLEAN_PARAMETERS_LIMIT = 1;
+
+    /**
+     * Constructors in a chain, the reported one included, before {@link #TELESCOPING_ISSUE} is
+     * reported; a single convenience overload is fine.
+     */
+    private static final int TELESCOPING_CHAIN_LIMIT = 3;
+
+    /** Name of the fix replacing a constructor together with its call sites. */
+    private static final String MIGRATION_FIX_NAME = "Replace with builder and migrate call sites";
+
+    /** Name of the fix passing the arguments of Kotlin call sites by name. */
+    private static final String KOTLIN_MIGRATION_FIX_NAME = "Pass arguments by name at call sites";
+
+    /** {@code Language#getID()} of Kotlin sources and of the light classes lint wraps them in. */
+    private static final String KOTLIN_LANGUAGE_ID = "kotlin";
+
+    /**
+     * Default and per package/class limits, see {@link ParameterLimits#fromEnvironment()};
+     * compiled once when the registry loads the detector.
+     */
+    private static final ParameterLimits PARAMETER_LIMITS = ParameterLimits.fromEnvironment();
+
+    /**
+     * Settings of the detectors created from now on, see {@link DetectorSettings#fromEnvironment()};
+     * tests replace them before running lint.
+     */
+    static volatile DetectorSettings settings = DetectorSettings.fromEnvironment();
+
+    /**
+     * Compiled builder text template. Indentation defaults to a tab and can be set to a number
+     * of spaces through {@code ANDROID_LINT_CONSTRUCTOR_BUILDER_INDENT}.
+     */
+    private static final BuilderTemplate BUILDER_TEMPLATE =
+        BuilderTemplate.forIndent(BuilderTemplate.parseIndent(System.getenv("ANDROID_LINT_CONSTRUCTOR_BUILDER_INDENT")));
+
+    /**
+     * Generated and oversized sources whose constructors are not inspected, see
+     * {@link GeneratedSourceFilter#fromEnvironment()}. Shared by the lint runs of the process, so
+     * {@link CustomLintRunner} can report the skipped files.
+     */
+    static final GeneratedSourceFilter SOURCE_FILTER = GeneratedSourceFilter.fromEnvironment();
+
+    /**
+     * Git ref named by {@code ANDROID_LINT_CONSTRUCTOR_CHANGED_SINCE}; when set, only the
+     * {@link ChangedLines lines changed} since it are checked, or {@code null} to check everything.
+     */
+    private static final String CHANGED_SINCE = getBaseRef(System.getenv("ANDROID_LINT_CONSTRUCTOR_CHANGED_SINCE"));
+
+    /** Handler of the files outside the changed lines when no call sites are collected: it visits nothing. */
+    private static final UElementHandler UNCHANGED_FILE_HANDLER = new UElementHandler() {
+        @Override
+        public void visitCallExpression(UCallExpression node) {
+        }
+
+        @Override
+        public void visitMethod(UMethod method) {
+        }
+    };
+
+    /**
+     * When the builder quick fix is synthesized; see {@link BuilderFixMode}. Defaults to
+     * {@link BuilderFixMode#LAZY} so suppressed or disabled incidents never pay for fix text.
+     */
+    private final BuilderFixMode fixMode;
+
+    /**
+     * Whether the builder fix also migrates the {@code new} call sites and {@code this(...)}
+     * delegations of a constructor, when {@code ANDROID_LINT_CONSTRUCTOR_MIGRATE_CALL_SITES} is
+     * {@code true}. Off by default, since every incident is then held back with its built fix
+     * until the end of the run, once all call sites are known.
+     */
+    private final boolean migrateCallSites;
+
+    /**
+     * Directory the metrics of each run are written to, named by
+     * {@code ANDROID_LINT_CONSTRUCTOR_METRICS_DIR}; metrics are off when unset.
+     */
+    private final String metricsDirectory;
+
+    /**
+     * Baseline of known incidents named by {@code ANDROID_LINT_CONSTRUCTOR_BASELINE}; incidents
+     * in it are dropped before any fix is generated. A missing file is recorded from the
+     * reported incidents of the run, unless {@link CustomLintRunner} shares one baseline between
+     * the lint clients of its modules and writes it once.
+     */
+    private final File baselineFile;
+
+    // The state below is shared by the handlers of all files of a run, which lint may create
+    // and run on several threads at once: the structures are thread-safe and the fields set by
+    // the before/after hooks are volatile. The configuration above is immutable.
+
+    /** Rendered parameter types, shared by all files of a lint run and dropped at its end. */
+    private final TypeTextCache typeTextCache = new TypeTextCache(TypeTextCache.DEFAULT_MAX_ENTRIES);
+
+    /** Call sites of the constructors of the current run, see {@link #migrating}. */
+    private final CallSiteIndex callSites = new CallSiteIndex();
+
+    /** Incidents held back until the end of the run, see {@link #migrating}. */
+    private final List<PendingIncident> pendingIncidents = Collections.synchronizedList(new ArrayList<PendingIncident>());
+
+    /** Lines changed since {@link #CHANGED_SINCE} in the current run, or {@code null} to check every file. */
+    private volatile ChangedLines changedLines;
+
+    /**
+     * Hot-path counters of the current run, or {@code null} when metrics are off. Created for
+     * each run, so counts never carry over between runs of the same process.
+     */
+    private volatile DetectorMetrics metrics;
+
+    /** Baseline of the current run, or {@code null} when no baseline is configured. */
+    private volatile ConstructorBaseline baseline;
+    private volatile boolean recordingBaseline;
+
+    /** Whether {@link #baseline} belongs to the {@link CustomLintRunner} run, which writes it. */
+    private volatile boolean sharedBaseline;
+
+    /**
+     * Whether the current run migrates call sites: when {@link #migrateCallSites} is on, or when
+     * {@link CustomLintRunner} collects the fixes to apply them, and a fix is generated at all.
+     */
+    private volatile boolean migrating;
+
+    /**
+     * Constructors with at most this many parameters cannot break any rule enabled in the
+     * current run and are skipped.
+     */
+    private volatile int minimumCheckedParameters;
+
+    public JavaConstructorDetector() {
+        this(settings);
+    }
+
+    JavaConstructorDetector(@NonNull final DetectorSettings settings) {
+        fixMode = settings.getFixMode();
+        migrateCallSites = settings.isMigratingCallSites();
+        metricsDirectory = settings.getMetricsDirectory();
+        baselineFile = settings.getBaselineFile();
+    }
+
+    @Override
+    public void beforeCheckRootProject(@NonNull Context context) {
+        metrics = DetectorMetrics.create(metricsDirectory, context.getProject().getName());
+        minimumCheckedParameters = getMinimumCheckedParameters(context);
+        migrating = fixMode != BuilderFixMode.NONE
+            && (migrateCallSites
+                || context.getClient() instanceof CollectingLintClient
+                   && ((CollectingLintClient) context.getClient()).isCollectingEdits());
+        if (CHANGED_SINCE != null) {
             try {
-                parametersCount = Integer.parseInt(countValue);
-            } catch (NumberFormatException e) {
-                // pass: set to default below
+                changedLines = ChangedLines.compute(context.getProject().getDir(), CHANGED_SINCE);
+            } catch (IOException e) {
+                // like a missing baseline: check every file rather than none
+                context.getClient().log(e, "Could not diff against %1$s", CHANGED_SINCE);
             }
         }
+        if (context.getClient() instanceof CollectingLintClient
+            && ((CollectingLintClient) context.getClient()).getBaseline() != null) {
+            final CollectingLintClient client = (CollectingLintClient) context.getClient();
+            baseline = client.getBaseline();
+            recordingBaseline = client.isRecordingBaseline();
+            sharedBaseline = true;
+        } else if (baselineFile != null) {
+            if (baselineFile.isFile()) {
+                try {
+                    baseline = ConstructorBaseline.load(baselineFile);
+                } catch (IOException e) {
+                    context.getClient().log(e, "Could not read %1$s", baselineFile);
+                }
+            } else {
+                // like lint's own baseline: a missing file records the incidents of this run
+                baseline = ConstructorBaseline.create();
+                recordingBaseline = true;
+            }
+        }
+    }
 
-        if (parametersCount <= 0) {
-            parametersCount = 2;
+    @Override
+    public void afterCheckRootProject(@NonNull Context context) {
+        reportPendingIncidents(context);
+        if (metrics != null) {
+            metrics.add(DetectorMetrics.Counter.TYPE_TEXT_CACHE_HITS, typeTextCache.getHits());
+            metrics.add(DetectorMetrics.Counter.TYPE_TEXT_CACHE_MISSES, typeTextCache.getMisses());
+            try {
+                metrics.write();
+            } catch (IOException e) {
+                context.getClient().log(e, "Could not write %1$s", DetectorMetrics.JSON_FILE_NAME);
+            }
+            metrics = null;
         }
+        if (recordingBaseline && !sharedBaseline) {
+            try {
+                baseline.writeMerged(baselineFile);
+            } catch (IOException e) {
+                context.getClient().log(e, "Could not write %1$s", baselineFile);
+            }
+        }
+        baseline = null;
+        recordingBaseline = false;
+        sharedBaseline = false;
+        migrating = false;
+        changedLines = null;
+        typeTextCache.clear();
+        callSites.clear();
+        pendingIncidents.clear();
+    }
+
+    /**
+     * Reports the held back incidents, adding the migration of their call sites to the fix.
+     * Delegations inside the replaced constructors go away with them, and a constructor called
+     * through {@code super(...)} gets no fix at all. Incidents and call sites are ordered by file
+     * and offset, so the result does not depend on the order in which parallel handlers recorded
+     * them.
+     */
+    private void reportPendingIncidents(@NonNull final Context context) {
+        final List<PendingIncident> incidents;
+        synchronized (pendingIncidents) {
+            incidents = new ArrayList<>(pendingIncidents);
+        }
+        Collections.sort(incidents);
 
-        PARAMETERS_COUNT_LIMIT = parametersCount;
+        final Map<File, CharSequence> contents = new HashMap<>();
+        for (PendingIncident incident : incidents) {
+            LintFix fix = incident.fix;
+            final List<List<Integer>> constructorCallSites = new ArrayList<>(incident.constructors.length);
+            boolean called = false;
+            boolean subclassed = false;
+            for (long constructor : incident.constructors) {
+                final List<Integer> constructorSites = getCallSites(constructor);
+                constructorCallSites.add(constructorSites);
+                for (int callSite : constructorSites) {
+                    if (CallSiteIndex.SUPER_DELEGATION.equals(callSites.getTypeText(callSite))) {
+                        subclassed = true;
+                    } else if (!incident.isReplaced(callSites.getFile(callSite),
+                                                    callSites.getStartOffset(callSite),
+                                                    callSites.getEndOffset(callSite))) {
+                        called = true;
+                    }
+                }
+            }
+            if (subclassed) {
+                // a subclass cannot call the private builder constructor
+                fix = null;
+            } else if (called) {
+                final LintFix.GroupBuilder migration = fix()
+                    .name(incident.kotlin ? KOTLIN_MIGRATION_FIX_NAME : MIGRATION_FIX_NAME)
+                    .composite();
+                if (incident.fix instanceof LintFix.LintFixGroup) {
+                    // the shared class builder fix; keep the group flat
+                    for (LintFix part : ((LintFix.LintFixGroup) incident.fix).fixes) {
+                        migration.add(part);
+                    }
+                } else if (incident.fix != null) {
+                    migration.add(incident.fix);
+                }
+                // the shared class builder fix removes every reported overload, so all their
+                // callers move to the builder, each with the setters of its own constructor
+                for (int i = 0; i < incident.constructors.length; i++) {
+                    final String[] parameterNames = incident.parameterNames[i];
+                    for (int callSite : constructorCallSites.get(i)) {
+                        if (incident.isReplaced(callSites.getFile(callSite),
+                                                callSites.getStartOffset(callSite),
+                                                callSites.getEndOffset(callSite))) {
+                            continue;
+                        }
+                        final String typeText = callSites.getTypeText(callSite);
+                        final String callText;
+                        if (incident.kotlin) {
+                            callText = BuilderTemplate.renderNamedCall(typeText,
+                                                                       parameterNames,
+                                                                       callSites.getArguments(callSite));
+                        } else if (CallSiteIndex.THIS_DELEGATION.equals(typeText)) {
+                            callText = BuilderTemplate.renderDelegation(parameterNames,
+                                                                        callSites.getArguments(callSite));
+                        } else {
+                            callText = BuilderTemplate.renderCall(typeText,
+                                                                  parameterNames,
+                                                                  callSites.getArguments(callSite));
+                        }
+                        migration.add(fix()
+                                          .replace()
+                                          .range(getCallSiteLocation(context, callSite, contents))
+                                          .with(callText)
+                                          .reformat(false)
+                                          .build());
+                    }
+                }
+                fix = migration.build();
+            }
+
+            if (metrics != null) {
+                metrics.increment(DetectorMetrics.Counter.INCIDENTS_REPORTED);
+            }
+            context.report(TOO_MANY_PARAMETERS_ISSUE,
+                           incident.location,
+                           getTooManyParametersMessage(incident.kotlin),
+                           fix);
+        }
+    }
+
+    /** Call sites of {@code constructor}, ordered by file and offset. */
+    @NonNull
+    private List<Integer> getCallSites(final long constructor) {
+        final List<Integer> result = new ArrayList<>();
+        for (int callSite = callSites.first(constructor);
+             callSite != CallSiteIndex.NONE;
+             callSite = callSites.next(callSite)) {
+            result.add(callSite);
+        }
+        Collections.sort(result, new Comparator<Integer>() {
+            @Override
+            public int compare(final Integer a, final Integer b) {
+                final int order = callSites.getFile(a).compareTo(callSites.getFile(b));
+                return order != 0 ? order : Integer.compare(callSites.getStartOffset(a), callSites.getStartOffset(b));
+            }
+        });
+        return result;
     }
 
+    @NonNull
+    private Location getCallSiteLocation(@NonNull final Context context,
+                                         final int callSite,
+                                         @NonNull final Map<File, CharSequence> contents) {
+        final File file = callSites.getFile(callSite);
+        CharSequence text = contents.get(file);
+        if (text == null) {
+            text = context.getClient().readFile(file);
+            contents.put(file, text);
+        }
+        return Location.create(file, text, callSites.getStartOffset(callSite), callSites.getEndOffset(callSite));
+    }
+
+    /**
+     * Call sites are visited whenever a run may migrate them: {@link #migrating} is only known
+     * once the run has started, and call expressions of the other runs return at once.
+     */
     @Override
     public List<Class<? extends UElement>> getApplicableUastTypes() {
-        return Collections.singletonList(UClass.class);
+        if (fixMode != BuilderFixMode.NONE) {
+            return Arrays.asList(UMethod.class, UCallExpression.class);
+        }
+        return Collections.singletonList(UMethod.class);
     }
 
     @Override
     public UElementHandler createUastHandler(final JavaContext context) {
-        final String PUBLIC = "public";
-        final String PRIVATE = "private";
-        final String STATIC = "static";
-        final String BUILD = "build";
-        final String BUILDER = "Builder";
-        final String NEW = "new";
-        final String CLASS = "class";
-        final String SPACE = " ";
-        final String LEFT_PRENTHESIS = "(";
-        final String RIGHT_PRENTHESIS = ")";
-        final String LEFT_CURLY_BRACKET = "{";
-        final String RIGHT_CURLY_BRACKET = "}";
-        final String NEW_LINE = "\n";
-        final String THIS = "this";
-        final String DOT = ".";
-        final String EQUALS = "=";
-        final String TAB = "\t";
-        final String SEMICOLON = ";";
-        final String RETURN = "return";
+        final DetectorMetrics metrics = this.metrics;
+        if (metrics != null) {
+            metrics.increment(DetectorMetrics.Counter.FILES_VISITED);
+        }
+
+        final boolean migrating = this.migrating;
+        final ChangedLines changes = changedLines;
+        final boolean unchanged = changes != null && !changes.contains(context.file);
+        if (unchanged && !migrating) {
+            return UNCHANGED_FILE_HANDLER;
+        }
+
+        // Call sites in unchanged and skipped files are still collected, so the migration of a
+        // constructor reported elsewhere stays complete
+        final boolean filtered = !unchanged
+            && SOURCE_FILTER.skip(context.file, context.file.length(), context.getContents()) != null;
+        if (filtered && metrics != null) {
+            metrics.increment(DetectorMetrics.Counter.FILES_SKIPPED);
+        }
+        final boolean skipped = unchanged || filtered;
 
         // Not: Visiting UAST nodes is a pretty general purpose mechanism;
         // Lint has specialized support to do common things like "visit every class
@@ -105,294 +422,649 @@ public class JavaConstructorDetector extends Detector implements Detector.UastSc
         // Also be aware of context.getJavaEvaluator() which provides a lot of
         // utility functionality.
         return new UElementHandler() {
+            /** Constructor facts of the classes of this file, shared by all constructor rules. */
+            private final Map<PsiClass, ConstructorIndex> indexes = new HashMap<>();
+
+            /**
+             * Builder fix shared by all incidents of a class with several constructors over the
+             * limit; {@code null} values mark classes whose incidents get their own fix.
+             */
+            private final Map<PsiClass, LintFix> classFixes = new HashMap<>();
+
+            /** Constructors replaced by the shared fix of each class in {@link #classFixes}. */
+            private final Map<PsiClass, List<PsiMethod>> classFixConstructors = new HashMap<>();
+
+            @Override
+            public void visitCallExpression(UCallExpression node) {
+                if (migrating) {
+                    indexCallSite(node);
+                }
+            }
 
             @Override
-            public void visitClass(UClass uClass) {
-                if (uClass != null) {
-                    final PsiMethod[] constructors = uClass.getConstructors();
-                    if (constructors.length > 0) {
-                        for (PsiMethod constructor : constructors) {
-                            final PsiParameterList parameters = constructor.getParameterList();
-                            if (parameters.getParametersCount() > PARAMETERS_COUNT_LIMIT) {
-                                final LintFix fix = fix()
-                                    .replace()
-                                    .text(constructor.getText())
-                                    .with(getBuilderPatternText(constructor))
-                                    .reformat(false)
-                                    .build();
-
-                                context.report(TOO_MANY_PARAMETERS_ISSUE,
-                                               constructor,
-                                               context.getLocation(constructor),
-                                               TOO_MANY_PARAMETERS_ISSUE.getBriefDescription(TextFormat.TEXT),
-                                               fix);
-                            }
+            public void visitMethod(UMethod method) {
+                if (skipped) {
+                    return;
+                }
+                if (metrics == null) {
+                    checkMethod(method);
+                    return;
+                }
+
+                metrics.increment(DetectorMetrics.Counter.METHODS_VISITED);
+                final long allocatedBytes = metrics.currentThreadAllocatedBytes();
+                final long start = System.nanoTime();
+                try {
+                    checkMethod(method);
+                } finally {
+                    metrics.add(DetectorMetrics.Counter.VISIT_NANOS, System.nanoTime() - start);
+                    metrics.addAllocatedSince(allocatedBytes);
+                }
+            }
+
+            private void checkMethod(UMethod method) {
+                // Cheap checks first: no type resolution happens until a constructor is known
+                // to exceed a limit.
+                if (method == null || !method.isConstructor()) {
+                    return;
+                }
+
+                if (metrics != null) {
+                    metrics.increment(DetectorMetrics.Counter.CONSTRUCTORS_INSPECTED);
+                }
+
+                final PsiMethod constructor = method.getPsi();
+                final int parametersCount = constructor.getParameterList().getParametersCount();
+                if (parametersCount <= minimumCheckedParameters) {
+                    return;
+                }
+
+                final PsiClass containingClass = constructor.getContainingClass();
+                if (containingClass == null || containingClass.isInterface() || containingClass.isAnnotationType()) {
+                    return;
+                }
+                if (changes != null && !isChanged(constructor)) {
+                    return;
+                }
+
+                checkParametersCount(containingClass, constructor, parametersCount);
+
+                final boolean checkBooleanParameters = context.isEnabled(BOOLEAN_PARAMETERS_ISSUE);
+                final boolean checkTelescoping = context.isEnabled(TELESCOPING_ISSUE);
+                if (!checkBooleanParameters && !checkTelescoping) {
+                    return;
+                }
+
+                final ConstructorIndex index = getIndex(containingClass);
+                final int position = index.indexOf(constructor);
+                if (position < 0) {
+                    return;
+                }
+                if (checkBooleanParameters) {
+                    checkBooleanParameters(constructor, index, position);
+                }
+                if (checkTelescoping) {
+                    checkTelescoping(constructor, index, position);
+                }
+            }
+
+            private void checkParametersCount(@NonNull final PsiClass containingClass,
+                                              @NonNull final PsiMethod constructor,
+                                              final int parametersCount) {
+                if (parametersCount <= PARAMETER_LIMITS.getLimit(containingClass.getQualifiedName())) {
+                    return;
+                }
+
+                final ConstructorBaseline baseline = JavaConstructorDetector.this.baseline;
+                final long hash = baseline != null ? ConstructorBaseline.hash(containingClass, constructor) : 0;
+                if (baseline != null && !recordingBaseline && baseline.contains(hash)) {
+                    return;
+                }
+
+                // Held back incidents bypass the driver's suppression check, and a recorded
+                // baseline must only hold reported incidents, so check here
+                if ((fixMode == BuilderFixMode.LAZY || migrating || recordingBaseline)
+                    && !isReported(TOO_MANY_PARAMETERS_ISSUE, constructor)) {
+                    return;
+                }
+                if (baseline != null && recordingBaseline) {
+                    baseline.add(hash);
+                }
+
+                if (migrating) {
+                    final Location location = context.getLocation(constructor);
+                    final LintFix fix = getBuilderFix(containingClass, constructor);
+                    final List<PsiMethod> migrated = fix != null && fix == classFixes.get(containingClass)
+                        ? classFixConstructors.get(containingClass)
+                        : Collections.singletonList(constructor);
+                    final long[] hashes = new long[migrated.size()];
+                    final String[][] parameterNames = new String[migrated.size()][];
+                    final int[] replacedRanges = new int[migrated.size() * 2];
+                    for (int i = 0; i < hashes.length; i++) {
+                        hashes[i] = ConstructorBaseline.hash(containingClass, migrated.get(i));
+                        parameterNames[i] = getParameterNames(migrated.get(i));
+                        final Location replaced = context.getLocation(migrated.get(i));
+                        replacedRanges[2 * i] = replaced.getStart() != null ? replaced.getStart().getOffset() : -1;
+                        replacedRanges[2 * i + 1] = replaced.getEnd() != null ? replaced.getEnd().getOffset() : -1;
+                    }
+                    pendingIncidents.add(new PendingIncident(hashes,
+                                                             Location.create(location.getFile(),
+                                                                             location.getStart(),
+                                                                             location.getEnd()),
+                                                             parameterNames,
+                                                             replacedRanges,
+                                                             isKotlin(constructor),
+                                                             fix));
+                    return;
+                }
+
+                report(TOO_MANY_PARAMETERS_ISSUE,
+                       constructor,
+                       getTooManyParametersMessage(isKotlin(constructor)),
+                       getBuilderFix(containingClass, constructor));
+            }
+
+            private void checkBooleanParameters(@NonNull final PsiMethod constructor,
+                                                @NonNull final ConstructorIndex index,
+                                                final int position) {
+                if (index.getBooleanParameterCount(position) > BOOLEAN_PARAMETERS_LIMIT) {
+                    report(BOOLEAN_PARAMETERS_ISSUE, constructor, null);
+                }
+            }
+
+            private void checkTelescoping(@NonNull final PsiMethod constructor,
+                                          @NonNull final ConstructorIndex index,
+                                          final int position) {
+                // Only the end of a chain is reported, so a chain yields a single incident.
+                if (!index.hasTelescopingDelegation(position)
+                    && index.getTelescopingChainLength(position) >= TELESCOPING_CHAIN_LIMIT) {
+                    report(TELESCOPING_ISSUE, constructor, null);
+                }
+            }
+
+            private void indexCallSite(@NonNull final UCallExpression call) {
+                // Cheap checks first: only constructor calls with enough arguments are resolved.
+                if (call.getValueArgumentCount() <= PARAMETER_LIMITS.getMinimumLimit()) {
+                    return;
+                }
+                if (call.getPsi() instanceof PsiMethodCallExpression) {
+                    indexDelegation((PsiMethodCallExpression) call.getPsi());
+                    return;
+                }
+                if (!UastExpressionUtils.isConstructorCall(call)) {
+                    return;
+                }
+                if (!(call.getPsi() instanceof PsiNewExpression)) {
+                    if (call.getPsi() != null && isKotlin(call.getPsi())) {
+                        indexKotlinCallSite(call);
+                    }
+                    return;
+                }
+
+                final PsiNewExpression newExpression = (PsiNewExpression) call.getPsi();
+                final PsiJavaCodeReferenceElement classReference = newExpression.getClassReference();
+                final PsiExpressionList argumentList = newExpression.getArgumentList();
+                if (classReference == null || argumentList == null || newExpression.getAnonymousClass() != null) {
+                    return;
+                }
+
+                indexJavaCallSite(newExpression,
+                                  call.resolve(),
+                                  argumentList.getExpressions(),
+                                  stripTypeArguments(classReference.getText()));
+            }
+
+            /**
+             * Indexes {@code this(a, b, c)} and {@code super(a, b, c)} as the first statement of a
+             * constructor. The builder constructor is private, so {@code this(...)} from another
+             * constructor is migrated like a {@code new} call while {@code super(...)} from a
+             * subclass keeps the whole incident from getting a builder fix.
+             */
+            private void indexDelegation(@NonNull final PsiMethodCallExpression expression) {
+                final String keyword = expression.getMethodExpression().getText();
+                if (!CallSiteIndex.THIS_DELEGATION.equals(keyword) && !CallSiteIndex.SUPER_DELEGATION.equals(keyword)) {
+                    return;
+                }
+                indexJavaCallSite(expression,
+                                  expression.resolveMethod(),
+                                  expression.getArgumentList().getExpressions(),
+                                  keyword);
+            }
+
+            private void indexJavaCallSite(@NonNull final PsiElement element,
+                                           @Nullable final PsiMethod constructor,
+                                           @NonNull final PsiExpression[] expressions,
+                                           @NonNull final String typeText) {
+                if (constructor == null || constructor.isVarArgs() || isKotlin(constructor)) {
+                    return;
+                }
+                final PsiClass containingClass = constructor.getContainingClass();
+                if (containingClass == null
+                    || expressions.length != constructor.getParameterList().getParametersCount()
+                    || expressions.length <= PARAMETER_LIMITS.getLimit(containingClass.getQualifiedName())) {
+                    return;
+                }
+
+                final String[] arguments = new String[expressions.length];
+                for (int i = 0; i < expressions.length; i++) {
+                    arguments[i] = expressions[i].getText();
+                }
+                final Location location = context.getLocation(element);
+                if (location.getStart() == null || location.getEnd() == null) {
+                    return;
+                }
+                callSites.add(ConstructorBaseline.hash(containingClass, constructor),
+                              location.getFile(),
+                              location.getStart().getOffset(),
+                              location.getEnd().getOffset(),
+                              typeText,
+                              arguments);
+            }
+
+            /**
+             * Indexes {@code Foo(a, b, c)} in Kotlin, whose migration passes the same arguments by
+             * name. Only calls of Kotlin constructors with one positional argument per parameter
+             * qualify: Java constructors take no named arguments, and named, spread, defaulted or
+             * trailing lambda arguments do not map onto the parameters in order.
+             */
+            private void indexKotlinCallSite(@NonNull final UCallExpression call) {
+                final PsiElement element = call.getPsi();
+                final String text = element.getText();
+                final int open = text.indexOf('(');
+                if (open <= 0 || !text.endsWith(")")) {
+                    return;
+                }
+
+                final PsiMethod constructor = call.resolve();
+                if (constructor == null || constructor.isVarArgs() || !isKotlin(constructor)) {
+                    return;
+                }
+                final PsiClass containingClass = constructor.getContainingClass();
+                final List<UExpression> expressions = call.getValueArguments();
+                if (containingClass == null
+                    || expressions.size() != constructor.getParameterList().getParametersCount()
+                    || expressions.size() <= PARAMETER_LIMITS.getLimit(containingClass.getQualifiedName())) {
+                    return;
+                }
+
+                final CharSequence contents = context.getContents();
+                final String[] arguments = new String[expressions.size()];
+                for (int i = 0; i < arguments.length; i++) {
+                    final PsiElement argument = expressions.get(i).getPsi();
+                    if (argument == null || contents == null || !isPositional(contents, argument)) {
+                        return;
+                    }
+                    arguments[i] = argument.getText();
+                }
+                final Location location = context.getLocation(element);
+                if (location.getStart() == null || location.getEnd() == null) {
+                    return;
+                }
+                callSites.add(ConstructorBaseline.hash(containingClass, constructor),
+                              location.getFile(),
+                              location.getStart().getOffset(),
+                              location.getEnd().getOffset(),
+                              stripTypeArguments(text.substring(0, open)),
+                              arguments);
+            }
+
+            /** Whether any line of {@code constructor}, from its doc comment to its body, changed. */
+            private boolean isChanged(@NonNull final PsiMethod constructor) {
+                final Location location = context.getLocation(constructor);
+                if (location.getStart() == null || location.getEnd() == null) {
+                    return true;
+                }
+                return changes.intersects(context.file, location.getStart().getLine() + 1, location.getEnd().getLine() + 1);
+            }
+
+            /** Returns the index of {@code containingClass}, building it on its first checked constructor. */
+            @NonNull
+            private ConstructorIndex getIndex(@NonNull final PsiClass containingClass) {
+                ConstructorIndex index = indexes.get(containingClass);
+                if (index == null) {
+                    index = ConstructorIndex.create(containingClass);
+                    indexes.put(containingClass, index);
+                }
+                return index;
+            }
+
+            private void report(@NonNull final Issue issue,
+                                @NonNull final PsiMethod constructor,
+                                @Nullable final LintFix fix) {
+                report(issue, constructor, issue.getBriefDescription(TextFormat.TEXT), fix);
+            }
+
+            private void report(@NonNull final Issue issue,
+                                @NonNull final PsiMethod constructor,
+                                @NonNull final String message,
+                                @Nullable final LintFix fix) {
+                if (metrics != null) {
+                    metrics.increment(DetectorMetrics.Counter.INCIDENTS_REPORTED);
+                }
+                context.report(issue,
+                               constructor,
+                               context.getLocation(constructor),
+                               message,
+                               fix);
+            }
+
+            private boolean isReported(@NonNull final Issue issue, @NonNull final PsiMethod constructor) {
+                return context.isEnabled(issue)
+                    && !context.getDriver().isSuppressed(context, issue, constructor);
+            }
+
+            /**
+             * Returns the builder replacing {@code constructor}. Kotlin constructors get none: the
+             * Java builder would not compile there, and named arguments, which their migrated call
+             * sites use, read as well without one.
+             */
+            @Nullable
+            private LintFix getBuilderFix(@NonNull final PsiClass containingClass, @NonNull final PsiMethod constructor) {
+                if (fixMode == BuilderFixMode.NONE || isKotlin(constructor)) {
+                    return null;
+                }
+
+                final long start = metrics != null ? System.nanoTime() : 0;
+                LintFix fix = getClassBuilderFix(containingClass);
+                if (fix == null) {
+                    fix = fix()
+                        .replace()
+                        .text(constructor.getText())
+                        .with(BUILDER_TEMPLATE.render(ConstructorModel.create(constructor, typeTextCache)))
+                        .reformat(false)
+                        .build();
+                }
+                if (metrics != null) {
+                    metrics.add(DetectorMetrics.Counter.FIX_NANOS, System.nanoTime() - start);
+                    metrics.increment(DetectorMetrics.Counter.FIXES_BUILT);
+                }
+                return fix;
+            }
+
+            /**
+             * Returns the fix shared by the incidents of a class with several reported
+             * constructors over the limit, or {@code null} when the class has a single one. One
+             * builder taking the union of their parameters replaces the first constructor and
+             * the others are removed, whole lines at a time; their call sites map onto the
+             * builder's setters. Built once per class, so separate builders never conflict.
+             * Overloads doing different work keep their own fixes, since the builder constructor
+             * can only do the work of one of them.
+             */
+            @Nullable
+            private LintFix getClassBuilderFix(@NonNull final PsiClass containingClass) {
+                if (classFixes.containsKey(containingClass)) {
+                    return classFixes.get(containingClass);
+                }
+
+                final List<PsiMethod> constructors = getReportedConstructors(containingClass);
+                LintFix fix = null;
+                if (constructors.size() > 1 && haveSameBody(getIndex(containingClass), constructors)) {
+                    final List<ConstructorModel> models = new ArrayList<>(constructors.size());
+                    for (PsiMethod constructor : constructors) {
+                        models.add(ConstructorModel.create(constructor, typeTextCache));
+                    }
+                    final ConstructorModel merged = ConstructorModel.merge(models);
+                    if (merged != null) {
+                        final LintFix.GroupBuilder group = fix().composite();
+                        for (int i = 0; i < constructors.size(); i++) {
+                            final Location location = context.getLocation(constructors.get(i));
+                            group.add(fix()
+                                          .replace()
+                                          .range(i == 0 ? location : getLineRange(location))
+                                          .with(i == 0 ? BUILDER_TEMPLATE.render(merged) : "")
+                                          .reformat(false)
+                                          .build());
                         }
+                        fix = group.build();
                     }
                 }
+                classFixes.put(containingClass, fix);
+                classFixConstructors.put(containingClass, constructors);
+                return fix;
             }
 
-            private String getBuilderPatternText(final PsiMethod constructor) {
-                final StringBuilder stringBuilder = new StringBuilder();
-                final String objectName = constructor.getName();
-                final PsiParameterList parameterList = constructor.getParameterList();
-                final PsiParameter[] parameters = parameterList.getParameters();
+            /**
+             * Whether {@code constructors} do the same work: each either only delegates through
+             * {@code this(...)} or has the body of the others, ignoring whitespace.
+             */
+            private boolean haveSameBody(@NonNull final ConstructorIndex index, @NonNull final List<PsiMethod> constructors) {
+                String body = null;
+                for (PsiMethod constructor : constructors) {
+                    final PsiCodeBlock block = constructor.getBody();
+                    if (block == null) {
+                        return false;
+                    }
+                    if (block.getStatements().length == 1
+                        && index.getDelegationTarget(index.indexOf(constructor)) != ConstructorIndex.NO_DELEGATION) {
+                        continue;
+                    }
+                    final String text = ConstructorBaseline.stripWhitespace(block.getText());
+                    if (body == null) {
+                        body = text;
+                    } else if (!body.equals(text)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
 
-                stringBuilder.append(getBuilderConstructorText(objectName, parameters));
+            /**
+             * {@code location} widened to whole lines when nothing but whitespace shares them,
+             * so removing it leaves no indentation-only line behind.
+             */
+            @NonNull
+            private Location getLineRange(@NonNull final Location location) {
+                final CharSequence contents = context.getContents();
+                if (contents == null || location.getStart() == null || location.getEnd() == null) {
+                    return location;
+                }
 
-                stringBuilder.append(getStaticFactoryText(objectName, parameters));
-
-                return stringBuilder.toString();
-            }
-
-            private String getStaticFactoryText(@NonNull final String objectName, @NonNull final PsiParameter[] parameters) {
-                final StringBuilder stringBuilder = new StringBuilder();
-                //    public static class Builder {
-                //        private type fieldName;
-                //        ...
-                //
-                //        public Builder() {
-                //        }
-
-                //        public Builder fieldName(type fieldName) {
-                //            this.fieldName = fieldName;
-                //            return this;
-                //        }
-                //        ...
-
-                //        public ObjectName build() {
-                //            return new ObjectName(this);
-                //        }
-                //    }
-
-                //    public static class Builder {
-                stringBuilder.append(TAB);
-                stringBuilder.append(PUBLIC);
-                stringBuilder.append(SPACE);
-                stringBuilder.append(STATIC);
-                stringBuilder.append(SPACE);
-                stringBuilder.append(CLASS);
-                stringBuilder.append(SPACE);
-                stringBuilder.append(BUILDER);
-                stringBuilder.append(SPACE);
-                stringBuilder.append(LEFT_CURLY_BRACKET);
-                stringBuilder.append(NEW_LINE);
-
-                stringBuilder.append(getStaticFactoryFieldsText(parameters));
-
-                stringBuilder.append(getStaticFactoryBuilderText());
-
-                stringBuilder.append(getStaticFactorySettersText(parameters));
-
-                stringBuilder.append(getStaticFactoryBuildMethodText(objectName));
-
-                //    }
-                stringBuilder.append(TAB);
-                stringBuilder.append(RIGHT_CURLY_BRACKET);
-                stringBuilder.append(NEW_LINE);
-
-                return stringBuilder.toString();
-            }
-
-            private String getStaticFactoryBuilderText() {
-                final StringBuilder stringBuilder = new StringBuilder();
-
-                //        public Builder() {
-                stringBuilder.append(TAB);
-                stringBuilder.append(TAB);
-                stringBuilder.append(PUBLIC);
-                stringBuilder.append(SPACE);
-                stringBuilder.append(BUILDER);
-                stringBuilder.append(LEFT_PRENTHESIS);
-                stringBuilder.append(RIGHT_PRENTHESIS);
-                stringBuilder.append(SPACE);
-                stringBuilder.append(LEFT_CURLY_BRACKET);
-                stringBuilder.append(NEW_LINE);
-
-                //        }
-                stringBuilder.append(TAB);
-                stringBuilder.append(TAB);
-                stringBuilder.append(RIGHT_CURLY_BRACKET);
-                stringBuilder.append(NEW_LINE);
-
-                stringBuilder.append(NEW_LINE);
-
-                return stringBuilder.toString();
-            }
-
-            private String getStaticFactoryBuildMethodText(@NonNull final String objectName) {
-                final StringBuilder stringBuilder = new StringBuilder();
-
-                //        public ObjectName build() {
-                stringBuilder.append(TAB);
-                stringBuilder.append(TAB);
-                stringBuilder.append(PUBLIC);
-                stringBuilder.append(SPACE);
-                stringBuilder.append(objectName);
-                stringBuilder.append(SPACE);
-                stringBuilder.append(BUILD);
-                stringBuilder.append(LEFT_PRENTHESIS);
-                stringBuilder.append(RIGHT_PRENTHESIS);
-                stringBuilder.append(SPACE);
-                stringBuilder.append(LEFT_CURLY_BRACKET);
-                stringBuilder.append(NEW_LINE);
-
-                //            return new ObjectName(this);
-                stringBuilder.append(TAB);
-                stringBuilder.append(TAB);
-                stringBuilder.append(TAB);
-                stringBuilder.append(RETURN);
-                stringBuilder.append(SPACE);
-                stringBuilder.append(NEW);
-                stringBuilder.append(SPACE);
-                stringBuilder.append(objectName);
-                stringBuilder.append(LEFT_PRENTHESIS);
-                stringBuilder.append(THIS);
-                stringBuilder.append(RIGHT_PRENTHESIS);
-                stringBuilder.append(SEMICOLON);
-                stringBuilder.append(NEW_LINE);
-
-                //        }
-                stringBuilder.append(TAB);
-                stringBuilder.append(TAB);
-                stringBuilder.append(RIGHT_CURLY_BRACKET);
-                stringBuilder.append(NEW_LINE);
-
-                stringBuilder.append(NEW_LINE);
-
-                return stringBuilder.toString();
-            }
-
-            private String getStaticFactorySettersText(@NonNull final PsiParameter[] parameters) {
-                final StringBuilder stringBuilder = new StringBuilder();
-
-                for (PsiParameter parameter : parameters) {
-                    final String parameterName = parameter.getName();
-                    final String parameterType = parameter.getType().getPresentableText();
-
-                    //        public Builder fieldName(type fieldName) {
-                    stringBuilder.append(TAB);
-                    stringBuilder.append(TAB);
-                    stringBuilder.append(PUBLIC);
-                    stringBuilder.append(SPACE);
-                    stringBuilder.append(BUILDER);
-                    stringBuilder.append(SPACE);
-                    stringBuilder.append(parameterName);
-                    stringBuilder.append(LEFT_PRENTHESIS);
-                    stringBuilder.append(parameterType);
-                    stringBuilder.append(SPACE);
-                    stringBuilder.append(parameterName);
-                    stringBuilder.append(RIGHT_PRENTHESIS);
-                    stringBuilder.append(SPACE);
-                    stringBuilder.append(LEFT_CURLY_BRACKET);
-                    stringBuilder.append(NEW_LINE);
-
-                    //            this.fieldName = fieldName;
-                    stringBuilder.append(TAB);
-                    stringBuilder.append(TAB);
-                    stringBuilder.append(TAB);
-                    stringBuilder.append(THIS);
-                    stringBuilder.append(DOT);
-                    stringBuilder.append(parameterName);
-                    stringBuilder.append(SPACE);
-                    stringBuilder.append(EQUALS);
-                    stringBuilder.append(SPACE);
-                    stringBuilder.append(parameterName);
-                    stringBuilder.append(SEMICOLON);
-                    stringBuilder.append(NEW_LINE);
-
-                    //            return this;
-                    stringBuilder.append(TAB);
-                    stringBuilder.append(TAB);
-                    stringBuilder.append(TAB);
-                    stringBuilder.append(RETURN);
-                    stringBuilder.append(SPACE);
-                    stringBuilder.append(THIS);
-                    stringBuilder.append(SEMICOLON);
-                    stringBuilder.append(NEW_LINE);
-
-                    //        }
-                    stringBuilder.append(TAB);
-                    stringBuilder.append(TAB);
-                    stringBuilder.append(RIGHT_CURLY_BRACKET);
-                    stringBuilder.append(NEW_LINE);
-                    stringBuilder.append(NEW_LINE);
-                }
-
-                return stringBuilder.toString();
-            }
-
-            private String getStaticFactoryFieldsText(@NonNull final PsiParameter[] parameters) {
-                final StringBuilder stringBuilder = new StringBuilder();
-
-                for (PsiParameter parameter : parameters) {
-                    final String parameterName = parameter.getName();
-                    final String parameterType = parameter.getType().getPresentableText();
-
-                    //        private type servingSize;
-                    stringBuilder.append(TAB);
-                    stringBuilder.append(TAB);
-                    stringBuilder.append(PRIVATE);
-                    stringBuilder.append(SPACE);
-                    stringBuilder.append(parameterType);
-                    stringBuilder.append(SPACE);
-                    stringBuilder.append(parameterName);
-                    stringBuilder.append(SEMICOLON);
-                    stringBuilder.append(NEW_LINE);
-                }
-                stringBuilder.append(NEW_LINE);
-
-                return stringBuilder.toString();
-            }
-
-            private String getBuilderConstructorText(@NonNull final String objectName, @NonNull final PsiParameter[] parameters) {
-
-                //    private NutritionFacts(Builder builder) {
-                //        fieldName  = builder.fieldName;
-                //        ...
-                //    }
-
-                final StringBuilder stringBuilder = new StringBuilder();
-
-                //    private ObjectName(Builder builder) {
-                stringBuilder.append(PRIVATE);
-                stringBuilder.append(SPACE);
-                stringBuilder.append(objectName);
-                stringBuilder.append(LEFT_PRENTHESIS);
-                stringBuilder.append(BUILDER);
-                stringBuilder.append(SPACE);
-                stringBuilder.append(BUILDER.toLowerCase());
-                stringBuilder.append(RIGHT_PRENTHESIS);
-                stringBuilder.append(SPACE);
-                stringBuilder.append(LEFT_CURLY_BRACKET);
-                stringBuilder.append(NEW_LINE);
-
-                for (PsiParameter parameter : parameters) {
-                    //        this.fieldName = builder.fieldName;
-                    final String parameterName = parameter.getName();
-                    stringBuilder.append(TAB);
-                    stringBuilder.append(TAB);
-                    stringBuilder.append(THIS);
-                    stringBuilder.append(DOT);
-                    stringBuilder.append(parameterName);
-                    stringBuilder.append(SPACE);
-                    stringBuilder.append(EQUALS);
-                    stringBuilder.append(SPACE);
-                    stringBuilder.append(BUILDER.toLowerCase());
-                    stringBuilder.append(DOT);
-                    stringBuilder.append(parameterName);
-                    stringBuilder.append(SEMICOLON);
-                    stringBuilder.append(NEW_LINE);
-                }
-
-                //    }
-                stringBuilder.append(TAB);
-                stringBuilder.append(RIGHT_CURLY_BRACKET);
-                stringBuilder.append(NEW_LINE);
-                stringBuilder.append(NEW_LINE);
-
-                return stringBuilder.toString();
+                int start = location.getStart().getOffset();
+                while (start > 0 && isIndentation(contents.charAt(start - 1))) {
+                    start--;
+                }
+                int end = location.getEnd().getOffset();
+                while (end < contents.length() && isIndentation(contents.charAt(end))) {
+                    end++;
+                }
+                if (end + 1 < contents.length() && contents.charAt(end) == '\r' && contents.charAt(end + 1) == '\n') {
+                    end++;
+                }
+                final boolean lineStart = start == 0 || contents.charAt(start - 1) == '\n';
+                final boolean lineEnd = end == contents.length() || contents.charAt(end) == '\n';
+                if (!lineStart || !lineEnd) {
+                    return location;
+                }
+                return Location.create(context.file, contents, start, Math.min(end + 1, contents.length()));
             }
+
+            /**
+             * Constructors of {@code containingClass} reported for their parameter count, in
+             * declaration order; only classes with several constructors over the limit pay for
+             * the baseline and suppression checks.
+             */
+            @NonNull
+            private List<PsiMethod> getReportedConstructors(@NonNull final PsiClass containingClass) {
+                final int limit = PARAMETER_LIMITS.getLimit(containingClass.getQualifiedName());
+                final ConstructorIndex index = getIndex(containingClass);
+                int overLimit = 0;
+                for (int i = 0; i < index.size(); i++) {
+                    if (index.getArity(i) > limit) {
+                        overLimit++;
+                    }
+                }
+                if (overLimit < 2) {
+                    return Collections.emptyList();
+                }
+
+                final List<PsiMethod> constructors = new ArrayList<>(overLimit);
+                for (int i = 0; i < index.size(); i++) {
+                    final PsiMethod constructor = index.getConstructor(i);
+                    if (index.getArity(i) <= limit
+                        || (baseline != null && !recordingBaseline
+                            && baseline.contains(ConstructorBaseline.hash(containingClass, constructor)))
+                        || !isReported(TOO_MANY_PARAMETERS_ISSUE, constructor)) {
+                        continue;
+                    }
+                    constructors.add(constructor);
+                }
+                return constructors;
+            }
+
         };
     }
+
+    /**
+     * Message of a {@link #TOO_MANY_PARAMETERS_ISSUE} incident. A Kotlin constructor gets no
+     * builder fix, so its message says what to do instead: named arguments at the call sites,
+     * which the fix adds where they are known, or default values on the declaration.
+     */
+    @NonNull
+    private static String getTooManyParametersMessage(final boolean kotlin) {
+        return kotlin
+            ? ConstructorIssues.TOO_MANY_PARAMETERS_KOTLIN_MESSAGE
+            : TOO_MANY_PARAMETERS_ISSUE.getBriefDescription(TextFormat.TEXT);
+    }
+
+    @NonNull
+    private static String[] getParameterNames(@NonNull final PsiMethod constructor) {
+        final PsiParameter[] parameters = constructor.getParameterList().getParameters();
+        final String[] names = new String[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            names[i] = parameters[i].getName();
+        }
+        return names;
+    }
+
+    /**
+     * Whether {@code element} is Kotlin. Lint 26.0's command line client hands no Kotlin sources
+     * to the detector; a lint that does passes their constructors as light {@link PsiMethod}s,
+     * told apart by language, which must not get a Java builder.
+     */
+    static boolean isKotlin(@NonNull final PsiElement element) {
+        return KOTLIN_LANGUAGE_ID.equalsIgnoreCase(element.getLanguage().getID());
+    }
+
+    /**
+     * Whether the argument at {@code argument} is passed by position: only blanks separate it
+     * from the opening parenthesis or the previous comma, where named arguments have
+     * {@code name =} and spread arguments {@code *}.
+     */
+    private static boolean isPositional(@NonNull final CharSequence contents, @NonNull final PsiElement argument) {
+        for (int i = argument.getTextRange().getStartOffset() - 1; i >= 0; i--) {
+            final char c = contents.charAt(i);
+            if (c == '(' || c == ',') {
+                return true;
+            }
+            if (!Character.isWhitespace(c)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /** Fewest parameters, minus one, a constructor needs to break one of the issues enabled for {@code context}. */
+    private static int getMinimumCheckedParameters(@NonNull final Context context) {
+        int minimum = Integer.MAX_VALUE;
+        if (context.isEnabled(TOO_MANY_PARAMETERS_ISSUE)) {
+            minimum = PARAMETER_LIMITS.getMinimumLimit();
+        }
+        if (context.isEnabled(BOOLEAN_PARAMETERS_ISSUE)) {
+            minimum = Math.min(minimum, BOOLEAN_PARAMETERS_LIMIT);
+        }
+        if (context.isEnabled(TELESCOPING_ISSUE)) {
+            // arities strictly grow along a chain, so its last constructor has at least limit - 1
+            minimum = Math.min(minimum, TELESCOPING_CHAIN_LIMIT - 2);
+        }
+        return minimum;
+    }
+
+    private static boolean isIndentation(final char c) {
+        return c == ' ' || c == '\t';
+    }
+
+    /** {@code Foo<String>} and {@code Foo<>} become {@code Foo}; the builder is not generic. */
+    @NonNull
+    static String stripTypeArguments(@NonNull final String typeText) {
+        if (typeText.indexOf('<') < 0) {
+            return typeText;
+        }
+
+        final StringBuilder stripped = new StringBuilder(typeText.length());
+        int depth = 0;
+        for (int i = 0; i < typeText.length(); i++) {
+            final char c = typeText.charAt(i);
+            if (c == '<') {
+                depth++;
+            } else if (c == '>') {
+                depth--;
+            } else if (depth == 0 && !Character.isWhitespace(c)) {
+                stripped.append(c);
+            }
+        }
+        return stripped.toString();
+    }
+
+    /**
+     * A {@link #TOO_MANY_PARAMETERS_ISSUE} incident waiting for the call sites of the constructors
+     * its fix replaces: its own, or every overload replaced by a shared class builder.
+     */
+    private static final class PendingIncident implements Comparable<PendingIncident> {
+        /** {@link ConstructorBaseline#hash} of the replaced constructors. */
+        final long[] constructors;
+        final Location location;
+        /** Parameter names of each of {@link #constructors}. */
+        final String[][] parameterNames;
+        /** Start and end offsets of each of {@link #constructors} in the file of {@link #location}. */
+        final int[] replacedRanges;
+        /** Call sites pass named arguments instead of calling a builder. */
+        final boolean kotlin;
+        final LintFix fix;
+
+        PendingIncident(@NonNull final long[] constructors,
+                        @NonNull final Location location,
+                        @NonNull final String[][] parameterNames,
+                        @NonNull final int[] replacedRanges,
+                        final boolean kotlin,
+                        @Nullable final LintFix fix) {
+            this.constructors = constructors;
+            this.location = location;
+            this.parameterNames = parameterNames;
+            this.replacedRanges = replacedRanges;
+            this.kotlin = kotlin;
+            this.fix = fix;
+        }
+
+        /**
+         * Whether {@code [start, end)} of {@code file} lies in one of the replaced constructors,
+         * whose delegations disappear with them.
+         */
+        boolean isReplaced(@NonNull final File file, final int start, final int end) {
+            if (!file.equals(location.getFile())) {
+                return false;
+            }
+            for (int i = 0; i < replacedRanges.length; i += 2) {
+                if (start >= replacedRanges[i] && end <= replacedRanges[i + 1]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /** Orders by file, then by offset in the file. */
+        @Override
+        public int compareTo(@NonNull final PendingIncident other) {
+            final int order = location.getFile().compareTo(other.location.getFile());
+            return order != 0 ? order : Integer.compare(getOffset(), other.getOffset());
+        }
+
+        private int getOffset() {
+            return location.getStart() != null ? location.getStart().getOffset() : -1;
+        }
+    }
+
+    @Nullable
+    private static String getBaseRef(@Nullable final String value) {
+        return value == null || value.trim().isEmpty() ? null : value.trim();
+    }
 }
@@ -0,0 +1,68 @@
+package com.example.customlint;
+
+import com.android.annotations.NonNull;
+import com.android.annotations.Nullable;
+import java.io.IOException;
+import java.io.Writer;
+
+/** JSON string literal helpers for the incident writers. */
+final class JsonStrings {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private JsonStrings() {
+    }
+
+    /** Writes {@code value} as a quoted, escaped JSON string. */
+    static void write(@NonNull final Writer writer, @NonNull final String value) throws IOException {
+        writer.write('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\') {
+                continue;
+            }
+
+            writer.write(value, start, i - start);
+            switch (c) {
+                case '"':
+                    writer.write("\\\"");
+                    break;
+                case '\\':
+                    writer.write("\\\\");
+                    break;
+                case '\n':
+                    writer.write("\\n");
+                    break;
+                case '\r':
+                    writer.write("\\r");
+                    break;
+                case '\t':
+                    writer.write("\\t");
+                    break;
+                default:
+                    writer.write("\\u00");
+                    writer.write(HEX[c >> 4]);
+                    writer.write(HEX[c & 0xf]);
+                    break;
+            }
+            start = i + 1;
+        }
+        writer.write(value, start, value.length() - start);
+        writer.write('"');
+    }
+
+    /**
+     * Applies a maximum fix length: {@code null} for {@link IncidentWriter#NO_FIX_TEXT} or a
+     * missing fix, the text itself for {@link IncidentWriter#FULL_FIX_TEXT}, else a prefix.
+     */
+    @Nullable
+    static String fixText(@Nullable final String fixText, final int maxFixLength) {
+        if (fixText == null || maxFixLength == IncidentWriter.NO_FIX_TEXT) {
+            return null;
+        }
+        if (maxFixLength == IncidentWriter.FULL_FIX_TEXT || fixText.length() <= maxFixLength) {
+            return fixText;
+        }
+        return fixText.substring(0, maxFixLength) + "...";
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.customlint;
+
+import com.android.annotations.NonNull;
+import com.android.annotations.Nullable;
+import com.android.tools.lint.detector.api.Issue;
+import com.android.tools.lint.detector.api.Location;
+import com.android.tools.lint.detector.api.Position;
+import com.android.tools.lint.detector.api.Severity;
+
+/**
+ * An incident reported by one of the {@link CustomIssueRegistry} issues, detached from the
+ * lint driver so it can be merged across clients and written by the custom reporters.
+ */
+public final class LintIncident implements Comparable<LintIncident> {
+    private final String issueId;
+    private final Severity severity;
+    private final String path;
+    private final int line;
+    private final String message;
+    private final String fixText;
+
+    public LintIncident(@NonNull final String issueId,
+                        @NonNull final Severity severity,
+                        @NonNull final String path,
+                        final int line,
+                        @NonNull final String message,
+                        @Nullable final String fixText) {
+        this.issueId = issueId;
+        this.severity = severity;
+        this.path = path;
+        this.line = line;
+        this.message = message;
+        this.fixText = fixText;
+    }
+
+    /** Creates an incident from a lint report; {@code line} is 1-based, 0 when unknown. */
+    @NonNull
+    public static LintIncident create(@NonNull final Issue issue,
+                                      @NonNull final Severity severity,
+                                      @NonNull final Location location,
+                                      @NonNull final String message,
+                                      @Nullable final String fixText) {
+        final Position start = location.getStart();
+        return new LintIncident(issue.getId(),
+                                severity,
+                                location.getFile().getPath(),
+                                start != null ? start.getLine() + 1 : 0,
+                                message,
+                                fixText);
+    }
+
+    @NonNull
+    public String getIssueId() {
+        return issueId;
+    }
+
+    @NonNull
+    public Severity getSeverity() {
+        return severity;
+    }
+
+    @NonNull
+    public String getPath() {
+        return path;
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    @NonNull
+    public String getMessage() {
+        return message;
+    }
+
+    @Nullable
+    public String getFixText() {
+        return fixText;
+    }
+
+    /** Formats the incident the way lint's text reporter does, e.g. {@code Foo.java:3: Warning: ... [Id]}. */
+    @NonNull
+    public String format() {
+        return path + ":" + line + ": " + severity.getDescription() + ": " + message + " [" + issueId + "]";
+    }
+
+    @Override
+    public int compareTo(@NonNull final LintIncident other) {
+        int result = path.compareTo(other.path);
+        if (result == 0) {
+            result = Integer.compare(line, other.line);
+        }
+        if (result == 0) {
+            result = issueId.compareTo(other.issueId);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LintIncident)) {
+            return false;
+        }
+        final LintIncident other = (LintIncident) o;
+        return line == other.line
+            && issueId.equals(other.issueId)
+            && severity == other.severity
+            && path.equals(other.path)
+            && message.equals(other.message);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = issueId.hashCode();
+        result = 31 * result + path.hashCode();
+        result = 31 * result + line;
+        result = 31 * result + message.hashCode();
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return format();
+    }
+}
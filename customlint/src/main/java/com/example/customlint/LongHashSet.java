@@ -0,0 +1,103 @@
+package com.example.customlint;
+
+/**
+ * Open-addressing set of primitive longs with linear probing; no boxing on insert or lookup.
+ */
+final class LongHashSet {
+    // 0 marks an empty slot, so the value 0 itself is tracked separately.
+    private static final long EMPTY = 0L;
+
+    private long[] slots;
+    private int size;
+    private boolean containsEmpty;
+
+    LongHashSet(final int expectedSize) {
+        int capacity = 16;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        slots = new long[capacity];
+    }
+
+    boolean add(final long value) {
+        if (value == EMPTY) {
+            final boolean added = !containsEmpty;
+            containsEmpty = true;
+            if (added) {
+                size++;
+            }
+            return added;
+        }
+
+        if ((size + 1) * 2 > slots.length) {
+            resize();
+        }
+        final int mask = slots.length - 1;
+        int index = mix(value) & mask;
+        while (slots[index] != EMPTY) {
+            if (slots[index] == value) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        slots[index] = value;
+        size++;
+        return true;
+    }
+
+    boolean contains(final long value) {
+        if (value == EMPTY) {
+            return containsEmpty;
+        }
+
+        final int mask = slots.length - 1;
+        int index = mix(value) & mask;
+        while (slots[index] != EMPTY) {
+            if (slots[index] == value) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Copies the values into a new array, in no particular order. */
+    long[] toArray() {
+        final long[] values = new long[size];
+        int count = 0;
+        if (containsEmpty) {
+            values[count++] = EMPTY;
+        }
+        for (long slot : slots) {
+            if (slot != EMPTY) {
+                values[count++] = slot;
+            }
+        }
+        return values;
+    }
+
+    private void resize() {
+        final long[] oldSlots = slots;
+        slots = new long[oldSlots.length * 2];
+        size = containsEmpty ? 1 : 0;
+        for (long slot : oldSlots) {
+            if (slot != EMPTY) {
+                add(slot);
+            }
+        }
+    }
+
+    /** Murmur3 finalizer; spreads hash bits so linear probing stays short. */
+    private static int mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return (int) value;
+    }
+}
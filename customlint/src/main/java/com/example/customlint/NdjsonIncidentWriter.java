@@ -0,0 +1,52 @@
+package com.example.customlint;
+
+import com.android.annotations.NonNull;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes one JSON object per incident and line (newline-delimited JSON):
+ *
+ * <pre>
+ * {"issue":"TooManyParametersConstructor","severity":"Warning","path":"...","line":3,"message":"...","fix":"..."}
+ * </pre>
+ */
+public class NdjsonIncidentWriter implements IncidentWriter {
+    private final Writer writer;
+    private final int maxFixLength;
+
+    /**
+     * @param writer       destination, closed with this writer
+     * @param maxFixLength maximum fix text length, {@link #FULL_FIX_TEXT} or {@link #NO_FIX_TEXT}
+     */
+    public NdjsonIncidentWriter(@NonNull final Writer writer, final int maxFixLength) {
+        this.writer = writer;
+        this.maxFixLength = maxFixLength;
+    }
+
+    @Override
+    public void write(@NonNull final LintIncident incident) throws IOException {
+        writer.write("{\"issue\":");
+        JsonStrings.write(writer, incident.getIssueId());
+        writer.write(",\"severity\":");
+        JsonStrings.write(writer, incident.getSeverity().getDescription());
+        writer.write(",\"path\":");
+        JsonStrings.write(writer, incident.getPath());
+        writer.write(",\"line\":");
+        writer.write(Integer.toString(incident.getLine()));
+        writer.write(",\"message\":");
+        JsonStrings.write(writer, incident.getMessage());
+
+        final String fixText = JsonStrings.fixText(incident.getFixText(), maxFixLength);
+        if (fixText != null) {
+            writer.write(",\"fix\":");
+            JsonStrings.write(writer, fixText);
+        }
+        writer.write("}\n");
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,308 @@
+package com.example.customlint;
+
+import com.android.annotations.NonNull;
+import com.android.annotations.Nullable;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Constructor parameter limits per package or class, compiled into a trie of qualified name
+ * segments so that looking up the limit of a class costs one hash probe per segment and
+ * allocates nothing.
+ *
+ * <p>Rules are read from a file of {@code pattern = limit} lines ({@code #} starts a comment).
+ * Patterns take exactly one of three forms; any other use of {@code *}, such as
+ * {@code com.*.model.**} or {@code com.example.Foo*}, makes the line malformed:
+ * <ul>
+ *     <li>{@code com.example.Foo} - the class {@code com.example.Foo}</li>
+ *     <li>{@code com.example.*} - classes directly in {@code com.example}</li>
+ *     <li>{@code com.example.**} - classes in {@code com.example} and its subpackages</li>
+ * </ul>
+ * An exact class rule wins over {@code *}, which wins over {@code **}; among {@code **} rules
+ * the deepest one applies. Classes matching no rule use the default limit.
+ *
+ * <p>Nested classes are matched by their source name, {@code com.example.Outer.Inner}, whose
+ * segments cannot tell a class from a package: {@code com.example.*} does not cover
+ * {@code Inner}, while {@code com.example.**}, {@code com.example.Outer.*} and the exact name do.
+ * A rule for {@code com.example.Outer} applies to {@code Outer} alone.
+ */
+public final class ParameterLimits {
+    /** Limit used when {@code ANDROID_LINT_CONSTRUCTOR_PARAMETERS_COUNT_LIMIT} is unset or invalid. */
+    public static final int DEFAULT_LIMIT = 2;
+
+    private static final String ANY_CLASS = "*";
+    private static final String ANY_DESCENDANT = "**";
+    private static final int UNSET = -1;
+
+    private final int defaultLimit;
+    private final Node root = new Node();
+    private int minimumLimit;
+
+    private ParameterLimits(final int defaultLimit) {
+        this.defaultLimit = defaultLimit;
+        this.minimumLimit = defaultLimit;
+    }
+
+    /** Limits using {@code defaultLimit} for every class. */
+    @NonNull
+    public static ParameterLimits of(final int defaultLimit) {
+        return new ParameterLimits(defaultLimit);
+    }
+
+    /**
+     * Limits configured through the environment: the default limit from
+     * {@code ANDROID_LINT_CONSTRUCTOR_PARAMETERS_COUNT_LIMIT} and the rules in the file named by
+     * {@code ANDROID_LINT_CONSTRUCTOR_PARAMETERS_LIMITS_FILE}.
+     */
+    @NonNull
+    public static ParameterLimits fromEnvironment() {
+        final String path = System.getenv("ANDROID_LINT_CONSTRUCTOR_PARAMETERS_LIMITS_FILE");
+        return load(path == null || path.trim().isEmpty() ? null : new File(path.trim()),
+                    parseLimit(System.getenv("ANDROID_LINT_CONSTRUCTOR_PARAMETERS_COUNT_LIMIT")));
+    }
+
+    /** Parses a default limit; {@code null}, malformed and non-positive values yield {@link #DEFAULT_LIMIT}. */
+    public static int parseLimit(@Nullable final String value) {
+        int limit = 0;
+        if (value != null) {
+            try {
+                limit = Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                // pass: set to default below
+            }
+        }
+        return limit > 0 ? limit : DEFAULT_LIMIT;
+    }
+
+    /**
+     * Loads the rules in {@code file}; a {@code null} or unreadable file yields
+     * {@link #of(int) the default limit} for every class.
+     */
+    @NonNull
+    public static ParameterLimits load(@Nullable final File file, final int defaultLimit) {
+        if (file == null || !file.isFile()) {
+            return of(defaultLimit);
+        }
+
+        try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            return parse(reader, defaultLimit);
+        } catch (IOException e) {
+            // pass: fall back to the default limit
+            return of(defaultLimit);
+        }
+    }
+
+    /** Parses rules; malformed lines and non-positive limits are ignored. */
+    @NonNull
+    public static ParameterLimits parse(@NonNull final Reader reader, final int defaultLimit) throws IOException {
+        final ParameterLimits limits = new ParameterLimits(defaultLimit);
+        final BufferedReader lines = new BufferedReader(reader);
+        String line;
+        while ((line = lines.readLine()) != null) {
+            final int comment = line.indexOf('#');
+            if (comment >= 0) {
+                line = line.substring(0, comment);
+            }
+
+            final int separator = line.indexOf('=');
+            if (separator <= 0) {
+                continue;
+            }
+
+            final String pattern = line.substring(0, separator).trim();
+            final int limit;
+            try {
+                limit = Integer.parseInt(line.substring(separator + 1).trim());
+            } catch (NumberFormatException e) {
+                // pass: skip malformed rule
+                continue;
+            }
+
+            if (limit > 0 && isSupported(pattern)) {
+                limits.add(pattern, limit);
+            }
+        }
+        return limits;
+    }
+
+    public int getDefaultLimit() {
+        return defaultLimit;
+    }
+
+    /** Smallest limit any class can have; constructors at or below it never need a lookup. */
+    public int getMinimumLimit() {
+        return minimumLimit;
+    }
+
+    /** Returns the limit for the class with the given qualified name. */
+    public int getLimit(@Nullable final String qualifiedName) {
+        if (qualifiedName == null) {
+            return defaultLimit;
+        }
+
+        int limit = root.descendantLimit != UNSET ? root.descendantLimit : defaultLimit;
+        Node node = root;
+        int start = 0;
+        while (true) {
+            int end = qualifiedName.indexOf('.', start);
+            final boolean last = end < 0;
+            if (last) {
+                end = qualifiedName.length();
+            }
+
+            if (last && node.classLimit != UNSET) {
+                // classes directly in the package matched so far
+                limit = node.classLimit;
+            }
+
+            node = node.child(qualifiedName, start, end);
+            if (node == null) {
+                return limit;
+            }
+            if (last) {
+                return node.exactLimit != UNSET ? node.exactLimit : limit;
+            }
+            if (node.descendantLimit != UNSET) {
+                limit = node.descendantLimit;
+            }
+            start = end + 1;
+        }
+    }
+
+    /**
+     * Whether {@code pattern} is one of the three supported forms: non-empty segments, of which
+     * only the last may be a wildcard, {@code *} or {@code **}.
+     */
+    private static boolean isSupported(@NonNull final String pattern) {
+        int start = 0;
+        while (true) {
+            int end = pattern.indexOf('.', start);
+            final boolean last = end < 0;
+            if (last) {
+                end = pattern.length();
+            }
+
+            if (end == start) {
+                return false;
+            }
+            final int wildcard = pattern.indexOf('*', start);
+            if (wildcard >= 0 && wildcard < end) {
+                final String segment = pattern.substring(start, end);
+                return last && (ANY_CLASS.equals(segment) || ANY_DESCENDANT.equals(segment));
+            }
+            if (last) {
+                return true;
+            }
+            start = end + 1;
+        }
+    }
+
+    private void add(@NonNull final String pattern, final int limit) {
+        Node node = root;
+        int start = 0;
+        while (true) {
+            int end = pattern.indexOf('.', start);
+            if (end < 0) {
+                end = pattern.length();
+            }
+            final String segment = pattern.substring(start, end);
+
+            if (end == pattern.length()) {
+                if (ANY_DESCENDANT.equals(segment)) {
+                    node.descendantLimit = limit;
+                } else if (ANY_CLASS.equals(segment)) {
+                    node.classLimit = limit;
+                } else {
+                    node.getOrCreateChild(segment).exactLimit = limit;
+                }
+                minimumLimit = Math.min(minimumLimit, limit);
+                return;
+            }
+
+            node = node.getOrCreateChild(segment);
+            start = end + 1;
+        }
+    }
+
+    /** One qualified name segment; children live in an open-addressed table keyed by segment. */
+    private static final class Node {
+        /** Limit of the class whose qualified name ends at this node. */
+        int exactLimit = UNSET;
+        /** Limit of classes directly inside this node ({@code node.*}). */
+        int classLimit = UNSET;
+        /** Limit of everything below this node ({@code node.**}). */
+        int descendantLimit = UNSET;
+
+        private String[] segments = new String[4];
+        private Node[] children = new Node[4];
+        private int size;
+
+        @Nullable
+        Node child(@NonNull final String name, final int start, final int end) {
+            final int length = end - start;
+            final int mask = segments.length - 1;
+            int index = hash(name, start, end) & mask;
+            while (segments[index] != null) {
+                final String segment = segments[index];
+                if (segment.length() == length && name.regionMatches(start, segment, 0, length)) {
+                    return children[index];
+                }
+                index = (index + 1) & mask;
+            }
+            return null;
+        }
+
+        @NonNull
+        Node getOrCreateChild(@NonNull final String segment) {
+            final Node existing = child(segment, 0, segment.length());
+            if (existing != null) {
+                return existing;
+            }
+
+            if ((size + 1) * 2 > segments.length) {
+                resize();
+            }
+            final Node node = new Node();
+            insert(segment, node);
+            return node;
+        }
+
+        private void insert(@NonNull final String segment, @NonNull final Node node) {
+            final int mask = segments.length - 1;
+            int index = segment.hashCode() & mask;
+            while (segments[index] != null) {
+                index = (index + 1) & mask;
+            }
+            segments[index] = segment;
+            children[index] = node;
+            size++;
+        }
+
+        private void resize() {
+            final String[] oldSegments = segments;
+            final Node[] oldChildren = children;
+            segments = new String[oldSegments.length * 2];
+            children = new Node[oldChildren.length * 2];
+            size = 0;
+            for (int i = 0; i < oldSegments.length; i++) {
+                if (oldSegments[i] != null) {
+                    insert(oldSegments[i], oldChildren[i]);
+                }
+            }
+        }
+
+        /** Same value as {@code name.substring(start, end).hashCode()}, without the substring. */
+        private static int hash(@NonNull final String name, final int start, final int end) {
+            int hash = 0;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + name.charAt(i);
+            }
+            return hash;
+        }
+    }
+}
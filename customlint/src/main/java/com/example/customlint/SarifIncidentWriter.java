@@ -0,0 +1,115 @@
+package com.example.customlint;
+
+import com.android.annotations.NonNull;
+import com.android.tools.lint.detector.api.Issue;
+import com.android.tools.lint.detector.api.Severity;
+import com.android.tools.lint.detector.api.TextFormat;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Streams a SARIF 2.1.0 log with a single run: the header and rule metadata are written up
+ * front, each incident is appended to {@code results} as it arrives, and {@link #close()}
+ * terminates the document. Fix texts are attached as the {@code fixText} result property.
+ * Artifact locations are absolute {@code file} URIs, which code scanning tools resolve without a
+ * {@code uriBaseId}.
+ */
+public class SarifIncidentWriter implements IncidentWriter {
+    private static final String SCHEMA = "https://json.schemastore.org/sarif-2.1.0.json";
+    private static final String TOOL_NAME = "CustomLint";
+
+    private final Writer writer;
+    private final int maxFixLength;
+    private boolean first = true;
+
+    /**
+     * @param writer       destination, closed with this writer
+     * @param issues       issues described as rules in the tool driver
+     * @param maxFixLength maximum fix text length, {@link #FULL_FIX_TEXT} or {@link #NO_FIX_TEXT}
+     */
+    public SarifIncidentWriter(@NonNull final Writer writer,
+                               @NonNull final List<Issue> issues,
+                               final int maxFixLength) throws IOException {
+        this.writer = writer;
+        this.maxFixLength = maxFixLength;
+
+        writer.write("{\"$schema\":");
+        JsonStrings.write(writer, SCHEMA);
+        writer.write(",\"version\":\"2.1.0\",\"runs\":[{\"tool\":{\"driver\":{\"name\":");
+        JsonStrings.write(writer, TOOL_NAME);
+        writer.write(",\"rules\":[");
+        for (int i = 0; i < issues.size(); i++) {
+            final Issue issue = issues.get(i);
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write("\n{\"id\":");
+            JsonStrings.write(writer, issue.getId());
+            writer.write(",\"shortDescription\":{\"text\":");
+            JsonStrings.write(writer, issue.getBriefDescription(TextFormat.TEXT));
+            writer.write("},\"fullDescription\":{\"text\":");
+            JsonStrings.write(writer, issue.getExplanation(TextFormat.TEXT));
+            writer.write("}}");
+        }
+        writer.write("]}},\"results\":[");
+    }
+
+    @Override
+    public void write(@NonNull final LintIncident incident) throws IOException {
+        writer.write(first ? "\n" : ",\n");
+        first = false;
+
+        writer.write("{\"ruleId\":");
+        JsonStrings.write(writer, incident.getIssueId());
+        writer.write(",\"level\":");
+        JsonStrings.write(writer, getLevel(incident.getSeverity()));
+        writer.write(",\"message\":{\"text\":");
+        JsonStrings.write(writer, incident.getMessage());
+        writer.write("},\"locations\":[{\"physicalLocation\":{\"artifactLocation\":{\"uri\":");
+        JsonStrings.write(writer, toUri(incident.getPath()));
+        writer.write("}");
+        if (incident.getLine() > 0) {
+            writer.write(",\"region\":{\"startLine\":");
+            writer.write(Integer.toString(incident.getLine()));
+            writer.write("}");
+        }
+        writer.write("}}]");
+
+        final String fixText = JsonStrings.fixText(incident.getFixText(), maxFixLength);
+        if (fixText != null) {
+            writer.write(",\"properties\":{\"fixText\":");
+            JsonStrings.write(writer, fixText);
+            writer.write("}");
+        }
+        writer.write("}");
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.write("\n]}]}\n");
+        writer.close();
+    }
+
+    /** {@code file} URI of a reported path, percent-encoded; relative paths are resolved against the working directory. */
+    @NonNull
+    static String toUri(@NonNull final String path) {
+        return Paths.get(path).toAbsolutePath().normalize().toUri().toString();
+    }
+
+    @NonNull
+    private static String getLevel(@NonNull final Severity severity) {
+        switch (severity) {
+            case FATAL:
+            case ERROR:
+                return "error";
+            case WARNING:
+                return "warning";
+            case INFORMATIONAL:
+                return "note";
+            default:
+                return "none";
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.customlint;
+
+import com.android.annotations.NonNull;
+import com.android.annotations.Nullable;
+import com.android.tools.lint.detector.api.LintFix;
+import com.android.tools.lint.detector.api.Location;
+import com.android.tools.lint.detector.api.Position;
+import java.util.List;
+
+/**
+ * A text replacement taken from a lint {@link LintFix.ReplaceString} fix, detached from the
+ * lint driver so that {@link BuilderRefactoring} can apply it outside the IDE.
+ *
+ * <p>Like lint, the edit replaces the first occurrence of the old text inside its range, or the
+ * whole range when there is no old text. Edits of one reported fix share its {@link #getFix() fix}
+ * object, so that they are applied together or not at all.
+ */
+public final class SourceEdit implements Comparable<SourceEdit> {
+    private final String path;
+    private final int startOffset;
+    private final int endOffset;
+    private final String oldText;
+    private final String newText;
+    private final Object fix;
+
+    /** An edit applied on its own. */
+    public SourceEdit(@NonNull final String path,
+                      final int startOffset,
+                      final int endOffset,
+                      @Nullable final String oldText,
+                      @NonNull final String newText) {
+        this(path, startOffset, endOffset, oldText, newText, null);
+    }
+
+    /** An edit applied together with the other edits of {@code fix}, or on its own when {@code null}. */
+    public SourceEdit(@NonNull final String path,
+                      final int startOffset,
+                      final int endOffset,
+                      @Nullable final String oldText,
+                      @NonNull final String newText,
+                      @Nullable final Object fix) {
+        this.path = path;
+        this.startOffset = startOffset;
+        this.endOffset = endOffset;
+        this.oldText = oldText;
+        this.newText = newText;
+        this.fix = fix;
+    }
+
+    /**
+     * Creates the edit of a reported fix, or returns {@code null} when the fix is not a plain
+     * string replacement or the location has no offsets.
+     */
+    @Nullable
+    public static SourceEdit create(@NonNull final Location location, @Nullable final LintFix fix) {
+        return create(location, fix, null);
+    }
+
+    @Nullable
+    private static SourceEdit create(@NonNull final Location location,
+                                     @Nullable final LintFix fix,
+                                     @Nullable final Object reported) {
+        if (!(fix instanceof LintFix.ReplaceString)) {
+            return null;
+        }
+
+        final LintFix.ReplaceString replace = (LintFix.ReplaceString) fix;
+        if (replace.oldPattern != null || replace.replacement == null) {
+            return null;
+        }
+
+        final Location range = replace.range != null ? replace.range : location;
+        final Position start = range.getStart();
+        final Position end = range.getEnd();
+        if (start == null || end == null || start.getOffset() < 0 || end.getOffset() < start.getOffset()) {
+            return null;
+        }
+
+        return new SourceEdit(range.getFile().getPath(),
+                              start.getOffset(),
+                              end.getOffset(),
+                              replace.oldString,
+                              replace.replacement,
+                              reported);
+    }
+
+    /**
+     * Adds the edits of a reported fix to {@code edits}: every part of a composite fix, the
+     * first one of a group of alternatives. They all share {@code fix} as their
+     * {@link #getFix() fix}.
+     */
+    public static void collect(@NonNull final Location location,
+                               @Nullable final LintFix fix,
+                               @NonNull final List<SourceEdit> edits) {
+        collect(location, fix, fix, edits);
+    }
+
+    private static void collect(@NonNull final Location location,
+                                @Nullable final LintFix fix,
+                                @Nullable final Object reported,
+                                @NonNull final List<SourceEdit> edits) {
+        if (fix instanceof LintFix.LintFixGroup) {
+            final LintFix.LintFixGroup group = (LintFix.LintFixGroup) fix;
+            if (group.type == LintFix.GroupType.COMPOSITE) {
+                for (LintFix part : group.fixes) {
+                    collect(location, part, reported, edits);
+                }
+            } else if (!group.fixes.isEmpty()) {
+                collect(location, group.fixes.get(0), reported, edits);
+            }
+            return;
+        }
+
+        final SourceEdit edit = create(location, fix, reported);
+        if (edit != null) {
+            edits.add(edit);
+        }
+    }
+
+    @NonNull
+    public String getPath() {
+        return path;
+    }
+
+    public int getStartOffset() {
+        return startOffset;
+    }
+
+    public int getEndOffset() {
+        return endOffset;
+    }
+
+    @Nullable
+    public String getOldText() {
+        return oldText;
+    }
+
+    @NonNull
+    public String getNewText() {
+        return newText;
+    }
+
+    /**
+     * The reported fix this edit is part of, or {@code null} for an edit of its own; not part of
+     * {@link #equals}, as incidents sharing one builder fix report the same edits.
+     */
+    @Nullable
+    public Object getFix() {
+        return fix;
+    }
+
+    /**
+     * Offset of the text this edit replaces in {@code content}, or -1 when the content no
+     * longer matches the analyzed source.
+     */
+    int locate(@NonNull final String content) {
+        if (endOffset > content.length()) {
+            return -1;
+        }
+        if (oldText == null) {
+            return startOffset;
+        }
+
+        final int offset = content.indexOf(oldText, startOffset);
+        return offset >= 0 && offset + oldText.length() <= endOffset ? offset : -1;
+    }
+
+    /** Length of the replaced text. */
+    int getOldLength() {
+        return oldText != null ? oldText.length() : endOffset - startOffset;
+    }
+
+    @Override
+    public int compareTo(@NonNull final SourceEdit other) {
+        final int result = path.compareTo(other.path);
+        return result != 0 ? result : Integer.compare(startOffset, other.startOffset);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SourceEdit)) {
+            return false;
+        }
+
+        final SourceEdit other = (SourceEdit) o;
+        return startOffset == other.startOffset
+            && endOffset == other.endOffset
+            && path.equals(other.path)
+            && (oldText != null ? oldText.equals(other.oldText) : other.oldText == null)
+            && newText.equals(other.newText);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = path.hashCode();
+        result = 31 * result + startOffset;
+        result = 31 * result + endOffset;
+        result = 31 * result + newText.hashCode();
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return path + "@" + startOffset;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.customlint;
+
+import com.android.annotations.NonNull;
+import com.android.annotations.Nullable;
+import com.intellij.psi.PsiParameter;
+import com.intellij.psi.PsiTypeElement;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, thread-safe cache of rendered parameter types, keyed by the type as written in the
+ * source ({@code int}, {@code java.util.List<Foo>}, ...). Across a code base the same handful
+ * of types is rendered over and over; the cache renders each once per lint run.
+ *
+ * <p>Once full the cache stops admitting new types rather than evicting, which keeps lookups
+ * lock-free; the detector drops it at the end of each run so IDE sessions cannot accumulate it.
+ */
+public final class TypeTextCache {
+    public static final int DEFAULT_MAX_ENTRIES = 4096;
+
+    private final int maxEntries;
+    private final ConcurrentHashMap<String, String> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public TypeTextCache(final int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new ConcurrentHashMap<>(Math.min(maxEntries, 256));
+    }
+
+    /** Returns the presentable type text of {@code parameter}, rendering it on a miss. */
+    @NonNull
+    public String getPresentableText(@NonNull final PsiParameter parameter) {
+        final PsiTypeElement typeElement = parameter.getTypeElement();
+        if (typeElement == null) {
+            misses.increment();
+            return parameter.getType().getPresentableText();
+        }
+
+        final String sourceText = typeElement.getText();
+        String presentableText = get(sourceText);
+        if (presentableText == null) {
+            presentableText = parameter.getType().getPresentableText();
+            put(sourceText, presentableText);
+        }
+        return presentableText;
+    }
+
+    /** Returns the cached text for a type as written in the source, counting the hit or miss. */
+    @Nullable
+    public String get(@NonNull final String sourceText) {
+        final String presentableText = entries.get(sourceText);
+        if (presentableText != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return presentableText;
+    }
+
+    public void put(@NonNull final String sourceText, @NonNull final String presentableText) {
+        if (entries.size() < maxEntries) {
+            entries.putIfAbsent(sourceText, presentableText);
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /** Fraction of lookups answered from the cache, 0 when nothing was looked up. */
+    public double getHitRate() {
+        final long hits = getHits();
+        final long total = hits + getMisses();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    public void clear() {
+        entries.clear();
+        hits.reset();
+        misses.reset();
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.customlint;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class BuilderFixModeTest {
+
+    @Test
+    public void testParseKnownModes() throws Exception {
+        assertEquals(BuilderFixMode.EAGER, BuilderFixMode.parse("eager", BuilderFixMode.LAZY));
+        assertEquals(BuilderFixMode.LAZY, BuilderFixMode.parse("Lazy", BuilderFixMode.EAGER));
+        assertEquals(BuilderFixMode.NONE, BuilderFixMode.parse(" NONE ", BuilderFixMode.LAZY));
+    }
+
+    @Test
+    public void testParseFallsBackToDefault() throws Exception {
+        assertEquals(BuilderFixMode.LAZY, BuilderFixMode.parse(null, BuilderFixMode.LAZY));
+        assertEquals(BuilderFixMode.EAGER, BuilderFixMode.parse("sometimes", BuilderFixMode.EAGER));
+    }
+}
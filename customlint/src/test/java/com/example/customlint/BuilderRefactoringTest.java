@@ -0,0 +1,382 @@
+package com.example.customlint;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class BuilderRefactoringTest {
+    private static final int GENERATED_FILES = 5000;
+    private static final int PARAMETER_COUNT = 4;
+    private static final int THREADS = 4;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testApply() throws Exception {
+        final File file = temporaryFolder.newFile("A.java");
+        write(file, "class A {\n  A(int a) {\n  }\n  A(int a, int b) {\n  }\n}\n");
+
+        final BuilderRefactoring.Result result = BuilderRefactoring.apply(Arrays.asList(
+            edit(file, "A(int a, int b) {\n  }", "A(Builder builder) {\n  }"),
+            edit(file, "A(int a) {\n  }", "A() {\n  }")), THREADS, null);
+
+        assertEquals("class A {\n  A() {\n  }\n  A(Builder builder) {\n  }\n}\n", read(file));
+        assertEquals(1, result.getFiles());
+        assertEquals(1, result.getChangedFiles());
+        assertEquals(2, result.getAppliedEdits());
+        assertEquals(0, result.getSkippedEdits());
+        assertTrue(!new File(file.getPath() + ".tmp").exists());
+    }
+
+    @Test
+    public void testStaleAndOverlappingEditsAreSkipped() throws Exception {
+        final File file = temporaryFolder.newFile("A.java");
+        final String source = "class A {\n  A(int a, int b) {\n  }\n}\n";
+        write(file, source);
+
+        final int start = source.indexOf("A(int");
+        final BuilderRefactoring.Result result = BuilderRefactoring.apply(Arrays.asList(
+            new SourceEdit(file.getPath(), start, start + 16, "A(int a, int b)", "A(Builder builder)"),
+            new SourceEdit(file.getPath(), start, start + 16, "int a", "long a"),
+            new SourceEdit(file.getPath(), start, start + 16, "A(long a)", "A()")), THREADS, null);
+
+        assertEquals("class A {\n  A(Builder builder) {\n  }\n}\n", read(file));
+        assertEquals(1, result.getAppliedEdits());
+        assertEquals(2, result.getSkippedEdits());
+    }
+
+    @Test
+    public void testIdenticalEditsAreAppliedOnce() throws Exception {
+        final File file = temporaryFolder.newFile("A.java");
+        write(file, "class A {\n  A(int a, int b) {\n  }\n}\n");
+
+        final SourceEdit edit = edit(file, "A(int a, int b)", "A(Builder builder)");
+        final BuilderRefactoring.Result result = BuilderRefactoring.apply(Arrays.asList(
+            edit, edit(file, "A(int a, int b)", "A(Builder builder)")), THREADS, null);
+
+        assertEquals("class A {\n  A(Builder builder) {\n  }\n}\n", read(file));
+        assertEquals(1, result.getAppliedEdits());
+        assertEquals(0, result.getSkippedEdits());
+    }
+
+    @Test
+    public void testFixesAreAppliedWhole() throws Exception {
+        final File declaration = temporaryFolder.newFile("A.java");
+        write(declaration, "class A {\n  A(int a, int b) {\n  }\n  void run() {\n  }\n}\n");
+        final File caller = temporaryFolder.newFile("Caller.java");
+        write(caller, "class Caller {\n  A a = new A(1, 2);\n}\n");
+
+        // the call site changed since the analysis, so the constructor must stay as well
+        final Object fix = new Object();
+        final SourceEdit constructor = edit(declaration, "A(int a, int b)", "A(Builder builder)");
+        final SourceEdit call = edit(caller, "new A(1, 2)", "new A.Builder().a(1).b(2).build()");
+        write(caller, "class Caller {\n  A a = new A(3, 4);\n}\n");
+        final BuilderRefactoring.Result result = BuilderRefactoring.apply(Arrays.asList(
+            withFix(constructor, fix),
+            withFix(call, fix),
+            edit(declaration, "void run()", "void start()")), THREADS, null);
+
+        assertEquals("class A {\n  A(int a, int b) {\n  }\n  void start() {\n  }\n}\n", read(declaration));
+        assertEquals("class Caller {\n  A a = new A(3, 4);\n}\n", read(caller));
+        assertEquals(1, result.getAppliedEdits());
+        assertEquals(2, result.getSkippedEdits());
+        assertEquals(1, result.getSkippedFixes());
+    }
+
+    @Test
+    public void testOverlappingFixIsSkippedWhole() throws Exception {
+        final File file = temporaryFolder.newFile("A.java");
+        write(file, "class A {\n  Object o = new A(new B(1, 2, 3), 4, 5);\n  B b;\n}\n");
+
+        final Object outer = new Object();
+        final Object inner = new Object();
+        final BuilderRefactoring.Result result = BuilderRefactoring.apply(Arrays.asList(
+            withFix(edit(file, "new A(new B(1, 2, 3), 4, 5)", "new A.Builder().b(new B(1, 2, 3)).x(4).y(5).build()"), outer),
+            withFix(edit(file, "new B(1, 2, 3)", "new B.Builder().a(1).b(2).c(3).build()"), inner),
+            withFix(edit(file, "B b;", "B.Builder b;"), inner)), THREADS, null);
+
+        assertEquals("class A {\n  Object o = new A.Builder().b(new B(1, 2, 3)).x(4).y(5).build();\n  B b;\n}\n", read(file));
+        assertEquals(1, result.getAppliedEdits());
+        assertEquals(2, result.getSkippedEdits());
+        assertEquals(1, result.getSkippedFixes());
+    }
+
+    @Test
+    public void testNestedFlaggedCallsCompile() throws Exception {
+        final File module = temporaryFolder.newFolder("module");
+        SyntheticSources.write(new File(module, "build.gradle"), "apply plugin: 'java'\n");
+        final File outer = new File(module, "src/main/java/test/pkg/A.java");
+        SyntheticSources.write(outer, ""
+            + "package test.pkg;\n"
+            + "public class A {\n"
+            + "  private B b;\n"
+            + "  private int x;\n"
+            + "  private int y;\n"
+            + "  public A(B b, int x, int y) {\n"
+            + "  }\n"
+            + "}\n");
+        final File inner = new File(module, "src/main/java/test/pkg/B.java");
+        final String innerSource = ""
+            + "package test.pkg;\n"
+            + "public class B {\n"
+            + "  private int a;\n"
+            + "  private int b;\n"
+            + "  private int c;\n"
+            + "  public B(int a, int b, int c) {\n"
+            + "  }\n"
+            + "}\n";
+        SyntheticSources.write(inner, innerSource);
+        final File caller = new File(module, "src/main/java/test/pkg/Caller.java");
+        SyntheticSources.write(caller, ""
+            + "package test.pkg;\n"
+            + "class Caller {\n"
+            + "  A create(int x, int y) {\n"
+            + "    return new A(new B(1, 2, 3), x, y);\n"
+            + "  }\n"
+            + "}\n");
+
+        final CustomLintRunner.ModuleResult analysis =
+            CustomLintRunner.analyze(module, new CustomLintRunner.Options().collectEdits(true));
+        assertEquals(2, analysis.incidents.size());
+
+        // B's call sits inside A's, so B's fix is left out whole rather than its constructor alone
+        final BuilderRefactoring.Result result = BuilderRefactoring.apply(analysis.edits, THREADS, null);
+        assertEquals(2, result.getAppliedEdits());
+        assertEquals(2, result.getSkippedEdits());
+        assertEquals(1, result.getSkippedFixes());
+        assertEquals(innerSource, read(inner));
+        assertTrue(read(caller), read(caller).contains("return new A.Builder().b(new B(1, 2, 3)).x(x).y(y).build();"));
+
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertNotNull("Tests need a JDK", compiler);
+        final ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        final int status = compiler.run(null, null, errors, "-d", temporaryFolder.newFolder("classes").getPath(),
+                                        outer.getPath(), inner.getPath(), caller.getPath());
+        assertEquals(errors.toString("UTF-8"), 0, status);
+    }
+
+    @Test
+    public void testOverloadedConstructorsGetOneBuilder() throws Exception {
+        final File module = temporaryFolder.newFolder("module");
+        SyntheticSources.write(new File(module, "build.gradle"), "apply plugin: 'java'\n");
+        final File file = new File(module, "src/main/java/test/pkg/Overloaded.java");
+        SyntheticSources.write(file, ""
+            + "package test.pkg;\n"
+            + "public class Overloaded {\n"
+            + "  private int a;\n"
+            + "  private long b;\n"
+            + "  private String c;\n"
+            + "  private char d;\n"
+            + "  public Overloaded(int a, long b, String c) {\n"
+            + "  }\n"
+            + "  public Overloaded(int a, long b, String c, char d) {\n"
+            + "  }\n"
+            + "  public Overloaded(long b, char d, int a) {\n"
+            + "  }\n"
+            + "}\n");
+        final File caller = new File(module, "src/main/java/test/pkg/Caller.java");
+        SyntheticSources.write(caller, ""
+            + "package test.pkg;\n"
+            + "class Caller {\n"
+            + "  Overloaded first = new Overloaded(1, 2L, \"c\");\n"
+            + "  Overloaded second = new Overloaded(3, 4L, \"c\", 'd');\n"
+            + "  Overloaded third = new Overloaded(5L, 'd', 6);\n"
+            + "}\n");
+
+        final CustomLintRunner.ModuleResult analysis =
+            CustomLintRunner.analyze(module, new CustomLintRunner.Options().collectEdits(true));
+        assertEquals(3, analysis.incidents.size());
+
+        // one builder replacing the three overloads, and each of their callers
+        final BuilderRefactoring.Result result = BuilderRefactoring.apply(analysis.edits, THREADS, null);
+        assertEquals(6, result.getAppliedEdits());
+        assertEquals(0, result.getSkippedEdits());
+
+        final String rewritten = read(file);
+        assertEquals(rewritten, rewritten.indexOf("class Builder"), rewritten.lastIndexOf("class Builder"));
+        assertTrue(rewritten, rewritten.contains("public Builder d(char d)"));
+        assertEquals(""
+                         + "package test.pkg;\n"
+                         + "class Caller {\n"
+                         + "  Overloaded first = new Overloaded.Builder().a(1).b(2L).c(\"c\").build();\n"
+                         + "  Overloaded second = new Overloaded.Builder().a(3).b(4L).c(\"c\").d('d').build();\n"
+                         + "  Overloaded third = new Overloaded.Builder().b(5L).d('d').a(6).build();\n"
+                         + "}\n",
+                     read(caller));
+
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertNotNull("Tests need a JDK", compiler);
+        final ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        final int status = compiler.run(null, null, errors, "-d", temporaryFolder.newFolder("classes").getPath(),
+                                        file.getPath(), caller.getPath());
+        assertEquals(errors.toString("UTF-8"), 0, status);
+    }
+
+    @Test
+    public void testDelegatingConstructorsAreMigrated() throws Exception {
+        final File module = temporaryFolder.newFolder("module");
+        SyntheticSources.write(new File(module, "build.gradle"), "apply plugin: 'java'\n");
+        final File file = new File(module, "src/main/java/test/pkg/Delegating.java");
+        SyntheticSources.write(file, ""
+            + "package test.pkg;\n"
+            + "public class Delegating {\n"
+            + "  private int a;\n"
+            + "  private long b;\n"
+            + "  private String c;\n"
+            + "  private char d;\n"
+            + "  public Delegating(int a, long b, String c) {\n"
+            + "  }\n"
+            + "  public Delegating(int a, long b, String c, char d) {\n"
+            + "    this(a, b, c);\n"
+            + "  }\n"
+            + "  public Delegating(int a) {\n"
+            + "    this(a, 2L, \"c\");\n"
+            + "  }\n"
+            + "}\n");
+        final File caller = new File(module, "src/main/java/test/pkg/Caller.java");
+        SyntheticSources.write(caller, ""
+            + "package test.pkg;\n"
+            + "class Caller {\n"
+            + "  Delegating first = new Delegating(1, 2L, \"c\");\n"
+            + "  Delegating second = new Delegating(3, 4L, \"c\", 'd');\n"
+            + "  Delegating third = new Delegating(5);\n"
+            + "}\n");
+
+        final CustomLintRunner.ModuleResult analysis =
+            CustomLintRunner.analyze(module, new CustomLintRunner.Options().collectEdits(true));
+        assertEquals(2, analysis.incidents.size());
+
+        // the delegation in the removed overload goes away with it instead of being rewritten
+        final BuilderRefactoring.Result result = BuilderRefactoring.apply(analysis.edits, THREADS, null);
+        assertEquals(5, result.getAppliedEdits());
+        assertEquals(0, result.getSkippedEdits());
+
+        final String rewritten = read(file);
+        assertTrue(rewritten, rewritten.contains(""
+                                                     + "  public Delegating(int a) {\n"
+                                                     + "    this(new Builder().a(a).b(2L).c(\"c\"));\n"
+                                                     + "  }\n"));
+        assertFalse(rewritten, rewritten.contains("this(a, b, c)"));
+        assertEquals(""
+                         + "package test.pkg;\n"
+                         + "class Caller {\n"
+                         + "  Delegating first = new Delegating.Builder().a(1).b(2L).c(\"c\").build();\n"
+                         + "  Delegating second = new Delegating.Builder().a(3).b(4L).c(\"c\").d('d').build();\n"
+                         + "  Delegating third = new Delegating(5);\n"
+                         + "}\n",
+                     read(caller));
+
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertNotNull("Tests need a JDK", compiler);
+        final ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        final int status = compiler.run(null, null, errors, "-d", temporaryFolder.newFolder("classes").getPath(),
+                                        file.getPath(), caller.getPath());
+        assertEquals(errors.toString("UTF-8"), 0, status);
+    }
+
+    @Test
+    public void testDryRunWritesDiff() throws Exception {
+        final File file = temporaryFolder.newFile("A.java");
+        final String source = "class A {\n  int x;\n  A(int a, int b) {\n  }\n}";
+        write(file, source);
+
+        final StringWriter diff = new StringWriter();
+        final BuilderRefactoring.Result result = BuilderRefactoring.apply(Collections.singletonList(
+            edit(file, "A(int a, int b) {\n  }\n}", "A(Builder builder) {\n  }\n  static class Builder {\n  }\n}")),
+                                                                          THREADS, diff);
+
+        final String path = file.getPath().replace(File.separatorChar, '/');
+        assertEquals(""
+                         + "--- a/" + path + "\n"
+                         + "+++ b/" + path + "\n"
+                         + "@@ -3,3 +3,5 @@\n"
+                         + "-  A(int a, int b) {\n"
+                         + "-  }\n"
+                         + "-}\n"
+                         + "\\ No newline at end of file\n"
+                         + "+  A(Builder builder) {\n"
+                         + "+  }\n"
+                         + "+  static class Builder {\n"
+                         + "+  }\n"
+                         + "+}\n"
+                         + "\\ No newline at end of file\n",
+                     diff.toString());
+        assertEquals(source, read(file));
+        assertEquals(1, result.getChangedFiles());
+    }
+
+    @Test
+    public void testGeneratedTreeCompiles() throws Exception {
+        final File module = temporaryFolder.newFolder("module");
+        SyntheticSources.write(new File(module, "build.gradle"), "apply plugin: 'java'\n");
+        final List<SourceEdit> modelEdits =
+            SyntheticSources.writeModelTree(new File(module, "src/main/java"), GENERATED_FILES, PARAMETER_COUNT);
+
+        // the fixes come from the detector; the precomputed model edits only check them
+        final CustomLintRunner.ModuleResult analysis =
+            CustomLintRunner.analyze(module, new CustomLintRunner.Options().collectEdits(true));
+        assertEquals(GENERATED_FILES, analysis.incidents.size());
+        assertEquals(GENERATED_FILES, analysis.edits.size());
+        final Map<String, String> newTexts = new HashMap<>();
+        for (SourceEdit edit : analysis.edits) {
+            newTexts.put(new File(edit.getPath()).getCanonicalPath(), edit.getNewText());
+        }
+        for (SourceEdit edit : modelEdits) {
+            assertEquals(edit.getNewText(), newTexts.get(new File(edit.getPath()).getCanonicalPath()));
+        }
+
+        final BuilderRefactoring.Result result = BuilderRefactoring.apply(analysis.edits, THREADS, null);
+        assertEquals(GENERATED_FILES, result.getChangedFiles());
+        assertEquals(GENERATED_FILES, result.getAppliedEdits());
+        assertTrue(result.getFilesPerSecond() > 0);
+
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertNotNull("Tests need a JDK", compiler);
+        final List<String> arguments = new ArrayList<>();
+        arguments.add("-d");
+        arguments.add(temporaryFolder.newFolder("classes").getPath());
+        for (SourceEdit edit : modelEdits) {
+            arguments.add(edit.getPath());
+        }
+        final ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        final int status = compiler.run(null, null, errors, arguments.toArray(new String[arguments.size()]));
+        assertEquals(errors.toString("UTF-8"), 0, status);
+    }
+
+    private static SourceEdit edit(final File file, final String oldText, final String newText) throws Exception {
+        final String source = read(file);
+        final int start = source.indexOf(oldText);
+        return new SourceEdit(file.getPath(), start, start + oldText.length(), oldText, newText);
+    }
+
+    private static SourceEdit withFix(final SourceEdit edit, final Object fix) {
+        return new SourceEdit(edit.getPath(), edit.getStartOffset(), edit.getEndOffset(), edit.getOldText(), edit.getNewText(), fix);
+    }
+
+    private static void write(final File file, final String contents) throws Exception {
+        Files.write(file.toPath(), contents.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(final File file) throws Exception {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+}
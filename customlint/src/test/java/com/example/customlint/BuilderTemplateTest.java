@@ -0,0 +1,105 @@
+package com.example.customlint;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class BuilderTemplateTest {
+
+    @Test
+    public void testDefaultIndentMatchesOriginalGenerator() throws Exception {
+        final String expected = ""
+            + "private Foo(Builder builder) {\n"
+            + "\t\tthis.a = builder.a;\n"
+            + "\t\tthis.b = builder.b;\n"
+            + "\t}\n"
+            + "\n"
+            + "\tpublic static class Builder {\n"
+            + "\t\tprivate int a;\n"
+            + "\t\tprivate String b;\n"
+            + "\n"
+            + "\t\tpublic Builder() {\n"
+            + "\t\t}\n"
+            + "\n"
+            + "\t\tpublic Builder a(int a) {\n"
+            + "\t\t\tthis.a = a;\n"
+            + "\t\t\treturn this;\n"
+            + "\t\t}\n"
+            + "\n"
+            + "\t\tpublic Builder b(String b) {\n"
+            + "\t\t\tthis.b = b;\n"
+            + "\t\t\treturn this;\n"
+            + "\t\t}\n"
+            + "\n"
+            + "\t\tpublic Foo build() {\n"
+            + "\t\t\treturn new Foo(this);\n"
+            + "\t\t}\n"
+            + "\n"
+            + "\t}\n";
+
+        final String actual = BuilderTemplate.forIndent(BuilderTemplate.DEFAULT_INDENT)
+            .render("Foo", new String[] {"a", "b"}, new String[] {"int", "String"});
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testSpaceIndent() throws Exception {
+        final String expected = ""
+            + "private Foo(Builder builder) {\n"
+            + "    this.a = builder.a;\n"
+            + "  }\n"
+            + "\n"
+            + "  public static class Builder {\n"
+            + "    private int a;\n"
+            + "\n"
+            + "    public Builder() {\n"
+            + "    }\n"
+            + "\n"
+            + "    public Builder a(int a) {\n"
+            + "      this.a = a;\n"
+            + "      return this;\n"
+            + "    }\n"
+            + "\n"
+            + "    public Foo build() {\n"
+            + "      return new Foo(this);\n"
+            + "    }\n"
+            + "\n"
+            + "  }\n";
+
+        final String actual = BuilderTemplate.forIndent(BuilderTemplate.parseIndent("2"))
+            .render("Foo", new String[] {"a"}, new String[] {"int"});
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testParseIndent() throws Exception {
+        assertEquals("\t", BuilderTemplate.parseIndent(null));
+        assertEquals("\t", BuilderTemplate.parseIndent("tab"));
+        assertEquals("\t", BuilderTemplate.parseIndent("0"));
+        assertEquals("    ", BuilderTemplate.parseIndent("4"));
+    }
+
+    @Test
+    public void testRenderCall() throws Exception {
+        assertEquals("new Foo.Builder().a(1).b(\"x\").build()",
+                     BuilderTemplate.renderCall("Foo", new String[] {"a", "b"}, new String[] {"1", "\"x\""}));
+        assertEquals("new pkg.Foo.Builder().build()",
+                     BuilderTemplate.renderCall("pkg.Foo", new String[0], new String[0]));
+    }
+
+    @Test
+    public void testRenderDelegation() throws Exception {
+        assertEquals("this(new Builder().a(a).b(\"x\"))",
+                     BuilderTemplate.renderDelegation(new String[] {"a", "b"}, new String[] {"a", "\"x\""}));
+        assertEquals("this(new Builder())",
+                     BuilderTemplate.renderDelegation(new String[0], new String[0]));
+    }
+
+    @Test
+    public void testRenderNamedCall() throws Exception {
+        assertEquals("Foo(a = 1, b = \"x\")",
+                     BuilderTemplate.renderNamedCall("Foo", new String[] {"a", "b"}, new String[] {"1", "\"x\""}));
+        assertEquals("pkg.Foo()",
+                     BuilderTemplate.renderNamedCall("pkg.Foo", new String[0], new String[0]));
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.customlint;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class CallSiteIndexTest {
+    private static final long FOO = 1L;
+    private static final long BAR = 2L;
+    private static final int THREADS = 8;
+    private static final int ADDS_PER_THREAD = 10000;
+
+    @Test
+    public void testCallSitesAreChainedPerConstructor() throws Exception {
+        final CallSiteIndex index = new CallSiteIndex();
+        final File a = new File("A.java");
+        final File b = new File("B.java");
+        index.add(FOO, a, 10, 30, "Foo", new String[] {"1", "2", "3"});
+        index.add(BAR, a, 40, 60, "Bar", new String[] {"x", "y", "z"});
+        index.add(FOO, b, 5, 25, "pkg.Foo", new String[] {"4", "5", "6"});
+
+        assertEquals(3, index.size());
+        assertEquals(2, index.getConstructorCount());
+
+        int callSite = index.first(FOO);
+        assertSame(b, index.getFile(callSite));
+        assertEquals("pkg.Foo", index.getTypeText(callSite));
+        assertArrayEquals(new String[] {"4", "5", "6"}, index.getArguments(callSite));
+
+        callSite = index.next(callSite);
+        assertSame(a, index.getFile(callSite));
+        assertEquals(10, index.getStartOffset(callSite));
+        assertEquals(30, index.getEndOffset(callSite));
+        assertEquals(CallSiteIndex.NONE, index.next(callSite));
+
+        callSite = index.first(BAR);
+        assertEquals("Bar", index.getTypeText(callSite));
+        assertEquals(CallSiteIndex.NONE, index.next(callSite));
+        assertEquals(CallSiteIndex.NONE, index.first(3L));
+    }
+
+    @Test
+    public void testGrowAndClear() throws Exception {
+        final CallSiteIndex index = new CallSiteIndex();
+        final int count = 1000;
+        for (int i = 0; i < count; i++) {
+            index.add(i % 10, new File("F" + (i % 7) + ".java"), i, i + 1, "Foo", new String[0]);
+        }
+
+        int chain = 0;
+        for (int callSite = index.first(3); callSite != CallSiteIndex.NONE; callSite = index.next(callSite)) {
+            assertEquals(3, index.getStartOffset(callSite) % 10);
+            chain++;
+        }
+        assertEquals(count / 10, chain);
+
+        index.clear();
+        assertEquals(0, index.size());
+        assertEquals(CallSiteIndex.NONE, index.first(3));
+    }
+
+    @Test
+    public void testConcurrentAdds() throws Exception {
+        final CallSiteIndex index = new CallSiteIndex();
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<Void>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                final File file = new File("F" + thread + ".java");
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        start.await();
+                        for (int i = 0; i < ADDS_PER_THREAD; i++) {
+                            index.add(i % 10, file, i, i + 1, "Foo", new String[0]);
+                        }
+                        return null;
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(THREADS * ADDS_PER_THREAD, index.size());
+        assertEquals(10, index.getConstructorCount());
+        for (long constructor = 0; constructor < 10; constructor++) {
+            int chain = 0;
+            for (int callSite = index.first(constructor); callSite != CallSiteIndex.NONE; callSite = index.next(callSite)) {
+                assertEquals(constructor, index.getStartOffset(callSite) % 10);
+                chain++;
+            }
+            assertEquals(THREADS * ADDS_PER_THREAD / 10, chain);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.customlint;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ChangedLinesTest {
+    private static final String LINES = "1\n2\n3\n4\n5\n6\n7\n8\n9\n10\n";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testCompute() throws Exception {
+        final File root = temporaryFolder.newFolder("repo");
+        final File edited = new File(root, "src/Edited.java");
+        final File untouched = new File(root, "src/Untouched.java");
+        final File deleted = new File(root, "src/Deleted.java");
+        final File renamed = new File(root, "src/Renamed.java");
+        SyntheticSources.write(edited, LINES);
+        SyntheticSources.write(untouched, LINES);
+        SyntheticSources.write(deleted, LINES);
+        SyntheticSources.write(renamed, LINES);
+        SyntheticSources.commitAll(root);
+        SyntheticSources.git(root, "tag", "base");
+
+        // committed on the branch: lines 3-4 replaced, line 8 deleted
+        SyntheticSources.write(edited, "1\n2\nthree\nfour\n5\n6\n7\n9\n10\n");
+        SyntheticSources.git(root, "mv", "src/Renamed.java", "src/Moved.java");
+        SyntheticSources.git(root, "rm", "-q", "src/Deleted.java");
+        SyntheticSources.git(root, "commit", "-q", "-a", "-m", "Change");
+        // uncommitted: a new, staged file
+        final File added = new File(root, "src/Added.java");
+        SyntheticSources.write(added, "+++ not a header\n");
+        SyntheticSources.git(root, "add", "src/Added.java");
+
+        final ChangedLines changes = ChangedLines.compute(new File(root, "src"), "base");
+
+        assertEquals(Arrays.asList(added.getCanonicalFile(), edited.getCanonicalFile()), changes.getFiles());
+        assertTrue(changes.contains(edited));
+        assertFalse(changes.contains(untouched));
+        assertFalse(changes.contains(deleted));
+        assertFalse(changes.contains(new File(root, "src/Moved.java")));
+
+        assertFalse(changes.intersects(edited, 1, 2));
+        assertTrue(changes.intersects(edited, 2, 3));
+        assertTrue(changes.intersects(edited, 4, 4));
+        assertFalse(changes.intersects(edited, 5, 7));
+        // the line following the deletion
+        assertTrue(changes.intersects(edited, 8, 8));
+        assertFalse(changes.intersects(edited, 9, 9));
+        assertTrue(changes.intersects(edited, 1, 10));
+        assertTrue(changes.intersects(added, 1, 1));
+        assertFalse(changes.intersects(untouched, 1, 10));
+    }
+
+    @Test
+    public void testComputeOverSeveralWorkingTrees() throws Exception {
+        final File first = temporaryFolder.newFolder("first");
+        final File second = temporaryFolder.newFolder("second");
+        final File firstFile = new File(first, "module/A.java");
+        final File secondFile = new File(second, "B.java");
+        SyntheticSources.write(firstFile, LINES);
+        SyntheticSources.write(secondFile, LINES);
+        for (File root : Arrays.asList(first, second)) {
+            SyntheticSources.commitAll(root);
+            SyntheticSources.git(root, "tag", "base");
+        }
+        SyntheticSources.write(firstFile, "one\n" + LINES.substring(2));
+        SyntheticSources.write(secondFile, "one\n" + LINES.substring(2));
+
+        // two modules of the first working tree, which is diffed once, and the second one
+        final ChangedLines changes = ChangedLines.compute(
+            Arrays.asList(new File(first, "module"), first, second), "base");
+
+        assertEquals(Arrays.asList(firstFile.getCanonicalFile(), secondFile.getCanonicalFile()), changes.getFiles());
+        assertTrue(changes.intersects(firstFile, 1, 1));
+        assertTrue(changes.intersects(secondFile, 1, 1));
+        assertFalse(changes.intersects(secondFile, 2, 10));
+    }
+
+    @Test
+    public void testUnknownRef() throws Exception {
+        final File root = temporaryFolder.newFolder("repo");
+        SyntheticSources.write(new File(root, "A.java"), LINES);
+        SyntheticSources.commitAll(root);
+
+        try {
+            ChangedLines.compute(root, "no-such-ref");
+            fail();
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("git merge-base failed"));
+        }
+    }
+
+    @Test
+    public void testSubcommand() {
+        assertEquals("merge-base", ChangedLines.getSubcommand("merge-base", "main", "HEAD"));
+        assertEquals("diff", ChangedLines.getSubcommand("-c", "core.quotePath=false", "diff", "--unified=0"));
+        assertEquals("status", ChangedLines.getSubcommand("-C", "repo", "--no-pager", "status"));
+        assertEquals("-c a=b", ChangedLines.getSubcommand("-c", "a=b"));
+    }
+
+    @Test
+    public void testParse() throws Exception {
+        final File root = temporaryFolder.getRoot();
+        final ChangedLines changes = ChangedLines.parse(root, new StringReader(""
+            + "diff --git a/A.java b/A.java\n"
+            + "index 1111111..2222222 100644\n"
+            + "--- a/A.java\n"
+            + "+++ b/A.java\n"
+            + "@@ -2 +2 @@ class A {\n"
+            + "-  int a;\n"
+            + "++++ b/B.java\n"
+            + "@@ -10,0 +11,2 @@\n"
+            + "+  int b;\n"
+            + "+  int c;\n"
+            + "diff --git \"a/with space.java\" \"b/with space.java\"\n"
+            + "--- \"a/with space.java\"\n"
+            + "+++ \"b/with space.java\"\n"
+            + "@@ -0,0 +1 @@\n"
+            + "+class C {}\n"));
+
+        assertEquals(Arrays.asList(new File(root, "A.java").getCanonicalFile(),
+                                   new File(root, "with space.java").getCanonicalFile()),
+                     changes.getFiles());
+        assertTrue(changes.intersects(new File(root, "A.java"), 2, 2));
+        assertFalse(changes.intersects(new File(root, "A.java"), 3, 10));
+        assertTrue(changes.intersects(new File(root, "A.java"), 12, 20));
+        assertTrue(changes.intersects(new File(root, "with space.java"), 1, 1));
+        assertEquals("a\tb\\c\"d", ChangedLines.unquote("\"a\\tb\\\\c\\\"d\""));
+    }
+}
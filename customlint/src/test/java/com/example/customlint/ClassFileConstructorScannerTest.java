@@ -0,0 +1,331 @@
+package com.example.customlint;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ClassFileConstructorScannerTest {
+    private static final int PARAMETERS_LIMIT = 2;
+    private static final int THREADS = 4;
+    private static final int PARITY_FILES = 20;
+
+    private static final String SUPPRESS_LINT = ""
+        + "package android.annotation;\n"
+        + "\n"
+        + "@java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.CLASS)\n"
+        + "public @interface SuppressLint {\n"
+        + "    String[] value();\n"
+        + "}\n";
+
+    private static final String EDGE_CASES = ""
+        + "package test.pkg;\n"
+        + "\n"
+        + "import android.annotation.SuppressLint;\n"
+        + "\n"
+        + "public class Outer {\n"
+        + "    public Outer(int a, int b, int c) {\n"
+        + "    }\n"
+        + "\n"
+        + "    Outer(int a, int b) {\n"
+        + "        new Nested(a, b);\n"
+        + "    }\n"
+        + "\n"
+        + "    class Inner {\n"
+        + "        Inner(int a, int b) {\n"
+        + "        }\n"
+        + "    }\n"
+        + "\n"
+        + "    class WideInner {\n"
+        + "        WideInner(int a, int b, int c) {\n"
+        + "        }\n"
+        + "    }\n"
+        + "\n"
+        + "    static class Nested {\n"
+        + "        // called from Outer, so javac adds an access constructor with one more parameter\n"
+        + "        private Nested(int a, int b) {\n"
+        + "        }\n"
+        + "    }\n"
+        + "\n"
+        + "    void run(final int x, final long y) {\n"
+        + "        class Local {\n"
+        + "            Local(int a, int b) {\n"
+        + "            }\n"
+        + "\n"
+        + "            long sum() {\n"
+        + "                return x + y;\n"
+        + "            }\n"
+        + "        }\n"
+        + "        class WideLocal {\n"
+        + "            WideLocal(int a, int b, int c) {\n"
+        + "            }\n"
+        + "\n"
+        + "            int get() {\n"
+        + "                return x;\n"
+        + "            }\n"
+        + "        }\n"
+        + "        new Local(1, 2).sum();\n"
+        + "        new WideLocal(1, 2, 3).get();\n"
+        + "        new Outer(1, 2, 3) {\n"
+        + "        };\n"
+        + "    }\n"
+        + "\n"
+        + "    enum Mode {\n"
+        + "        A(1, 2), B(3, 4);\n"
+        + "\n"
+        + "        Mode(int a, int b) {\n"
+        + "        }\n"
+        + "    }\n"
+        + "\n"
+        + "    enum WideMode {\n"
+        + "        A(1, 2, 3);\n"
+        + "\n"
+        + "        WideMode(int a, int b, int c) {\n"
+        + "        }\n"
+        + "    }\n"
+        + "\n"
+        + "    @SuppressLint({\"NewApi\", \"TooManyParametersConstructor\"})\n"
+        + "    static class Suppressed {\n"
+        + "        Suppressed(int a, int b, int c) {\n"
+        + "        }\n"
+        + "\n"
+        + "        class Deep {\n"
+        + "            Deep(int a, int b, int c) {\n"
+        + "            }\n"
+        + "        }\n"
+        + "    }\n"
+        + "\n"
+        + "    @SuppressLint(\"all\")\n"
+        + "    Outer(long a, long b, long c) {\n"
+        + "    }\n"
+        + "}\n";
+
+    // constructor name and declared parameter count of every expected finding
+    private static final List<String> EDGE_CASE_FINDINGS =
+        Arrays.asList("WideLocal:3", "WideInner:3", "WideMode:3", "Outer:3");
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testClassFiles() throws Exception {
+        final File classes = compileEdgeCases();
+        final List<FastConstructorScanner.Finding> findings = scan(listFiles(classes, new ArrayList<File>()));
+
+        assertEquals(EDGE_CASE_FINDINGS, describe(findings));
+        for (FastConstructorScanner.Finding finding : findings) {
+            assertTrue(finding.toString(), finding.getLine() > 0);
+        }
+    }
+
+    @Test
+    public void testMethodParameters() throws Exception {
+        // -parameters marks the parameters javac adds, which the scanner then reads instead
+        final File classes = compileEdgeCases("-parameters");
+
+        assertEquals(EDGE_CASE_FINDINGS, describe(scan(listFiles(classes, new ArrayList<File>()))));
+    }
+
+    @Test
+    public void testJarAndAar() throws Exception {
+        final File classes = compileEdgeCases();
+        final File jar = new File(temporaryFolder.getRoot(), "library.jar");
+        zip(jar, classes, Collections.<String, File>emptyMap());
+        final File aar = new File(temporaryFolder.getRoot(), "library.aar");
+        zip(aar, temporaryFolder.newFolder("aar"), Collections.singletonMap("classes.jar", jar));
+
+        final List<FastConstructorScanner.Finding> jarFindings = scan(Collections.singletonList(jar));
+        assertEquals(EDGE_CASE_FINDINGS, describe(jarFindings));
+        assertEquals(jar.getPath() + "!/test/pkg/Outer$1WideLocal.class", jarFindings.get(0).getPath());
+
+        final List<FastConstructorScanner.Finding> aarFindings = scan(Collections.singletonList(aar));
+        assertEquals(EDGE_CASE_FINDINGS, describe(aarFindings));
+        assertEquals(aar.getPath() + "!/classes.jar!/test/pkg/Outer$1WideLocal.class", aarFindings.get(0).getPath());
+    }
+
+    @Test
+    public void testPerClassLimits() throws Exception {
+        final File classes = compileEdgeCases();
+        final ClassFileConstructorScanner scanner = new ClassFileConstructorScanner(ParameterLimits.parse(
+            new StringReader("test.pkg.Outer = 5\ntest.pkg.Outer.WideMode = 3\n"), PARAMETERS_LIMIT), THREADS);
+
+        // local classes have no qualified name and keep the default limit
+        assertEquals(Arrays.asList("WideLocal:3", "WideInner:3"),
+                     describe(scanner.scan(listFiles(classes, new ArrayList<File>()))));
+        assertEquals(0, scanner.getUnreadableClasses());
+    }
+
+    @Test
+    public void testUnreadableClassesAreCounted() throws Exception {
+        final File file = temporaryFolder.newFile("Broken.class");
+        Files.write(file.toPath(), new byte[] {(byte) 0xCA, (byte) 0xFE, 0, 1});
+
+        final ClassFileConstructorScanner scanner = new ClassFileConstructorScanner(ParameterLimits.of(PARAMETERS_LIMIT), THREADS);
+        assertEquals(Collections.<FastConstructorScanner.Finding>emptyList(), scanner.scan(Collections.singletonList(file)));
+        assertEquals(1, scanner.getClasses());
+        assertEquals(1, scanner.getUnreadableClasses());
+        assertEquals(file.getPath(), scanner.getFirstUnreadableClass());
+
+        // an incomplete scan fails even without findings
+        final ByteArrayOutputStream err = new ByteArrayOutputStream();
+        assertEquals(3, ClassFileConstructorScanner.run(new String[] {file.getPath()},
+                                                        new PrintStream(new ByteArrayOutputStream()), new PrintStream(err)));
+        assertTrue(err.toString("UTF-8").contains("Warning: 1 classes could not be read and were not checked, e.g. " + file.getPath()));
+    }
+
+    @Test
+    public void testRun() throws Exception {
+        final File source = temporaryFolder.newFile("A.java");
+        SyntheticSources.write(source, "class A {\n  A(int a, int b, int c) {\n  }\n}\n");
+        final File classes = temporaryFolder.newFolder("classes");
+        assertTrue(SyntheticSources.compile(Collections.singletonList(source), classes,
+                                            new DiagnosticCollector<JavaFileObject>()));
+        final File file = new File(classes, "A.class");
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final PrintStream err = new PrintStream(new ByteArrayOutputStream());
+        assertEquals(0, ClassFileConstructorScanner.run(new String[] {"--threads", "2", classes.getPath()},
+                                                        new PrintStream(out), err));
+        assertEquals(file.getPath() + ":2: Warning: Constructor has too many parameters. [TooManyParametersConstructor]\n"
+                         + "0 errors, 1 warnings\n",
+                     out.toString("UTF-8").replace(System.lineSeparator(), "\n"));
+
+        out.reset();
+        assertEquals(1, ClassFileConstructorScanner.run(new String[] {"-Werror", file.getPath()}, new PrintStream(out), err));
+        assertEquals(file.getPath() + ":2: Error: Constructor has too many parameters. [TooManyParametersConstructor]\n"
+                         + "1 errors, 0 warnings\n",
+                     out.toString("UTF-8").replace(System.lineSeparator(), "\n"));
+
+        assertEquals(2, ClassFileConstructorScanner.run(new String[0], err, err));
+        assertEquals(2, ClassFileConstructorScanner.run(new String[] {"--threads", "0", file.getPath()}, err, err));
+        assertEquals(2, ClassFileConstructorScanner.run(new String[] {"--bogus", file.getPath()}, err, err));
+    }
+
+    @Test
+    public void testParityWithDetector() throws Exception {
+        final File module = temporaryFolder.newFolder("module");
+        SyntheticSources.write(new File(module, "build.gradle"), "apply plugin: 'java'\n");
+        final File packageDir = new File(module, "src/main/java/" + SyntheticSources.PACKAGE_NAME.replace('.', '/'));
+        final List<File> files = new ArrayList<>();
+        for (int i = 0; i < PARITY_FILES; i++) {
+            final String className = SyntheticSources.className(i);
+            final String source;
+            switch (i % 4) {
+                case 0:
+                    source = SyntheticSources.mixedJavaFile(className, i % 6);
+                    break;
+                case 1:
+                    source = SyntheticSources.javaClass(className, 3, i % 5);
+                    break;
+                case 2:
+                    source = SyntheticSources.telescopingJavaClass(className, 5);
+                    break;
+                default:
+                    source = SyntheticSources.nestedJavaFile(className, 2, 3, i % 4);
+                    break;
+            }
+            final File file = new File(packageDir, className + ".java");
+            SyntheticSources.write(file, source);
+            files.add(file);
+        }
+
+        // constructors per source file, as class files do not keep the declaration's line
+        final Map<String, Integer> expected = new TreeMap<>();
+        for (LintIncident incident : CustomLintRunner.analyze(module, new CustomLintRunner.Options()).incidents) {
+            if (ClassFileConstructorScanner.ISSUE_ID.equals(incident.getIssueId())) {
+                count(expected, new File(incident.getPath()).getName().replace(".java", ""));
+            }
+        }
+
+        final File classes = temporaryFolder.newFolder("classes");
+        assertTrue(SyntheticSources.compile(files, classes, new DiagnosticCollector<JavaFileObject>()));
+        final Map<String, Integer> actual = new TreeMap<>();
+        for (FastConstructorScanner.Finding finding : scan(listFiles(classes, new ArrayList<File>()))) {
+            final String name = new File(finding.getPath()).getName();
+            count(actual, name.substring(0, name.indexOf('$') >= 0 ? name.indexOf('$') : name.indexOf('.')));
+        }
+
+        assertTrue(expected.size() > 0);
+        assertEquals(expected, actual);
+    }
+
+    private File compileEdgeCases(final String... extraOptions) throws Exception {
+        final File sources = temporaryFolder.newFolder("src");
+        final File annotation = new File(sources, "android/annotation/SuppressLint.java");
+        SyntheticSources.write(annotation, SUPPRESS_LINT);
+        final File outer = new File(sources, "test/pkg/Outer.java");
+        SyntheticSources.write(outer, EDGE_CASES);
+
+        // class files of the JDK running the tests, whatever version that is
+        final List<String> options = new ArrayList<>(Arrays.asList(extraOptions));
+        final File classes = temporaryFolder.newFolder("classes");
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        assertTrue(diagnostics.getDiagnostics().toString(),
+                   SyntheticSources.compile(Arrays.asList(annotation, outer), classes, diagnostics,
+                                            options.toArray(new String[options.size()])));
+        return classes;
+    }
+
+    private static List<FastConstructorScanner.Finding> scan(final List<File> files) throws Exception {
+        return new ClassFileConstructorScanner(ParameterLimits.of(PARAMETERS_LIMIT), THREADS).scan(files);
+    }
+
+    private static List<File> listFiles(final File file, final List<File> files) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                listFiles(child, files);
+            }
+        } else {
+            files.add(file);
+        }
+        return files;
+    }
+
+    /** Zips the files under {@code directory} and {@code extra} entries into {@code zip}. */
+    private static void zip(final File zip, final File directory, final Map<String, File> extra) throws Exception {
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(zip))) {
+            for (File file : listFiles(directory, new ArrayList<File>())) {
+                out.putNextEntry(new ZipEntry(directory.toURI().relativize(file.toURI()).getPath()));
+                out.write(Files.readAllBytes(file.toPath()));
+                out.closeEntry();
+            }
+            for (Map.Entry<String, File> entry : extra.entrySet()) {
+                out.putNextEntry(new ZipEntry(entry.getKey()));
+                out.write(Files.readAllBytes(entry.getValue().toPath()));
+                out.closeEntry();
+            }
+        }
+    }
+
+    private static List<String> describe(final List<FastConstructorScanner.Finding> findings) {
+        final List<String> descriptions = new ArrayList<>();
+        for (FastConstructorScanner.Finding finding : findings) {
+            descriptions.add(finding.getClassName() + ":" + finding.getParameterCount());
+        }
+        return descriptions;
+    }
+
+    private static void count(final Map<String, Integer> counts, final String key) {
+        final Integer count = counts.get(key);
+        counts.put(key, count == null ? 1 : count + 1);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.customlint;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ConstructorBaselineTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testWriteAndLoad() throws Exception {
+        final long known = ConstructorBaseline.hash("test.pkg.Foo", new String[] {"int", "long", "boolean"});
+        final long renamed = ConstructorBaseline.hash("test.pkg.Bar", new String[] {"int", "long", "boolean"});
+        final long changed = ConstructorBaseline.hash("test.pkg.Foo", new String[] {"int", "long", "String"});
+
+        final ConstructorBaseline recorded = ConstructorBaseline.create();
+        recorded.add(known);
+        recorded.add(0L);
+        final File file = new File(temporaryFolder.getRoot(), "baseline/constructors.bin");
+        recorded.write(file);
+
+        final ConstructorBaseline baseline = ConstructorBaseline.load(file);
+        assertEquals(2, baseline.size());
+        assertTrue(baseline.contains(known));
+        assertTrue(baseline.contains(0L));
+        assertFalse(baseline.contains(renamed));
+        assertFalse(baseline.contains(changed));
+    }
+
+    @Test
+    public void testLargeBaseline() throws Exception {
+        final ConstructorBaseline recorded = ConstructorBaseline.create();
+        for (int i = 0; i < 100000; i++) {
+            recorded.add(ConstructorBaseline.hash(SyntheticSources.className(i), SyntheticSources.parameterTypes(i % 30)));
+        }
+        final File file = temporaryFolder.newFile();
+        recorded.write(file);
+
+        final ConstructorBaseline baseline = ConstructorBaseline.load(file);
+        assertEquals(100000, baseline.size());
+        for (int i = 0; i < 100000; i++) {
+            assertTrue(baseline.contains(ConstructorBaseline.hash(SyntheticSources.className(i),
+                                                                  SyntheticSources.parameterTypes(i % 30))));
+        }
+    }
+
+    @Test
+    public void testHashDependsOnParameterBoundaries() throws Exception {
+        assertNotEquals(ConstructorBaseline.hash("Foo", new String[] {"int", "long"}),
+                        ConstructorBaseline.hash("Foo", new String[] {"intlong"}));
+    }
+
+    @Test
+    public void testRecordingsIntoOneFileAreMerged() throws Exception {
+        final File file = new File(temporaryFolder.getRoot(), "constructors.bin");
+        final Thread[] threads = new Thread[8];
+        final IOException[] failures = new IOException[threads.length];
+        for (int i = 0; i < threads.length; i++) {
+            final int run = i;
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    final ConstructorBaseline recorded = ConstructorBaseline.create();
+                    for (int j = 0; j < 1000; j++) {
+                        recorded.add(run * 1000 + j);
+                    }
+                    try {
+                        recorded.writeMerged(file);
+                    } catch (IOException e) {
+                        failures[run] = e;
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (int i = 0; i < threads.length; i++) {
+            threads[i].join();
+            assertNull(failures[i]);
+        }
+
+        // no run replaced the incidents of another
+        assertEquals(8000, ConstructorBaseline.load(file).size());
+    }
+
+    @Test
+    public void testTypeTextWithoutWhitespace() throws Exception {
+        assertEquals("java.util.Map<K,V>", ConstructorBaseline.stripWhitespace("java.util.Map<K, V>"));
+        assertEquals("java.util.Map<K,V>", ConstructorBaseline.stripWhitespace("java.util.Map<K,\n\tV>"));
+        assertEquals("int", ConstructorBaseline.stripWhitespace("int"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testRejectsOtherFiles() throws Exception {
+        final File file = temporaryFolder.newFile();
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write("<issues/>".getBytes("UTF-8"));
+        }
+        ConstructorBaseline.load(file);
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.customlint;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compiles sources with the plugin the way a build would, found through its service
+ * registration on the processor path, with the default parameter limit.
+ */
+public class ConstructorCheckPluginTest {
+    private static final int PARITY_FILES = 20;
+
+    // flagged constructors have no doc comment, which lint reports on instead
+    private static final String EDGE_CASES = ""
+        + "package test.pkg;\n"
+        + "\n"
+        + "import java.util.List;\n"
+        + "import java.util.Map;\n"
+        + "\n"
+        + "public class Outer<T extends Comparable<T>> {\n"
+        + "    private static final String TEXT = \"Outer(int a, int b, int c) { class\";\n"
+        + "\n"
+        + "    public Outer(int a, int b, int c) {\n"
+        + "        Runnable task = new Runnable() {\n"
+        + "            public void run() {\n"
+        + "                class Local {\n"
+        + "                    Local(int a, int b, int c) {\n"
+        + "                    }\n"
+        + "                }\n"
+        + "            }\n"
+        + "        };\n"
+        + "        // javac gives the anonymous class a constructor taking the three arguments\n"
+        + "        Object copy = new Outer<T>(1L, 2L, 3L) {\n"
+        + "        };\n"
+        + "    }\n"
+        + "\n"
+        + "    @Deprecated\n"
+        + "    protected <U> Outer(Map<String, List<U>> map, @SuppressWarnings(\"unused\") U u, int... rest) {\n"
+        + "    }\n"
+        + "\n"
+        + "    Outer(int a, int b) {\n"
+        + "    }\n"
+        + "\n"
+        + "    @SuppressWarnings(\"TooManyParametersConstructor\")\n"
+        + "    public Outer(long a, long b, long c) {\n"
+        + "    }\n"
+        + "\n"
+        + "    static class Inner {\n"
+        + "        Inner(int a, int b, int c) {\n"
+        + "        }\n"
+        + "    }\n"
+        + "\n"
+        + "    @SuppressWarnings(\"all\")\n"
+        + "    static class Suppressed {\n"
+        + "        Suppressed(int a, int b, int c) {\n"
+        + "        }\n"
+        + "    }\n"
+        + "\n"
+        + "    interface Callback {\n"
+        + "        void call(int a, int b, int c);\n"
+        + "    }\n"
+        + "\n"
+        + "    enum Mode {\n"
+        + "        A(1, 2, 3), B(4, 5, 6);\n"
+        + "\n"
+        + "        Mode(int a, int b, int c) {\n"
+        + "        }\n"
+        + "    }\n"
+        + "}\n";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testEdgeCases() throws Exception {
+        final File file = temporaryFolder.newFile("Outer.java");
+        SyntheticSources.write(file, EDGE_CASES);
+
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        assertTrue(diagnostics.getDiagnostics().toString(),
+                   compile(Collections.singletonList(file), temporaryFolder.newFolder("classes"),
+                           ConstructorCheckPlugin.NAME, diagnostics));
+
+        assertEquals(Arrays.asList(9, 13, 23, 35, 52), getLines(diagnostics, Diagnostic.Kind.WARNING));
+        for (Diagnostic<? extends JavaFileObject> diagnostic : getFindings(diagnostics)) {
+            assertEquals("Constructor has too many parameters. [TooManyParametersConstructor]",
+                         diagnostic.getMessage(Locale.US));
+        }
+    }
+
+    @Test
+    public void testWarningsAsErrors() throws Exception {
+        final File file = temporaryFolder.newFile("A.java");
+        SyntheticSources.write(file, "class A {\n  A(int a, int b, int c) {\n  }\n}\n");
+
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        assertFalse(compile(Collections.singletonList(file), temporaryFolder.newFolder("classes"),
+                            ConstructorCheckPlugin.NAME + " -Werror", diagnostics));
+        assertEquals(Collections.singletonList(2), getLines(diagnostics, Diagnostic.Kind.ERROR));
+    }
+
+    @Test
+    public void testGeneratedSourcesAreSkipped() throws Exception {
+        final File generated = new File(temporaryFolder.newFolder("build", "generated"), "Model.java");
+        SyntheticSources.write(generated, SyntheticSources.generatedJavaClass("Model", 3, false));
+        final File handwritten = temporaryFolder.newFile("Plain.java");
+        SyntheticSources.write(handwritten, SyntheticSources.generatedJavaClass("Plain", 3, false));
+
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        assertTrue(compile(Arrays.asList(generated, handwritten), temporaryFolder.newFolder("classes"),
+                           ConstructorCheckPlugin.NAME, diagnostics));
+        final List<Diagnostic<? extends JavaFileObject>> findings = getFindings(diagnostics);
+        assertEquals(1, findings.size());
+        assertEquals(handwritten.getCanonicalFile(), new File(findings.get(0).getSource().toUri()).getCanonicalFile());
+    }
+
+    @Test
+    public void testParityWithDetector() throws Exception {
+        final File module = temporaryFolder.newFolder("module");
+        SyntheticSources.write(new File(module, "build.gradle"), "apply plugin: 'java'\n");
+        final File packageDir = new File(module, "src/main/java/" + SyntheticSources.PACKAGE_NAME.replace('.', '/'));
+        final List<File> files = new ArrayList<>();
+        for (int i = 0; i < PARITY_FILES; i++) {
+            final String className = SyntheticSources.className(i);
+            final String source;
+            switch (i % 4) {
+                case 0:
+                    source = SyntheticSources.mixedJavaFile(className, i % 6);
+                    break;
+                case 1:
+                    source = SyntheticSources.javaClass(className, 3, i % 5);
+                    break;
+                case 2:
+                    source = SyntheticSources.telescopingJavaClass(className, 5);
+                    break;
+                default:
+                    source = SyntheticSources.nestedJavaFile(className, 2, 3, i % 4);
+                    break;
+            }
+            files.add(write(packageDir, className, source));
+        }
+        final File edgeCases = new File(module, "src/main/java/test/pkg/Outer.java");
+        SyntheticSources.write(edgeCases, EDGE_CASES);
+        files.add(edgeCases);
+
+        final List<String> expected = new ArrayList<>();
+        for (LintIncident incident : CustomLintRunner.analyze(module, new CustomLintRunner.Options()).incidents) {
+            if (ConstructorCheckPlugin.ISSUE_ID.equals(incident.getIssueId())) {
+                expected.add(new File(incident.getPath()).getCanonicalPath() + ":" + incident.getLine()
+                                  + ": " + incident.getMessage() + " [" + incident.getIssueId() + "]");
+            }
+        }
+
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        assertTrue(diagnostics.getDiagnostics().toString(),
+                   compile(files, temporaryFolder.newFolder("classes"), ConstructorCheckPlugin.NAME, diagnostics));
+        final List<String> actual = new ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : getFindings(diagnostics)) {
+            actual.add(new File(diagnostic.getSource().toUri()).getCanonicalPath() + ":" + diagnostic.getLineNumber()
+                           + ": " + diagnostic.getMessage(Locale.US));
+        }
+
+        assertFalse(expected.isEmpty());
+        Collections.sort(expected);
+        Collections.sort(actual);
+        assertEquals(expected, actual);
+    }
+
+    /**
+     * Compiles {@code files} into {@code classes}, with {@code -Xplugin:pluginOptions} unless
+     * {@code null}, loading the plugin from the test class path; returns whether compilation
+     * succeeded.
+     */
+    static boolean compile(final List<File> files,
+                           final File classes,
+                           final String pluginOptions,
+                           final DiagnosticCollector<JavaFileObject> diagnostics) throws Exception {
+        if (pluginOptions == null) {
+            return SyntheticSources.compile(files, classes, diagnostics);
+        }
+        return SyntheticSources.compile(files, classes, diagnostics,
+                                        "-processorpath", System.getProperty("java.class.path"),
+                                        "-Xplugin:" + pluginOptions);
+    }
+
+    private static File write(final File directory, final String className, final String source) throws Exception {
+        final File file = new File(directory, className + ".java");
+        SyntheticSources.write(file, source);
+        return file;
+    }
+
+    /** Diagnostics of the plugin, leaving out javac's own notes. */
+    private static List<Diagnostic<? extends JavaFileObject>> getFindings(final DiagnosticCollector<JavaFileObject> diagnostics) {
+        final List<Diagnostic<? extends JavaFileObject>> findings = new ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getMessage(Locale.US).endsWith("[" + ConstructorCheckPlugin.ISSUE_ID + "]")) {
+                findings.add(diagnostic);
+            }
+        }
+        return findings;
+    }
+
+    private static List<Integer> getLines(final DiagnosticCollector<JavaFileObject> diagnostics, final Diagnostic.Kind kind) {
+        final List<Integer> lines = new ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : getFindings(diagnostics)) {
+            assertEquals(diagnostic.toString(), kind, diagnostic.getKind());
+            lines.add((int) diagnostic.getLineNumber());
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.customlint;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ConstructorIndexTest {
+    private static final int NONE = ConstructorIndex.NO_DELEGATION;
+
+    private static final int LONG_CHAIN = 200000;
+    private static final long LONG_CHAIN_TIME_BUDGET_MILLIS = 1000;
+
+    @Test
+    public void testChainLengths() throws Exception {
+        // () -> (a) -> (a, b) <- (b)
+        final int[] arities = {0, 1, 2, 1};
+        final int[] targets = {1, 2, NONE, 2};
+
+        assertArrayEquals(new int[] {1, 2, 3, 1}, ConstructorIndex.getChainLengths(arities, targets));
+    }
+
+    @Test
+    public void testOnlyGrowingDelegationsCount() throws Exception {
+        // (a, b) -> (a) and (a) -> (b) are not telescoping
+        final int[] arities = {2, 1, 1};
+        final int[] targets = {1, 2, NONE};
+
+        assertArrayEquals(new int[] {1, 1, 1}, ConstructorIndex.getChainLengths(arities, targets));
+    }
+
+    @Test
+    public void testDeclarationOrderDoesNotMatter() throws Exception {
+        // the longest overload first, the chain declared backwards
+        final int[] arities = {3, 2, 1, 0};
+        final int[] targets = {NONE, 0, 1, 2};
+
+        assertArrayEquals(new int[] {4, 3, 2, 1}, ConstructorIndex.getChainLengths(arities, targets));
+    }
+
+    @Test
+    public void testManyOverloads() throws Exception {
+        final int count = 250;
+        final int[] arities = new int[count];
+        final int[] targets = new int[count];
+        for (int i = 0; i < count; i++) {
+            arities[i] = i;
+            targets[i] = i < count - 1 ? i + 1 : NONE;
+        }
+
+        final int[] lengths = ConstructorIndex.getChainLengths(arities, targets);
+        for (int i = 0; i < count; i++) {
+            assertEquals(i + 1, lengths[i]);
+        }
+    }
+
+    @Test
+    public void testDelegationTargetsByArity() throws Exception {
+        // (a) -> (a, b), two overloads taking three, a varargs overload and no this(...)
+        final int[] arities = {1, 2, 3, 3, 1, 0};
+        final boolean[] varArgs = {false, false, false, false, true, false};
+        final int[] argumentCounts = {2, 3, NONE, NONE, NONE, 1};
+
+        assertArrayEquals(new int[] {1, ConstructorIndex.UNRESOLVED, NONE, NONE, NONE, 0},
+                          ConstructorIndex.getDelegationTargets(arities, varArgs, argumentCounts));
+    }
+
+    @Test
+    public void testDelegationToUnknownArityIsResolved() throws Exception {
+        // only a varargs overload could take four arguments
+        final int[] arities = {1, 1};
+        final boolean[] varArgs = {false, true};
+        final int[] argumentCounts = {4, NONE};
+
+        assertArrayEquals(new int[] {ConstructorIndex.UNRESOLVED, NONE},
+                          ConstructorIndex.getDelegationTargets(arities, varArgs, argumentCounts));
+    }
+
+    @Test
+    public void testLongChainIsLinear() throws Exception {
+        // declared longest first so that a naive walk along the chain would be quadratic
+        final int[] arities = new int[LONG_CHAIN];
+        final boolean[] varArgs = new boolean[LONG_CHAIN];
+        final int[] argumentCounts = new int[LONG_CHAIN];
+        for (int i = 0; i < LONG_CHAIN; i++) {
+            arities[i] = LONG_CHAIN - 1 - i;
+            argumentCounts[i] = i > 0 ? arities[i] + 1 : NONE;
+        }
+
+        // from this(...) argument counts to chain lengths, as building the index does
+        final long start = System.nanoTime();
+        final int[] targets = ConstructorIndex.getDelegationTargets(arities, varArgs, argumentCounts);
+        final int[] lengths = ConstructorIndex.getChainLengths(arities, targets);
+        final long elapsedMillis = (System.nanoTime() - start) / 1000000;
+
+        assertEquals(LONG_CHAIN - 2, targets[LONG_CHAIN - 1]);
+        assertEquals(LONG_CHAIN, lengths[0]);
+        assertTrue("Took " + elapsedMillis + " ms", elapsedMillis < LONG_CHAIN_TIME_BUDGET_MILLIS);
+    }
+}
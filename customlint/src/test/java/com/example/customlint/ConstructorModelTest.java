@@ -0,0 +1,28 @@
+package com.example.customlint;
+
+import java.util.Arrays;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ConstructorModelTest {
+    @Test
+    public void testMergeTakesUnionOfParameters() throws Exception {
+        final ConstructorModel merged = ConstructorModel.merge(Arrays.asList(
+            new ConstructorModel("Model", new String[] {"a", "b", "c"}, new String[] {"int", "long", "String"}),
+            new ConstructorModel("Model", new String[] {"a", "d", "c", "e"}, new String[] {"int", "boolean", "String", "char"})));
+
+        assertEquals("Model", merged.getName());
+        assertArrayEquals(new String[] {"a", "b", "c", "d", "e"}, merged.getParameterNames());
+        assertArrayEquals(new String[] {"int", "long", "String", "boolean", "char"}, merged.getParameterTypes());
+    }
+
+    @Test
+    public void testMergeRejectsConflictingTypes() throws Exception {
+        assertNull(ConstructorModel.merge(Arrays.asList(
+            new ConstructorModel("Model", new String[] {"a", "b", "c"}, new String[] {"int", "long", "String"}),
+            new ConstructorModel("Model", new String[] {"a", "b", "c"}, new String[] {"int", "long", "Object"}))));
+    }
+}
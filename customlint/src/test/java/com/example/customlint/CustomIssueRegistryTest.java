@@ -6,6 +6,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class CustomIssueRegistryTest {
@@ -19,12 +20,21 @@ public class CustomIssueRegistryTest {
     @Test
     public void testNumberOfIssues() throws Exception {
         int size = customIssueRegistry.getIssues().size();
-        assertEquals(1, size);
+        assertEquals(3, size);
     }
 
     @Test
     public void testGetIssues() throws Exception {
         List<Issue> actual = customIssueRegistry.getIssues();
         assertTrue(actual.contains(JavaConstructorDetector.TOO_MANY_PARAMETERS_ISSUE));
+        assertTrue(actual.contains(JavaConstructorDetector.BOOLEAN_PARAMETERS_ISSUE));
+        assertTrue(actual.contains(JavaConstructorDetector.TELESCOPING_ISSUE));
+    }
+
+    @Test
+    public void testOnlyTooManyParametersIsEnabledByDefault() throws Exception {
+        assertTrue(JavaConstructorDetector.TOO_MANY_PARAMETERS_ISSUE.isEnabledByDefault());
+        assertFalse(JavaConstructorDetector.BOOLEAN_PARAMETERS_ISSUE.isEnabledByDefault());
+        assertFalse(JavaConstructorDetector.TELESCOPING_ISSUE.isEnabledByDefault());
     }
 }
\ No newline at end of file
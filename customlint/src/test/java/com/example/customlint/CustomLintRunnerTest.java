@@ -0,0 +1,195 @@
+package com.example.customlint;
+
+import com.android.tools.lint.detector.api.Severity;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+
+public class CustomLintRunnerTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testUsageErrors() throws Exception {
+        final PrintStream out = new PrintStream(new ByteArrayOutputStream());
+        assertEquals(2, CustomLintRunner.run(new String[0], out, out));
+        assertEquals(2, CustomLintRunner.run(new String[] {"--threads", "0", "module"}, out, out));
+        assertEquals(2, CustomLintRunner.run(new String[] {"--bogus", "module"}, out, out));
+        assertEquals(2, CustomLintRunner.run(new String[] {"--format", "xml", "module"}, out, out));
+        assertEquals(2, CustomLintRunner.run(new String[] {"--fix-text", "-5", "module"}, out, out));
+        assertEquals(0, CustomLintRunner.run(new String[] {"--help"}, out, out));
+    }
+
+    @Test
+    public void testMergeSortsIncidentsAcrossModules() throws Exception {
+        final LintIncident b = incident("b/B.java", 3);
+        final LintIncident a2 = incident("a/A.java", 7);
+        final LintIncident a1 = incident("a/A.java", 2);
+
+        final List<LintIncident> merged = CustomLintRunner.merge(Arrays.asList(
+            new CustomLintRunner.ModuleResult(new File("b"), Collections.singletonList(b), 0, 0),
+            new CustomLintRunner.ModuleResult(new File("a"), Arrays.asList(a2, a1), 0, 0)));
+
+        assertEquals(Arrays.asList(a1, a2, b), merged);
+    }
+
+    @Test
+    public void testWriteReport() throws Exception {
+        final StringWriter writer = new StringWriter();
+        CustomLintRunner.writeReport(Collections.singletonList(incident("a/A.java", 2)), new PrintWriter(writer));
+
+        assertEquals(""
+                         + "a/A.java:2: Warning: Constructor has too many parameters. [TooManyParametersConstructor]\n"
+                         + "0 errors, 1 warnings\n",
+                     writer.toString().replace(System.lineSeparator(), "\n"));
+    }
+
+    @Test
+    public void testChangedSinceAnalyzesOnlyChangedLines() throws Exception {
+        final File module = temporaryFolder.newFolder("module");
+        SyntheticSources.write(new File(module, "build.gradle"), "apply plugin: 'java'\n");
+        final File packageDir = new File(module, "src/main/java/" + SyntheticSources.PACKAGE_NAME.replace('.', '/'));
+        final File changed = new File(packageDir, "Changed.java");
+        SyntheticSources.write(changed, SyntheticSources.javaClass("Changed", 2, 3));
+        SyntheticSources.write(new File(packageDir, "Untouched.java"), SyntheticSources.javaClass("Untouched", 1, 3));
+        SyntheticSources.commitAll(module);
+        SyntheticSources.git(module, "tag", "base");
+
+        // the second constructor, on line 5, gets a fourth parameter
+        final String source = SyntheticSources.javaClass("Changed", 2, 3);
+        final int secondConstructor = source.lastIndexOf(") {");
+        SyntheticSources.write(changed, source.substring(0, secondConstructor) + ", int p3" + source.substring(secondConstructor));
+
+        final ChangedLines changes = ChangedLines.compute(module, "base");
+        final List<LintIncident> incidents =
+            CustomLintRunner.analyze(module, new CustomLintRunner.Options().changes(changes)).incidents;
+
+        assertEquals(1, incidents.size());
+        assertEquals(changed.getCanonicalPath(), new File(incidents.get(0).getPath()).getCanonicalPath());
+        assertEquals(5, incidents.get(0).getLine());
+    }
+
+    @Test
+    public void testChangedSinceMigratesCallersInUntouchedFiles() throws Exception {
+        final File module = temporaryFolder.newFolder("module");
+        SyntheticSources.write(new File(module, "build.gradle"), "apply plugin: 'java'\n");
+        final File packageDir = new File(module, "src/main/java/" + SyntheticSources.PACKAGE_NAME.replace('.', '/'));
+        final File changed = new File(packageDir, "Changed.java");
+        final File caller = new File(packageDir, "Caller.java");
+        final String source = ""
+            + "package test.pkg;\n"
+            + "public class Changed {\n"
+            + "  public Changed(int a, long b, String c) {\n"
+            + "  }\n"
+            + "}\n";
+        SyntheticSources.write(changed, source);
+        SyntheticSources.write(caller, ""
+            + "package test.pkg;\n"
+            + "class Caller {\n"
+            + "  Changed changed = new Changed(1, 2L, \"c\");\n"
+            + "}\n");
+        SyntheticSources.commitAll(module);
+        SyntheticSources.git(module, "tag", "base");
+
+        // only the constructor's body changes
+        SyntheticSources.write(changed, source.replace("  }\n}", "    System.out.println(c);\n  }\n}"));
+
+        final ChangedLines changes = ChangedLines.compute(module, "base");
+        final CustomLintRunner.ModuleResult result =
+            CustomLintRunner.analyze(module, new CustomLintRunner.Options().collectEdits(true).changes(changes));
+
+        assertEquals(1, result.incidents.size());
+        final List<String> paths = new ArrayList<>();
+        for (SourceEdit edit : result.edits) {
+            paths.add(new File(edit.getPath()).getCanonicalPath());
+        }
+        assertEquals(Arrays.asList(changed.getCanonicalPath(), caller.getCanonicalPath()), paths);
+    }
+
+    @Test
+    public void testApplyFixesMigratesCallersInOtherModules() throws Exception {
+        final File library = temporaryFolder.newFolder("library");
+        final File app = temporaryFolder.newFolder("app");
+        SyntheticSources.write(new File(library, "build.gradle"), "apply plugin: 'java'\n");
+        SyntheticSources.write(new File(app, "build.gradle"), "apply plugin: 'java'\n");
+        final File declaration = new File(library, "src/main/java/test/pkg/Declared.java");
+        final File caller = new File(app, "src/main/java/test/app/Caller.java");
+        SyntheticSources.write(declaration, ""
+            + "package test.pkg;\n"
+            + "public class Declared {\n"
+            + "  public Declared(int a, long b, String c) {\n"
+            + "  }\n"
+            + "}\n");
+        SyntheticSources.write(caller, ""
+            + "package test.app;\n"
+            + "import test.pkg.Declared;\n"
+            + "class Caller {\n"
+            + "  Declared declared = new Declared(1, 2L, \"c\");\n"
+            + "}\n");
+
+        final PrintStream out = new PrintStream(new ByteArrayOutputStream());
+        assertEquals(0, CustomLintRunner.run(new String[] {"--apply-fixes", "--threads", "2", library.getPath(), app.getPath()},
+                                             out, out));
+
+        assertEquals(""
+                         + "package test.app;\n"
+                         + "import test.pkg.Declared;\n"
+                         + "class Caller {\n"
+                         + "  Declared declared = new Declared.Builder().a(1).b(2L).c(\"c\").build();\n"
+                         + "}\n",
+                     new String(Files.readAllBytes(caller.toPath()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testModulesRecordOneBaseline() throws Exception {
+        final List<String> paths = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            final File module = temporaryFolder.newFolder("module" + i);
+            SyntheticSources.write(new File(module, "build.gradle"), "apply plugin: 'java'\n");
+            final String className = SyntheticSources.className(i);
+            SyntheticSources.write(new File(module, "src/main/java/test/pkg/" + className + ".java"),
+                                   SyntheticSources.javaClass(className, 1, 3));
+            paths.add(module.getPath());
+        }
+        final File baselineFile = new File(temporaryFolder.getRoot(), "constructors.bin");
+        paths.addAll(0, Arrays.asList("--threads", "2"));
+        final String[] args = paths.toArray(new String[0]);
+
+        final DetectorSettings settings = JavaConstructorDetector.settings;
+        JavaConstructorDetector.settings = new DetectorSettings().baselineFile(baselineFile);
+        try {
+            final ByteArrayOutputStream recorded = new ByteArrayOutputStream();
+            assertEquals(0, CustomLintRunner.run(args, new PrintStream(recorded), new PrintStream(new ByteArrayOutputStream())));
+            assertEquals(4, ConstructorBaseline.load(baselineFile).size());
+
+            // every module's incident is known now, whichever module finished first
+            final ByteArrayOutputStream baselined = new ByteArrayOutputStream();
+            assertEquals(0, CustomLintRunner.run(args, new PrintStream(baselined), new PrintStream(new ByteArrayOutputStream())));
+            assertEquals("0 errors, 0 warnings", new String(baselined.toByteArray(), StandardCharsets.UTF_8).trim());
+        } finally {
+            JavaConstructorDetector.settings = settings;
+        }
+    }
+
+    private static LintIncident incident(final String path, final int line) {
+        return new LintIncident("TooManyParametersConstructor",
+                                Severity.WARNING,
+                                path,
+                                line,
+                                "Constructor has too many parameters.",
+                                null);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.customlint;
+
+import java.io.File;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DetectorMetricsTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testDisabledWithoutOutputDirectory() throws Exception {
+        assertNull(DetectorMetrics.create(null, "app"));
+        assertNull(DetectorMetrics.create(" ", "app"));
+    }
+
+    @Test
+    public void testRunsWriteToTheirProjectDirectory() throws Exception {
+        final File directory = new File(temporaryFolder.getRoot(), "metrics");
+        final DetectorMetrics app = DetectorMetrics.create(directory.getPath(), "app");
+        final DetectorMetrics library = DetectorMetrics.create(directory.getPath(), "lib:core");
+        app.increment(DetectorMetrics.Counter.FILES_VISITED);
+        app.write();
+        library.write();
+
+        // each run counts from zero and keeps its own files
+        assertEquals(0, library.get(DetectorMetrics.Counter.FILES_VISITED));
+        assertTrue(new File(directory, "app/" + DetectorMetrics.JSON_FILE_NAME).isFile());
+        assertTrue(new File(directory, "lib_core/" + DetectorMetrics.JSON_FILE_NAME).isFile());
+        assertEquals(0, DetectorMetrics.create(directory.getPath(), "app").get(DetectorMetrics.Counter.FILES_VISITED));
+    }
+
+    @Test
+    public void testCountersAndExport() throws Exception {
+        final File directory = new File(temporaryFolder.getRoot(), "metrics");
+        final DetectorMetrics metrics = DetectorMetrics.create(directory.getPath(), "app");
+        metrics.increment(DetectorMetrics.Counter.METHODS_VISITED);
+        metrics.increment(DetectorMetrics.Counter.METHODS_VISITED);
+        metrics.add(DetectorMetrics.Counter.FIX_NANOS, 1500);
+
+        assertEquals(2, metrics.get(DetectorMetrics.Counter.METHODS_VISITED));
+        assertTrue(metrics.toJson().contains("\"methods_visited_total\": 2,"));
+        assertTrue(metrics.toPrometheus().contains(""
+                                                       + "# TYPE customlint_constructor_fix_nanoseconds_total counter\n"
+                                                       + "customlint_constructor_fix_nanoseconds_total 1500\n"));
+
+        metrics.write();
+        assertTrue(new File(directory, "app/" + DetectorMetrics.JSON_FILE_NAME).isFile());
+        assertTrue(new File(directory, "app/" + DetectorMetrics.PROMETHEUS_FILE_NAME).isFile());
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.customlint;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+
+public class FastConstructorScannerTest {
+    private static final int PARAMETERS_LIMIT = 2;
+    private static final int PARITY_FILES = 20;
+
+    private static final String EDGE_CASES = ""
+        + "package test.pkg;\n"
+        + "\n"
+        + "import java.util.List;\n"
+        + "import java.util.Map;\n"
+        + "\n"
+        + "/** Mentions {@code Outer(int, int, int)}. */\n"
+        + "public class Outer<T extends Comparable<T>> {\n"
+        + "    private static final String TEXT = \"Outer(int a, int b, int c) { class\";\n"
+        + "    private static final char BRACE = '{';\n"
+        + "    private final Class<?> type = Outer.class;\n"
+        + "    private final int[] values = {1, 2, 3};\n"
+        + "\n"
+        + "    /**\n"
+        + "     * Reported on its doc comment.\n"
+        + "     */\n"
+        + "    public Outer(int a, int b, int c) {\n"
+        + "        Runnable task = new Runnable() {\n"
+        + "            public void run() {\n"
+        + "                class Local {\n"
+        + "                    Local(int a, int b, int c) {\n"
+        + "                    }\n"
+        + "                }\n"
+        + "            }\n"
+        + "        };\n"
+        + "    }\n"
+        + "\n"
+        + "    @Deprecated\n"
+        + "    protected <U> Outer(Map<String, List<U>> map, @SuppressWarnings(\"unused\") U u, int... rest) {\n"
+        + "    }\n"
+        + "\n"
+        + "    Outer(int a, int b) {\n"
+        + "    }\n"
+        + "\n"
+        + "    public Outer Outer(int a, int b, int c) {\n"
+        + "        return this;\n"
+        + "    }\n"
+        + "\n"
+        + "    @SuppressWarnings(\"TooManyParametersConstructor\")\n"
+        + "    public Outer(long a, long b, long c) {\n"
+        + "    }\n"
+        + "\n"
+        + "    static class Inner {\n"
+        + "        // Inner(int a, int b, int c) in a comment\n"
+        + "        Inner(int a, int b, int c) {\n"
+        + "        }\n"
+        + "    }\n"
+        + "\n"
+        + "    @SuppressWarnings(\"all\")\n"
+        + "    static class Suppressed {\n"
+        + "        Suppressed(int a, int b, int c) {\n"
+        + "        }\n"
+        + "    }\n"
+        + "\n"
+        + "    interface Callback {\n"
+        + "        void call(int a, int b, int c);\n"
+        + "    }\n"
+        + "\n"
+        + "    enum Mode {\n"
+        + "        A(1, 2, 3), B(4, 5, 6);\n"
+        + "\n"
+        + "        Mode(int a, int b, int c) {\n"
+        + "        }\n"
+        + "    }\n"
+        + "}\n";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testEdgeCases() throws Exception {
+        final List<FastConstructorScanner.Finding> findings = scan("Outer.java", EDGE_CASES);
+
+        assertEquals(Arrays.asList(13, 20, 27, 44, 61), getLines(findings));
+        assertEquals(Arrays.asList("Outer", "Local", "Outer", "Inner", "Mode"), getClassNames(findings));
+        assertEquals(Arrays.asList(3, 3, 3, 3, 3), getParameterCounts(findings));
+    }
+
+    @Test
+    public void testPerClassLimits() throws Exception {
+        final FastConstructorScanner scanner = new FastConstructorScanner(ParameterLimits.parse(
+            new StringReader("test.pkg.Outer = 5\ntest.pkg.Outer.Inner = 1\n"), PARAMETERS_LIMIT));
+        final List<FastConstructorScanner.Finding> findings =
+            scanner.scan("Outer.java", ByteBuffer.wrap(EDGE_CASES.getBytes(StandardCharsets.UTF_8)));
+
+        // local classes have no qualified name and keep the default limit
+        assertEquals(Arrays.asList(20, 44, 61), getLines(findings));
+    }
+
+    @Test
+    public void testSuppressLint() throws Exception {
+        final String source = ""
+            + "\uFEFFpackage test.pkg;\n"
+            + "@android.annotation.SuppressLint({\"NewApi\", \"TooManyParametersConstructor\"})\n"
+            + "class A {\n"
+            + "    A(int a, int b, int c) {\n"
+            + "    }\n"
+            + "}\n"
+            + "class B {\n"
+            + "    @SuppressLint(\"NewApi\") B(int a, int b, int c) {\n"
+            + "    }\n"
+            + "}\n";
+
+        assertEquals(Collections.singletonList(8), getLines(scan("A.java", source)));
+    }
+
+    @Test
+    public void testRun() throws Exception {
+        final File file = temporaryFolder.newFile("A.java");
+        SyntheticSources.write(file, "class A {\n  A(int a, int b, int c) {\n  }\n}\n");
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final PrintStream err = new PrintStream(new ByteArrayOutputStream());
+        assertEquals(0, FastConstructorScanner.run(new String[] {temporaryFolder.getRoot().getPath()},
+                                                   new PrintStream(out), err));
+        assertEquals(file.getPath() + ":2: Warning: Constructor has too many parameters. [TooManyParametersConstructor]\n"
+                         + "0 errors, 1 warnings\n",
+                     out.toString("UTF-8").replace(System.lineSeparator(), "\n"));
+
+        out.reset();
+        assertEquals(1, FastConstructorScanner.run(new String[] {"-Werror", file.getPath()}, new PrintStream(out), err));
+        assertEquals(file.getPath() + ":2: Error: Constructor has too many parameters. [TooManyParametersConstructor]\n"
+                         + "1 errors, 0 warnings\n",
+                     out.toString("UTF-8").replace(System.lineSeparator(), "\n"));
+
+        assertEquals(2, FastConstructorScanner.run(new String[0], err, err));
+        assertEquals(2, FastConstructorScanner.run(new String[] {"--bogus", file.getPath()}, err, err));
+    }
+
+    @Test
+    public void testGeneratedSourcesAreSkipped() throws Exception {
+        final File generated = temporaryFolder.newFile("Model.java");
+        SyntheticSources.write(generated, SyntheticSources.generatedJavaClass("Model", 3, true));
+        final File handwritten = temporaryFolder.newFile("Plain.java");
+        SyntheticSources.write(handwritten, SyntheticSources.generatedJavaClass("Plain", 3, false));
+
+        final GeneratedSourceFilter filter = new GeneratedSourceFilter(GeneratedSourceFilter.DEFAULT_PATH_PATTERNS,
+                                                                       GeneratedSourceFilter.DEFAULT_MAX_FILE_SIZE,
+                                                                       true);
+        final FastConstructorScanner scanner = new FastConstructorScanner(ParameterLimits.of(PARAMETERS_LIMIT), filter);
+
+        assertEquals(Collections.<FastConstructorScanner.Finding>emptyList(), scanner.scan(generated));
+        assertEquals(Collections.singletonList("Plain"), getClassNames(scanner.scan(handwritten)));
+        assertEquals(1, filter.getSkippedFiles(GeneratedSourceFilter.Reason.GENERATED));
+    }
+
+    @Test
+    public void testParityWithDetector() throws Exception {
+        final File module = temporaryFolder.newFolder("module");
+        SyntheticSources.write(new File(module, "build.gradle"), "apply plugin: 'java'\n");
+        final File packageDir = new File(module, "src/main/java/" + SyntheticSources.PACKAGE_NAME.replace('.', '/'));
+        final List<File> files = new ArrayList<>();
+        for (int i = 0; i < PARITY_FILES; i++) {
+            final String className = SyntheticSources.className(i);
+            final String source;
+            switch (i % 4) {
+                case 0:
+                    source = SyntheticSources.mixedJavaFile(className, i % 6);
+                    break;
+                case 1:
+                    source = SyntheticSources.javaClass(className, 3, i % 5);
+                    break;
+                case 2:
+                    source = SyntheticSources.telescopingJavaClass(className, 5);
+                    break;
+                default:
+                    source = SyntheticSources.nestedJavaFile(className, 2, 3, i % 4);
+                    break;
+            }
+            files.add(write(packageDir, className, source));
+        }
+        files.add(write(packageDir, "Outer", EDGE_CASES));
+
+        final List<String> expected = new ArrayList<>();
+        for (LintIncident incident : CustomLintRunner.analyze(module, new CustomLintRunner.Options()).incidents) {
+            if (FastConstructorScanner.ISSUE_ID.equals(incident.getIssueId())) {
+                expected.add(new File(incident.getPath()).getCanonicalPath() + ":" + incident.getLine()
+                                  + ": " + incident.getMessage());
+            }
+        }
+
+        final FastConstructorScanner scanner = new FastConstructorScanner(ParameterLimits.of(PARAMETERS_LIMIT));
+        final List<String> actual = new ArrayList<>();
+        for (File file : files) {
+            for (FastConstructorScanner.Finding finding : scanner.scan(file)) {
+                actual.add(new File(finding.getPath()).getCanonicalPath() + ":" + finding.getLine()
+                               + ": " + FastConstructorScanner.MESSAGE);
+            }
+        }
+
+        Collections.sort(expected);
+        Collections.sort(actual);
+        assertEquals(expected, actual);
+    }
+
+    private static List<FastConstructorScanner.Finding> scan(final String path, final String source) {
+        return new FastConstructorScanner(ParameterLimits.of(PARAMETERS_LIMIT))
+            .scan(path, ByteBuffer.wrap(source.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static File write(final File directory, final String className, final String source) throws Exception {
+        final File file = new File(directory, className + ".java");
+        SyntheticSources.write(file, source);
+        return file;
+    }
+
+    private static List<Integer> getLines(final List<FastConstructorScanner.Finding> findings) {
+        final List<Integer> lines = new ArrayList<>();
+        for (FastConstructorScanner.Finding finding : findings) {
+            lines.add(finding.getLine());
+        }
+        return lines;
+    }
+
+    private static List<String> getClassNames(final List<FastConstructorScanner.Finding> findings) {
+        final List<String> names = new ArrayList<>();
+        for (FastConstructorScanner.Finding finding : findings) {
+            names.add(finding.getClassName());
+        }
+        return names;
+    }
+
+    private static List<Integer> getParameterCounts(final List<FastConstructorScanner.Finding> findings) {
+        final List<Integer> counts = new ArrayList<>();
+        for (FastConstructorScanner.Finding finding : findings) {
+            counts.add(finding.getParameterCount());
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.customlint;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class GeneratedSourceFilterTest {
+    private static final String SOURCE = "package test.pkg;\nclass A {\n  A(int a, int b, int c) {\n  }\n}\n";
+
+    @Test
+    public void testDefaultPathPatterns() throws Exception {
+        final GeneratedSourceFilter filter = new GeneratedSourceFilter(GeneratedSourceFilter.DEFAULT_PATH_PATTERNS, 0, true);
+
+        assertEquals(GeneratedSourceFilter.Reason.PATH,
+                     filter.skip(new File("/app/build/generated/source/apt/debug/test/pkg/A.java"), 0, SOURCE));
+        assertEquals(GeneratedSourceFilter.Reason.PATH,
+                     filter.skip(new File("/app/build/generated/data_binding_base_class_source_out/A.java"), 0, SOURCE));
+        assertEquals(GeneratedSourceFilter.Reason.PATH,
+                     filter.skip(new File("/app/src/main/java/test/pkg/AutoValue_Model.java"), 0, SOURCE));
+        assertEquals(GeneratedSourceFilter.Reason.PATH,
+                     filter.skip(new File("/app/src/main/java/test/pkg/Model_Factory.java"), 0, SOURCE));
+        assertNull(filter.skip(new File("/app/src/main/java/test/pkg/A.java"), 0, SOURCE));
+        assertNull(filter.skip(new File("/app/src/main/java/test/generated/A.java"), 0, SOURCE));
+        assertEquals(4, filter.getSkippedFiles(GeneratedSourceFilter.Reason.PATH));
+    }
+
+    @Test
+    public void testMaxFileSize() throws Exception {
+        final GeneratedSourceFilter filter = new GeneratedSourceFilter(Collections.<String>emptyList(), 100, true);
+
+        assertNull(filter.skip(new File("A.java"), 100, SOURCE));
+        assertEquals(GeneratedSourceFilter.Reason.SIZE, filter.skip(new File("A.java"), 101, SOURCE));
+        assertNull(new GeneratedSourceFilter(Collections.<String>emptyList(), 0, true)
+                       .skip(new File("A.java"), Long.MAX_VALUE, SOURCE));
+    }
+
+    @Test
+    public void testGeneratedHeader() throws Exception {
+        assertTrue(GeneratedSourceFilter.isGenerated("import javax.annotation.Generated;\n@Generated(\"dagger\")\nclass A {}"));
+        assertTrue(GeneratedSourceFilter.isGenerated("@javax.annotation.processing.Generated(\"x\") class A {}"));
+        assertTrue(GeneratedSourceFilter.isGenerated("@Generated\nclass A {}"));
+        assertTrue(GeneratedSourceFilter.isGenerated("// Generated by the protocol buffer compiler.  DO NOT EDIT!\n"));
+        assertTrue(GeneratedSourceFilter.isGenerated("/* AUTO-GENERATED FILE.  DO NOT MODIFY. */\n"));
+        assertFalse(GeneratedSourceFilter.isGenerated("@Entity class A {\n  @Id @GeneratedValue long id;\n}"));
+        assertFalse(GeneratedSourceFilter.isGenerated(SOURCE));
+
+        final StringBuilder late = new StringBuilder();
+        for (int i = 0; i < GeneratedSourceFilter.HEADER_LENGTH; i++) {
+            late.append(' ');
+        }
+        late.append("@Generated class A {}");
+        assertFalse(GeneratedSourceFilter.isGenerated(late));
+
+        final GeneratedSourceFilter filter = new GeneratedSourceFilter(Collections.<String>emptyList(), 0, true);
+        assertEquals(GeneratedSourceFilter.Reason.GENERATED, filter.skip(new File("A.java"), 0, "@Generated class A {}"));
+        assertNull(filter.skip(new File("A.java"), 0, null));
+        assertNull(new GeneratedSourceFilter(Collections.<String>emptyList(), 0, false)
+                       .skip(new File("A.java"), 0, "@Generated class A {}"));
+        assertEquals(1, filter.getSkippedFiles());
+    }
+
+    @Test
+    public void testGeneratedMemberOfHandWrittenClass() throws Exception {
+        assertFalse(GeneratedSourceFilter.isGenerated(""
+            + "package test.pkg;\n"
+            + "import javax.annotation.Generated;\n"
+            + "public class A {\n"
+            + "  @Generated(\"immutables\")\n"
+            + "  A(int a, int b, int c) {\n"
+            + "  }\n"
+            + "}\n"));
+        assertFalse(GeneratedSourceFilter.isGenerated("/** Not {@literal @Generated} by any tool. */\nclass A {}"));
+        assertFalse(GeneratedSourceFilter.isGenerated("// @Generated once, edited by hand since\nclass A {}"));
+        assertFalse(GeneratedSourceFilter.isGenerated("@Description(\"@Generated\") class A {}"));
+        assertTrue(GeneratedSourceFilter.isGenerated("@Generated(value = {\"a\", \"b\"}, comments = \"}\")\nclass A {}"));
+        assertTrue(GeneratedSourceFilter.isGenerated("@Deprecated\n@Generated(\"x\") public final class A {}"));
+    }
+
+    @Test
+    public void testParse() throws Exception {
+        assertEquals(GeneratedSourceFilter.DEFAULT_PATH_PATTERNS, GeneratedSourceFilter.parsePatterns(null));
+        assertEquals(Collections.<String>emptyList(), GeneratedSourceFilter.parsePatterns(""));
+        assertEquals(Arrays.asList("**/gen/**", "**/*.pb.java"), GeneratedSourceFilter.parsePatterns(" **/gen/** ,, **/*.pb.java"));
+
+        assertEquals(GeneratedSourceFilter.DEFAULT_MAX_FILE_SIZE, GeneratedSourceFilter.parseMaxFileSize(null));
+        assertEquals(GeneratedSourceFilter.DEFAULT_MAX_FILE_SIZE, GeneratedSourceFilter.parseMaxFileSize("big"));
+        assertEquals(GeneratedSourceFilter.DEFAULT_MAX_FILE_SIZE, GeneratedSourceFilter.parseMaxFileSize("-1"));
+        assertEquals(0, GeneratedSourceFilter.parseMaxFileSize("0"));
+        assertEquals(4096, GeneratedSourceFilter.parseMaxFileSize("4096"));
+    }
+}
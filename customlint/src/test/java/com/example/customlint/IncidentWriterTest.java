@@ -0,0 +1,169 @@
+package com.example.customlint;
+
+import com.android.tools.lint.detector.api.Severity;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class IncidentWriterTest {
+    private static final int CORPUS_FILES = 2500;
+    private static final int CONSTRUCTORS_PER_FILE = 4;
+    private static final int PARAMETER_COUNT = 30;
+    private static final int SAMPLE_INTERVAL = 500;
+    private static final long HEAP_GROWTH_BUDGET = 32L * 1024 * 1024;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testNdjson() throws Exception {
+        final StringWriter output = new StringWriter();
+        try (IncidentWriter writer = new NdjsonIncidentWriter(output, 5)) {
+            writer.write(incident("src/A.java", 3, "private A(Builder builder) {\n}"));
+            writer.write(incident("src/B \"quoted\".java", 0, null));
+        }
+
+        assertEquals(""
+                         + "{\"issue\":\"TooManyParametersConstructor\",\"severity\":\"Warning\",\"path\":\"src/A.java\","
+                         + "\"line\":3,\"message\":\"Constructor has too many parameters.\",\"fix\":\"priva...\"}\n"
+                         + "{\"issue\":\"TooManyParametersConstructor\",\"severity\":\"Warning\","
+                         + "\"path\":\"src/B \\\"quoted\\\".java\",\"line\":0,\"message\":\"Constructor has too many parameters.\"}\n",
+                     output.toString());
+    }
+
+    @Test
+    public void testSarif() throws Exception {
+        final StringWriter output = new StringWriter();
+        try (IncidentWriter writer = new SarifIncidentWriter(output, new CustomIssueRegistry().getIssues(),
+                                                             IncidentWriter.NO_FIX_TEXT)) {
+            writer.write(incident("src/A.java", 3, "private A(Builder builder) {\n}"));
+            writer.write(incident("src/B.java", 7, null));
+        }
+
+        final String sarif = output.toString();
+        assertTrue(sarif.startsWith("{\"$schema\":\"https://json.schemastore.org/sarif-2.1.0.json\",\"version\":\"2.1.0\""));
+        assertTrue(sarif.contains("{\"id\":\"TooManyParametersConstructor\",\"shortDescription\":"
+                                      + "{\"text\":\"Constructor has too many parameters.\"}"));
+        assertTrue(sarif.contains("{\"ruleId\":\"TooManyParametersConstructor\",\"level\":\"warning\","
+                                      + "\"message\":{\"text\":\"Constructor has too many parameters.\"},"
+                                      + "\"locations\":[{\"physicalLocation\":{\"artifactLocation\":{\"uri\":\""
+                                      + new File("src/A.java").getAbsoluteFile().toPath().toUri() + "\"},"
+                                      + "\"region\":{\"startLine\":3}}}]},\n"));
+        assertTrue(sarif.endsWith("\n]}]}\n"));
+        assertTrue(!sarif.contains("fixText"));
+    }
+
+    @Test
+    public void testSarifUri() throws Exception {
+        final File file = new File(temporaryFolder.getRoot(), "src/B \"quoted\" #1.java");
+        final String uri = SarifIncidentWriter.toUri(file.getPath());
+
+        assertTrue(uri, uri.startsWith("file:///"));
+        assertTrue(uri, uri.endsWith("/src/B%20%22quoted%22%20%231.java"));
+        assertEquals(file.getAbsoluteFile(), new File(URI.create(uri)));
+        assertEquals(uri, SarifIncidentWriter.toUri(file.getParentFile().getPath() + "/../src/B \"quoted\" #1.java"));
+    }
+
+    @Test
+    public void testStreamingKeepsHeapFlat() throws Exception {
+        final File module = temporaryFolder.newFolder("module");
+        SyntheticSources.write(new File(module, "build.gradle"), "apply plugin: 'java'\n");
+        final File packageDir = new File(module, "src/main/java/" + SyntheticSources.PACKAGE_NAME.replace('.', '/'));
+        for (int i = 0; i < CORPUS_FILES; i++) {
+            final String className = SyntheticSources.className(i);
+            SyntheticSources.write(new File(packageDir, className + ".java"),
+                                   SyntheticSources.javaClass(className, CONSTRUCTORS_PER_FILE, PARAMETER_COUNT));
+        }
+        final CountingOutputStream counter = new CountingOutputStream();
+
+        final HeapSamplingWriter writer = new HeapSamplingWriter(new SarifIncidentWriter(
+            new OutputStreamWriter(counter, StandardCharsets.UTF_8),
+            new CustomIssueRegistry().getIssues(),
+            IncidentWriter.FULL_FIX_TEXT));
+        final CustomLintRunner.ModuleResult result;
+        try {
+            result = CustomLintRunner.analyze(module, new CustomLintRunner.Options().writer(writer));
+        } finally {
+            writer.close();
+        }
+
+        // far more output than the budget was produced, none of it retained
+        assertEquals(CORPUS_FILES * CONSTRUCTORS_PER_FILE, writer.count);
+        assertTrue(result.incidents.isEmpty());
+        assertTrue("Wrote " + counter.count + " bytes", counter.count > HEAP_GROWTH_BUDGET);
+        assertTrue("Heap grew by " + (writer.peak - writer.baseline) + " bytes",
+                   writer.peak - writer.baseline < HEAP_GROWTH_BUDGET);
+    }
+
+    private static LintIncident incident(final String path, final int line, final String fixText) {
+        return new LintIncident("TooManyParametersConstructor",
+                                Severity.WARNING,
+                                path,
+                                line,
+                                "Constructor has too many parameters.",
+                                fixText);
+    }
+
+    private static long usedHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Samples the used heap while incidents stream through; the first sample, taken once lint
+     * has set up its environment and parsed the first files, is the baseline.
+     */
+    private static final class HeapSamplingWriter implements IncidentWriter {
+        private final IncidentWriter delegate;
+        int count;
+        long baseline;
+        long peak;
+
+        HeapSamplingWriter(final IncidentWriter delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(final LintIncident incident) throws IOException {
+            delegate.write(incident);
+            if (count % SAMPLE_INTERVAL == SAMPLE_INTERVAL - 1) {
+                final long used = usedHeap();
+                if (baseline == 0) {
+                    baseline = used;
+                }
+                peak = Math.max(peak, used);
+            }
+            count++;
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) throws IOException {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.customlint;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Calls {@link CustomLintRunner#analyze(List, CustomLintRunner.Options)} from many threads at
+ * once, so the runs share the detector's static configuration, metrics and caches while the
+ * runner serializes their lint clients, and checks that every run reports exactly what a single
+ * run reports, fixes and call site migrations included.
+ */
+public class JavaConstructorDetectorConcurrencyTest {
+    private static final int MODULE_COUNT = 4;
+    private static final int FILES_PER_MODULE = 20;
+    private static final int PARAMETER_COUNT = 4;
+    private static final int THREADS = 8;
+    private static final int RUNS = 32;
+    private static final String CALLER_CLASS = "Caller";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testParallelRunsMatchSingleThreadedRun() throws Exception {
+        final List<File> modules = SyntheticSources.writeModules(temporaryFolder.getRoot(),
+                                                                 MODULE_COUNT,
+                                                                 FILES_PER_MODULE,
+                                                                 PARAMETER_COUNT);
+        for (File module : modules) {
+            writeCaller(module);
+        }
+
+        final List<String> expected = describe(CustomLintRunner.analyze(modules, new CustomLintRunner.Options().collectEdits(true)));
+        // one constructor per file, plus its call site migration
+        assertEquals(MODULE_COUNT * FILES_PER_MODULE, countIncidents(expected));
+        assertTrue(expected.toString().contains(".Builder()"));
+
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<List<String>>> runs = new ArrayList<>(RUNS);
+            for (int run = 0; run < RUNS; run++) {
+                runs.add(executor.submit(new Callable<List<String>>() {
+                    @Override
+                    public List<String> call() throws Exception {
+                        return describe(CustomLintRunner.analyze(modules, new CustomLintRunner.Options().collectEdits(true)));
+                    }
+                }));
+            }
+            for (int run = 0; run < RUNS; run++) {
+                assertEquals("Run " + run, expected, runs.get(run).get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /** Writes a class calling the constructor of every generated class of {@code module}. */
+    private static void writeCaller(final File module) throws Exception {
+        final String[] types = SyntheticSources.parameterTypes(PARAMETER_COUNT);
+        final StringBuilder arguments = new StringBuilder();
+        for (int i = 0; i < types.length; i++) {
+            if (i > 0) {
+                arguments.append(", ");
+            }
+            arguments.append(getDefaultValue(types[i]));
+        }
+
+        final StringBuilder source = new StringBuilder();
+        source.append("package ").append(SyntheticSources.PACKAGE_NAME).append(";\n");
+        source.append("public class ").append(CALLER_CLASS).append(" {\n");
+        source.append("    public void create() {\n");
+        for (int file = 0; file < FILES_PER_MODULE; file++) {
+            source.append("        new ").append(SyntheticSources.className(file)).append('(').append(arguments).append(");\n");
+        }
+        source.append("    }\n");
+        source.append("}\n");
+
+        final File packageDir = new File(module, "src/main/java/" + SyntheticSources.PACKAGE_NAME.replace('.', '/'));
+        SyntheticSources.write(new File(packageDir, CALLER_CLASS + ".java"), source.toString());
+    }
+
+    private static String getDefaultValue(final String type) {
+        switch (type) {
+            case "long":
+                return "0L";
+            case "boolean":
+                return "false";
+            case "double":
+                return "0.0";
+            case "float":
+                return "0f";
+            case "char":
+                return "'c'";
+            case "String":
+                return "\"\"";
+            case "Object":
+                return "null";
+            default:
+                return "0";
+        }
+    }
+
+    /** Incidents with their fix texts, then edits, in the order the runner returns them. */
+    private static List<String> describe(final List<CustomLintRunner.ModuleResult> results) {
+        final List<String> lines = new ArrayList<>();
+        for (CustomLintRunner.ModuleResult result : results) {
+            for (LintIncident incident : result.incidents) {
+                lines.add(incident.format() + "\n" + incident.getFixText());
+            }
+        }
+        for (SourceEdit edit : CustomLintRunner.mergeEdits(results)) {
+            lines.add(edit + " " + edit.getOldText() + " -> " + edit.getNewText());
+        }
+        return lines;
+    }
+
+    private static int countIncidents(final List<String> lines) {
+        int count = 0;
+        for (String line : lines) {
+            if (line.contains("[" + ConstructorIssues.TOO_MANY_PARAMETERS_ISSUE_ID + "]")) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.customlint;
+
+import com.android.tools.lint.checks.infrastructure.LintDetectorTest;
+import com.android.tools.lint.checks.infrastructure.TestFile;
+import com.android.tools.lint.detector.api.Detector;
+import com.android.tools.lint.detector.api.Issue;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+
+/**
+ * Runs {@link JavaConstructorDetector} over generated corpora far larger than the hand-written
+ * sources of {@link JavaConstructorDetectorTest} and fails when a run exceeds its wall-time or
+ * peak-heap budget. Budgets are loose enough for a busy CI machine, but an accidentally
+ * quadratic visit or fix generation blows through them.
+ */
+public class JavaConstructorDetectorScaleTest extends LintDetectorTest {
+    private static final int NESTED_FILE_COUNT = 100;
+    private static final int NESTED_WIDTH = 4;
+    private static final int NESTED_DEPTH = 6;
+    private static final int NESTED_PARAMETER_COUNT = 5;
+    private static final long NESTED_TIME_BUDGET_MILLIS = 60000;
+
+    private static final int HUGE_FILE_COUNT = 10;
+    private static final int HUGE_PARAMETER_COUNT = 250;
+    private static final long HUGE_TIME_BUDGET_MILLIS = 30000;
+
+    private static final long HEAP_BUDGET_BYTES = 512L * 1024 * 1024;
+
+    public void testThousandsOfNestedClasses() throws Exception {
+        final TestFile[] files = new TestFile[NESTED_FILE_COUNT];
+        for (int i = 0; i < NESTED_FILE_COUNT; i++) {
+            files[i] = java(SyntheticSources.nestedJavaFile(SyntheticSources.className(i),
+                                                            NESTED_WIDTH,
+                                                            NESTED_DEPTH,
+                                                            NESTED_PARAMETER_COUNT));
+        }
+        // one parameter count incident per class; a single boolean parameter each
+        final int expectedWarnings = NESTED_FILE_COUNT * SyntheticSources.nestedClassCount(NESTED_WIDTH, NESTED_DEPTH);
+
+        checkBudgets(files, expectedWarnings, NESTED_TIME_BUDGET_MILLIS);
+    }
+
+    public void testHugeParameterLists() throws Exception {
+        final TestFile[] files = new TestFile[HUGE_FILE_COUNT];
+        for (int i = 0; i < HUGE_FILE_COUNT; i++) {
+            files[i] = java(SyntheticSources.javaClass(SyntheticSources.className(i), 1, HUGE_PARAMETER_COUNT));
+        }
+        // parameter count and boolean parameters incidents per class
+        final int expectedWarnings = HUGE_FILE_COUNT * 2;
+
+        checkBudgets(files, expectedWarnings, HUGE_TIME_BUDGET_MILLIS);
+    }
+
+    private void checkBudgets(final TestFile[] files, final int expectedWarnings, final long timeBudgetMillis) {
+        final long baselineHeap = resetPeakHeap();
+        final long start = System.nanoTime();
+
+        lint()
+            .files(files)
+            .run()
+            .expectWarningCount(expectedWarnings);
+
+        final long elapsedMillis = (System.nanoTime() - start) / 1000000;
+        final long heapGrowth = getPeakHeap() - baselineHeap;
+        assertTrue("Took " + elapsedMillis + " ms, budget " + timeBudgetMillis + " ms",
+                   elapsedMillis < timeBudgetMillis);
+        assertTrue("Peak heap grew by " + heapGrowth + " bytes, budget " + HEAP_BUDGET_BYTES + " bytes",
+                   heapGrowth < HEAP_BUDGET_BYTES);
+    }
+
+    /** Collects garbage and resets the heap pools' peaks; returns the heap used afterwards. */
+    private static long resetPeakHeap() {
+        System.gc();
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+                used += pool.getUsage().getUsed();
+            }
+        }
+        return used;
+    }
+
+    /** Sum of the heap pools' peaks since {@link #resetPeakHeap()}, an upper bound of the peak heap. */
+    private static long getPeakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    @Override
+    protected Detector getDetector() {
+        return new JavaConstructorDetector();
+    }
+
+    @Override
+    protected List<Issue> getIssues() {
+        return new CustomIssueRegistry().getIssues();
+    }
+
+    @Override
+    protected boolean allowCompilationErrors() {
+        return true;
+    }
+}
@@ -3,11 +3,115 @@ package com.example.customlint;
 import com.android.tools.lint.checks.infrastructure.LintDetectorTest;
 import com.android.tools.lint.detector.api.Detector;
 import com.android.tools.lint.detector.api.Issue;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import org.intellij.lang.annotations.Language;
 
 public class JavaConstructorDetectorTest extends LintDetectorTest {
+    private static final int TELESCOPING_OVERLOADS = 220;
+    private static final long TELESCOPING_TIME_BUDGET_MILLIS = 20000;
+
+    @Language("JAVA") private static final String THREE_PARAMETERS_SOURCE = ""
+        + "package test.pkg;\n"
+        + "public class ThreeParametersConstructorTestObject {\n"
+        + "\tpublic ThreeParametersConstructorTestObject(int a, long b, boolean c) {\n"
+        + "\t}\n"
+        + "}";
+    private static final String THREE_PARAMETERS_WARNING = ""
+        + "src/test/pkg/ThreeParametersConstructorTestObject.java:3: Warning: Constructor has too many parameters. [TooManyParametersConstructor]\n"
+        // warning line doesn't contain any tabs before the actual text. so the expected warning should be "SPACE" + line
+        + " public ThreeParametersConstructorTestObject(int a, long b, boolean c) {\n"
+        + " ^\n"
+        + "0 errors, 1 warnings\n";
+    @Language("JAVA") private static final String SUPPRESSED_SOURCE = ""
+        + "package test.pkg;\n"
+        + "class SuppressedTestObject {\n"
+        + "  @SuppressWarnings(\"TooManyParametersConstructor\")\n"
+        + "  SuppressedTestObject(int a, long b, String c) {\n"
+        + "  }\n"
+        + "}";
+    private static final String THREE_PARAMETERS_FIX_DIFFS = ""
+        + "Fix for src/test/pkg/ThreeParametersConstructorTestObject.java line 2: Replace with "
+        + "private ThreeParametersConstructorTestObject(Builder builder) {\n"
+        + "\t\tthis.a = builder.a;\n"
+        + "\t\tthis.b = builder.b;\n"
+        + "\t\tthis.c = builder.c;\n"
+        + "\t}\n"
+        + "\n"
+        + "\tpublic static class Builder {\n"
+        + "\t\tprivate int a;\n"
+        + "\t\tprivate long b;\n"
+        + "\t\tprivate boolean c;\n"
+        + "\n"
+        + "\t\tpublic Builder() {\n"
+        + "\t\t}\n"
+        + "\n"
+        + "\t\tpublic Builder a(int a) {\n"
+        + "\t\t\tthis.a = a;\n"
+        + "\t\t\treturn this;\n"
+        + "\t\t}\n"
+        + "\n"
+        + "\t\tpublic Builder b(long b) {\n"
+        + "\t\t\tthis.b = b;\n"
+        + "\t\t\treturn this;\n"
+        + "\t\t}\n"
+        + "\n"
+        + "\t\tpublic Builder c(boolean c) {\n"
+        + "\t\t\tthis.c = c;\n"
+        + "\t\t\treturn this;\n"
+        + "\t\t}\n"
+        + "\n"
+        + "\t\tpublic ThreeParametersConstructorTestObject build() {\n"
+        + "\t\t\treturn new ThreeParametersConstructorTestObject(this);\n"
+        + "\t\t}\n"
+        + "\n"
+        + "\t}\n"
+        + ":\n"
+        + "@@ -3 +3\n"
+        + "- \tpublic ThreeParametersConstructorTestObject(int a, long b, boolean c) {\n"
+        + "+ \tprivate ThreeParametersConstructorTestObject(Builder builder) {\n"
+        + "+ \t\tthis.a = builder.a;\n"
+        + "+ \t\tthis.b = builder.b;\n"
+        + "+ \t\tthis.c = builder.c;\n"
+        + "@@ -5 +8\n"
+        + "+\n"
+        + "+ \tpublic static class Builder {\n"
+        + "+ \t\tprivate int a;\n"
+        + "+ \t\tprivate long b;\n"
+        + "+ \t\tprivate boolean c;\n"
+        + "+\n"
+        + "+ \t\tpublic Builder() {\n"
+        + "+ \t\t}\n"
+        + "+\n"
+        + "+ \t\tpublic Builder a(int a) {\n"
+        + "+ \t\t\tthis.a = a;\n"
+        + "+ \t\t\treturn this;\n"
+        + "+ \t\t}\n"
+        + "+\n"
+        + "+ \t\tpublic Builder b(long b) {\n"
+        + "+ \t\t\tthis.b = b;\n"
+        + "+ \t\t\treturn this;\n"
+        + "+ \t\t}\n"
+        + "+\n"
+        + "+ \t\tpublic Builder c(boolean c) {\n"
+        + "+ \t\t\tthis.c = c;\n"
+        + "+ \t\t\treturn this;\n"
+        + "+ \t\t}\n"
+        + "+\n"
+        + "+ \t\tpublic ThreeParametersConstructorTestObject build() {\n"
+        + "+ \t\t\treturn new ThreeParametersConstructorTestObject(this);\n"
+        + "+ \t\t}\n"
+        + "+\n"
+        + "+ \t}\n"
+        + "+\n";
 
     public void testNoArgConstructor() throws Exception {
         @Language("JAVA") final String SOURCE = ""
@@ -42,70 +146,409 @@ public class JavaConstructorDetectorTest extends LintDetectorTest {
     }
 
     public void testThreeParametersConstructor() throws Exception {
+        lint()
+            .files(java(THREE_PARAMETERS_SOURCE))
+            .run()
+            .expect(THREE_PARAMETERS_WARNING)
+            .expectFixDiffs(THREE_PARAMETERS_FIX_DIFFS);
+    }
+
+    public void testNoneModeReportsWithoutFix() throws Exception {
+        final File metrics = Files.createTempDirectory("none").toFile();
+        JavaConstructorDetector.settings = new DetectorSettings().fixMode(BuilderFixMode.NONE)
+                                                                 .metricsDirectory(metrics.getPath());
+        lint()
+            .files(java(THREE_PARAMETERS_SOURCE))
+            .run()
+            .expect(THREE_PARAMETERS_WARNING)
+            .expectFixDiffs("");
+        assertEquals(0, getMetric(metrics, "builder_fixes_built_total"));
+    }
+
+    public void testEagerModeBuildsEveryFix() throws Exception {
+        final File metrics = Files.createTempDirectory("eager").toFile();
+        JavaConstructorDetector.settings = new DetectorSettings().fixMode(BuilderFixMode.EAGER)
+                                                                 .metricsDirectory(metrics.getPath());
+        lint()
+            .files(java(THREE_PARAMETERS_SOURCE), java(SUPPRESSED_SOURCE))
+            .run()
+            .expect(THREE_PARAMETERS_WARNING)
+            .expectFixDiffs(THREE_PARAMETERS_FIX_DIFFS);
+        // the suppressed constructor's fix is built too, and dropped with its incident
+        assertEquals(2, getMetric(metrics, "builder_fixes_built_total"));
+
+        final File disabledMetrics = Files.createTempDirectory("eager-disabled").toFile();
+        JavaConstructorDetector.settings = new DetectorSettings().fixMode(BuilderFixMode.EAGER)
+                                                                 .metricsDirectory(disabledMetrics.getPath());
+        lint()
+            .files(java(THREE_PARAMETERS_SOURCE))
+            .issues(JavaConstructorDetector.BOOLEAN_PARAMETERS_ISSUE)
+            .run()
+            .expect("No warnings.");
+        assertEquals(1, getMetric(disabledMetrics, "builder_fixes_built_total"));
+    }
+
+    public void testLazyModeBuildsOnlyReportedFixes() throws Exception {
+        final File metrics = Files.createTempDirectory("lazy").toFile();
+        JavaConstructorDetector.settings = new DetectorSettings().fixMode(BuilderFixMode.LAZY)
+                                                                 .metricsDirectory(metrics.getPath());
+        lint()
+            .files(java(THREE_PARAMETERS_SOURCE), java(SUPPRESSED_SOURCE))
+            .run()
+            .expect(THREE_PARAMETERS_WARNING)
+            .expectFixDiffs(THREE_PARAMETERS_FIX_DIFFS);
+        assertEquals(1, getMetric(metrics, "builder_fixes_built_total"));
+
+        // with TooManyParametersConstructor disabled, its constructors are still visited for the
+        // boolean rule but get no fix
+        final File disabledMetrics = Files.createTempDirectory("lazy-disabled").toFile();
+        JavaConstructorDetector.settings = new DetectorSettings().fixMode(BuilderFixMode.LAZY)
+                                                                 .metricsDirectory(disabledMetrics.getPath());
+        lint()
+            .files(java(THREE_PARAMETERS_SOURCE))
+            .issues(JavaConstructorDetector.BOOLEAN_PARAMETERS_ISSUE)
+            .run()
+            .expect("No warnings.");
+        assertEquals(0, getMetric(disabledMetrics, "builder_fixes_built_total"));
+    }
+
+    public void testOverloadedConstructorsShareOneBuilder() throws Exception {
+        @Language("JAVA") final String SOURCE = ""
+            + "package test.pkg;\n"
+            + "public class OverloadedTestObject {\n"
+            + "  public OverloadedTestObject(int a, long b, String c) {\n"
+            + "  }\n"
+            + "  public OverloadedTestObject(int a, long b, String c, char d) {\n"
+            + "  }\n"
+            + "  public OverloadedTestObject(int a, long b) {\n"
+            + "  }\n"
+            + "}\n"
+            + "class Caller {\n"
+            + "  OverloadedTestObject first = new OverloadedTestObject(1, 2L, \"c\");\n"
+            + "  OverloadedTestObject second = new OverloadedTestObject(3, 4L, \"c\", 'd');\n"
+            + "}";
+
+        JavaConstructorDetector.settings = new DetectorSettings().migrateCallSites(true);
+
+        // Each incident's fix removes both overloads, so it migrates the callers of both
+        lint()
+            .files(java(SOURCE))
+            .run()
+            .expect("src/test/pkg/OverloadedTestObject.java:3: Warning: Constructor has too many parameters. [TooManyParametersConstructor]\n" +
+                        "  public OverloadedTestObject(int a, long b, String c) {\n" +
+                        "  ^\n" +
+                        "src/test/pkg/OverloadedTestObject.java:5: Warning: Constructor has too many parameters. [TooManyParametersConstructor]\n" +
+                        "  public OverloadedTestObject(int a, long b, String c, char d) {\n" +
+                        "  ^\n" +
+                        "0 errors, 2 warnings\n")
+            .expectFixDiffs(""
+                                + "Fix for src/test/pkg/OverloadedTestObject.java line 2: Replace with builder and migrate call sites:\n"
+                                + "@@ -3 +3\n"
+                                + "-   public OverloadedTestObject(int a, long b, String c) {\n"
+                                + "-   }\n"
+                                + "-   public OverloadedTestObject(int a, long b, String c, char d) {\n"
+                                + "-   }\n"
+                                + "+   private OverloadedTestObject(Builder builder) {\n"
+                                + "+ \t\tthis.a = builder.a;\n"
+                                + "+ \t\tthis.b = builder.b;\n"
+                                + "+ \t\tthis.c = builder.c;\n"
+                                + "+ \t\tthis.d = builder.d;\n"
+                                + "+ \t}\n"
+                                + "+\n"
+                                + "+ \tpublic static class Builder {\n"
+                                + "+ \t\tprivate int a;\n"
+                                + "+ \t\tprivate long b;\n"
+                                + "+ \t\tprivate String c;\n"
+                                + "+ \t\tprivate char d;\n"
+                                + "+\n"
+                                + "+ \t\tpublic Builder() {\n"
+                                + "+ \t\t}\n"
+                                + "+\n"
+                                + "+ \t\tpublic Builder a(int a) {\n"
+                                + "+ \t\t\tthis.a = a;\n"
+                                + "+ \t\t\treturn this;\n"
+                                + "+ \t\t}\n"
+                                + "+\n"
+                                + "+ \t\tpublic Builder b(long b) {\n"
+                                + "+ \t\t\tthis.b = b;\n"
+                                + "+ \t\t\treturn this;\n"
+                                + "+ \t\t}\n"
+                                + "+\n"
+                                + "+ \t\tpublic Builder c(String c) {\n"
+                                + "+ \t\t\tthis.c = c;\n"
+                                + "+ \t\t\treturn this;\n"
+                                + "+ \t\t}\n"
+                                + "+\n"
+                                + "+ \t\tpublic Builder d(char d) {\n"
+                                + "+ \t\t\tthis.d = d;\n"
+                                + "+ \t\t\treturn this;\n"
+                                + "+ \t\t}\n"
+                                + "+\n"
+                                + "+ \t\tpublic OverloadedTestObject build() {\n"
+                                + "+ \t\t\treturn new OverloadedTestObject(this);\n"
+                                + "+ \t\t}\n"
+                                + "+\n"
+                                + "+ \t}\n"
+                                + "+\n"
+                                + "@@ -11 +49\n"
+                                + "-   OverloadedTestObject first = new OverloadedTestObject(1, 2L, \"c\");\n"
+                                + "-   OverloadedTestObject second = new OverloadedTestObject(3, 4L, \"c\", 'd');\n"
+                                + "+   OverloadedTestObject first = new OverloadedTestObject.Builder().a(1).b(2L).c(\"c\").build();\n"
+                                + "+   OverloadedTestObject second = new OverloadedTestObject.Builder().a(3).b(4L).c(\"c\").d('d').build();\n"
+                                + "Fix for src/test/pkg/OverloadedTestObject.java line 4: Replace with builder and migrate call sites:\n"
+                                + "@@ -3 +3\n"
+                                + "-   public OverloadedTestObject(int a, long b, String c) {\n"
+                                + "-   }\n"
+                                + "-   public OverloadedTestObject(int a, long b, String c, char d) {\n"
+                                + "-   }\n"
+                                + "+   private OverloadedTestObject(Builder builder) {\n"
+                                + "+ \t\tthis.a = builder.a;\n"
+                                + "+ \t\tthis.b = builder.b;\n"
+                                + "+ \t\tthis.c = builder.c;\n"
+                                + "+ \t\tthis.d = builder.d;\n"
+                                + "+ \t}\n"
+                                + "+\n"
+                                + "+ \tpublic static class Builder {\n"
+                                + "+ \t\tprivate int a;\n"
+                                + "+ \t\tprivate long b;\n"
+                                + "+ \t\tprivate String c;\n"
+                                + "+ \t\tprivate char d;\n"
+                                + "+\n"
+                                + "+ \t\tpublic Builder() {\n"
+                                + "+ \t\t}\n"
+                                + "+\n"
+                                + "+ \t\tpublic Builder a(int a) {\n"
+                                + "+ \t\t\tthis.a = a;\n"
+                                + "+ \t\t\treturn this;\n"
+                                + "+ \t\t}\n"
+                                + "+\n"
+                                + "+ \t\tpublic Builder b(long b) {\n"
+                                + "+ \t\t\tthis.b = b;\n"
+                                + "+ \t\t\treturn this;\n"
+                                + "+ \t\t}\n"
+                                + "+\n"
+                                + "+ \t\tpublic Builder c(String c) {\n"
+                                + "+ \t\t\tthis.c = c;\n"
+                                + "+ \t\t\treturn this;\n"
+                                + "+ \t\t}\n"
+                                + "+\n"
+                                + "+ \t\tpublic Builder d(char d) {\n"
+                                + "+ \t\t\tthis.d = d;\n"
+                                + "+ \t\t\treturn this;\n"
+                                + "+ \t\t}\n"
+                                + "+\n"
+                                + "+ \t\tpublic OverloadedTestObject build() {\n"
+                                + "+ \t\t\treturn new OverloadedTestObject(this);\n"
+                                + "+ \t\t}\n"
+                                + "+\n"
+                                + "+ \t}\n"
+                                + "+\n"
+                                + "@@ -11 +49\n"
+                                + "-   OverloadedTestObject first = new OverloadedTestObject(1, 2L, \"c\");\n"
+                                + "-   OverloadedTestObject second = new OverloadedTestObject(3, 4L, \"c\", 'd');\n"
+                                + "+   OverloadedTestObject first = new OverloadedTestObject.Builder().a(1).b(2L).c(\"c\").build();\n"
+                                + "+   OverloadedTestObject second = new OverloadedTestObject.Builder().a(3).b(4L).c(\"c\").d('d').build();\n");
+    }
+
+    public void testGeneratedSourcesAreSkipped() throws Exception {
+        @Language("JAVA") final String SOURCE = ""
+            + "package test.pkg;\n"
+            + "import javax.annotation.Generated;\n"
+            + "@Generated(\"com.google.auto.value.processor.AutoValueProcessor\")\n"
+            + "final class GeneratedTestObject {\n"
+            + "  GeneratedTestObject(int a, long b, boolean c, boolean d) {\n"
+            + "  }\n"
+            + "}";
+
+        lint()
+            .files(java(SOURCE))
+            .run()
+            .expect("No warnings.");
+    }
+
+    public void testOnlyConstructorsAreChecked() throws Exception {
+        @Language("JAVA") final String SOURCE = ""
+            + "package test.pkg;\n"
+            + "public class MethodsTestObject {\n"
+            + "  public void method(int a, long b, boolean c) {\n"
+            + "  }\n"
+            + "  interface Callback {\n"
+            + "    void call(int a, long b, boolean c);\n"
+            + "  }\n"
+            + "  @interface Marker {\n"
+            + "  }\n"
+            + "  private final Runnable runnable = new Runnable() {\n"
+            + "    public void run() {\n"
+            + "    }\n"
+            + "  };\n"
+            + "}";
+
+        lint()
+            .files(java(SOURCE))
+            .run()
+            .expect("No warnings.")
+            .expectFixDiffs("");
+    }
+
+    public void testBooleanParametersConstructor() throws Exception {
+        @Language("JAVA") final String SOURCE = ""
+            + "package test.pkg;\n"
+            + "public class FlagsTestObject {\n"
+            + "  public FlagsTestObject(boolean visible, Boolean enabled) {\n"
+            + "  }\n"
+            + "  public FlagsTestObject(boolean visible) {\n"
+            + "  }\n"
+            + "}";
+
+        lint()
+            .files(java(SOURCE))
+            .run()
+            .expect("src/test/pkg/FlagsTestObject.java:3: Warning: Constructor has several boolean parameters. [BooleanParametersConstructor]\n" +
+                        "  public FlagsTestObject(boolean visible, Boolean enabled) {\n" +
+                        "  ^\n" +
+                        "0 errors, 1 warnings\n")
+            .expectFixDiffs("");
+    }
+
+    public void testTelescopingConstructors() throws Exception {
+        @Language("JAVA") final String SOURCE = ""
+            + "package test.pkg;\n"
+            + "public class TelescopingTestObject {\n"
+            + "  public TelescopingTestObject() {\n"
+            + "    this(0);\n"
+            + "  }\n"
+            + "  public TelescopingTestObject(int a) {\n"
+            + "    this(a, 0L);\n"
+            + "  }\n"
+            + "  public TelescopingTestObject(int a, long b) {\n"
+            + "  }\n"
+            + "}";
+
+        lint()
+            .files(java(SOURCE))
+            .run()
+            .expect("src/test/pkg/TelescopingTestObject.java:9: Warning: Constructor ends a telescoping constructor chain. [TelescopingConstructor]\n" +
+                        "  public TelescopingTestObject(int a, long b) {\n" +
+                        "  ^\n" +
+                        "0 errors, 1 warnings\n")
+            .expectFixDiffs("");
+    }
+
+    public void testManyTelescopingOverloads() throws Exception {
+        final long start = System.nanoTime();
+        lint()
+            .files(java(SyntheticSources.telescopingJavaClass("TelescopingModel", TELESCOPING_OVERLOADS)))
+            .issues(JavaConstructorDetector.TELESCOPING_ISSUE)
+            .run()
+            .expectWarningCount(1);
+        final long elapsedMillis = (System.nanoTime() - start) / 1000000;
+
+        assertTrue("Took " + elapsedMillis + " ms", elapsedMillis < TELESCOPING_TIME_BUDGET_MILLIS);
+    }
+
+    public void testCallSitesDoNotChangeIncidents() throws Exception {
+        @Language("JAVA") final String SOURCE = ""
+            + "package test.pkg;\n"
+            + "public class CalledTestObject {\n"
+            + "  public CalledTestObject(int a, long b, String c) {\n"
+            + "  }\n"
+            + "}\n"
+            + "class Caller {\n"
+            + "  CalledTestObject first = new CalledTestObject(1, 2L, \"c\");\n"
+            + "  CalledTestObject second = new CalledTestObject(3, 4L, String.valueOf(5));\n"
+            + "}";
+
+        JavaConstructorDetector.settings = new DetectorSettings().migrateCallSites(true);
+
+        lint()
+            .files(java(SOURCE))
+            .run()
+            .expect("src/test/pkg/CalledTestObject.java:3: Warning: Constructor has too many parameters. [TooManyParametersConstructor]\n" +
+                        "  public CalledTestObject(int a, long b, String c) {\n" +
+                        "  ^\n" +
+                        "0 errors, 1 warnings\n")
+            .expectFixDiffs(""
+                                + "Fix for src/test/pkg/CalledTestObject.java line 2: Replace with builder and migrate call sites:\n"
+                                + "@@ -3 +3\n"
+                                + "-   public CalledTestObject(int a, long b, String c) {\n"
+                                + "-   }\n"
+                                + "+   private CalledTestObject(Builder builder) {\n"
+                                + "+ \t\tthis.a = builder.a;\n"
+                                + "+ \t\tthis.b = builder.b;\n"
+                                + "+ \t\tthis.c = builder.c;\n"
+                                + "+ \t}\n"
+                                + "+\n"
+                                + "+ \tpublic static class Builder {\n"
+                                + "+ \t\tprivate int a;\n"
+                                + "+ \t\tprivate long b;\n"
+                                + "+ \t\tprivate String c;\n"
+                                + "+\n"
+                                + "+ \t\tpublic Builder() {\n"
+                                + "+ \t\t}\n"
+                                + "+\n"
+                                + "+ \t\tpublic Builder a(int a) {\n"
+                                + "+ \t\t\tthis.a = a;\n"
+                                + "+ \t\t\treturn this;\n"
+                                + "+ \t\t}\n"
+                                + "+\n"
+                                + "+ \t\tpublic Builder b(long b) {\n"
+                                + "+ \t\t\tthis.b = b;\n"
+                                + "+ \t\t\treturn this;\n"
+                                + "+ \t\t}\n"
+                                + "+\n"
+                                + "+ \t\tpublic Builder c(String c) {\n"
+                                + "+ \t\t\tthis.c = c;\n"
+                                + "+ \t\t\treturn this;\n"
+                                + "+ \t\t}\n"
+                                + "+\n"
+                                + "+ \t\tpublic CalledTestObject build() {\n"
+                                + "+ \t\t\treturn new CalledTestObject(this);\n"
+                                + "+ \t\t}\n"
+                                + "+\n"
+                                + "+ \t}\n"
+                                + "+\n"
+                                + "@@ -7 +40\n"
+                                + "-   CalledTestObject first = new CalledTestObject(1, 2L, \"c\");\n"
+                                + "-   CalledTestObject second = new CalledTestObject(3, 4L, String.valueOf(5));\n"
+                                + "+   CalledTestObject first = new CalledTestObject.Builder().a(1).b(2L).c(\"c\").build();\n"
+                                + "+   CalledTestObject second = new CalledTestObject.Builder().a(3).b(4L).c(String.valueOf(5)).build();\n");
+    }
+
+    public void testDelegatingConstructorsAreMigrated() throws Exception {
         @Language("JAVA") final String SOURCE = ""
             + "package test.pkg;\n"
-            + "public class ThreeParametersConstructorTestObject {\n"
-            + "\tpublic ThreeParametersConstructorTestObject(int a, long b, boolean c) {\n"
-            + "\t}\n"
+            + "public class DelegatingTestObject {\n"
+            + "  public DelegatingTestObject(int a, long b, String c) {\n"
+            + "  }\n"
+            + "  public DelegatingTestObject(int a) {\n"
+            + "    this(a, 2L, \"c\");\n"
+            + "  }\n"
             + "}";
 
+        JavaConstructorDetector.settings = new DetectorSettings().migrateCallSites(true);
+
         lint()
             .files(java(SOURCE))
             .run()
-            .expect("src/test/pkg/ThreeParametersConstructorTestObject.java:3: Warning: Constructor has too many parameters. [TooManyParametersConstructor]\n" +
-                        // warning line doesn't contain any tabs before the actual text. so the expected warning should be "SPACE" + line
-                        " public ThreeParametersConstructorTestObject(int a, long b, boolean c) {\n" +
-                        " ^\n" +
+            .expect("src/test/pkg/DelegatingTestObject.java:3: Warning: Constructor has too many parameters. [TooManyParametersConstructor]\n" +
+                        "  public DelegatingTestObject(int a, long b, String c) {\n" +
+                        "  ^\n" +
                         "0 errors, 1 warnings\n")
             .expectFixDiffs(""
-                                + "Fix for src/test/pkg/ThreeParametersConstructorTestObject.java line 2: Replace with "
-                                + "private ThreeParametersConstructorTestObject(Builder builder) {\n"
-                                + "\t\tthis.a = builder.a;\n"
-                                + "\t\tthis.b = builder.b;\n"
-                                + "\t\tthis.c = builder.c;\n"
-                                + "\t}\n"
-                                + "\n"
-                                + "\tpublic static class Builder {\n"
-                                + "\t\tprivate int a;\n"
-                                + "\t\tprivate long b;\n"
-                                + "\t\tprivate boolean c;\n"
-                                + "\n"
-                                + "\t\tpublic Builder() {\n"
-                                + "\t\t}\n"
-                                + "\n"
-                                + "\t\tpublic Builder a(int a) {\n"
-                                + "\t\t\tthis.a = a;\n"
-                                + "\t\t\treturn this;\n"
-                                + "\t\t}\n"
-                                + "\n"
-                                + "\t\tpublic Builder b(long b) {\n"
-                                + "\t\t\tthis.b = b;\n"
-                                + "\t\t\treturn this;\n"
-                                + "\t\t}\n"
-                                + "\n"
-                                + "\t\tpublic Builder c(boolean c) {\n"
-                                + "\t\t\tthis.c = c;\n"
-                                + "\t\t\treturn this;\n"
-                                + "\t\t}\n"
-                                + "\n"
-                                + "\t\tpublic ThreeParametersConstructorTestObject build() {\n"
-                                + "\t\t\treturn new ThreeParametersConstructorTestObject(this);\n"
-                                + "\t\t}\n"
-                                + "\n"
-                                + "\t}\n"
-                                + ":\n"
+                                + "Fix for src/test/pkg/DelegatingTestObject.java line 2: Replace with builder and migrate call sites:\n"
                                 + "@@ -3 +3\n"
-                                + "- \tpublic ThreeParametersConstructorTestObject(int a, long b, boolean c) {\n"
-                                + "+ \tprivate ThreeParametersConstructorTestObject(Builder builder) {\n"
+                                + "-   public DelegatingTestObject(int a, long b, String c) {\n"
+                                + "-   }\n"
+                                + "+   private DelegatingTestObject(Builder builder) {\n"
                                 + "+ \t\tthis.a = builder.a;\n"
                                 + "+ \t\tthis.b = builder.b;\n"
                                 + "+ \t\tthis.c = builder.c;\n"
-                                + "@@ -5 +8\n"
+                                + "+ \t}\n"
                                 + "+\n"
                                 + "+ \tpublic static class Builder {\n"
                                 + "+ \t\tprivate int a;\n"
                                 + "+ \t\tprivate long b;\n"
-                                + "+ \t\tprivate boolean c;\n"
+                                + "+ \t\tprivate String c;\n"
                                 + "+\n"
                                 + "+ \t\tpublic Builder() {\n"
                                 + "+ \t\t}\n"
@@ -120,17 +563,168 @@ public class JavaConstructorDetectorTest extends LintDetectorTest {
                                 + "+ \t\t\treturn this;\n"
                                 + "+ \t\t}\n"
                                 + "+\n"
-                                + "+ \t\tpublic Builder c(boolean c) {\n"
+                                + "+ \t\tpublic Builder c(String c) {\n"
                                 + "+ \t\t\tthis.c = c;\n"
                                 + "+ \t\t\treturn this;\n"
                                 + "+ \t\t}\n"
                                 + "+\n"
-                                + "+ \t\tpublic ThreeParametersConstructorTestObject build() {\n"
-                                + "+ \t\t\treturn new ThreeParametersConstructorTestObject(this);\n"
+                                + "+ \t\tpublic DelegatingTestObject build() {\n"
+                                + "+ \t\t\treturn new DelegatingTestObject(this);\n"
                                 + "+ \t\t}\n"
                                 + "+\n"
                                 + "+ \t}\n"
-                                + "+\n");
+                                + "+\n"
+                                + "@@ -6 +39\n"
+                                + "-     this(a, 2L, \"c\");\n"
+                                + "+     this(new Builder().a(a).b(2L).c(\"c\"));\n");
+    }
+
+    public void testSubclassedConstructorsGetNoFix() throws Exception {
+        @Language("JAVA") final String SOURCE = ""
+            + "package test.pkg;\n"
+            + "public class SubclassedTestObject {\n"
+            + "  public SubclassedTestObject(int a, long b, String c) {\n"
+            + "  }\n"
+            + "}\n"
+            + "class SubTestObject extends SubclassedTestObject {\n"
+            + "  SubTestObject() {\n"
+            + "    super(1, 2L, \"c\");\n"
+            + "  }\n"
+            + "}";
+
+        JavaConstructorDetector.settings = new DetectorSettings().migrateCallSites(true);
+
+        // The builder constructor would be private, out of reach of super(...)
+        lint()
+            .files(java(SOURCE))
+            .run()
+            .expect("src/test/pkg/SubclassedTestObject.java:3: Warning: Constructor has too many parameters. [TooManyParametersConstructor]\n" +
+                        "  public SubclassedTestObject(int a, long b, String c) {\n" +
+                        "  ^\n" +
+                        "0 errors, 1 warnings\n")
+            .expectFixDiffs("");
+    }
+
+    public void testLazyAndNoneBuildNoFixWhenMigrating() throws Exception {
+        @Language("JAVA") final String SOURCE = ""
+            + "package test.pkg;\n"
+            + "public class ReportedTestObject {\n"
+            + "  public ReportedTestObject(int a, long b, String c) {\n"
+            + "  }\n"
+            + "}\n"
+            + "class SuppressedTestObject {\n"
+            + "  @SuppressWarnings(\"TooManyParametersConstructor\")\n"
+            + "  SuppressedTestObject(int a, long b, String c) {\n"
+            + "  }\n"
+            + "}";
+        final String expected = ""
+            + "src/test/pkg/ReportedTestObject.java:3: Warning: Constructor has too many parameters. [TooManyParametersConstructor]\n"
+            + "  public ReportedTestObject(int a, long b, String c) {\n"
+            + "  ^\n"
+            + "0 errors, 1 warnings\n";
+
+        // the suppressed constructor never gets a fix built, held back or not
+        final File lazyMetrics = Files.createTempDirectory("lazy").toFile();
+        JavaConstructorDetector.settings = new DetectorSettings().migrateCallSites(true)
+                                                                 .metricsDirectory(lazyMetrics.getPath());
+        lint()
+            .files(java(SOURCE))
+            .run()
+            .expect(expected);
+        assertEquals(1, getMetric(lazyMetrics, "builder_fixes_built_total"));
+
+        final File noneMetrics = Files.createTempDirectory("none").toFile();
+        JavaConstructorDetector.settings = new DetectorSettings().fixMode(BuilderFixMode.NONE)
+                                                                 .migrateCallSites(true)
+                                                                 .metricsDirectory(noneMetrics.getPath());
+        lint()
+            .files(java(SOURCE))
+            .run()
+            .expect(expected)
+            .expectFixDiffs("");
+        assertEquals(0, getMetric(noneMetrics, "builder_fixes_built_total"));
+    }
+
+    public void testOverloadsWithOwnBodiesKeepOwnFixes() throws Exception {
+        final File module = Files.createTempDirectory("module").toFile();
+        SyntheticSources.write(new File(module, "build.gradle"), "apply plugin: 'java'\n");
+        SyntheticSources.write(new File(module, "src/main/java/test/pkg/OwnBodiesTestObject.java"), ""
+            + "package test.pkg;\n"
+            + "public class OwnBodiesTestObject {\n"
+            + "  private int a;\n"
+            + "  private long b;\n"
+            + "  private String c;\n"
+            + "  private char d;\n"
+            + "  public OwnBodiesTestObject(int a, long b, String c) {\n"
+            + "    this.c = c.trim();\n"
+            + "  }\n"
+            + "  public OwnBodiesTestObject(int a, long b, String c, char d) {\n"
+            + "    this.d = d;\n"
+            + "  }\n"
+            + "}\n");
+
+        // one builder could only keep the work of one of the bodies
+        final List<LintIncident> incidents =
+            new ArrayList<>(CustomLintRunner.analyze(module, new CustomLintRunner.Options()).incidents);
+        Collections.sort(incidents);
+        assertEquals(2, incidents.size());
+        assertFalse(incidents.get(0).getFixText(), incidents.get(0).getFixText().contains("this.d = builder.d;"));
+        assertTrue(incidents.get(1).getFixText(), incidents.get(1).getFixText().contains("this.d = builder.d;"));
+    }
+
+    public void testSuppressedConstructorsAreNotRecorded() throws Exception {
+        @Language("JAVA") final String SOURCE = ""
+            + "package test.pkg;\n"
+            + "import java.util.Map;\n"
+            + "public class RecordedTestObject {\n"
+            + "  public RecordedTestObject(int a, long b, Map<String,Integer> c) {\n"
+            + "  }\n"
+            + "}\n"
+            + "class SuppressedTestObject {\n"
+            + "  @SuppressWarnings(\"TooManyParametersConstructor\")\n"
+            + "  SuppressedTestObject(int a, long b, String c) {\n"
+            + "  }\n"
+            + "}";
+        @Language("JAVA") final String REFORMATTED = SOURCE.replace("Map<String,Integer>", "java.util.Map<String, Integer>");
+
+        final File baselineFile = new File(Files.createTempDirectory("baseline").toFile(), "constructors.bin");
+        JavaConstructorDetector.settings = new DetectorSettings().baselineFile(baselineFile);
+        lint()
+            .files(java(SOURCE))
+            .run()
+            .expectWarningCount(1);
+        assertEquals(1, ConstructorBaseline.load(baselineFile).size());
+
+        // the recorded constructor stays known when its types are written differently
+        lint()
+            .files(java(REFORMATTED))
+            .run()
+            .expect("No warnings.");
+    }
+
+    public void testStripTypeArguments() throws Exception {
+        assertEquals("Foo", JavaConstructorDetector.stripTypeArguments("Foo"));
+        assertEquals("Foo", JavaConstructorDetector.stripTypeArguments("Foo<>"));
+        assertEquals("pkg.Foo", JavaConstructorDetector.stripTypeArguments("pkg.Foo<Map<String, Integer>>"));
+        assertEquals("Outer.Inner", JavaConstructorDetector.stripTypeArguments("Outer<T>.Inner<U>"));
+    }
+
+    /** Reads a counter of the {@link DetectorMetrics} a run wrote under {@code directory}. */
+    private static long getMetric(final File directory, final String name) throws IOException {
+        final File[] runs = directory.listFiles();
+        assertNotNull(runs);
+        assertEquals(1, runs.length);
+        final String json = new String(Files.readAllBytes(new File(runs[0], DetectorMetrics.JSON_FILE_NAME).toPath()),
+                                       StandardCharsets.UTF_8);
+        final Matcher matcher = Pattern.compile("\"" + name + "\": (\\d+)").matcher(json);
+        assertTrue(name, matcher.find());
+        return Long.parseLong(matcher.group(1));
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        JavaConstructorDetector.settings = DetectorSettings.fromEnvironment();
+        super.tearDown();
     }
 
     @Override
@@ -140,7 +734,9 @@ public class JavaConstructorDetectorTest extends LintDetectorTest {
 
     @Override
     protected List<Issue> getIssues() {
-        return Collections.singletonList(JavaConstructorDetector.TOO_MANY_PARAMETERS_ISSUE);
+        return Arrays.asList(JavaConstructorDetector.TOO_MANY_PARAMETERS_ISSUE,
+                             JavaConstructorDetector.BOOLEAN_PARAMETERS_ISSUE,
+                             JavaConstructorDetector.TELESCOPING_ISSUE);
     }
 
     @Override
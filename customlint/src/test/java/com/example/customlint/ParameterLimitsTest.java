@@ -0,0 +1,90 @@
+package com.example.customlint;
+
+import java.io.StringReader;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ParameterLimitsTest {
+    private static final String RULES = ""
+        + "# dependency injection modules take many collaborators\n"
+        + "com.example.di.** = 8\n"
+        + "com.example.di.legacy.** = 12\n"
+        + "com.example.model.* = 4\n"
+        + "com.example.model.Order = 6 # checked separately\n"
+        + "com.example.bad = many\n"
+        + "com.example.zero = 0\n"
+        + "not a rule\n";
+
+    @Test
+    public void testLookup() throws Exception {
+        final ParameterLimits limits = ParameterLimits.parse(new StringReader(RULES), 2);
+
+        assertEquals(2, limits.getLimit("com.example.Foo"));
+        assertEquals(2, limits.getLimit(null));
+        assertEquals(8, limits.getLimit("com.example.di.AppModule"));
+        assertEquals(8, limits.getLimit("com.example.di.network.NetworkModule"));
+        assertEquals(12, limits.getLimit("com.example.di.legacy.OldModule"));
+        assertEquals(4, limits.getLimit("com.example.model.User"));
+        assertEquals(2, limits.getLimit("com.example.model.nested.Address"));
+        assertEquals(6, limits.getLimit("com.example.model.Order"));
+        assertEquals(2, limits.getLimit("com.example.bad"));
+        assertEquals(2, limits.getLimit("com.example.zero"));
+    }
+
+    @Test
+    public void testMinimumLimit() throws Exception {
+        assertEquals(2, ParameterLimits.parse(new StringReader(RULES), 2).getMinimumLimit());
+        assertEquals(1, ParameterLimits.parse(new StringReader("com.example.Tiny = 1\n"), 2).getMinimumLimit());
+    }
+
+    @Test
+    public void testRootRules() throws Exception {
+        final ParameterLimits limits = ParameterLimits.parse(new StringReader("** = 5\n* = 3\n"), 2);
+
+        assertEquals(3, limits.getLimit("DefaultPackageClass"));
+        assertEquals(5, limits.getLimit("com.example.Foo"));
+    }
+
+    @Test
+    public void testManySiblings() throws Exception {
+        final StringBuilder rules = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            rules.append("com.example.p").append(i).append(".** = ").append(i + 3).append('\n');
+        }
+        final ParameterLimits limits = ParameterLimits.parse(new StringReader(rules.toString()), 2);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i + 3, limits.getLimit("com.example.p" + i + ".Foo"));
+        }
+        assertEquals(2, limits.getLimit("com.example.p100.Foo"));
+    }
+
+    @Test
+    public void testNestedClasses() throws Exception {
+        final ParameterLimits limits = ParameterLimits.parse(new StringReader(RULES
+            + "com.example.nested.** = 7\n"
+            + "com.example.model.Order.* = 5\n"), 2);
+
+        assertEquals(2, limits.getLimit("com.example.model.User.Address"));
+        assertEquals(5, limits.getLimit("com.example.model.Order.Item"));
+        assertEquals(8, limits.getLimit("com.example.di.AppModule.Factory"));
+        assertEquals(7, limits.getLimit("com.example.nested.Outer.Inner.Deepest"));
+    }
+
+    @Test
+    public void testUnsupportedPatternsAreIgnored() throws Exception {
+        final ParameterLimits limits = ParameterLimits.parse(new StringReader(""
+            + "com.*.Foo = 5\n"
+            + "com.example.Foo* = 5\n"
+            + "com.example.*** = 5\n"
+            + "com..example.* = 5\n"
+            + "com.example. = 5\n"), 2);
+
+        assertEquals(2, limits.getLimit("com.example.Foo"));
+        assertEquals(2, limits.getLimit("com.example.FooBar"));
+        assertEquals(2, limits.getLimit("com.example.Bar"));
+        assertEquals(2, limits.getLimit("com.example"));
+        assertEquals(2, limits.getMinimumLimit());
+    }
+}
@@ -0,0 +1,417 @@
+package com.example.customlint;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+/**
+ * Generates Java sources with a given number of constructors and parameters, used as corpora by the
+ * benchmarks and scale tests.
+ */
+final class SyntheticSources {
+    static final String PACKAGE_NAME = "test.pkg";
+
+    private static final String[] TYPES = {
+        "int", "long", "boolean", "double", "String", "Object", "char", "float"
+    };
+
+    private static final String MODEL_CONSTRUCTOR_INDENT = "    ";
+
+    private SyntheticSources() {
+    }
+
+    /** Name of the {@code index}-th generated class. */
+    static String className(final int index) {
+        return "Generated" + index;
+    }
+
+    /**
+     * Returns a class with up to {@code constructorCount} constructors of {@code parameterCount}
+     * parameters each. Overloads get distinct signatures by varying the parameter types, so
+     * small arities cap the number of constructors (a single one for zero parameters).
+     */
+    static String javaClass(final String className, final int constructorCount, final int parameterCount) {
+        final int count = Math.min(constructorCount, maxConstructors(parameterCount));
+        final StringBuilder source = new StringBuilder();
+        source.append("package ").append(PACKAGE_NAME).append(";\n");
+        source.append("public class ").append(className).append(" {\n");
+        for (int constructor = 0; constructor < count; constructor++) {
+            source.append("    public ").append(className).append('(');
+            int signature = constructor;
+            for (int parameter = 0; parameter < parameterCount; parameter++) {
+                if (parameter > 0) {
+                    source.append(", ");
+                }
+                source.append(TYPES[signature % TYPES.length]).append(" p").append(parameter);
+                signature /= TYPES.length;
+            }
+            source.append(") {\n");
+            source.append("    }\n");
+        }
+        source.append("}\n");
+        return source.toString();
+    }
+
+    /**
+     * Returns a class with a telescoping chain of {@code constructorCount} overloads: the
+     * {@code k}-th takes {@code k} {@code int} parameters and delegates to the next one through
+     * {@code this(...)}, the last one does not delegate.
+     */
+    static String telescopingJavaClass(final String className, final int constructorCount) {
+        final StringBuilder source = new StringBuilder();
+        source.append("package ").append(PACKAGE_NAME).append(";\n");
+        source.append("public class ").append(className).append(" {\n");
+        for (int constructor = 0; constructor < constructorCount; constructor++) {
+            source.append("    public ").append(className).append('(');
+            for (int parameter = 0; parameter < constructor; parameter++) {
+                if (parameter > 0) {
+                    source.append(", ");
+                }
+                source.append("int p").append(parameter);
+            }
+            source.append(") {\n");
+            if (constructor < constructorCount - 1) {
+                source.append("        this(");
+                for (int parameter = 0; parameter < constructor; parameter++) {
+                    source.append('p').append(parameter).append(", ");
+                }
+                source.append(constructor).append(");\n");
+            }
+            source.append("    }\n");
+        }
+        source.append("}\n");
+        return source.toString();
+    }
+
+    /**
+     * Returns a file of {@link #nestedClassCount(int, int)} classes, each with one constructor of
+     * {@code parameterCount} parameters and an anonymous class: the top-level class holds
+     * {@code width} static nested classes, each the head of a chain of {@code depth} classes
+     * nesting inner classes.
+     */
+    static String nestedJavaFile(final String className,
+                                 final int width,
+                                 final int depth,
+                                 final int parameterCount) {
+        final StringBuilder source = new StringBuilder();
+        source.append("package ").append(PACKAGE_NAME).append(";\n");
+        appendClassHead(source, 0, "public class", className, parameterCount);
+        for (int chain = 0; chain < width; chain++) {
+            for (int level = 1; level <= depth; level++) {
+                final String kind = level == 1 ? "public static class" : "public class";
+                appendClassHead(source, level, kind, "Nested" + chain + "x" + level, parameterCount);
+            }
+            for (int level = depth; level >= 1; level--) {
+                appendIndent(source, level).append("}\n");
+            }
+        }
+        source.append("}\n");
+        return source.toString();
+    }
+
+    /** Number of classes, anonymous ones aside, in a {@link #nestedJavaFile nested file}. */
+    static int nestedClassCount(final int width, final int depth) {
+        return 1 + width * depth;
+    }
+
+    private static void appendClassHead(final StringBuilder source,
+                                        final int level,
+                                        final String kind,
+                                        final String className,
+                                        final int parameterCount) {
+        appendIndent(source, level).append(kind).append(' ').append(className).append(" {\n");
+        appendIndent(source, level + 1).append("private final Runnable task = new Runnable() {\n");
+        appendIndent(source, level + 2).append("public void run() {\n");
+        appendIndent(source, level + 2).append("}\n");
+        appendIndent(source, level + 1).append("};\n");
+        appendIndent(source, level + 1).append("public ").append(className).append('(');
+        for (int parameter = 0; parameter < parameterCount; parameter++) {
+            if (parameter > 0) {
+                source.append(", ");
+            }
+            source.append(TYPES[parameter % TYPES.length]).append(" p").append(parameter);
+        }
+        source.append(") {\n");
+        appendIndent(source, level + 1).append("}\n");
+    }
+
+    private static StringBuilder appendIndent(final StringBuilder source, final int level) {
+        for (int i = 0; i < level; i++) {
+            source.append("    ");
+        }
+        return source;
+    }
+
+    /**
+     * Returns a class with a field per parameter, assigned by its single constructor, so that
+     * the class still compiles once the constructor is replaced by the builder fix.
+     */
+    static String modelJavaClass(final String className, final int parameterCount) {
+        final String[] names = parameterNames(parameterCount);
+        final String[] types = parameterTypes(parameterCount);
+        final StringBuilder source = new StringBuilder();
+        source.append("package ").append(PACKAGE_NAME).append(";\n");
+        source.append("public class ").append(className).append(" {\n");
+        for (int i = 0; i < parameterCount; i++) {
+            source.append("    private final ").append(types[i]).append(' ').append(names[i]).append(";\n");
+        }
+        source.append(MODEL_CONSTRUCTOR_INDENT).append("public ").append(className).append('(');
+        for (int i = 0; i < parameterCount; i++) {
+            if (i > 0) {
+                source.append(", ");
+            }
+            source.append(types[i]).append(' ').append(names[i]);
+        }
+        source.append(") {\n");
+        for (int i = 0; i < parameterCount; i++) {
+            source.append("        this.").append(names[i]).append(" = ").append(names[i]).append(";\n");
+        }
+        source.append(MODEL_CONSTRUCTOR_INDENT).append("}\n");
+        source.append("}\n");
+        return source.toString();
+    }
+
+    /**
+     * The builder fix {@link JavaConstructorDetector} reports for the constructor of a
+     * {@link #modelJavaClass model class} written to {@code file}, computed without lint.
+     */
+    static SourceEdit modelBuilderEdit(final File file, final String className, final int parameterCount) {
+        final String source = modelJavaClass(className, parameterCount);
+        final int start = source.indexOf("public " + className + "(");
+        final int end = source.indexOf(MODEL_CONSTRUCTOR_INDENT + "}\n", start) + MODEL_CONSTRUCTOR_INDENT.length() + 1;
+        final String newText = BuilderTemplate.forIndent(BuilderTemplate.DEFAULT_INDENT)
+            .render(className, parameterNames(parameterCount), parameterTypes(parameterCount));
+        return new SourceEdit(file.getPath(), start, end, source.substring(start, end), newText);
+    }
+
+    /**
+     * Writes {@code fileCount} {@link #modelJavaClass model classes} below {@code sourceRoot}.
+     *
+     * @return the builder fix edits of their constructors
+     */
+    static List<SourceEdit> writeModelTree(final File sourceRoot,
+                                           final int fileCount,
+                                           final int parameterCount) throws IOException {
+        final File packageDir = new File(sourceRoot, PACKAGE_NAME.replace('.', '/'));
+        final List<SourceEdit> edits = new ArrayList<>(fileCount);
+        for (int i = 0; i < fileCount; i++) {
+            final String className = className(i);
+            final File file = new File(packageDir, className + ".java");
+            write(file, modelJavaClass(className, parameterCount));
+            edits.add(modelBuilderEdit(file, className, parameterCount));
+        }
+        return edits;
+    }
+
+    /**
+     * Returns a file mixing declarations the detector must skip (interface, enum, annotation
+     * type, anonymous class, plain methods) with a single constructor of {@code parameterCount}
+     * parameters, resembling an average source file more than {@link #javaClass} does.
+     */
+    static String mixedJavaFile(final String className, final int parameterCount) {
+        final StringBuilder parameters = new StringBuilder();
+        for (int parameter = 0; parameter < parameterCount; parameter++) {
+            if (parameter > 0) {
+                parameters.append(", ");
+            }
+            parameters.append(TYPES[parameter % TYPES.length]).append(" p").append(parameter);
+        }
+
+        return "package " + PACKAGE_NAME + ";\n"
+            + "public class " + className + " {\n"
+            + "    interface Listener {\n"
+            + "        void onEvent(" + parameters + ");\n"
+            + "    }\n"
+            + "    enum State {\n"
+            + "        IDLE, RUNNING\n"
+            + "    }\n"
+            + "    @interface Marker {\n"
+            + "        String value();\n"
+            + "    }\n"
+            + "    private final Runnable task = new Runnable() {\n"
+            + "        public void run() {\n"
+            + "        }\n"
+            + "    };\n"
+            + "    public " + className + "(" + parameters + ") {\n"
+            + "    }\n"
+            + "    public void update(" + parameters + ") {\n"
+            + "    }\n"
+            + "    public int size() {\n"
+            + "        return 0;\n"
+            + "    }\n"
+            + "}\n";
+    }
+
+    /**
+     * Writes {@code moduleCount} modules under {@code root}, each with a {@code build.gradle}
+     * and {@code filesPerModule} {@link #mixedJavaFile mixed} sources in {@code src/main/java}.
+     *
+     * @return the module directories
+     */
+    static List<File> writeModules(final File root,
+                                   final int moduleCount,
+                                   final int filesPerModule,
+                                   final int parameterCount) throws IOException {
+        final List<File> modules = new ArrayList<>(moduleCount);
+        for (int module = 0; module < moduleCount; module++) {
+            final File moduleDir = new File(root, "module" + module);
+            write(new File(moduleDir, "build.gradle"), "apply plugin: 'java'\n");
+            final File packageDir = new File(moduleDir, "src/main/java/" + PACKAGE_NAME.replace('.', '/'));
+            for (int file = 0; file < filesPerModule; file++) {
+                final String className = className(file);
+                write(new File(packageDir, className + ".java"), mixedJavaFile(className, parameterCount));
+            }
+            modules.add(moduleDir);
+        }
+        return modules;
+    }
+
+    /**
+     * Returns a value class in the style of annotation processor output: fields, a constructor
+     * taking all of them and their getters, marked as generated when {@code annotated}.
+     */
+    static String generatedJavaClass(final String className, final int parameterCount, final boolean annotated) {
+        final StringBuilder source = new StringBuilder();
+        source.append("package ").append(PACKAGE_NAME).append(";\n");
+        if (annotated) {
+            source.append("@javax.annotation.Generated(\"SyntheticSources\")\n");
+        }
+        source.append("final class ").append(className).append(" {\n");
+        for (int parameter = 0; parameter < parameterCount; parameter++) {
+            source.append("    private final ").append(TYPES[parameter % TYPES.length]).append(" p").append(parameter).append(";\n");
+        }
+        source.append("    ").append(className).append('(');
+        for (int parameter = 0; parameter < parameterCount; parameter++) {
+            if (parameter > 0) {
+                source.append(", ");
+            }
+            source.append(TYPES[parameter % TYPES.length]).append(" p").append(parameter);
+        }
+        source.append(") {\n");
+        for (int parameter = 0; parameter < parameterCount; parameter++) {
+            source.append("        this.p").append(parameter).append(" = p").append(parameter).append(";\n");
+        }
+        source.append("    }\n");
+        for (int parameter = 0; parameter < parameterCount; parameter++) {
+            source.append("    ").append(TYPES[parameter % TYPES.length]).append(" getP").append(parameter).append("() {\n");
+            source.append("        return p").append(parameter).append(";\n");
+            source.append("    }\n");
+        }
+        source.append("}\n");
+        return source.toString();
+    }
+
+    /**
+     * Adds {@code fileCount} {@link #generatedJavaClass generated classes} to the
+     * {@code src/main/java} sources of {@code module}.
+     */
+    static void writeGeneratedSources(final File module,
+                                      final int fileCount,
+                                      final int parameterCount,
+                                      final boolean annotated) throws IOException {
+        final File packageDir = new File(module, "src/main/java/" + PACKAGE_NAME.replace('.', '/'));
+        for (int i = 0; i < fileCount; i++) {
+            final String className = className(i) + "Value";
+            write(new File(packageDir, className + ".java"), generatedJavaClass(className, parameterCount, annotated));
+        }
+    }
+
+    /**
+     * Runs git in {@code directory} as a fixed test identity, so fixtures do not depend on the
+     * user's git configuration; fails on a non-zero exit.
+     */
+    static void git(final File directory, final String... arguments) throws IOException, InterruptedException {
+        final List<String> command = new ArrayList<>();
+        command.add("git");
+        command.add("-c");
+        command.add("user.name=SyntheticSources");
+        command.add("-c");
+        command.add("user.email=synthetic@example.com");
+        command.add("-c");
+        command.add("commit.gpgsign=false");
+        command.addAll(Arrays.asList(arguments));
+        final Process process = new ProcessBuilder(command)
+            .directory(directory)
+            .redirectErrorStream(true)
+            .redirectOutput(ProcessBuilder.Redirect.INHERIT)
+            .start();
+        if (process.waitFor() != 0) {
+            throw new IOException("git " + arguments[0] + " failed in " + directory);
+        }
+    }
+
+    /** Makes {@code directory} a git repository whose single commit holds all its files. */
+    static void commitAll(final File directory) throws IOException, InterruptedException {
+        git(directory, "init", "-q");
+        git(directory, "add", "-A");
+        git(directory, "commit", "-q", "-m", "Base");
+    }
+
+    /**
+     * Compiles {@code files} into {@code classes} with the system compiler and extra javac
+     * {@code options}, annotation processing off; returns whether compilation succeeded.
+     */
+    static boolean compile(final List<File> files,
+                           final File classes,
+                           final DiagnosticCollector<JavaFileObject> diagnostics,
+                           final String... options) throws IOException {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IOException("Compiling needs a JDK");
+        }
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, Locale.US, null)) {
+            final List<String> arguments = new ArrayList<>(Arrays.asList("-proc:none", "-d", classes.getPath()));
+            arguments.addAll(Arrays.asList(options));
+            return compiler.getTask(null, fileManager, diagnostics, arguments, null,
+                                    fileManager.getJavaFileObjectsFromFiles(files)).call();
+        }
+    }
+
+    static void write(final File file, final String contents) throws IOException {
+        final File parent = file.getParentFile();
+        if (!parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Cannot create " + parent);
+        }
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            writer.write(contents);
+        }
+    }
+
+    /** Parameter names {@code p0 .. p(n-1)}. */
+    static String[] parameterNames(final int parameterCount) {
+        final String[] names = new String[parameterCount];
+        for (int i = 0; i < parameterCount; i++) {
+            names[i] = "p" + i;
+        }
+        return names;
+    }
+
+    /** Parameter types cycling through the generator's type list. */
+    static String[] parameterTypes(final int parameterCount) {
+        final String[] types = new String[parameterCount];
+        for (int i = 0; i < parameterCount; i++) {
+            types[i] = TYPES[i % TYPES.length];
+        }
+        return types;
+    }
+
+    private static int maxConstructors(final int parameterCount) {
+        int max = 1;
+        for (int i = 0; i < parameterCount && max < Integer.MAX_VALUE / TYPES.length; i++) {
+            max *= TYPES.length;
+        }
+        return max;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.customlint;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class TypeTextCacheTest {
+
+    @Test
+    public void testHitRate() throws Exception {
+        final TypeTextCache cache = new TypeTextCache(16);
+        assertEquals(0, cache.getHitRate(), 0);
+
+        assertNull(cache.get("java.util.List<Foo>"));
+        cache.put("java.util.List<Foo>", "List<Foo>");
+        assertEquals("List<Foo>", cache.get("java.util.List<Foo>"));
+        assertEquals("List<Foo>", cache.get("java.util.List<Foo>"));
+
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(2.0 / 3, cache.getHitRate(), 1e-9);
+    }
+
+    @Test
+    public void testBounded() throws Exception {
+        final TypeTextCache cache = new TypeTextCache(2);
+        cache.put("int", "int");
+        cache.put("long", "long");
+        cache.put("String", "String");
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get("String"));
+    }
+
+    @Test
+    public void testClear() throws Exception {
+        final TypeTextCache cache = new TypeTextCache(2);
+        cache.put("int", "int");
+        cache.get("int");
+        cache.clear();
+
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHits());
+        assertEquals(0, cache.getMisses());
+    }
+}